@@ -0,0 +1,333 @@
+package org.example;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Spliterator;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Agregações de preço ({@code somaPrecos}, {@code mediaPreco}, {@code histogramaPrecos}, {@code contar}) feitas
+ * em paralelo no {@link java.util.concurrent.ForkJoinPool} comum.
+ * <p>
+ * O catálogo é dividido pelo spliterator do DAO (ou por faixas de posições, nos DAOs com arrays) até sobrarem
+ * tarefas de poucos milhares de produtos. Cada tarefa soma em {@code long}, em centavos; preços com mais de 2
+ * casas ou grandes demais para o long, e as parciais que estourariam, vão para um {@link BigDecimal}. As
+ * parciais das tarefas são juntadas em BigDecimal, então o resultado é exato.
+ */
+final class AgregacaoPrecos {
+    // Produtos por tarefa abaixo do qual não vale mais a pena dividir: o custo de criar a tarefa passaria o da soma.
+    static final int LIMIAR = 8_192;
+    static final int ESCALA_CENTAVOS = Dinheiro.ESCALA;
+    // Marca "não cabe em long nesta escala"; nunca é um valor válido, já que os valores ficam abaixo de 10^18.
+    private static final long FORA = Dinheiro.FORA;
+
+    private AgregacaoPrecos() {
+    }
+
+    /** Soma, quantidade, menor e maior preço e maior escala dos preços de uma parte do catálogo. */
+    record Resumo(BigDecimal soma, long comPreco, BigDecimal minimo, BigDecimal maximo, int escalaMaxima) {
+
+        BigDecimal media() {
+            return comPreco == 0 ? null : soma.divide(BigDecimal.valueOf(comPreco), MathContext.DECIMAL128);
+        }
+
+        Resumo juntar(Resumo outro) {
+            return new Resumo(soma.add(outro.soma), comPreco + outro.comPreco, menor(minimo, outro.minimo),
+                    maior(maximo, outro.maximo), Math.max(escalaMaxima, outro.escalaMaxima));
+        }
+    }
+
+    /** Acumula os preços de uma tarefa; não é thread-safe (cada tarefa tem o seu). */
+    static final class Acumulador implements Consumer<Produto> {
+        private long centavos;
+        private BigDecimal excedente = BigDecimal.ZERO;
+        private long comPreco;
+        private long minimoCentavos = Long.MAX_VALUE;
+        private long maximoCentavos = Long.MIN_VALUE;
+        // Menor e maior só entre os preços que não couberam em centavos.
+        private BigDecimal minimo;
+        private BigDecimal maximo;
+        private int escalaMaxima = Integer.MIN_VALUE;
+
+        @Override
+        public void accept(Produto produto) {
+            BigDecimal preco = produto.getPreco();
+            if (preco == null) {
+                return;
+            }
+            // Os centavos já vêm calculados no Produto: no caso comum, a soma não toca no BigDecimal.
+            long centavos = produto.getPrecoEmCentavos();
+            if (centavos != FORA) {
+                adicionarCentavos(centavos, preco.scale());
+            } else {
+                adicionar(preco);
+            }
+        }
+
+        void adicionar(BigDecimal preco) {
+            long emCentavos = Dinheiro.emUnidades(preco, ESCALA_CENTAVOS);
+            if (emCentavos != FORA) {
+                adicionarCentavos(emCentavos, preco.scale());
+                return;
+            }
+            comPreco++;
+            excedente = excedente.add(preco);
+            minimo = menor(minimo, preco);
+            maximo = maior(maximo, preco);
+            escalaMaxima = Math.max(escalaMaxima, preco.scale());
+        }
+
+        /** Soma um preço já em centavos; {@code escala} é a escala com que o preço foi informado. */
+        void adicionarCentavos(long preco, int escala) {
+            comPreco++;
+            long soma = centavos + preco;
+            // Estouro de long: descarrega a parcial no BigDecimal e recomeça.
+            if (((centavos ^ soma) & (preco ^ soma)) < 0) {
+                excedente = excedente.add(BigDecimal.valueOf(centavos, ESCALA_CENTAVOS));
+                soma = preco;
+            }
+            centavos = soma;
+            minimoCentavos = Math.min(minimoCentavos, preco);
+            maximoCentavos = Math.max(maximoCentavos, preco);
+            escalaMaxima = Math.max(escalaMaxima, escala);
+        }
+
+        Resumo resumo() {
+            BigDecimal soma = excedente.add(BigDecimal.valueOf(centavos, ESCALA_CENTAVOS));
+            boolean temCentavos = minimoCentavos <= maximoCentavos;
+            return new Resumo(soma, comPreco,
+                    menor(minimo, temCentavos ? BigDecimal.valueOf(minimoCentavos, ESCALA_CENTAVOS) : null),
+                    maior(maximo, temCentavos ? BigDecimal.valueOf(maximoCentavos, ESCALA_CENTAVOS) : null),
+                    escalaMaxima);
+        }
+    }
+
+    /**
+     * Divisão de {@code [minimo, maximo]} em faixas de mesma largura. A largura é arredondada para cima na maior
+     * escala dos preços; com preços que cabem em long nessa escala, o índice sai de uma divisão inteira.
+     */
+    static final class Faixas {
+        private final int quantidade;
+        private final int escala;
+        private final BigDecimal minimo;
+        private final BigDecimal largura;
+        private final long minimoUnidades;
+        private final long larguraUnidades;
+        // Centavos por unidade da escala do histograma (100, 10 ou 1), ou 0 com escala fora de [0, 2].
+        private final long centavosPorUnidade;
+
+        Faixas(Resumo resumo, int quantidade) {
+            this.quantidade = quantidade;
+            this.escala = resumo.escalaMaxima();
+            // Exato: nenhum preço tinha escala maior que a máxima.
+            this.minimo = resumo.minimo().setScale(escala);
+            BigDecimal maximo = resumo.maximo().setScale(escala);
+            BigDecimal unidade = BigDecimal.ONE.scaleByPowerOfTen(-escala);
+            this.largura = maximo.subtract(minimo).add(unidade)
+                    .divide(BigDecimal.valueOf(quantidade), escala, RoundingMode.CEILING);
+            long minimoUnidades = Dinheiro.emUnidades(minimo, escala);
+            long larguraUnidades = Dinheiro.emUnidades(largura, escala);
+            boolean cabe = minimoUnidades != FORA && larguraUnidades != FORA
+                    && Dinheiro.emUnidades(maximo, escala) != FORA;
+            this.minimoUnidades = cabe ? minimoUnidades : FORA;
+            this.larguraUnidades = larguraUnidades;
+            this.centavosPorUnidade = escala >= 0 && escala <= ESCALA_CENTAVOS
+                    ? BigDecimal.ONE.scaleByPowerOfTen(ESCALA_CENTAVOS - escala).longValueExact() : 0;
+        }
+
+        /** Índice do preço de um produto com preço, pelos centavos já calculados quando a escala permite. */
+        int indice(Produto produto) {
+            long centavos = produto.getPrecoEmCentavos();
+            if (minimoUnidades != FORA && centavosPorUnidade != 0 && centavos != FORA) {
+                // O piso dá a mesma faixa que o caminho do BigDecimal mesmo para um produto alterado entre as
+                // passadas com mais casas do que a escala do histograma.
+                return indice(Math.floorDiv(centavos, centavosPorUnidade));
+            }
+            return indice(produto.getPreco());
+        }
+
+        int indice(BigDecimal preco) {
+            long unidades = minimoUnidades == FORA ? FORA : Dinheiro.emUnidades(preco, escala);
+            if (unidades != FORA) {
+                return indice(unidades);
+            }
+            BigDecimal faixa = preco.subtract(minimo).divideToIntegralValue(largura);
+            return limitar(faixa.signum() < 0 ? -1 : faixa.min(BigDecimal.valueOf(quantidade)).longValue());
+        }
+
+        /** Se os preços do histograma cabem em long na escala dele; só então {@link #indice(long)} pode ser usado. */
+        boolean cabeEmLong() {
+            return minimoUnidades != FORA;
+        }
+
+        /** Índice de um preço já convertido em unidades da escala do histograma (centavos, no ProdutoColunarDAO). */
+        int indice(long unidades) {
+            // Os dois valores estão abaixo de 10^18 em módulo, então a diferença cabe em long.
+            return limitar(Math.floorDiv(unidades - minimoUnidades, larguraUnidades));
+        }
+
+        // Um produto alterado entre as duas passadas pode cair fora de [minimo, maximo]: fica na faixa da ponta.
+        private int limitar(long indice) {
+            return (int) Math.max(0, Math.min(quantidade - 1, indice));
+        }
+
+        HistogramaPrecos histograma(long[] contagens) {
+            return new HistogramaPrecos(minimo, largura, contagens);
+        }
+    }
+
+    /** Calcula um resultado para as posições {@code [inicio, fim)} de um DAO com arrays. */
+    @FunctionalInterface
+    interface FolhaPorPosicao<R> {
+        R calcular(int inicio, int fim);
+    }
+
+    static Resumo resumir(Spliterator<Produto> produtos) {
+        return dividir(produtos, parte -> {
+            Acumulador acumulador = new Acumulador();
+            parte.forEachRemaining(acumulador);
+            return acumulador.resumo();
+        }, Resumo::juntar);
+    }
+
+    static long contar(Spliterator<Produto> produtos, Predicate<? super Produto> filtro) {
+        if (filtro == null) {
+            throw new IllegalArgumentException("O filtro não pode ser nulo.");
+        }
+        return dividir(produtos, parte -> {
+            long[] contados = new long[1];
+            parte.forEachRemaining(produto -> {
+                if (filtro.test(produto)) contados[0]++;
+            });
+            return contados[0];
+        }, Long::sum);
+    }
+
+    /** Duas passadas: a primeira acha o menor e o maior preço, a segunda conta por faixa. */
+    static HistogramaPrecos histograma(Supplier<Spliterator<Produto>> produtos, int faixas) {
+        validarFaixas(faixas);
+        Resumo resumo = resumir(produtos.get());
+        if (resumo.comPreco() == 0) {
+            return histogramaVazio(faixas);
+        }
+        Faixas divisao = new Faixas(resumo, faixas);
+        long[] contagens = dividir(produtos.get(), parte -> {
+            long[] parcial = new long[faixas];
+            parte.forEachRemaining(produto -> {
+                if (produto.getPreco() != null) parcial[divisao.indice(produto)]++;
+            });
+            return parcial;
+        }, AgregacaoPrecos::somar);
+        return divisao.histograma(contagens);
+    }
+
+    static HistogramaPrecos histogramaVazio(int faixas) {
+        return new HistogramaPrecos(null, null, new long[faixas]);
+    }
+
+    static void validarFaixas(int faixas) {
+        if (faixas <= 0) {
+            throw new IllegalArgumentException("A quantidade de faixas deve ser positiva.");
+        }
+    }
+
+    static long[] somar(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] += b[i];
+        }
+        return a;
+    }
+
+    static <R> R dividir(Spliterator<Produto> produtos, Function<Spliterator<Produto>, R> folha, BinaryOperator<R> juntar) {
+        if (!valeDividir()) {
+            return folha.apply(produtos);
+        }
+        return new TarefaSpliterator<>(produtos, folha, juntar).invoke();
+    }
+
+    static <R> R dividir(int inicio, int fim, FolhaPorPosicao<R> folha, BinaryOperator<R> juntar) {
+        if (!valeDividir()) {
+            return folha.calcular(inicio, fim);
+        }
+        return new TarefaPorPosicao<>(inicio, fim, folha, juntar).invoke();
+    }
+
+    // Com um processador só, a thread do pool e a que chamou disputariam a mesma CPU: trocas de contexto sem
+    // nenhum paralelismo de verdade.
+    private static boolean valeDividir() {
+        return Runtime.getRuntime().availableProcessors() > 1;
+    }
+
+    // RecursiveTask é Serializable por herança, mas as tarefas só existem durante a agregação e nunca são
+    // serializadas (os campos são spliterators e funções).
+    @SuppressWarnings("serial")
+    private static final class TarefaSpliterator<R> extends RecursiveTask<R> {
+        private final Spliterator<Produto> produtos;
+        private final Function<Spliterator<Produto>, R> folha;
+        private final BinaryOperator<R> juntar;
+
+        TarefaSpliterator(Spliterator<Produto> produtos, Function<Spliterator<Produto>, R> folha, BinaryOperator<R> juntar) {
+            this.produtos = produtos;
+            this.folha = folha;
+            this.juntar = juntar;
+        }
+
+        @Override
+        protected R compute() {
+            Spliterator<Produto> prefixo;
+            if (produtos.estimateSize() > LIMIAR && (prefixo = produtos.trySplit()) != null) {
+                // O prefixo vai para a fila (outra thread pode pegá-lo); o resto continua nesta thread.
+                TarefaSpliterator<R> esquerda = new TarefaSpliterator<>(prefixo, folha, juntar);
+                esquerda.fork();
+                R direita = compute();
+                return juntar.apply(esquerda.join(), direita);
+            }
+            return folha.apply(produtos);
+        }
+    }
+
+    @SuppressWarnings("serial") // veja TarefaSpliterator
+    private static final class TarefaPorPosicao<R> extends RecursiveTask<R> {
+        private final int inicio;
+        private final int fim;
+        private final FolhaPorPosicao<R> folha;
+        private final BinaryOperator<R> juntar;
+
+        TarefaPorPosicao(int inicio, int fim, FolhaPorPosicao<R> folha, BinaryOperator<R> juntar) {
+            this.inicio = inicio;
+            this.fim = fim;
+            this.folha = folha;
+            this.juntar = juntar;
+        }
+
+        @Override
+        protected R compute() {
+            if (fim - inicio <= LIMIAR) {
+                return folha.calcular(inicio, fim);
+            }
+            int meio = (inicio + fim) >>> 1;
+            TarefaPorPosicao<R> esquerda = new TarefaPorPosicao<>(inicio, meio, folha, juntar);
+            esquerda.fork();
+            R direita = new TarefaPorPosicao<>(meio, fim, folha, juntar).compute();
+            return juntar.apply(esquerda.join(), direita);
+        }
+    }
+
+    private static BigDecimal menor(BigDecimal a, BigDecimal b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static BigDecimal maior(BigDecimal a, BigDecimal b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
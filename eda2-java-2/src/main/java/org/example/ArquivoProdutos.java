@@ -0,0 +1,708 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Importação e exportação do catálogo em lote, em CSV ou em um formato binário compacto.
+ * <p>
+ * CSV: uma linha por produto no formato {@code id;nome;preco}, em UTF-8, com o preço no formato de
+ * {@link BigDecimal#toPlainString()} (ex.: {@code 10.99}). A primeira linha pode ser um cabeçalho. Nomes com
+ * {@code ;}, aspas ou quebra de linha vão entre aspas, com as aspas internas dobradas. Um campo vazio é nome ou
+ * preço nulo; {@code ""} é o nome vazio.
+ * <p>
+ * Binário: cabeçalho {@code "PRDB"} + versão e, para cada produto, ID, flags, nome (tamanho + UTF-8) e preço
+ * (valor sem escala em um long + escala, ou os bytes do {@link BigInteger} quando não couber).
+ * <p>
+ * Os arquivos são lidos e gravados por um {@link FileChannel} com um buffer de 1 MB, e os campos são
+ * interpretados direto dos bytes: o único objeto criado por linha, além do produto, é o nome (e o preço, que
+ * sai de {@link BigDecimal#valueOf(long, int)}). Os produtos vão para o DAO em lotes de {@code tamanhoLote} com
+ * {@link ProdutoDAO#insereTodos}; cada lote é tudo ou nada, mas os lotes anteriores a um com erro já ficaram
+ * gravados. A memória usada é a do buffer mais a de um lote, qualquer que seja o tamanho do arquivo.
+ */
+public final class ArquivoProdutos {
+    public static final int LOTE_PADRAO = 50_000;
+    // A exportação informa o progresso a cada tantos produtos gravados.
+    private static final int PROGRESSO_EXPORTACAO = 100_000;
+    private static final int TAMANHO_BUFFER = 1 << 20;
+
+    private static final byte[] CABECALHO_CSV = "id;nome;preco\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte SEPARADOR = ';';
+    private static final byte ASPAS = '"';
+
+    private static final int MAGICO_BINARIO = 0x50524442; // "PRDB"
+    private static final byte VERSAO_BINARIO = 1;
+    private static final byte FLAG_NOME_NULO = 1;
+    private static final byte FLAG_PRECO_NULO = 2;
+    // Preço que não cabe em long + escala de um byte: gravado como escala (int) + bytes do BigInteger.
+    private static final byte FLAG_PRECO_GRANDE = 4;
+
+    // Maior quantidade de dígitos que sempre cabe em um long.
+    private static final int DIGITOS_LONG = 18;
+
+    private ArquivoProdutos() {
+    }
+
+    public static long importarCsv(Path arquivo, ProdutoDAO dao) {
+        return importarCsv(arquivo, dao, LOTE_PADRAO, total -> {
+        });
+    }
+
+    /**
+     * Insere no DAO os produtos do CSV e devolve quantos foram inseridos.
+     *
+     * @param progresso recebe o total de produtos já inseridos depois de cada lote
+     * @throws IllegalArgumentException se uma linha for inválida ou um ID já existir (mesma mensagem do insere)
+     */
+    public static long importarCsv(Path arquivo, ProdutoDAO dao, int tamanhoLote, LongConsumer progresso) {
+        Carga carga = new Carga(dao, tamanhoLote, progresso);
+        try (Entrada entrada = new Entrada(arquivo)) {
+            LeitorCsv leitor = new LeitorCsv(entrada);
+            Produto produto;
+            while ((produto = leitor.proximo()) != null) {
+                carga.adicionar(produto);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível importar os produtos de " + arquivo + ".", e);
+        }
+        return carga.terminar();
+    }
+
+    public static long importarBinario(Path arquivo, ProdutoDAO dao) {
+        return importarBinario(arquivo, dao, LOTE_PADRAO, total -> {
+        });
+    }
+
+    /**
+     * Insere no DAO os produtos de um arquivo gravado por {@link #exportarBinario} e devolve quantos foram
+     * inseridos. Um arquivo truncado ou de outro formato lança {@link UncheckedIOException}.
+     *
+     * @param progresso recebe o total de produtos já inseridos depois de cada lote
+     */
+    public static long importarBinario(Path arquivo, ProdutoDAO dao, int tamanhoLote, LongConsumer progresso) {
+        Carga carga = new Carga(dao, tamanhoLote, progresso);
+        try (Entrada entrada = new Entrada(arquivo)) {
+            if (!entrada.garantir(5) || entrada.lerInt() != MAGICO_BINARIO || entrada.lerByte() != VERSAO_BINARIO) {
+                throw new IOException("Arquivo binário de produtos inválido: " + arquivo);
+            }
+            Produto produto;
+            while ((produto = lerBinario(entrada)) != null) {
+                carga.adicionar(produto);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível importar os produtos de " + arquivo + ".", e);
+        }
+        return carga.terminar();
+    }
+
+    public static long exportarCsv(ProdutoDAO dao, Path arquivo) {
+        return exportarCsv(dao, arquivo, total -> {
+        });
+    }
+
+    /**
+     * Grava o catálogo em CSV, com cabeçalho, em ordem de ID, e devolve quantos produtos foram gravados.
+     *
+     * @param progresso recebe o total de produtos já gravados a cada 100 mil e no fim
+     */
+    public static long exportarCsv(ProdutoDAO dao, Path arquivo, LongConsumer progresso) {
+        validar(dao, progresso);
+        try (Saida saida = new Saida(arquivo)) {
+            saida.escrever(CABECALHO_CSV, 0, CABECALHO_CSV.length);
+            return exportar(dao, saida, progresso, ArquivoProdutos::escreverCsv);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível exportar os produtos para " + arquivo + ".", e);
+        }
+    }
+
+    public static long exportarBinario(ProdutoDAO dao, Path arquivo) {
+        return exportarBinario(dao, arquivo, total -> {
+        });
+    }
+
+    /**
+     * Grava o catálogo no formato binário, em ordem de ID, e devolve quantos produtos foram gravados.
+     *
+     * @param progresso recebe o total de produtos já gravados a cada 100 mil e no fim
+     */
+    public static long exportarBinario(ProdutoDAO dao, Path arquivo, LongConsumer progresso) {
+        validar(dao, progresso);
+        try (Saida saida = new Saida(arquivo)) {
+            saida.garantir(5);
+            saida.buffer.putInt(MAGICO_BINARIO).put(VERSAO_BINARIO);
+            return exportar(dao, saida, progresso, ArquivoProdutos::escreverBinario);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível exportar os produtos para " + arquivo + ".", e);
+        }
+    }
+
+    private static void validar(ProdutoDAO dao, LongConsumer progresso) {
+        if (dao == null || progresso == null) {
+            throw new IllegalArgumentException("O DAO e o consumidor de progresso não podem ser nulos.");
+        }
+    }
+
+    // ---------------------------------------------------------------- carga em lotes
+
+    /** Junta os produtos lidos em lotes e os entrega ao DAO. */
+    private static final class Carga {
+        private final ProdutoDAO dao;
+        private final int tamanhoLote;
+        private final LongConsumer progresso;
+        // Reaproveitada a cada lote: os DAOs copiam o lote no insereTodos.
+        private final List<Produto> lote;
+        private long inseridos;
+
+        Carga(ProdutoDAO dao, int tamanhoLote, LongConsumer progresso) {
+            validar(dao, progresso);
+            if (tamanhoLote < 1) {
+                throw new IllegalArgumentException("O tamanho do lote deve ser positivo.");
+            }
+            this.dao = dao;
+            this.tamanhoLote = tamanhoLote;
+            this.progresso = progresso;
+            this.lote = new ArrayList<>(tamanhoLote);
+        }
+
+        void adicionar(Produto produto) {
+            lote.add(produto);
+            if (lote.size() == tamanhoLote) {
+                descarregar();
+            }
+        }
+
+        long terminar() {
+            if (!lote.isEmpty()) {
+                descarregar();
+            }
+            return inseridos;
+        }
+
+        private void descarregar() {
+            dao.insereTodos(lote);
+            inseridos += lote.size();
+            lote.clear();
+            progresso.accept(inseridos);
+        }
+    }
+
+    // ---------------------------------------------------------------- leitura
+
+    /**
+     * Janela de leitura sobre o arquivo: os bytes ainda não consumidos ficam em {@code dados[posicao, limite)}.
+     * O buffer só cresce quando um único registro não cabe nele.
+     */
+    private static final class Entrada implements Closeable {
+        private final FileChannel canal;
+        private ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_BUFFER);
+        byte[] dados = buffer.array();
+        int posicao;
+        int limite;
+        boolean fimDoArquivo;
+
+        Entrada(Path arquivo) throws IOException {
+            canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+        }
+
+        /** Lê mais bytes do arquivo, mantendo os não consumidos; devolve false se o arquivo já acabou. */
+        boolean carregarMais() throws IOException {
+            if (fimDoArquivo) {
+                return false;
+            }
+            buffer.limit(limite).position(posicao);
+            if (posicao == 0 && limite == buffer.capacity()) {
+                if (buffer.capacity() > Integer.MAX_VALUE / 2) {
+                    throw new IOException("Registro grande demais no arquivo de produtos.");
+                }
+                ByteBuffer maior = ByteBuffer.allocate(buffer.capacity() * 2);
+                maior.put(buffer);
+                buffer = maior;
+                dados = buffer.array();
+            } else {
+                buffer.compact();
+            }
+            int lidos = canal.read(buffer);
+            fimDoArquivo = lidos < 0;
+            buffer.flip();
+            posicao = 0;
+            limite = buffer.limit();
+            return lidos > 0;
+        }
+
+        /** Bytes ainda não consumidos: os que já estão no buffer mais os que faltam ler do arquivo. */
+        long restante() throws IOException {
+            return limite - posicao + Math.max(0, canal.size() - canal.position());
+        }
+
+        /** Garante {@code n} bytes disponíveis; devolve false se o arquivo acabar antes. */
+        boolean garantir(int n) throws IOException {
+            while (limite - posicao < n) {
+                if (!carregarMais() && fimDoArquivo) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        byte lerByte() {
+            return dados[posicao++];
+        }
+
+        int lerInt() {
+            int valor = buffer.getInt(posicao);
+            posicao += 4;
+            return valor;
+        }
+
+        long lerLong() {
+            long valor = buffer.getLong(posicao);
+            posicao += 8;
+            return valor;
+        }
+
+        @Override
+        public void close() throws IOException {
+            canal.close();
+        }
+    }
+
+    /** Interpreta o CSV direto dos bytes da {@link Entrada}, um registro por vez. */
+    private static final class LeitorCsv {
+        // Devolvido por analisar() quando o registro não terminou dentro dos bytes disponíveis.
+        private static final int INCOMPLETO = -1;
+
+        private final Entrada entrada;
+        private long linha;
+        private boolean inicioDoArquivo = true;
+        // Resultado do último analisar(): null em linhas em branco e no cabeçalho.
+        private Produto produto;
+
+        LeitorCsv(Entrada entrada) {
+            this.entrada = entrada;
+        }
+
+        /** Próximo produto do arquivo, ou null no fim. */
+        Produto proximo() throws IOException {
+            if (inicioDoArquivo) {
+                inicioDoArquivo = false;
+                pularBom();
+            }
+            while (true) {
+                if (!entrada.garantir(1)) {
+                    return null;
+                }
+                int fim = analisar(entrada.dados, entrada.posicao, entrada.limite);
+                if (fim == INCOMPLETO) {
+                    entrada.carregarMais();
+                    continue;
+                }
+                entrada.posicao = fim;
+                linha++;
+                if (produto != null) {
+                    return produto;
+                }
+            }
+        }
+
+        // BOM do UTF-8 (EF BB BF) que alguns editores gravam no início: sem isso, a primeira linha pareceria um
+        // cabeçalho (não começa com dígito) e o produto dela seria descartado.
+        private void pularBom() throws IOException {
+            if (!entrada.garantir(3)) return;
+            byte[] b = entrada.dados;
+            int p = entrada.posicao;
+            if (b[p] == (byte) 0xEF && b[p + 1] == (byte) 0xBB && b[p + 2] == (byte) 0xBF) {
+                entrada.posicao += 3;
+            }
+        }
+
+        // Interpreta o registro que começa em p e devolve a posição logo após a quebra de linha.
+        private int analisar(byte[] b, int p, int limite) {
+            produto = null;
+            if (b[p] == '\n' || b[p] == '\r') {
+                return fimDaLinha(b, p, limite);
+            }
+            if (linha == 0 && b[p] != '-' && (b[p] < '0' || b[p] > '9')) {
+                // Cabeçalho: ignora a primeira linha se ela não começa com um ID.
+                int q = p;
+                while (q < limite && b[q] != '\n' && b[q] != '\r') q++;
+                return fimDaLinha(b, q, limite);
+            }
+
+            // ID
+            boolean negativo = b[p] == '-';
+            int q = negativo ? p + 1 : p;
+            int inicioDigitos = q;
+            long id = 0;
+            while (q < limite && b[q] >= '0' && b[q] <= '9') {
+                id = id * 10 + (b[q++] - '0');
+                if (id > 1L + Integer.MAX_VALUE) throw invalida("ID fora do intervalo de int");
+            }
+            if (q == limite) return incompleto();
+            if (q == inicioDigitos || b[q] != SEPARADOR) throw invalida("ID inválido");
+            id = negativo ? -id : id;
+            if (id > Integer.MAX_VALUE) throw invalida("ID fora do intervalo de int");
+            q++;
+
+            // Nome
+            String nome;
+            if (q == limite) return incompleto();
+            if (b[q] == ASPAS) {
+                int inicio = ++q;
+                int aspasDobradas = 0;
+                while (true) {
+                    if (q >= limite - 1) {
+                        // Precisa ver o byte depois das aspas para saber se elas fecham o campo.
+                        if (!entrada.fimDoArquivo) return incompleto();
+                        if (q == limite) throw invalida("aspas do nome sem fechamento");
+                    }
+                    if (b[q] == ASPAS) {
+                        if (q + 1 < limite && b[q + 1] == ASPAS) {
+                            aspasDobradas++;
+                            q += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    q++;
+                }
+                nome = aspasDobradas == 0 ? new String(b, inicio, q - inicio, StandardCharsets.UTF_8)
+                        : semAspasDobradas(b, inicio, q, aspasDobradas);
+                q++;
+                if (q == limite) return incompleto();
+                if (b[q] != SEPARADOR) throw invalida("esperado ';' depois do nome entre aspas");
+            } else {
+                int inicio = q;
+                while (q < limite && b[q] != SEPARADOR) {
+                    if (b[q] == '\n' || b[q] == '\r') throw invalida("faltando o preço");
+                    q++;
+                }
+                if (q == limite) return incompleto();
+                nome = q == inicio ? null : new String(b, inicio, q - inicio, StandardCharsets.UTF_8);
+            }
+            q++;
+
+            // Preço: até o fim da linha (ou do arquivo, na última linha sem quebra).
+            int inicio = q;
+            while (q < limite && b[q] != '\n' && b[q] != '\r') q++;
+            if (q == limite && !entrada.fimDoArquivo) return incompleto();
+            BigDecimal preco = inicio == q ? null : preco(b, inicio, q);
+
+            int fim = fimDaLinha(b, q, limite);
+            if (fim != INCOMPLETO) {
+                produto = new Produto((int) id, nome, preco);
+            }
+            return fim;
+        }
+
+        // Posição depois de \n, \r\n ou \r em p (ou p, no fim do arquivo).
+        private int fimDaLinha(byte[] b, int p, int limite) {
+            if (p == limite) {
+                return entrada.fimDoArquivo ? p : incompleto();
+            }
+            if (b[p] == '\r') {
+                if (p + 1 == limite && !entrada.fimDoArquivo) return incompleto();
+                return p + 1 < limite && b[p + 1] == '\n' ? p + 2 : p + 1;
+            }
+            return p + 1;
+        }
+
+        private BigDecimal preco(byte[] b, int inicio, int fim) {
+            int p = inicio;
+            boolean negativo = b[p] == '-';
+            if (negativo || b[p] == '+') p++;
+            long valor = 0;
+            int digitos = 0;
+            int escala = 0;
+            boolean ponto = false;
+            for (; p < fim; p++) {
+                byte c = b[p];
+                if (c >= '0' && c <= '9') {
+                    valor = valor * 10 + (c - '0');
+                    digitos++;
+                    if (ponto) escala++;
+                } else if (c == '.' && !ponto) {
+                    ponto = true;
+                } else {
+                    break;
+                }
+            }
+            if (p == fim && digitos > 0 && digitos <= DIGITOS_LONG) {
+                return BigDecimal.valueOf(negativo ? -valor : valor, escala);
+            }
+            // Muitos dígitos ou notação científica (ex.: 1E+3): deixa o BigDecimal interpretar.
+            try {
+                return new BigDecimal(new String(b, inicio, fim - inicio, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                throw invalida("preço inválido '" + new String(b, inicio, fim - inicio, StandardCharsets.UTF_8) + "'");
+            }
+        }
+
+        private static String semAspasDobradas(byte[] b, int inicio, int fim, int aspasDobradas) {
+            byte[] nome = new byte[fim - inicio - aspasDobradas];
+            int n = 0;
+            for (int p = inicio; p < fim; p++) {
+                nome[n++] = b[p];
+                if (b[p] == ASPAS) p++;
+            }
+            return new String(nome, StandardCharsets.UTF_8);
+        }
+
+        private int incompleto() {
+            if (entrada.fimDoArquivo) {
+                throw invalida("linha incompleta no fim do arquivo");
+            }
+            return INCOMPLETO;
+        }
+
+        private IllegalArgumentException invalida(String motivo) {
+            return new IllegalArgumentException("Linha " + (linha + 1) + " do CSV inválida: " + motivo + ".");
+        }
+    }
+
+    private static Produto lerBinario(Entrada entrada) throws IOException {
+        if (!entrada.garantir(1)) {
+            return null;
+        }
+        if (!entrada.garantir(5)) throw truncado();
+        int id = entrada.lerInt();
+        byte flags = entrada.lerByte();
+        String nome = null;
+        if ((flags & FLAG_NOME_NULO) == 0) {
+            int tamanho = lerTamanho(entrada);
+            if (!entrada.garantir(tamanho)) throw truncado();
+            nome = new String(entrada.dados, entrada.posicao, tamanho, StandardCharsets.UTF_8);
+            entrada.posicao += tamanho;
+        }
+        BigDecimal preco = null;
+        if ((flags & FLAG_PRECO_GRANDE) != 0) {
+            if (!entrada.garantir(4)) throw truncado();
+            int escala = entrada.lerInt();
+            int tamanho = lerTamanho(entrada);
+            if (!entrada.garantir(tamanho)) throw truncado();
+            preco = new BigDecimal(new BigInteger(entrada.dados, entrada.posicao, tamanho), escala);
+            entrada.posicao += tamanho;
+        } else if ((flags & FLAG_PRECO_NULO) == 0) {
+            if (!entrada.garantir(9)) throw truncado();
+            long valor = entrada.lerLong();
+            preco = BigDecimal.valueOf(valor, entrada.lerByte());
+        }
+        return new Produto(id, nome, preco);
+    }
+
+    // Tamanho em base 128: 7 bits por byte, o bit mais alto indica que há mais bytes. Um tamanho maior que o
+    // resto do arquivo é dado corrompido: sem essa conferência, o garantir dobraria o buffer até faltar memória.
+    private static int lerTamanho(Entrada entrada) throws IOException {
+        int valor = 0;
+        for (int deslocamento = 0; deslocamento < 32; deslocamento += 7) {
+            if (!entrada.garantir(1)) throw truncado();
+            byte b = entrada.lerByte();
+            valor |= (b & 0x7F) << deslocamento;
+            if (b >= 0) {
+                if (valor < 0) break;
+                if (valor > entrada.restante()) throw truncado();
+                return valor;
+            }
+        }
+        throw new IOException("Tamanho inválido no arquivo binário de produtos.");
+    }
+
+    private static IOException truncado() {
+        return new IOException("Arquivo binário de produtos truncado.");
+    }
+
+    // ---------------------------------------------------------------- gravação
+
+    @FunctionalInterface
+    private interface Escritor {
+        void escrever(Saida saida, Produto produto) throws IOException;
+    }
+
+    private static long exportar(ProdutoDAO dao, Saida saida, LongConsumer progresso, Escritor escritor)
+            throws IOException {
+        long gravados = 0;
+        // O spliterator percorre o DAO sem copiar o catálogo; tryAdvance porque a gravação lança IOException.
+        Spliterator<Produto> produtos = dao.spliterator();
+        Produto[] atual = new Produto[1];
+        while (produtos.tryAdvance(produto -> atual[0] = produto)) {
+            escritor.escrever(saida, atual[0]);
+            if (++gravados % PROGRESSO_EXPORTACAO == 0) {
+                progresso.accept(gravados);
+            }
+        }
+        saida.descarregar();
+        if (gravados % PROGRESSO_EXPORTACAO != 0) {
+            progresso.accept(gravados);
+        }
+        return gravados;
+    }
+
+    private static void escreverCsv(Saida saida, Produto produto) throws IOException {
+        saida.garantir(2 * 20 + 3);
+        ByteBuffer buffer = saida.buffer;
+        escreverLong(buffer, produto.getId());
+        buffer.put(SEPARADOR);
+        String nome = produto.getNome();
+        if (nome != null) {
+            if (nome.isEmpty() || precisaDeAspas(nome)) {
+                byte[] bytes = nome.replace("\"", "\"\"").getBytes(StandardCharsets.UTF_8);
+                buffer.put(ASPAS);
+                saida.escrever(bytes, 0, bytes.length);
+                saida.garantir(1);
+                buffer.put(ASPAS);
+            } else {
+                // getBytes de um texto só com ASCII é uma cópia direta do array interno da String.
+                byte[] bytes = nome.getBytes(StandardCharsets.UTF_8);
+                saida.escrever(bytes, 0, bytes.length);
+            }
+        }
+        saida.garantir(DIGITOS_LONG + 5);
+        buffer.put(SEPARADOR);
+        BigDecimal preco = produto.getPreco();
+        if (preco != null) {
+            if (preco.scale() >= 0 && preco.scale() <= DIGITOS_LONG && preco.precision() <= DIGITOS_LONG) {
+                escreverDecimal(buffer, preco.scaleByPowerOfTen(preco.scale()).longValue(), preco.scale());
+            } else {
+                byte[] bytes = preco.toPlainString().getBytes(StandardCharsets.US_ASCII);
+                saida.escrever(bytes, 0, bytes.length);
+            }
+        }
+        saida.garantir(1);
+        buffer.put((byte) '\n');
+    }
+
+    private static void escreverBinario(Saida saida, Produto produto) throws IOException {
+        String nome = produto.getNome();
+        BigDecimal preco = produto.getPreco();
+        byte flags = 0;
+        if (nome == null) flags |= FLAG_NOME_NULO;
+        boolean precoCompacto = preco != null && preco.scale() >= 0 && preco.scale() <= Byte.MAX_VALUE
+                && preco.precision() <= DIGITOS_LONG;
+        if (preco == null) {
+            flags |= FLAG_PRECO_NULO;
+        } else if (!precoCompacto) {
+            flags |= FLAG_PRECO_GRANDE;
+        }
+
+        saida.garantir(5);
+        saida.buffer.putInt(produto.getId()).put(flags);
+        if (nome != null) {
+            byte[] bytes = nome.getBytes(StandardCharsets.UTF_8);
+            saida.garantir(5);
+            escreverTamanho(saida.buffer, bytes.length);
+            saida.escrever(bytes, 0, bytes.length);
+        }
+        if (precoCompacto) {
+            saida.garantir(9);
+            saida.buffer.putLong(preco.scaleByPowerOfTen(preco.scale()).longValue()).put((byte) preco.scale());
+        } else if (preco != null) {
+            byte[] valor = preco.unscaledValue().toByteArray();
+            saida.garantir(9);
+            saida.buffer.putInt(preco.scale());
+            escreverTamanho(saida.buffer, valor.length);
+            saida.escrever(valor, 0, valor.length);
+        }
+    }
+
+    private static boolean precisaDeAspas(String nome) {
+        for (int i = 0; i < nome.length(); i++) {
+            char c = nome.charAt(i);
+            if (c == ';' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+
+    private static void escreverTamanho(ByteBuffer buffer, int valor) {
+        while ((valor & ~0x7F) != 0) {
+            buffer.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        buffer.put((byte) valor);
+    }
+
+    private static void escreverLong(ByteBuffer buffer, long valor) {
+        escreverDecimal(buffer, valor, 0);
+    }
+
+    // Escreve valor * 10^-escala sem criar String (ex.: 1099 com escala 2 -> 10.99, 5 com escala 2 -> 0.05).
+    private static void escreverDecimal(ByteBuffer buffer, long valor, int escala) {
+        if (valor < 0) {
+            buffer.put((byte) '-');
+        }
+        // |Long.MIN_VALUE| não cabe em long, então os dígitos saem de um valor negativo.
+        long resto = valor < 0 ? valor : -valor;
+        int digitos = 1;
+        for (long r = resto / 10; r != 0; r /= 10) {
+            digitos++;
+        }
+        int n = Math.max(digitos, escala + 1);
+        int fim = buffer.position() + n + (escala > 0 ? 1 : 0);
+        // Preenche de trás para frente, direto no buffer.
+        int p = fim;
+        for (int i = 0; i < n; i++) {
+            if (i == escala && escala > 0) {
+                buffer.put(--p, (byte) '.');
+            }
+            buffer.put(--p, (byte) ('0' - resto % 10));
+            resto /= 10;
+        }
+        buffer.position(fim);
+    }
+
+    /** Buffer de gravação sobre o arquivo, descarregado no canal quando enche. */
+    private static final class Saida implements Closeable {
+        private final FileChannel canal;
+        final ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_BUFFER);
+
+        Saida(Path arquivo) throws IOException {
+            canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        /** Garante espaço para {@code n} bytes no buffer ({@code n} deve ser bem menor que o buffer). */
+        void garantir(int n) throws IOException {
+            if (buffer.remaining() < n) {
+                descarregar();
+            }
+        }
+
+        void escrever(byte[] bytes, int inicio, int tamanho) throws IOException {
+            if (tamanho > buffer.remaining()) {
+                descarregar();
+                if (tamanho > buffer.capacity()) {
+                    gravarTudo(ByteBuffer.wrap(bytes, inicio, tamanho));
+                    return;
+                }
+            }
+            buffer.put(bytes, inicio, tamanho);
+        }
+
+        void descarregar() throws IOException {
+            buffer.flip();
+            gravarTudo(buffer);
+            buffer.clear();
+        }
+
+        private void gravarTudo(ByteBuffer bytes) throws IOException {
+            while (bytes.hasRemaining()) {
+                canal.write(bytes);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            canal.close();
+        }
+    }
+}
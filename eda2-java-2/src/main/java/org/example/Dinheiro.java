@@ -0,0 +1,125 @@
+package org.example;
+
+import java.math.BigDecimal;
+
+/**
+ * Valores em dinheiro como {@code long} de centavos (escala fixa de 2 casas), para armazenamento, índices e
+ * agregações sem criar um {@link BigDecimal} por preço: somar e comparar centavos é aritmética de {@code long}.
+ * <p>
+ * Política de escala: só são representados os valores exatos em centavos com até 18 dígitos. Nenhuma conversão
+ * arredonda: {@code 10.5}, {@code 10.50} e {@code 10.500} viram 1050 centavos, mas {@code 10.555} não tem
+ * representação e {@link #deBigDecimal} devolve {@link #FORA}. Quem recebe FORA continua no caminho do
+ * BigDecimal, como o {@link AgregacaoPrecos} já fazia com os preços que não cabem em centavos.
+ * <p>
+ * Na borda da API os preços continuam {@link BigDecimal} ({@link Produto#getPreco()}); a volta por
+ * {@link #paraBigDecimal} é exata, com escala 2.
+ */
+public final class Dinheiro {
+    public static final int ESCALA = 2;
+    /** Marca "sem representação em centavos" (ou preço nulo); nunca é um valor válido. */
+    public static final long FORA = Long.MIN_VALUE;
+    // Valores válidos ficam abaixo de 10^18 em módulo: somar dois nunca estoura o long.
+    private static final int DIGITOS = 18;
+    private static final long[] POTENCIAS_DE_10 = new long[DIGITOS + 1];
+
+    static {
+        POTENCIAS_DE_10[0] = 1;
+        for (int i = 1; i < POTENCIAS_DE_10.length; i++) {
+            POTENCIAS_DE_10[i] = POTENCIAS_DE_10[i - 1] * 10;
+        }
+    }
+
+    private Dinheiro() {
+    }
+
+    /** Centavos de {@code valor}, ou {@link #FORA} se ele for nulo, não for exato em centavos ou não couber. */
+    public static long deBigDecimal(BigDecimal valor) {
+        return valor == null ? FORA : emUnidades(valor, ESCALA);
+    }
+
+    /** Como {@link #deBigDecimal}, mas lança {@link IllegalArgumentException} se não houver representação. */
+    public static long deBigDecimalExato(BigDecimal valor) {
+        long centavos = deBigDecimal(valor);
+        if (centavos == FORA) {
+            throw new IllegalArgumentException("Preço inválido para armazenamento em centavos: " + valor + ".");
+        }
+        return centavos;
+    }
+
+    /** Valor exato de {@code centavos}, com escala 2 ({@code 1050} vira {@code 10.50}). */
+    public static BigDecimal paraBigDecimal(long centavos) {
+        if (centavos == FORA) {
+            throw new IllegalArgumentException("Valor sem representação em centavos.");
+        }
+        return BigDecimal.valueOf(centavos, ESCALA);
+    }
+
+    /**
+     * Lê um valor como {@code "10,99"}, {@code "10.99"}, {@code "-3"} ou {@code " 0,5 "} sem criar nenhum objeto:
+     * sinal opcional, dígitos e, opcionalmente, vírgula ou ponto seguido de até 2 casas. Espaços nas pontas são
+     * ignorados. Notação científica, separador de milhar e mais de 2 casas lançam {@link NumberFormatException}.
+     */
+    public static long parse(CharSequence texto) {
+        if (texto == null) {
+            throw new NumberFormatException("Preço inválido: null.");
+        }
+        int inicio = 0;
+        int fim = texto.length();
+        while (inicio < fim && Character.isWhitespace(texto.charAt(inicio))) inicio++;
+        while (fim > inicio && Character.isWhitespace(texto.charAt(fim - 1))) fim--;
+        int p = inicio;
+        boolean negativo = p < fim && texto.charAt(p) == '-';
+        if (negativo || p < fim && texto.charAt(p) == '+') p++;
+        long inteiro = 0;
+        int digitos = 0;
+        int significativos = 0; // zeros à esquerda não contam para o limite de 18 dígitos
+        char c;
+        for (; p < fim && digito(c = texto.charAt(p)); p++) {
+            digitos++;
+            if ((inteiro != 0 || c != '0') && ++significativos > DIGITOS - ESCALA) {
+                throw invalido(texto);
+            }
+            inteiro = inteiro * 10 + (c - '0');
+        }
+        long fracao = 0;
+        int casas = 0;
+        if (p < fim && ((c = texto.charAt(p)) == ',' || c == '.')) {
+            for (p++; p < fim && digito(c = texto.charAt(p)); p++) {
+                if (++casas > ESCALA) {
+                    throw invalido(texto);
+                }
+                fracao = fracao * 10 + (c - '0');
+            }
+        }
+        if (p != fim || digitos + casas == 0) {
+            throw invalido(texto);
+        }
+        long centavos = inteiro * POTENCIAS_DE_10[ESCALA] + fracao * POTENCIAS_DE_10[ESCALA - casas];
+        return negativo ? -centavos : centavos;
+    }
+
+    // Valor em unidades de 10^-escala, ou FORA se não for exato nessa escala ou não couber em 18 dígitos.
+    static long emUnidades(BigDecimal valor, int escala) {
+        if (valor.scale() > escala) {
+            // Zeros à direita (10.500) ainda são exatos; só quem tem casas de verdade além da escala fica FORA.
+            if (valor.signum() == 0) return 0;
+            valor = valor.stripTrailingZeros();
+            if (valor.scale() > escala) return FORA;
+        }
+        int falta = escala - valor.scale();
+        if (falta >= POTENCIAS_DE_10.length || valor.precision() + falta > DIGITOS) {
+            return FORA;
+        }
+        // Com escala 0 e até 18 dígitos, longValue() devolve o valor compacto sem criar um BigInteger
+        // (unscaledValue() criaria um por preço).
+        return valor.scaleByPowerOfTen(valor.scale()).longValue() * POTENCIAS_DE_10[falta];
+    }
+
+    private static boolean digito(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static NumberFormatException invalido(CharSequence texto) {
+        return new NumberFormatException("Preço inválido: '" + texto + "'.");
+    }
+}
@@ -0,0 +1,63 @@
+package org.example;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Distribuição dos preços do catálogo em faixas de mesma largura, do menor ao maior preço.
+ * <p>
+ * A faixa {@code i} cobre {@code [minimo + i * largura, minimo + (i + 1) * largura)}. A largura é arredondada
+ * para cima na maior escala dos preços, então o maior preço sempre cai dentro da última faixa. Sem nenhum
+ * produto com preço, {@code minimo} e {@code largura} são null e todas as contagens são zero.
+ */
+public record HistogramaPrecos(BigDecimal minimo, BigDecimal largura, long[] contagens) {
+
+    public HistogramaPrecos {
+        contagens = contagens.clone();
+    }
+
+    @Override
+    public long[] contagens() {
+        return contagens.clone();
+    }
+
+    public int faixas() {
+        return contagens.length;
+    }
+
+    public long contagem(int faixa) {
+        return contagens[faixa];
+    }
+
+    /** Menor preço que cai na faixa (inclusive). */
+    public BigDecimal inicioDaFaixa(int faixa) {
+        return minimo.add(largura.multiply(BigDecimal.valueOf(faixa)));
+    }
+
+    /** Quantidade de produtos com preço. */
+    public long total() {
+        return Arrays.stream(contagens).sum();
+    }
+
+    @Override
+    public boolean equals(Object outro) {
+        return outro instanceof HistogramaPrecos h && equivalentes(minimo, h.minimo)
+                && equivalentes(largura, h.largura) && Arrays.equals(contagens, h.contagens);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(contagens);
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramaPrecos[minimo=" + minimo + ", largura=" + largura + ", contagens="
+                + Arrays.toString(contagens) + "]";
+    }
+
+    // 10.0 e 10.00 são o mesmo preço.
+    private static boolean equivalentes(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+}
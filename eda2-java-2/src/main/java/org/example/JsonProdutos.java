@@ -0,0 +1,234 @@
+package org.example;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * JSON de {@link Produto} escrito e lido à mão, sem reflexão nem biblioteca: {@code {"id":1,"nome":"Arroz",
+ * "preco":10.50}}. O preço vai como número com todas as casas ({@link BigDecimal#toPlainString()}), então não
+ * passa por double em nenhum momento.
+ * <p>
+ * O leitor só aceita esse objeto: os campos {@code id}, {@code nome} e {@code preco}, em qualquer ordem, cada um
+ * podendo ser {@code null} ou ausente. Qualquer outra coisa lança {@link IllegalArgumentException}.
+ * <p>
+ * O preço é limitado a {@value #DIGITOS_MAXIMOS_PRECO} dígitos e a {@value #ESCALA_MAXIMA_PRECO} casas (a escala
+ * vale também para expoentes positivos): um {@code 1e999999999} aceito aqui ficaria gravado e cada
+ * {@code toPlainString} dele, na resposta ou na exportação, tentaria montar um texto de um bilhão de dígitos.
+ */
+final class JsonProdutos {
+    static final int DIGITOS_MAXIMOS_PRECO = 38;
+    static final int ESCALA_MAXIMA_PRECO = 18;
+
+    private JsonProdutos() {
+    }
+
+    static StringBuilder escrever(StringBuilder json, Produto produto) {
+        json.append("{\"id\":").append(produto.getId()).append(",\"nome\":");
+        if (produto.getNome() == null) {
+            json.append("null");
+        } else {
+            escreverTexto(json, produto.getNome());
+        }
+        json.append(",\"preco\":").append(produto.getPreco() == null ? "null" : produto.getPreco().toPlainString());
+        return json.append('}');
+    }
+
+    /** {@code {"produtos":[...],"proximo":id}}; {@code proximo} é o ID a passar em {@code apos} na próxima página. */
+    static String pagina(List<Produto> produtos, Integer proximo) {
+        StringBuilder json = new StringBuilder(64 + produtos.size() * 64).append("{\"produtos\":[");
+        for (int i = 0; i < produtos.size(); i++) {
+            if (i > 0) json.append(',');
+            escrever(json, produtos.get(i));
+        }
+        return json.append("],\"proximo\":").append(proximo).append('}').toString();
+    }
+
+    static String erro(String mensagem) {
+        return escreverTexto(new StringBuilder("{\"erro\":"), mensagem).append('}').toString();
+    }
+
+    private static StringBuilder escreverTexto(StringBuilder json, String texto) {
+        json.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"');
+    }
+
+    static Produto ler(String json) {
+        return new Leitor(json).produto();
+    }
+
+    private static final class Leitor {
+        private final String json;
+        private int p;
+
+        Leitor(String json) {
+            this.json = json;
+        }
+
+        Produto produto() {
+            Integer id = null;
+            String nome = null;
+            BigDecimal preco = null;
+            esperar('{');
+            if (!consumir('}')) {
+                do {
+                    String campo = texto();
+                    esperar(':');
+                    switch (campo) {
+                        case "id" -> id = inteiro();
+                        case "nome" -> nome = consumirNull() ? null : texto();
+                        case "preco" -> preco = decimal();
+                        default -> throw invalido("campo desconhecido '" + campo + "'");
+                    }
+                } while (consumir(','));
+                esperar('}');
+            }
+            pularEspacos();
+            if (p != json.length()) {
+                throw invalido("conteúdo depois do objeto");
+            }
+            return new Produto(id, nome, preco);
+        }
+
+        private Integer inteiro() {
+            if (consumirNull()) return null;
+            BigDecimal numero = numero();
+            try {
+                return numero.intValueExact();
+            } catch (ArithmeticException e) {
+                throw invalido("id deve ser um inteiro de 32 bits");
+            }
+        }
+
+        private BigDecimal decimal() {
+            if (consumirNull()) return null;
+            pularEspacos();
+            // Aceita o preço também como texto ("10.50"), como alguns clientes mandam valores monetários.
+            BigDecimal preco;
+            if (p < json.length() && json.charAt(p) == '"') {
+                String texto = texto();
+                try {
+                    preco = new BigDecimal(texto);
+                } catch (NumberFormatException e) {
+                    throw invalido("preço inválido '" + texto + "'");
+                }
+            } else {
+                preco = numero();
+            }
+            if (preco.precision() > DIGITOS_MAXIMOS_PRECO || preco.scale() > ESCALA_MAXIMA_PRECO
+                    || preco.scale() < -ESCALA_MAXIMA_PRECO) {
+                throw invalido("preço fora do intervalo aceito (até " + DIGITOS_MAXIMOS_PRECO + " dígitos e "
+                        + ESCALA_MAXIMA_PRECO + " casas)");
+            }
+            return preco;
+        }
+
+        private BigDecimal numero() {
+            pularEspacos();
+            int inicio = p;
+            while (p < json.length() && "+-0123456789.eE".indexOf(json.charAt(p)) >= 0) p++;
+            if (inicio == p) throw invalido("esperado um número");
+            try {
+                return new BigDecimal(json.substring(inicio, p));
+            } catch (NumberFormatException e) {
+                throw invalido("número inválido '" + json.substring(inicio, p) + "'");
+            }
+        }
+
+        private String texto() {
+            esperar('"');
+            StringBuilder texto = null;
+            int inicio = p;
+            while (true) {
+                if (p >= json.length()) throw invalido("texto sem fechamento");
+                char c = json.charAt(p);
+                if (c == '"') {
+                    String resultado = texto == null ? json.substring(inicio, p) : texto.append(json, inicio, p).toString();
+                    p++;
+                    return resultado;
+                }
+                if (c == '\\') {
+                    // Só cria um StringBuilder quando há escapes; o caso comum é um substring.
+                    if (texto == null) texto = new StringBuilder();
+                    texto.append(json, inicio, p);
+                    texto.append(escape());
+                    inicio = p;
+                } else {
+                    if (c < 0x20) throw invalido("caractere de controle dentro do texto");
+                    p++;
+                }
+            }
+        }
+
+        private char escape() {
+            p++; // barra
+            if (p >= json.length()) throw invalido("escape incompleto");
+            char c = json.charAt(p++);
+            return switch (c) {
+                case '"', '\\', '/' -> c;
+                case 'b' -> '\b';
+                case 'f' -> '\f';
+                case 'n' -> '\n';
+                case 'r' -> '\r';
+                case 't' -> '\t';
+                case 'u' -> {
+                    if (p + 4 > json.length()) throw invalido("escape \\u incompleto");
+                    try {
+                        char unicode = (char) Integer.parseInt(json, p, p + 4, 16);
+                        p += 4;
+                        yield unicode;
+                    } catch (NumberFormatException e) {
+                        throw invalido("escape \\u inválido");
+                    }
+                }
+                default -> throw invalido("escape inválido '\\" + c + "'");
+            };
+        }
+
+        private boolean consumirNull() {
+            pularEspacos();
+            if (json.startsWith("null", p)) {
+                p += 4;
+                return true;
+            }
+            return false;
+        }
+
+        private void esperar(char c) {
+            if (!consumir(c)) throw invalido("esperado '" + c + "'");
+        }
+
+        private boolean consumir(char c) {
+            pularEspacos();
+            if (p < json.length() && json.charAt(p) == c) {
+                p++;
+                return true;
+            }
+            return false;
+        }
+
+        private void pularEspacos() {
+            while (p < json.length() && Character.isWhitespace(json.charAt(p))) p++;
+        }
+
+        private IllegalArgumentException invalido(String motivo) {
+            return new IllegalArgumentException("JSON de produto inválido (posição " + p + "): " + motivo + ".");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Utilitários compartilhados pelas operações em lote dos DAOs.
+ */
+final class LoteProdutos {
+
+    private LoteProdutos() {
+    }
+
+    /**
+     * Valida um lote para inserção e devolve os produtos ordenados por ID.
+     * Lança {@link IllegalArgumentException} se houver produto/ID nulo ou ID repetido dentro do próprio lote,
+     * com as mesmas mensagens do {@code insere}.
+     */
+    static Produto[] ordenarEValidar(Collection<Produto> lote) {
+        if (lote == null) {
+            throw new IllegalArgumentException("O lote de produtos não pode ser nulo.");
+        }
+        Produto[] ordenados = lote.toArray(new Produto[0]);
+        for (Produto produto : ordenados) {
+            if (produto == null || produto.getId() == null) {
+                throw new IllegalArgumentException("Produto ou ID do produto não pode ser nulo.");
+            }
+        }
+        Arrays.sort(ordenados, Comparator.comparing(Produto::getId));
+        for (int i = 1; i < ordenados.length; i++) {
+            if (ordenados[i].getId().equals(ordenados[i - 1].getId())) {
+                throw idDuplicado(ordenados[i].getId());
+            }
+        }
+        return ordenados;
+    }
+
+    static IllegalArgumentException idDuplicado(Integer id) {
+        return new IllegalArgumentException("Erro: Já existe um produto com o ID " + id + ".");
+    }
+}
@@ -1,17 +1,45 @@
 package org.example;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.util.Collection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.InputMismatchException;
+import java.util.List;
 import java.util.Scanner;
 
 public class Main {
     private static Scanner s = new Scanner(System.in);
-    private static ProdutoDAO dao = new ProdutoMemoryDAO();
+    // O índice por nome atende a busca da opção 6; as demais operações passam direto para o DAO envolvido.
+    private static ProdutoBuscaNomeDAO dao = new ProdutoBuscaNomeDAO(new ProdutoMemoryDAO());
+    private static final int PRODUTOS_POR_PAGINA = 20;
+    private static final int TAMANHO_BUFFER_SCRIPT = 64 * 1024;
+    private static final int PORTA_PADRAO = 8080;
+    private static final int PORTA_MAXIMA = 65_535;
+    private static final String USO = "Uso: java org.example.Main [--script [arquivo|-] | --servidor [porta]]";
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--servidor")) {
+            // Em caso de sucesso a thread do servidor mantém a JVM de pé.
+            int codigo = iniciarServidor(args);
+            if (codigo != ScriptProdutos.SUCESSO) {
+                System.exit(codigo);
+            }
+            return;
+        }
+        if (args.length > 0) {
+            System.exit(executarScript(args));
+        }
         int opcao = 0;
-        while (opcao != 6) {
+        while (opcao != 9) {
             System.out.println("\nCadastro de produtos");
             System.out.println("Digite a opção desejada");
             System.out.println("1 - Inserir");
@@ -19,7 +47,10 @@ public class Main {
             System.out.println("3 - Pesquisar");
             System.out.println("4 - Excluir");
             System.out.println("5 - Listar");
-            System.out.println("6 - Sair");
+            System.out.println("6 - Pesquisar por nome");
+            System.out.println("7 - Importar arquivo (CSV ou binário)");
+            System.out.println("8 - Exportar arquivo (CSV ou binário)");
+            System.out.println("9 - Sair");
 
             try {
                 System.out.print("Opção: ");
@@ -32,7 +63,10 @@ public class Main {
                     case 3 -> pesquisar();
                     case 4 -> excluir(); // Adicionar case para excluir
                     case 5 -> listar();
-                    case 6 -> System.out.println("Saindo do sistema...");
+                    case 6 -> pesquisarPorNome();
+                    case 7 -> importar();
+                    case 8 -> exportar();
+                    case 9 -> System.out.println("Saindo do sistema...");
                     default -> System.out.println("Opção inválida. Tente novamente.");
                 }
             } catch (InputMismatchException e) {
@@ -45,6 +79,61 @@ public class Main {
         System.out.println("Sistema encerrado.");
     }
 
+    // --script arquivo (ou --script - / só --script para ler da entrada padrão, ex.: em um pipe).
+    private static int executarScript(String[] args) {
+        if (!args[0].equals("--script") || args.length > 2) {
+            System.err.println(USO);
+            return ScriptProdutos.ERRO_DE_SINTAXE;
+        }
+        PrintWriter saida = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8), TAMANHO_BUFFER_SCRIPT));
+        PrintWriter erros = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(System.err, StandardCharsets.UTF_8), TAMANHO_BUFFER_SCRIPT));
+        String origem = args.length == 2 ? args[1] : "-";
+        try (BufferedReader script = origem.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), TAMANHO_BUFFER_SCRIPT)
+                : Files.newBufferedReader(Path.of(origem), StandardCharsets.UTF_8)) {
+            return new ScriptProdutos(dao, saida, erros).executar(script);
+        } catch (IOException e) {
+            System.err.println("Não foi possível ler o script " + origem + ": " + e.getMessage());
+            return ScriptProdutos.ERRO_DE_SINTAXE;
+        }
+    }
+
+    // --servidor [porta]: o servidor atende em paralelo, então usa um DAO thread-safe em vez do dao do menu.
+    private static int iniciarServidor(String[] args) {
+        int porta = args.length == 2 ? lerPorta(args[1]) : PORTA_PADRAO;
+        if (args.length > 2 || porta < 0) {
+            if (porta < 0) {
+                System.err.println("Porta inválida: " + args[1] + ".");
+            }
+            System.err.println(USO);
+            return ScriptProdutos.ERRO_DE_SINTAXE;
+        }
+        ServidorProdutos servidor;
+        try {
+            servidor = new ServidorProdutos(new ProdutoConcurrentDAO(), porta);
+        } catch (UncheckedIOException e) {
+            // Ex.: porta já em uso.
+            System.err.println(e.getMessage() + " " + e.getCause().getMessage());
+            return ScriptProdutos.ERRO_DE_SINTAXE;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(servidor::close));
+        System.out.println("Servidor em http://localhost:" + servidor.porta() + ServidorProdutos.CAMINHO
+                + " (Ctrl+C para encerrar).");
+        return ScriptProdutos.SUCESSO;
+    }
+
+    // Porta de 0 (qualquer porta livre) a 65535; -1 se o argumento não for uma porta.
+    private static int lerPorta(String argumento) {
+        try {
+            int porta = Integer.parseInt(argumento);
+            return porta >= 0 && porta <= PORTA_MAXIMA ? porta : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     private static void insere() {
         System.out.println("\n--- Inserindo Novo Produto ---");
         Integer id;
@@ -63,9 +152,9 @@ public class Main {
 
         BigDecimal preco;
         try {
-            System.out.print("Digite o preço do produto (ex: 10.99): ");
+            System.out.print("Digite o preço do produto (ex: 10.99 ou 10,99): ");
             String precoStr = s.nextLine();
-            preco = new BigDecimal(precoStr);
+            preco = Dinheiro.paraBigDecimal(Dinheiro.parse(precoStr)); // Aceita vírgula ou ponto, até 2 casas
         } catch (NumberFormatException e) {
             System.out.println("Preço inválido. Formato incorreto.");
             return;
@@ -87,11 +176,21 @@ public class Main {
 
     private static void listar() {
         System.out.println("\n--- Lista de Produtos ---");
-        Collection<Produto> produtos = dao.listarTodos();
-        if (produtos.isEmpty()) {
+        // Uma página por vez, continuando do último ID exibido, em vez de copiar o catálogo inteiro.
+        List<Produto> pagina = dao.pagina(null, PRODUTOS_POR_PAGINA);
+        if (pagina.isEmpty()) {
             System.out.println("Nenhum produto cadastrado.");
-        } else {
-            produtos.forEach(System.out::println); // Maneira mais curta de imprimir
+        }
+        while (!pagina.isEmpty()) {
+            pagina.forEach(System.out::println); // Maneira mais curta de imprimir
+            if (pagina.size() < PRODUTOS_POR_PAGINA) {
+                break;
+            }
+            System.out.print("Enter para a próxima página ou 'S' para parar: ");
+            if (s.nextLine().equalsIgnoreCase("S")) {
+                break;
+            }
+            pagina = dao.pagina(pagina.get(pagina.size() - 1).getId(), PRODUTOS_POR_PAGINA);
         }
         System.out.println("-------------------------");
     }
@@ -120,6 +219,23 @@ public class Main {
         System.out.println("---------------------------");
     }
 
+    private static void pesquisarPorNome() {
+        System.out.println("\n--- Pesquisando Produto por Nome ---");
+        System.out.print("Digite o nome ou parte dele (ex: pao de q): ");
+        String consulta = s.nextLine();
+
+        List<Produto> encontrados = dao.buscarPorNome(consulta, PRODUTOS_POR_PAGINA);
+        if (encontrados.isEmpty()) {
+            System.out.println("Nenhum produto encontrado para '" + consulta + "'.");
+        } else {
+            encontrados.forEach(System.out::println);
+            if (encontrados.size() == PRODUTOS_POR_PAGINA) {
+                System.out.println("Mostrando os primeiros " + PRODUTOS_POR_PAGINA + " resultados. Refine a busca para ver outros.");
+            }
+        }
+        System.out.println("------------------------------------");
+    }
+
     private static void alterar() {
         System.out.println("\n--- Alterando Produto ---");
         System.out.print("Digite o ID do produto a ser alterado: ");
@@ -152,19 +268,22 @@ public class Main {
         String novoPrecoStr = s.nextLine();
         if (!novoPrecoStr.trim().isEmpty()) {
             try {
-                novoPreco = new BigDecimal(novoPrecoStr.replace(',', '.')); // Permitir vírgula como separador decimal
+                novoPreco = Dinheiro.paraBigDecimal(Dinheiro.parse(novoPrecoStr)); // Aceita vírgula ou ponto, até 2 casas
             } catch (NumberFormatException e) {
                 System.out.println("Preço inválido. Formato incorreto. Preço não alterado.");
                 // Mantém o novoPreco com o valor antigo
             }
         }
 
-        Produto produtoAtualizado = new Produto(idAltera, novoNome, novoPreco);
-        if (dao.alterar(produtoAtualizado)) {
+        // Só grava se ninguém alterou o produto enquanto o usuário digitava (versão ainda igual à lida).
+        Produto produtoAtualizado = produtoExistente.withNome(novoNome).withPreco(novoPreco);
+        if (dao.alterarSeVersao(produtoAtualizado, produtoExistente.getVersao())) {
             System.out.println("Produto alterado com sucesso!");
-            System.out.println("Dados atualizados: " + produtoAtualizado);
+            System.out.println("Dados atualizados: " + dao.pesquisarPorId(idAltera));
+        } else if (dao.pesquisarPorId(idAltera) == null) {
+            System.out.println("O produto com ID " + idAltera + " foi excluído enquanto você editava.");
         } else {
-            System.out.println("Erro ao alterar o produto. Verifique se o ID existe (pouco provável se chegou aqui).");
+            System.out.println("O produto foi alterado por outra pessoa enquanto você editava. Nada foi gravado; tente de novo.");
         }
         System.out.println("-------------------------");
     }
@@ -208,4 +327,50 @@ public class Main {
         }
         System.out.println("-------------------------");
     }
-}
\ No newline at end of file
+
+    private static void importar() {
+        System.out.println("\n--- Importando Produtos ---");
+        System.out.print("Digite o caminho do arquivo (.csv ou binário): ");
+        String caminho = s.nextLine().trim();
+        long inicio = System.nanoTime();
+        try {
+            Path arquivo = Path.of(caminho);
+            long importados = ehCsv(arquivo)
+                    ? ArquivoProdutos.importarCsv(arquivo, dao, ArquivoProdutos.LOTE_PADRAO, Main::mostrarProgresso)
+                    : ArquivoProdutos.importarBinario(arquivo, dao, ArquivoProdutos.LOTE_PADRAO, Main::mostrarProgresso);
+            System.out.printf("%d produtos importados em %.1f s.%n", importados, (System.nanoTime() - inicio) / 1e9);
+        } catch (InvalidPathException e) {
+            System.out.println("Caminho inválido: " + e.getMessage());
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            // Os lotes anteriores ao erro já foram inseridos.
+            System.out.println(e.getMessage());
+        }
+        System.out.println("---------------------------");
+    }
+
+    private static void exportar() {
+        System.out.println("\n--- Exportando Produtos ---");
+        System.out.print("Digite o caminho do arquivo (.csv ou binário): ");
+        String caminho = s.nextLine().trim();
+        try {
+            Path arquivo = Path.of(caminho);
+            long exportados = ehCsv(arquivo)
+                    ? ArquivoProdutos.exportarCsv(dao, arquivo, Main::mostrarProgresso)
+                    : ArquivoProdutos.exportarBinario(dao, arquivo, Main::mostrarProgresso);
+            System.out.println(exportados + " produtos exportados para " + arquivo + ".");
+        } catch (InvalidPathException e) {
+            System.out.println("Caminho inválido: " + e.getMessage());
+        } catch (UncheckedIOException e) {
+            System.out.println(e.getMessage());
+        }
+        System.out.println("---------------------------");
+    }
+
+    static boolean ehCsv(Path arquivo) {
+        return arquivo.getFileName() != null && arquivo.getFileName().toString().toLowerCase().endsWith(".csv");
+    }
+
+    private static void mostrarProgresso(long produtos) {
+        System.out.println("  " + produtos + " produtos...");
+    }
+}
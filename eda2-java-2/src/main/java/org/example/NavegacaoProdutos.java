@@ -0,0 +1,168 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Utilitários compartilhados pelas consultas por ordem de ID ({@code listarPorFaixaDeId}, {@code pagina},
+ * {@code spliterator}...) dos DAOs que guardam os produtos em um {@link NavigableMap} indexado pelo ID.
+ * <p>
+ * O valor do mapa pode ser o próprio produto ou uma referência a ele (como o número do registro no
+ * {@link ProdutoMappedFileDAO}); {@code ler} converte o valor no produto.
+ */
+final class NavegacaoProdutos {
+
+    private NavegacaoProdutos() {
+    }
+
+    static void validarLimite(int limite) {
+        if (limite < 0) {
+            throw new IllegalArgumentException("O limite da página não pode ser negativo.");
+        }
+    }
+
+    static <V> List<Produto> faixa(NavigableMap<Integer, V> mapa, int de, int ate, Function<V, Produto> ler) {
+        if (de > ate) {
+            return new ArrayList<>();
+        }
+        // subMap é só uma visão: a descida até "de" é O(log n) e depois percorremos apenas a faixa.
+        NavigableMap<Integer, V> faixa = mapa.subMap(de, true, ate, true);
+        List<Produto> lista = new ArrayList<>();
+        for (V valor : faixa.values()) {
+            lista.add(ler.apply(valor));
+        }
+        return lista;
+    }
+
+    static <V> List<Produto> pagina(NavigableMap<Integer, V> mapa, Integer aposId, int limite, Function<V, Produto> ler) {
+        validarLimite(limite);
+        if (limite == 0) {
+            return new ArrayList<>();
+        }
+        NavigableMap<Integer, V> restante = aposId == null ? mapa : mapa.tailMap(aposId, false);
+        List<Produto> pagina = new ArrayList<>(Math.min(limite, 1024));
+        for (V valor : restante.values()) {
+            pagina.add(ler.apply(valor));
+            if (pagina.size() == limite) break;
+        }
+        return pagina;
+    }
+
+    static <V> Produto valor(Map.Entry<Integer, V> entrada, Function<V, Produto> ler) {
+        return entrada == null ? null : ler.apply(entrada.getValue());
+    }
+
+    /** Spliterator que converte cada valor do spliterator de origem (já em ordem de ID) no produto. */
+    static <V> Spliterator<Produto> mapear(Spliterator<V> origem, Function<V, Produto> ler) {
+        return new Mapeado<>(origem, ler);
+    }
+
+    /**
+     * Spliterator sobre as posições {@code [inicio, fim)} de uma estrutura ordenada por ID (como um array),
+     * criando o produto de cada posição só quando ele é consumido. A divisão é sempre ao meio.
+     */
+    static Spliterator<Produto> porPosicao(int inicio, int fim, IntFunction<Produto> ler) {
+        return new PorPosicao(inicio, fim, ler);
+    }
+
+    private static final class Mapeado<V> implements Spliterator<Produto> {
+        private final Spliterator<V> origem;
+        private final Function<V, Produto> ler;
+
+        Mapeado(Spliterator<V> origem, Function<V, Produto> ler) {
+            this.origem = origem;
+            this.ler = ler;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Produto> acao) {
+            return origem.tryAdvance(valor -> acao.accept(ler.apply(valor)));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Produto> acao) {
+            origem.forEachRemaining(valor -> acao.accept(ler.apply(valor)));
+        }
+
+        @Override
+        public Spliterator<Produto> trySplit() {
+            Spliterator<V> prefixo = origem.trySplit();
+            return prefixo == null ? null : new Mapeado<>(prefixo, ler);
+        }
+
+        @Override
+        public long estimateSize() {
+            return origem.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            // SORTED/DISTINCT da origem valem para as chaves, não necessariamente para o valor convertido.
+            return origem.characteristics() & (ORDERED | SIZED | SUBSIZED | CONCURRENT | IMMUTABLE) | NONNULL;
+        }
+    }
+
+    private static final class PorPosicao implements Spliterator<Produto> {
+        private int proxima;
+        private final int fim;
+        private final IntFunction<Produto> ler;
+
+        PorPosicao(int inicio, int fim, IntFunction<Produto> ler) {
+            this.proxima = inicio;
+            this.fim = fim;
+            this.ler = ler;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Produto> acao) {
+            if (proxima >= fim) {
+                return false;
+            }
+            acao.accept(ler.apply(proxima++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Produto> acao) {
+            int i = proxima;
+            proxima = fim;
+            for (; i < fim; i++) {
+                acao.accept(ler.apply(i));
+            }
+        }
+
+        @Override
+        public Spliterator<Produto> trySplit() {
+            int meio = (proxima + fim) >>> 1;
+            if (meio <= proxima) {
+                return null;
+            }
+            Spliterator<Produto> prefixo = new PorPosicao(proxima, meio, ler);
+            proxima = meio;
+            return prefixo;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fim - proxima;
+        }
+
+        @Override
+        public int characteristics() {
+            // Produto é Comparable pelo ID, então a ordem por ID é a ordem natural (SORTED sem comparator).
+            return ORDERED | SORTED | DISTINCT | NONNULL | SIZED | SUBSIZED;
+        }
+
+        @Override
+        public Comparator<? super Produto> getComparator() {
+            return null;
+        }
+    }
+}
@@ -1,26 +1,59 @@
 package org.example;
 
-import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
-import lombok.Getter;
-import lombok.Setter;
+import lombok.Value;
 import lombok.ToString; // Adicione esta importação
 
 import java.math.BigDecimal;
 
-@Getter
-@Setter
-@AllArgsConstructor
+// Imutável: @Value deixa os campos final, sem setters, e gera construtor e getters.
+// Para "alterar" um produto, crie outro com withNome/withPreco e passe para o alterar do DAO.
+@Value
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @ToString // Adicione esta anotação para gerar o toString automaticamente
 public class Produto implements Comparable<Produto> { // Boa prática especificar o tipo genérico
 
     @EqualsAndHashCode.Include
-    private Integer id;
+    Integer id;
 
-    private String nome; // Renomeei de 'produto' para 'nome' para clareza
+    String nome; // Renomeei de 'produto' para 'nome' para clareza
 
-    private BigDecimal preco;
+    BigDecimal preco;
+
+    // Carimbo para o alterarSeVersao do DAO: começa em 0 e cada alteração condicional aceita grava a versão
+    // seguinte. withNome/withPreco mantêm a versão do produto lido.
+    long versao;
+
+    // O mesmo preço em centavos (Dinheiro.FORA se for nulo ou não for exato em centavos), calculado uma vez aqui
+    // para que somas, índices e colunas trabalhem com long sem converter o BigDecimal a cada leitura.
+    @ToString.Exclude
+    long precoEmCentavos;
+
+    public Produto(Integer id, String nome, BigDecimal preco) {
+        this(id, nome, preco, 0);
+    }
+
+    public Produto(Integer id, String nome, BigDecimal preco, long versao) {
+        this.id = id;
+        this.nome = nome;
+        this.preco = preco;
+        this.versao = versao;
+        this.precoEmCentavos = Dinheiro.deBigDecimal(preco);
+    }
+
+    // Os "with" são escritos à mão (e não com o @With do Lombok) para não copiar o precoEmCentavos antigo.
+
+    public Produto withNome(String nome) {
+        return this.nome == nome ? this : new Produto(id, nome, preco, versao);
+    }
+
+    public Produto withPreco(BigDecimal preco) {
+        return this.preco == preco ? this : new Produto(id, nome, preco, versao);
+    }
+
+    public Produto withVersao(long versao) {
+        return this.versao == versao ? this : new Produto(id, nome, preco, versao);
+    }
 
     @Override
     public int compareTo(Produto outroProduto) { // Especificando o tipo
@@ -0,0 +1,253 @@
+package org.example;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Decorator que mantém um índice invertido sobre {@code Produto.nome} para busca por nome e autocompletar.
+ * <p>
+ * Os nomes são quebrados em termos normalizados (minúsculas, sem acento: "Pão" vira "pao"). O dicionário de
+ * termos é um {@link TreeMap} ordenado, o que permite achar todos os termos com um prefixo em O(log n + k);
+ * cada termo aponta para os IDs dos produtos que o contêm, em ordem de ID.
+ * <p>
+ * Na busca, todos os termos da consulta precisam aparecer no nome (E lógico); o último termo vale como
+ * prefixo, para a busca funcionar enquanto o usuário digita. Os resultados saem em ordem de ID e são lidos do
+ * DAO envolvido. Não é thread-safe, assim como o {@link ProdutoMemoryDAO}.
+ */
+public class ProdutoBuscaNomeDAO extends ProdutoDAODecorator {
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final String[] SEM_TERMOS = new String[0];
+
+    // Termo normalizado -> IDs dos produtos cujo nome contém o termo.
+    private final TreeMap<String, NavigableSet<Integer>> indice = new TreeMap<>();
+    // Termos indexados de cada produto, para remover as entradas certas no alterar/excluir.
+    private final Map<Integer, String[]> termosIndexados = new HashMap<>();
+
+    public ProdutoBuscaNomeDAO(ProdutoDAO delegate) {
+        super(delegate);
+        // O DAO envolvido pode já ter produtos (por exemplo, recuperados de disco).
+        delegate.forEach(this::indexar);
+    }
+
+    @Override
+    public void insere(Produto produto) {
+        delegate.insere(produto);
+        indexar(produto);
+    }
+
+    @Override
+    public boolean alterar(Produto produtoAtualizado) {
+        if (!delegate.alterar(produtoAtualizado)) {
+            return false;
+        }
+        desindexar(produtoAtualizado.getId());
+        indexar(produtoAtualizado);
+        return true;
+    }
+
+    @Override
+    public boolean excluir(Integer id) {
+        if (!delegate.excluir(id)) {
+            return false;
+        }
+        desindexar(id);
+        return true;
+    }
+
+    /**
+     * Até {@code limite} produtos cujo nome contém todos os termos da consulta, em ordem de ID.
+     * O último termo é tratado como prefixo ("arroz int" encontra "Arroz Integral").
+     */
+    public List<Produto> buscarPorNome(String consulta, int limite) {
+        NavegacaoProdutos.validarLimite(limite);
+        String[] termos = termos(consulta);
+        if (termos.length == 0 || limite == 0) {
+            return new ArrayList<>();
+        }
+        String prefixo = termos[termos.length - 1];
+        String[] completos = Arrays.copyOf(termos, termos.length - 1);
+
+        // Percorre a menor lista de IDs candidata e confere os demais termos em cada candidato.
+        NavigableSet<Integer> menor = null;
+        for (String termo : completos) {
+            NavigableSet<Integer> ids = indice.get(termo);
+            if (ids == null) {
+                return new ArrayList<>();
+            }
+            if (menor == null || ids.size() < menor.size()) {
+                menor = ids;
+            }
+        }
+        // O prefixo vira candidato se somar menos IDs que o menor termo completo (a soma para assim que passa dele).
+        boolean porPrefixo = menor == null || contarAte(comPrefixo(prefixo), menor.size()) < menor.size();
+        Iterator<Integer> candidatos = porPrefixo ? idsComPrefixo(prefixo) : menor.iterator();
+
+        int[] encontrados = new int[Math.min(limite, 64)];
+        int n = 0;
+        while (n < limite && candidatos.hasNext()) {
+            int id = candidatos.next();
+            if (contemTodos(id, completos, prefixo, !porPrefixo)) {
+                if (n == encontrados.length) {
+                    encontrados = Arrays.copyOf(encontrados, (int) Math.min(limite, 2L * n));
+                }
+                encontrados[n++] = id;
+            }
+        }
+        return delegate.pesquisarPorIds(Arrays.copyOf(encontrados, n));
+    }
+
+    /** Até {@code limite} termos do dicionário que começam com o prefixo informado, em ordem alfabética. */
+    public List<String> autocompletar(String prefixo, int limite) {
+        NavegacaoProdutos.validarLimite(limite);
+        String[] termos = termos(prefixo);
+        List<String> sugestoes = new ArrayList<>();
+        if (termos.length == 0) {
+            return sugestoes;
+        }
+        for (String termo : comPrefixo(termos[termos.length - 1]).keySet()) {
+            if (sugestoes.size() == limite) break;
+            sugestoes.add(termo);
+        }
+        return sugestoes;
+    }
+
+    /** Quantidade de termos distintos no dicionário. */
+    public int quantidadeDeTermos() {
+        return indice.size();
+    }
+
+    /** Quebra um texto em termos normalizados: minúsculas, sem acentos, só letras e dígitos. */
+    static String[] termos(String texto) {
+        if (texto == null) {
+            return SEM_TERMOS;
+        }
+        String normalizado = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        normalizado = normalizado.toLowerCase(Locale.ROOT).trim();
+        if (normalizado.isEmpty()) {
+            return SEM_TERMOS;
+        }
+        return Arrays.stream(SEPARADORES.split(normalizado)).filter(t -> !t.isEmpty()).distinct().toArray(String[]::new);
+    }
+
+    private boolean contemTodos(int id, String[] completos, String prefixo, boolean conferirPrefixo) {
+        for (String termo : completos) {
+            if (!indice.get(termo).contains(id)) {
+                return false;
+            }
+        }
+        if (!conferirPrefixo) {
+            return true; // Candidato já veio da lista do prefixo.
+        }
+        for (String termo : termosIndexados.get(id)) {
+            if (termo.startsWith(prefixo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int contarAte(SortedMap<String, NavigableSet<Integer>> termos, int maximo) {
+        int total = 0;
+        for (NavigableSet<Integer> ids : termos.values()) {
+            total += ids.size();
+            if (total >= maximo) break;
+        }
+        return total;
+    }
+
+    private SortedMap<String, NavigableSet<Integer>> comPrefixo(String prefixo) {
+        // Todos os termos >= prefixo e < prefixo seguido do maior caractere possível.
+        return indice.subMap(prefixo, prefixo + Character.MAX_VALUE);
+    }
+
+    // IDs (em ordem, sem repetição) de todos os produtos com algum termo começando pelo prefixo:
+    // intercala as listas de cada termo com um heap, consumindo só o necessário.
+    private Iterator<Integer> idsComPrefixo(String prefixo) {
+        PriorityQueue<Cursor> heap = new PriorityQueue<>();
+        for (NavigableSet<Integer> ids : comPrefixo(prefixo).values()) {
+            Iterator<Integer> iterador = ids.iterator();
+            heap.add(new Cursor(iterador.next(), iterador));
+        }
+        return new Iterator<>() {
+            private Integer ultimo;
+
+            @Override
+            public boolean hasNext() {
+                while (!heap.isEmpty() && heap.peek().atual.equals(ultimo)) {
+                    avancar();
+                }
+                return !heap.isEmpty();
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                ultimo = heap.peek().atual;
+                avancar();
+                return ultimo;
+            }
+
+            private void avancar() {
+                Cursor cursor = heap.poll();
+                if (cursor.resto.hasNext()) {
+                    cursor.atual = cursor.resto.next();
+                    heap.add(cursor);
+                }
+            }
+        };
+    }
+
+    private static final class Cursor implements Comparable<Cursor> {
+        private Integer atual;
+        private final Iterator<Integer> resto;
+
+        Cursor(Integer atual, Iterator<Integer> resto) {
+            this.atual = atual;
+            this.resto = resto;
+        }
+
+        @Override
+        public int compareTo(Cursor outro) {
+            return atual.compareTo(outro.atual);
+        }
+    }
+
+    private void indexar(Produto produto) {
+        String[] termos = termos(produto.getNome());
+        if (termos.length == 0) {
+            return;
+        }
+        for (String termo : termos) {
+            indice.computeIfAbsent(termo, t -> new TreeSet<>()).add(produto.getId());
+        }
+        termosIndexados.put(produto.getId(), termos);
+    }
+
+    private void desindexar(Integer id) {
+        String[] termos = termosIndexados.remove(id);
+        if (termos == null) {
+            return;
+        }
+        for (String termo : termos) {
+            NavigableSet<Integer> ids = indice.get(termo);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                indice.remove(termo); // Termos sem produtos somem do autocompletar.
+            }
+        }
+    }
+}
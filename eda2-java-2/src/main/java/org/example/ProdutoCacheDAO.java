@@ -0,0 +1,469 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Decorator com cache de leitura ("read-through") na frente de um {@link ProdutoDAO} lento (disco, rede...).
+ * <p>
+ * {@code pesquisarPorId} consulta primeiro o cache; na falta, carrega do DAO envolvido e guarda o resultado,
+ * inclusive a <em>ausência</em> do produto (cache negativo), para que IDs inexistentes também não voltem ao
+ * DAO. {@code insere}, {@code alterar} e {@code excluir} gravam no DAO envolvido e depois invalidam a entrada.
+ * <p>
+ * O limite é por peso: número de entradas (peso 1 cada) ou bytes estimados ({@link #pesoEmBytes}). Ao passar
+ * do limite, a {@link Politica} escolhe quem sai:
+ * <ul>
+ *   <li>{@link Politica#LRU}: sai o menos usado recentemente.</li>
+ *   <li>{@link Politica#W_TINY_LFU}: uma pequena janela LRU (1%) recebe as entradas novas; ao sair da janela, a
+ *   entrada só entra na área principal (LRU segmentado) se já foi pedida mais vezes que a vítima, segundo um
+ *   contador aproximado de frequência. Resiste a varreduras que derrubariam o LRU.</li>
+ * </ul>
+ * Thread-safe. O caminho de acerto é um {@code get} no {@link ConcurrentHashMap} mais o registro do acesso em
+ * um buffer com perdas; as filas da política são atualizadas em lote, sob um lock que a leitura nunca espera.
+ */
+public class ProdutoCacheDAO extends ProdutoDAODecorator {
+
+    public enum Politica { LRU, W_TINY_LFU }
+
+    /** Contadores acumulados desde a criação do cache. Acertos incluem os do cache negativo. */
+    public record Estatisticas(long acertos, long faltas, long despejos) {
+        public double taxaDeAcerto() {
+            long total = acertos + faltas;
+            return total == 0 ? 0 : (double) acertos / total;
+        }
+    }
+
+    private static final int JANELA = 0;
+    private static final int PROVACAO = 1;
+    private static final int PROTEGIDA = 2;
+
+    private static final class Entrada {
+        final Integer id;
+        final Produto produto; // null = produto não existe no DAO envolvido (cache negativo)
+        final long peso;
+        // Campos abaixo só são lidos e escritos com o lock da política.
+        Entrada anterior;
+        Entrada proxima;
+        int fila = -1;
+        boolean removida;
+
+        Entrada(Integer id, Produto produto, long peso) {
+            this.id = id;
+            this.produto = produto;
+            this.peso = peso;
+        }
+    }
+
+    private final ConcurrentHashMap<Integer, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Politica politica;
+    private final long pesoMaximo;
+    private final ToLongFunction<Produto> peso;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final BufferDeAcessos[] buffers;
+    private final Fila[] filas = {new Fila(), new Fila(), new Fila()};
+    private final long pesoMaximoJanela;
+    private final long pesoMaximoProtegida;
+    private final SketchDeFrequencia frequencias;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder despejos = new LongAdder();
+
+    /** Cache limitado pelo número de entradas (produtos e IDs inexistentes contam igual). */
+    public ProdutoCacheDAO(ProdutoDAO delegate, Politica politica, int maximoDeEntradas) {
+        this(delegate, politica, maximoDeEntradas, produto -> 1);
+    }
+
+    /**
+     * Cache limitado pela soma dos pesos das entradas. {@code peso} recebe null para as entradas de ID
+     * inexistente e deve devolver um valor positivo; use {@link #pesoEmBytes} para limitar por memória.
+     */
+    public ProdutoCacheDAO(ProdutoDAO delegate, Politica politica, long pesoMaximo, ToLongFunction<Produto> peso) {
+        super(delegate);
+        if (politica == null || peso == null) {
+            throw new IllegalArgumentException("Política e função de peso não podem ser nulas.");
+        }
+        if (pesoMaximo <= 0) {
+            throw new IllegalArgumentException("O peso máximo do cache deve ser positivo.");
+        }
+        this.politica = politica;
+        this.pesoMaximo = pesoMaximo;
+        this.peso = peso;
+        this.pesoMaximoJanela = politica == Politica.LRU ? pesoMaximo : Math.max(1, pesoMaximo / 100);
+        this.pesoMaximoProtegida = (pesoMaximo - pesoMaximoJanela) * 8 / 10;
+        this.frequencias = politica == Politica.W_TINY_LFU ? new SketchDeFrequencia() : null;
+        int processadores = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        this.buffers = new BufferDeAcessos[processadores];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new BufferDeAcessos();
+        }
+    }
+
+    /**
+     * Estimativa de bytes ocupados no heap por uma entrada do cache: o nó do mapa e da política, o
+     * {@link Produto} e seus campos (ID, nome em Latin-1, preço). Produto null conta só o nó.
+     */
+    public static long pesoEmBytes(Produto produto) {
+        long bytes = 96; // nó do ConcurrentHashMap + Entrada
+        if (produto != null) {
+            bytes += 24 + 16; // Produto + Integer
+            if (produto.getNome() != null) bytes += 24 + 16 + produto.getNome().length(); // String + byte[]
+            if (produto.getPreco() != null) bytes += 40; // BigDecimal com valor que cabe em long
+        }
+        return bytes;
+    }
+
+    @Override
+    public Produto pesquisarPorId(Integer id) {
+        if (id == null) return null;
+        return pesquisarPorId(id.intValue());
+    }
+
+    @Override
+    public Produto pesquisarPorId(int id) {
+        Entrada entrada = entradas.get(id);
+        if (entrada != null) {
+            acertos.increment();
+            registrarAcesso(entrada);
+            return entrada.produto;
+        }
+        faltas.increment();
+        // computeIfAbsent: uma única carga por ID mesmo com várias threads pedindo ao mesmo tempo, e uma
+        // invalidação concorrente (remove) espera a carga terminar, então nunca sobra um valor antigo.
+        entrada = entradas.computeIfAbsent(id, chave -> {
+            Produto produto = delegate.pesquisarPorId(chave);
+            return new Entrada(chave, produto, peso.applyAsLong(produto));
+        });
+        registrarEscrita(entrada);
+        return entrada.produto;
+    }
+
+    @Override
+    public List<Produto> pesquisarPorIds(int[] ids) {
+        // Volta para a implementação padrão (um pesquisarPorId por ID) para passar pelo cache.
+        List<Produto> encontrados = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            encontrados.add(pesquisarPorId(id));
+        }
+        return encontrados;
+    }
+
+    @Override
+    public void insere(Produto produto) {
+        try {
+            delegate.insere(produto);
+        } finally {
+            // Remove a entrada negativa que possa existir para esse ID.
+            if (produto != null) invalidar(produto.getId());
+        }
+    }
+
+    @Override
+    public boolean alterar(Produto produtoAtualizado) {
+        try {
+            return delegate.alterar(produtoAtualizado);
+        } finally {
+            if (produtoAtualizado != null) invalidar(produtoAtualizado.getId());
+        }
+    }
+
+    @Override
+    public boolean excluir(Integer id) {
+        try {
+            return delegate.excluir(id);
+        } finally {
+            invalidar(id);
+        }
+    }
+
+    /** Descarta a entrada do ID, se houver. Use quando o DAO envolvido for alterado por fora deste cache. */
+    public void invalidar(Integer id) {
+        if (id == null) return;
+        Entrada entrada = entradas.remove(id);
+        if (entrada != null) {
+            lock.lock();
+            try {
+                descartar(entrada);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /** Descarta todas as entradas. */
+    public void invalidarTudo() {
+        for (Integer id : entradas.keySet()) {
+            invalidar(id);
+        }
+    }
+
+    public Estatisticas estatisticas() {
+        return new Estatisticas(acertos.sum(), faltas.sum(), despejos.sum());
+    }
+
+    /** Quantidade de entradas no cache (incluindo as de IDs inexistentes). */
+    public int tamanho() {
+        return entradas.size();
+    }
+
+    /** Soma dos pesos das entradas já contabilizadas pela política. */
+    public long pesoAtual() {
+        lock.lock();
+        try {
+            return filas[JANELA].peso + filas[PROVACAO].peso + filas[PROTEGIDA].peso;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ---- Registro de acessos: buffers com perdas, drenados em lote sob o lock ----
+
+    private void registrarAcesso(Entrada entrada) {
+        BufferDeAcessos buffer = buffers[(int) Thread.currentThread().threadId() & (buffers.length - 1)];
+        // Buffer cheio: o acesso é simplesmente perdido (a política é aproximada de qualquer forma).
+        if (buffer.oferecer(entrada) && lock.tryLock()) {
+            try {
+                drenarAcessos();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void registrarEscrita(Entrada entrada) {
+        lock.lock();
+        try {
+            drenarAcessos();
+            if (entrada.removida || entrada.fila >= 0) {
+                return; // Já invalidada ou já adicionada por outra thread que pediu o mesmo ID.
+            }
+            if (frequencias != null) frequencias.incrementar(entrada.id);
+            filas[JANELA].adicionarNoFim(entrada, JANELA);
+            ajustarJanela();
+            despejarExcesso();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drenarAcessos() {
+        for (BufferDeAcessos buffer : buffers) {
+            buffer.drenar(this);
+        }
+    }
+
+    // ---- Política (sempre com o lock) ----
+
+    private void aplicarAcesso(Entrada entrada) {
+        if (entrada.removida || entrada.fila < 0) return;
+        if (frequencias != null) frequencias.incrementar(entrada.id);
+        switch (entrada.fila) {
+            case PROVACAO -> {
+                // Segundo acesso na área principal: promove para a área protegida.
+                filas[PROVACAO].remover(entrada);
+                filas[PROTEGIDA].adicionarNoFim(entrada, PROTEGIDA);
+                while (filas[PROTEGIDA].peso > pesoMaximoProtegida && filas[PROTEGIDA].cabeca != entrada) {
+                    Entrada rebaixada = filas[PROTEGIDA].cabeca;
+                    filas[PROTEGIDA].remover(rebaixada);
+                    filas[PROVACAO].adicionarNoFim(rebaixada, PROVACAO);
+                }
+            }
+            default -> filas[entrada.fila].moverParaFim(entrada);
+        }
+    }
+
+    // Entradas que saem da janela vão para o fim da área de provação como candidatas.
+    private void ajustarJanela() {
+        if (politica == Politica.LRU) return;
+        while (filas[JANELA].peso > pesoMaximoJanela && filas[JANELA].cabeca != null) {
+            Entrada candidata = filas[JANELA].cabeca;
+            filas[JANELA].remover(candidata);
+            filas[PROVACAO].adicionarNoFim(candidata, PROVACAO);
+        }
+    }
+
+    private void despejarExcesso() {
+        while (filas[JANELA].peso + filas[PROVACAO].peso + filas[PROTEGIDA].peso > pesoMaximo) {
+            Entrada saindo;
+            if (politica == Politica.LRU) {
+                saindo = filas[JANELA].cabeca;
+            } else if (filas[PROVACAO].cabeca != null) {
+                // TinyLFU: a candidata recém-chegada da janela (fim) disputa com a vítima (início) da provação.
+                Entrada vitima = filas[PROVACAO].cabeca;
+                Entrada candidata = filas[PROVACAO].cauda;
+                saindo = vitima == candidata
+                        || frequencias.frequencia(candidata.id) > frequencias.frequencia(vitima.id) ? vitima : candidata;
+            } else if (filas[PROTEGIDA].cabeca != null) {
+                saindo = filas[PROTEGIDA].cabeca;
+            } else {
+                saindo = filas[JANELA].cabeca;
+            }
+            descartar(saindo);
+            entradas.remove(saindo.id, saindo);
+            despejos.increment();
+        }
+    }
+
+    private void descartar(Entrada entrada) {
+        if (entrada.removida) return;
+        entrada.removida = true;
+        if (entrada.fila >= 0) {
+            filas[entrada.fila].remover(entrada);
+        }
+    }
+
+    /** Lista duplamente encadeada intrusiva (os ponteiros ficam na própria {@link Entrada}). */
+    private static final class Fila {
+        Entrada cabeca;
+        Entrada cauda;
+        long peso;
+
+        void adicionarNoFim(Entrada entrada, int fila) {
+            entrada.fila = fila;
+            entrada.anterior = cauda;
+            entrada.proxima = null;
+            if (cauda == null) cabeca = entrada;
+            else cauda.proxima = entrada;
+            cauda = entrada;
+            peso += entrada.peso;
+        }
+
+        void remover(Entrada entrada) {
+            if (entrada.anterior == null) cabeca = entrada.proxima;
+            else entrada.anterior.proxima = entrada.proxima;
+            if (entrada.proxima == null) cauda = entrada.anterior;
+            else entrada.proxima.anterior = entrada.anterior;
+            entrada.anterior = null;
+            entrada.proxima = null;
+            entrada.fila = -1;
+            peso -= entrada.peso;
+        }
+
+        void moverParaFim(Entrada entrada) {
+            if (cauda == entrada) return;
+            int fila = entrada.fila;
+            remover(entrada);
+            adicionarNoFim(entrada, fila);
+        }
+    }
+
+    /**
+     * Anel de acessos de um grupo de threads. Produtores reservam uma posição com CAS; se o anel está cheio
+     * o acesso é descartado. Só quem tem o lock da política drena.
+     */
+    private static final class BufferDeAcessos {
+        private static final int TAMANHO = 64; // potência de 2
+        private static final int DRENAR_A_PARTIR_DE = TAMANHO / 2;
+
+        private final AtomicReferenceArray<Entrada> posicoes = new AtomicReferenceArray<>(TAMANHO);
+        private final AtomicLong escrita = new AtomicLong();
+        private volatile long leitura;
+
+        /** Devolve true quando vale a pena drenar. */
+        boolean oferecer(Entrada entrada) {
+            long posicao = escrita.get();
+            long pendentes = posicao - leitura;
+            if (pendentes >= TAMANHO) {
+                return true;
+            }
+            if (escrita.compareAndSet(posicao, posicao + 1)) {
+                posicoes.lazySet((int) (posicao & (TAMANHO - 1)), entrada);
+            }
+            return pendentes + 1 >= DRENAR_A_PARTIR_DE;
+        }
+
+        void drenar(ProdutoCacheDAO cache) {
+            long posicao = leitura;
+            long fim = escrita.get();
+            while (posicao < fim) {
+                int indice = (int) (posicao & (TAMANHO - 1));
+                Entrada entrada = posicoes.get(indice);
+                if (entrada == null) break; // Produtor reservou mas ainda não gravou.
+                posicoes.lazySet(indice, null);
+                cache.aplicarAcesso(entrada);
+                posicao++;
+            }
+            leitura = posicao;
+        }
+    }
+
+    /**
+     * Contador aproximado de frequência (Count-Min Sketch com contadores de 4 bits). Cada long guarda 16
+     * contadores; cada ID incrementa 4 deles e a frequência é o menor dos 4. Quando o total de incrementos
+     * chega a 10x o número de contadores, todos são divididos por 2 para que acessos antigos percam peso.
+     */
+    private final class SketchDeFrequencia {
+        private static final long[] SEMENTES = {0x97cb3127L, 0xbf58476d1ce4e5b9L, 0x94d049bb133111ebL, 0x9e3779b97f4a7c15L};
+
+        private long[] tabela = new long[16];
+        private int incrementos;
+
+        void incrementar(Integer id) {
+            garantirCapacidade();
+            int hash = espalhar(id);
+            int inicio = (hash & 3) << 2;
+            boolean incrementou = false;
+            for (int i = 0; i < 4; i++) {
+                incrementou |= incrementarNaPosicao(indice(hash, i), inicio + i);
+            }
+            if (incrementou && ++incrementos >= 10L * tabela.length) {
+                envelhecer();
+            }
+        }
+
+        int frequencia(Integer id) {
+            int hash = espalhar(id);
+            int inicio = (hash & 3) << 2;
+            int minimo = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                int contador = (int) ((tabela[indice(hash, i)] >>> ((inicio + i) << 2)) & 0xFL);
+                minimo = Math.min(minimo, contador);
+            }
+            return minimo;
+        }
+
+        private boolean incrementarNaPosicao(int i, int contador) {
+            int deslocamento = contador << 2;
+            long mascara = 0xFL << deslocamento;
+            if ((tabela[i] & mascara) != mascara) {
+                tabela[i] += 1L << deslocamento;
+                return true;
+            }
+            return false; // Saturado em 15.
+        }
+
+        private void envelhecer() {
+            for (int i = 0; i < tabela.length; i++) {
+                tabela[i] = (tabela[i] >>> 1) & 0x7777777777777777L;
+            }
+            incrementos /= 2;
+        }
+
+        // Cresce com o cache (uma posição por entrada), até 2^22 longs; ao crescer as contagens recomeçam.
+        private void garantirCapacidade() {
+            int desejado = Integer.highestOneBit(Math.min(Math.max(entradas.size(), 16), 1 << 22) * 2 - 1);
+            if (desejado > tabela.length) {
+                tabela = new long[desejado];
+                incrementos = 0;
+            }
+        }
+
+        private int indice(int hash, int i) {
+            long h = (hash + SEMENTES[i]) * SEMENTES[i];
+            h += h >>> 32;
+            return (int) h & (tabela.length - 1);
+        }
+
+        private int espalhar(Integer id) {
+            int h = id * 0x9e3779b9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
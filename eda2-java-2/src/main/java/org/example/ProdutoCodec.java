@@ -0,0 +1,354 @@
+package org.example;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Codificação binária compacta e versionada de {@link Produto} e de lotes de produtos, lida e gravada direto em
+ * um {@link ByteBuffer} (heap ou direto), para persistência, replicação ou rede.
+ * <p>
+ * Formato (versão 1): um byte de versão e, no lote, a quantidade de produtos; depois, para cada produto,
+ * <pre>
+ *   [flags: 1 byte][id: varint][versão: varint][nome: tamanho varint + UTF-8][preço]
+ * </pre>
+ * Os varints são em base 128 (7 bits por byte, o bit mais alto indica que há mais bytes), então IDs até 127
+ * ocupam 1 byte e até 16383 ocupam 2. O preço é em ponto fixo: com escala 2 e exato em centavos, só os centavos
+ * (zigzag varint, usando o {@link Produto#getPrecoEmCentavos()} já calculado); com até 18 dígitos, o valor sem
+ * escala e a escala (zigzag varints); acima disso, a escala e os bytes do {@link BigInteger}. Nome e preço
+ * nulos ficam só nas flags. O nome é convertido para UTF-8 direto no buffer, sem {@code getBytes}.
+ * <p>
+ * Se não houver espaço, {@code escrever} lança {@link BufferOverflowException} sem mexer na posição do buffer
+ * ({@link #tamanho} diz quanto reservar); produto ou ID nulo lança {@link IllegalArgumentException}. Dados
+ * truncados, uma versão desconhecida ou flags inválidas lançam {@link IllegalArgumentException}, também com a
+ * posição restaurada.
+ */
+public final class ProdutoCodec {
+    public static final byte VERSAO = 1;
+
+    private static final int FLAG_NOME_NULO = 1;
+    private static final int FLAG_PRECO_NULO = 2;
+    private static final int FLAG_PRECO_CENTAVOS = 4;
+    private static final int FLAG_PRECO_GRANDE = 8;
+    private static final int FLAGS_CONHECIDAS = FLAG_NOME_NULO | FLAG_PRECO_NULO | FLAG_PRECO_CENTAVOS | FLAG_PRECO_GRANDE;
+
+    private ProdutoCodec() {
+    }
+
+    /** Quantidade exata de bytes que {@link #escrever(ByteBuffer, Produto)} grava para o produto. */
+    public static int tamanho(Produto produto) {
+        return 1 + tamanhoCorpo(produto);
+    }
+
+    /** Quantidade exata de bytes que {@link #escreverLote} grava para os produtos. */
+    public static int tamanhoLote(Collection<Produto> produtos) {
+        int tamanho = 1 + tamanhoVarint(produtos.size());
+        for (Produto produto : produtos) {
+            tamanho += tamanhoCorpo(produto);
+        }
+        return tamanho;
+    }
+
+    /** Grava a versão e o produto a partir da posição atual do buffer. */
+    public static void escrever(ByteBuffer buffer, Produto produto) {
+        int inicio = buffer.position();
+        try {
+            buffer.put(VERSAO);
+            escreverCorpo(buffer, produto);
+        } catch (RuntimeException e) {
+            buffer.position(inicio);
+            throw e;
+        }
+    }
+
+    /** Grava a versão, a quantidade e os produtos, na ordem da coleção. */
+    public static void escreverLote(ByteBuffer buffer, Collection<Produto> produtos) {
+        int inicio = buffer.position();
+        try {
+            buffer.put(VERSAO);
+            escreverVarint(buffer, produtos.size());
+            int escritos = 0;
+            for (Produto produto : produtos) {
+                escreverCorpo(buffer, produto);
+                escritos++;
+            }
+            if (escritos != produtos.size()) {
+                throw new IllegalArgumentException("A coleção mudou de tamanho durante a gravação.");
+            }
+        } catch (RuntimeException e) {
+            buffer.position(inicio);
+            throw e;
+        }
+    }
+
+    /** Lê um produto gravado por {@link #escrever(ByteBuffer, Produto)}, avançando a posição do buffer. */
+    public static Produto ler(ByteBuffer buffer) {
+        int inicio = buffer.position();
+        try {
+            lerVersao(buffer);
+            return lerCorpo(buffer);
+        } catch (RuntimeException e) {
+            throw invalido(buffer, inicio, e);
+        }
+    }
+
+    /** Lê um lote gravado por {@link #escreverLote}, avançando a posição do buffer. */
+    public static List<Produto> lerLote(ByteBuffer buffer) {
+        int inicio = buffer.position();
+        try {
+            lerVersao(buffer);
+            int quantidade = lerVarint(buffer);
+            // Cada produto ocupa pelo menos 3 bytes: uma quantidade maior que isso é lixo, não um lote enorme.
+            if (quantidade < 0 || quantidade > buffer.remaining() / 3) {
+                throw new IllegalArgumentException("Quantidade de produtos inválida: " + quantidade + ".");
+            }
+            List<Produto> produtos = new ArrayList<>(quantidade);
+            for (int i = 0; i < quantidade; i++) {
+                produtos.add(lerCorpo(buffer));
+            }
+            return produtos;
+        } catch (RuntimeException e) {
+            throw invalido(buffer, inicio, e);
+        }
+    }
+
+    // ---------------------------------------------------------------- produto
+
+    private static int tamanhoCorpo(Produto produto) {
+        validar(produto);
+        int tamanho = 1 + tamanhoVarint(produto.getId()) + tamanhoVarlong(produto.getVersao());
+        String nome = produto.getNome();
+        if (nome != null) {
+            int bytes = tamanhoUtf8(nome);
+            tamanho += tamanhoVarint(bytes) + bytes;
+        }
+        BigDecimal preco = produto.getPreco();
+        if (preco != null) {
+            long semEscala;
+            if (preco.scale() == Dinheiro.ESCALA && produto.getPrecoEmCentavos() != Dinheiro.FORA) {
+                tamanho += tamanhoVarlong(zigzag(produto.getPrecoEmCentavos()));
+            } else if ((semEscala = Dinheiro.emUnidades(preco, preco.scale())) != Dinheiro.FORA) {
+                tamanho += tamanhoVarlong(zigzag(semEscala)) + tamanhoVarint(zigzag(preco.scale()));
+            } else {
+                int bytes = preco.unscaledValue().bitLength() / 8 + 1;
+                tamanho += tamanhoVarint(zigzag(preco.scale())) + tamanhoVarint(bytes) + bytes;
+            }
+        }
+        return tamanho;
+    }
+
+    private static void escreverCorpo(ByteBuffer buffer, Produto produto) {
+        validar(produto);
+        String nome = produto.getNome();
+        BigDecimal preco = produto.getPreco();
+        long semEscala = Dinheiro.FORA;
+        int flags = 0;
+        if (nome == null) flags |= FLAG_NOME_NULO;
+        if (preco == null) {
+            flags |= FLAG_PRECO_NULO;
+        } else if (preco.scale() == Dinheiro.ESCALA && produto.getPrecoEmCentavos() != Dinheiro.FORA) {
+            flags |= FLAG_PRECO_CENTAVOS;
+        } else if ((semEscala = Dinheiro.emUnidades(preco, preco.scale())) == Dinheiro.FORA) {
+            flags |= FLAG_PRECO_GRANDE;
+        }
+
+        buffer.put((byte) flags);
+        escreverVarint(buffer, produto.getId());
+        escreverVarlong(buffer, produto.getVersao());
+        if (nome != null) {
+            escreverVarint(buffer, tamanhoUtf8(nome));
+            escreverUtf8(buffer, nome);
+        }
+        if ((flags & FLAG_PRECO_CENTAVOS) != 0) {
+            escreverVarlong(buffer, zigzag(produto.getPrecoEmCentavos()));
+        } else if ((flags & FLAG_PRECO_GRANDE) != 0) {
+            // Só preços com mais de 18 dígitos passam pelo byte[] do BigInteger.
+            byte[] valor = preco.unscaledValue().toByteArray();
+            escreverVarint(buffer, zigzag(preco.scale()));
+            escreverVarint(buffer, valor.length);
+            buffer.put(valor);
+        } else if (preco != null) {
+            escreverVarlong(buffer, zigzag(semEscala));
+            escreverVarint(buffer, zigzag(preco.scale()));
+        }
+    }
+
+    private static Produto lerCorpo(ByteBuffer buffer) {
+        int flags = buffer.get() & 0xFF;
+        if ((flags & ~FLAGS_CONHECIDAS) != 0 || Integer.bitCount(flags & ~FLAG_NOME_NULO) > 1) {
+            throw new IllegalArgumentException("Flags inválidas: " + flags + ".");
+        }
+        int id = lerVarint(buffer);
+        long versao = lerVarlong(buffer);
+        String nome = null;
+        if ((flags & FLAG_NOME_NULO) == 0) {
+            nome = lerUtf8(buffer, lerTamanho(buffer));
+        }
+        BigDecimal preco = null;
+        if ((flags & FLAG_PRECO_CENTAVOS) != 0) {
+            preco = BigDecimal.valueOf(unzigzag(lerVarlong(buffer)), Dinheiro.ESCALA);
+        } else if ((flags & FLAG_PRECO_GRANDE) != 0) {
+            int escala = unzigzag(lerVarint(buffer));
+            byte[] valor = new byte[lerTamanho(buffer)];
+            buffer.get(valor);
+            preco = new BigDecimal(new BigInteger(valor), escala);
+        } else if ((flags & FLAG_PRECO_NULO) == 0) {
+            long valor = unzigzag(lerVarlong(buffer));
+            preco = BigDecimal.valueOf(valor, unzigzag(lerVarint(buffer)));
+        }
+        return new Produto(id, nome, preco, versao);
+    }
+
+    private static void validar(Produto produto) {
+        if (produto == null || produto.getId() == null) {
+            throw new IllegalArgumentException("Produto ou ID do produto não pode ser nulo.");
+        }
+    }
+
+    private static void lerVersao(ByteBuffer buffer) {
+        byte versao = buffer.get();
+        if (versao != VERSAO) {
+            throw new IllegalArgumentException("Versão do formato não suportada: " + versao + ".");
+        }
+    }
+
+    private static IllegalArgumentException invalido(ByteBuffer buffer, int inicio, RuntimeException causa) {
+        buffer.position(inicio);
+        if (causa instanceof BufferUnderflowException) {
+            return new IllegalArgumentException("Produto codificado truncado.", causa);
+        }
+        return causa instanceof IllegalArgumentException e ? e
+                : new IllegalArgumentException("Produto codificado inválido.", causa);
+    }
+
+    // ---------------------------------------------------------------- UTF-8
+
+    // Bytes do nome em UTF-8, contados sem convertê-lo. Surrogate sem par vira '?', como no getBytes.
+    private static int tamanhoUtf8(String texto) {
+        int n = texto.length();
+        int bytes = n;
+        for (int i = 0; i < n; i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) continue;
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                bytes += 2; // 4 bytes para os 2 chars do par
+                i++;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    private static void escreverUtf8(ByteBuffer buffer, String texto) {
+        int n = texto.length();
+        for (int i = 0; i < n; i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                int codigo = Character.toCodePoint(c, texto.charAt(++i));
+                buffer.put((byte) (0xF0 | codigo >> 18)).put((byte) (0x80 | codigo >> 12 & 0x3F))
+                        .put((byte) (0x80 | codigo >> 6 & 0x3F)).put((byte) (0x80 | codigo & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private static String lerUtf8(ByteBuffer buffer, int tamanho) {
+        int posicao = buffer.position();
+        String texto;
+        if (buffer.hasArray()) {
+            // Direto do array do buffer: o construtor da String tem o caminho rápido para ASCII.
+            texto = new String(buffer.array(), buffer.arrayOffset() + posicao, tamanho, StandardCharsets.UTF_8);
+        } else {
+            texto = StandardCharsets.UTF_8.decode(buffer.slice(posicao, tamanho)).toString();
+        }
+        buffer.position(posicao + tamanho);
+        return texto;
+    }
+
+    // ---------------------------------------------------------------- varints
+
+    private static int zigzag(int valor) {
+        return valor << 1 ^ valor >> 31;
+    }
+
+    private static long zigzag(long valor) {
+        return valor << 1 ^ valor >> 63;
+    }
+
+    private static int unzigzag(int valor) {
+        return valor >>> 1 ^ -(valor & 1);
+    }
+
+    private static long unzigzag(long valor) {
+        return valor >>> 1 ^ -(valor & 1);
+    }
+
+    private static int tamanhoVarint(int valor) {
+        return tamanhoVarlong(valor & 0xFFFFFFFFL);
+    }
+
+    private static int tamanhoVarlong(long valor) {
+        // 1 byte a cada 7 bits significativos; 0 ocupa 1 byte.
+        return (63 - Long.numberOfLeadingZeros(valor | 1)) / 7 + 1;
+    }
+
+    private static void escreverVarint(ByteBuffer buffer, int valor) {
+        escreverVarlong(buffer, valor & 0xFFFFFFFFL);
+    }
+
+    private static void escreverVarlong(ByteBuffer buffer, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            buffer.put((byte) (valor & 0x7F | 0x80));
+            valor >>>= 7;
+        }
+        buffer.put((byte) valor);
+    }
+
+    private static int lerVarint(ByteBuffer buffer) {
+        long valor = lerVarlong(buffer);
+        if ((valor & ~0xFFFFFFFFL) != 0) {
+            throw new IllegalArgumentException("Varint maior que um int.");
+        }
+        return (int) valor;
+    }
+
+    private static long lerVarlong(ByteBuffer buffer) {
+        long valor = 0;
+        for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+            byte b = buffer.get();
+            valor |= (long) (b & 0x7F) << deslocamento;
+            if (b >= 0) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("Varint com mais de 10 bytes.");
+    }
+
+    private static int lerTamanho(ByteBuffer buffer) {
+        int tamanho = lerVarint(buffer);
+        if (tamanho < 0) {
+            throw new IllegalArgumentException("Tamanho inválido: " + tamanho + ".");
+        }
+        // Conferido antes de qualquer alocação: um tamanho corrompido não pode pedir um array de 2 GB.
+        if (tamanho > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return tamanho;
+    }
+}
@@ -0,0 +1,427 @@
+package org.example;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+
+/**
+ * DAO com armazenamento colunar: em vez de um objeto {@link Produto} por item, cada atributo fica em um array
+ * paralelo, com as linhas mantidas em ordem crescente de ID.
+ * <ul>
+ *     <li>IDs em {@code int[]} (busca binária);</li>
+ *     <li>preços em {@code long[]}, em centavos (escala 2);</li>
+ *     <li>versões em {@code long[]}, para o {@link #alterarSeVersao};</li>
+ *     <li>nomes em UTF-8 dentro de um único {@code byte[]} compartilhado, com início e tamanho por linha.</li>
+ * </ul>
+ * Cada produto custa 28 bytes de colunas mais os bytes do nome, contra mais de 150 bytes de objetos
+ * (Produto, Integer, String, byte[], BigDecimal e nó do TreeMap) no {@link ProdutoMemoryDAO}.
+ * Os objetos {@link Produto} só são criados quando alguém pede por eles; agregações como
+ * {@link #somaPrecos()} percorrem direto o {@code long[]}.
+ * <p>
+ * Preços precisam ter representação em centavos ({@link Dinheiro}: no máximo 2 casas decimais). Não é
+ * thread-safe.
+ */
+public class ProdutoColunarDAO implements ProdutoDAO {
+    private static final int CAPACIDADE_INICIAL = 16;
+    private static final int ESCALA_PRECO = Dinheiro.ESCALA;
+    // Marcadores para atributos nulos, já que as colunas são primitivas.
+    private static final long PRECO_NULO = Long.MIN_VALUE;
+    private static final int NOME_NULO = -1;
+
+    private int[] ids = new int[CAPACIDADE_INICIAL];
+    private long[] precos = new long[CAPACIDADE_INICIAL];
+    private long[] versoes = new long[CAPACIDADE_INICIAL];
+    private int[] inicioNome = new int[CAPACIDADE_INICIAL];
+    private int[] tamanhoNome = new int[CAPACIDADE_INICIAL];
+    private int quantidade;
+
+    // Área compartilhada com os bytes UTF-8 de todos os nomes.
+    private byte[] nomes = new byte[CAPACIDADE_INICIAL * 16];
+    private int nomesUsados;
+    // Bytes de nomes que não pertencem mais a nenhuma linha (alterados ou excluídos).
+    private int nomesDescartados;
+
+    @Override
+    public void insere(Produto produto) {
+        if (produto == null || produto.getId() == null) {
+            throw new IllegalArgumentException("Produto ou ID do produto não pode ser nulo.");
+        }
+        int posicao = buscar(produto.getId());
+        if (posicao >= 0) {
+            throw new IllegalArgumentException("Erro: Já existe um produto com o ID " + produto.getId() + ".");
+        }
+        long preco = paraCentavos(produto);
+        posicao = -posicao - 1;
+        garantirCapacidade(quantidade + 1);
+        // Abre espaço na posição ordenada deslocando o final de cada coluna.
+        int mover = quantidade - posicao;
+        System.arraycopy(ids, posicao, ids, posicao + 1, mover);
+        System.arraycopy(precos, posicao, precos, posicao + 1, mover);
+        System.arraycopy(versoes, posicao, versoes, posicao + 1, mover);
+        System.arraycopy(inicioNome, posicao, inicioNome, posicao + 1, mover);
+        System.arraycopy(tamanhoNome, posicao, tamanhoNome, posicao + 1, mover);
+        quantidade++;
+
+        ids[posicao] = produto.getId();
+        precos[posicao] = preco;
+        versoes[posicao] = produto.getVersao();
+        tamanhoNome[posicao] = NOME_NULO; // A linha ainda aponta para o nome do vizinho deslocado.
+        gravarNome(posicao, codificar(produto.getNome()));
+    }
+
+    @Override
+    public Collection<Produto> listarTodos() {
+        List<Produto> lista = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            lista.add(materializar(i));
+        }
+        return lista;
+    }
+
+    @Override
+    public Spliterator<Produto> spliterator() {
+        // As linhas já estão em ordem de ID: cada produto é montado das colunas só quando for consumido.
+        return NavegacaoProdutos.porPosicao(0, quantidade, this::materializar);
+    }
+
+    @Override
+    public Produto pesquisarPorId(Integer id) {
+        if (id == null) return null;
+        return pesquisarPorId(id.intValue());
+    }
+
+    @Override
+    public Produto pesquisarPorId(int id) {
+        int posicao = buscar(id);
+        return posicao >= 0 ? materializar(posicao) : null;
+    }
+
+    @Override
+    public boolean alterar(Produto produtoAtualizado) {
+        if (produtoAtualizado == null || produtoAtualizado.getId() == null) {
+            return false;
+        }
+        int posicao = buscar(produtoAtualizado.getId());
+        if (posicao < 0) {
+            return false;
+        }
+        gravar(posicao, produtoAtualizado);
+        return true;
+    }
+
+    @Override
+    public boolean alterarSeVersao(Produto produto, long versaoEsperada) {
+        if (produto == null || produto.getId() == null) {
+            return false;
+        }
+        // Confere direto na coluna, sem materializar o produto guardado.
+        int posicao = buscar(produto.getId());
+        if (posicao < 0 || versoes[posicao] != versaoEsperada) {
+            return false;
+        }
+        gravar(posicao, produto.withVersao(versaoEsperada + 1));
+        return true;
+    }
+
+    @Override
+    public boolean excluir(Integer id) {
+        if (id == null) return false;
+        return excluir(id.intValue());
+    }
+
+    @Override
+    public boolean excluir(int id) {
+        int posicao = buscar(id);
+        if (posicao < 0) {
+            return false;
+        }
+        descartarNome(posicao);
+        int mover = quantidade - posicao - 1;
+        System.arraycopy(ids, posicao + 1, ids, posicao, mover);
+        System.arraycopy(precos, posicao + 1, precos, posicao, mover);
+        System.arraycopy(versoes, posicao + 1, versoes, posicao, mover);
+        System.arraycopy(inicioNome, posicao + 1, inicioNome, posicao, mover);
+        System.arraycopy(tamanhoNome, posicao + 1, tamanhoNome, posicao, mover);
+        quantidade--;
+        return true;
+    }
+
+    @Override
+    public void insereTodos(Collection<Produto> lote) {
+        Produto[] ordenados = LoteProdutos.ordenarEValidar(lote);
+        long[] precosLote = new long[ordenados.length];
+        for (int i = 0; i < ordenados.length; i++) {
+            if (buscar(ordenados[i].getId()) >= 0) {
+                throw LoteProdutos.idDuplicado(ordenados[i].getId());
+            }
+            precosLote[i] = paraCentavos(ordenados[i]);
+        }
+        // Codifica os nomes e reserva espaço na área antes da mescla: uma compactação no meio dela
+        // leria linhas que estão sendo movidas.
+        byte[][] nomesLote = new byte[ordenados.length][];
+        int bytesLote = 0;
+        for (int i = 0; i < ordenados.length; i++) {
+            nomesLote[i] = codificar(ordenados[i].getNome());
+            bytesLote += nomesLote[i] == null ? 0 : nomesLote[i].length;
+        }
+        garantirEspacoNomes(bytesLote);
+        garantirCapacidade(quantidade + ordenados.length);
+        // Mescla de trás para frente dentro das próprias colunas: cada linha existente se move uma única vez.
+        int existente = quantidade - 1;
+        int novo = ordenados.length - 1;
+        for (int destino = quantidade + ordenados.length - 1; novo >= 0; destino--) {
+            if (existente >= 0 && ids[existente] > ordenados[novo].getId()) {
+                ids[destino] = ids[existente];
+                precos[destino] = precos[existente];
+                versoes[destino] = versoes[existente];
+                inicioNome[destino] = inicioNome[existente];
+                tamanhoNome[destino] = tamanhoNome[existente];
+                existente--;
+            } else {
+                ids[destino] = ordenados[novo].getId();
+                precos[destino] = precosLote[novo];
+                versoes[destino] = ordenados[novo].getVersao();
+                gravarNome(destino, nomesLote[novo]);
+                novo--;
+            }
+        }
+        quantidade += ordenados.length;
+    }
+
+    @Override
+    public int excluirTodos(int[] idsExcluir) {
+        int[] alvos = idsExcluir.clone();
+        Arrays.sort(alvos);
+        // Uma passada só: as linhas que ficam são copiadas para frente, sem um arraycopy por exclusão.
+        int destino = 0;
+        int excluidos = 0;
+        for (int origem = 0; origem < quantidade; origem++) {
+            if (Arrays.binarySearch(alvos, ids[origem]) >= 0) {
+                descartarNome(origem);
+                excluidos++;
+                continue;
+            }
+            ids[destino] = ids[origem];
+            precos[destino] = precos[origem];
+            versoes[destino] = versoes[origem];
+            inicioNome[destino] = inicioNome[origem];
+            tamanhoNome[destino] = tamanhoNome[origem];
+            destino++;
+        }
+        quantidade = destino;
+        return excluidos;
+    }
+
+    // As colunas já estão ordenadas por ID: busca binária acha o início e só as linhas pedidas são materializadas.
+
+    @Override
+    public List<Produto> listarPorFaixaDeId(int de, int ate) {
+        if (de > ate) {
+            return new ArrayList<>();
+        }
+        int inicio = primeiraPosicaoMaiorOuIgual(de);
+        int fim = ate == Integer.MAX_VALUE ? quantidade : primeiraPosicaoMaiorOuIgual(ate + 1);
+        return materializar(inicio, fim);
+    }
+
+    @Override
+    public Produto primeiro() {
+        return quantidade == 0 ? null : materializar(0);
+    }
+
+    @Override
+    public Produto ultimo() {
+        return quantidade == 0 ? null : materializar(quantidade - 1);
+    }
+
+    @Override
+    public Produto proximoApos(int id) {
+        if (id == Integer.MAX_VALUE) return null;
+        int posicao = primeiraPosicaoMaiorOuIgual(id + 1);
+        return posicao < quantidade ? materializar(posicao) : null;
+    }
+
+    @Override
+    public List<Produto> pagina(Integer aposId, int limite) {
+        NavegacaoProdutos.validarLimite(limite);
+        int inicio;
+        if (aposId == null) {
+            inicio = 0;
+        } else if (aposId == Integer.MAX_VALUE) {
+            inicio = quantidade;
+        } else {
+            inicio = primeiraPosicaoMaiorOuIgual(aposId + 1);
+        }
+        return materializar(inicio, (int) Math.min(quantidade, (long) inicio + limite));
+    }
+
+    // Agregações direto na coluna de preços (já em centavos), divididas por faixas de linhas no ForkJoinPool,
+    // sem criar nenhum objeto por linha.
+
+    @Override
+    public BigDecimal somaPrecos() {
+        return resumirPrecos().soma();
+    }
+
+    @Override
+    public BigDecimal mediaPreco() {
+        return resumirPrecos().media();
+    }
+
+    @Override
+    public HistogramaPrecos histogramaPrecos(int faixas) {
+        AgregacaoPrecos.validarFaixas(faixas);
+        AgregacaoPrecos.Resumo resumo = resumirPrecos();
+        if (resumo.comPreco() == 0) {
+            return AgregacaoPrecos.histogramaVazio(faixas);
+        }
+        // Todos os preços têm escala 2, então as unidades do histograma são centavos, como a coluna.
+        AgregacaoPrecos.Faixas divisao = new AgregacaoPrecos.Faixas(resumo, faixas);
+        long[] contagens = AgregacaoPrecos.dividir(0, quantidade, (inicio, fim) -> {
+            long[] parcial = new long[faixas];
+            for (int i = inicio; i < fim; i++) {
+                long preco = precos[i];
+                if (preco == PRECO_NULO) continue;
+                parcial[divisao.cabeEmLong() ? divisao.indice(preco)
+                        : divisao.indice(BigDecimal.valueOf(preco, ESCALA_PRECO))]++;
+            }
+            return parcial;
+        }, AgregacaoPrecos::somar);
+        return divisao.histograma(contagens);
+    }
+
+    private AgregacaoPrecos.Resumo resumirPrecos() {
+        return AgregacaoPrecos.dividir(0, quantidade, (inicio, fim) -> {
+            AgregacaoPrecos.Acumulador acumulador = new AgregacaoPrecos.Acumulador();
+            for (int i = inicio; i < fim; i++) {
+                if (precos[i] != PRECO_NULO) acumulador.adicionarCentavos(precos[i], ESCALA_PRECO);
+            }
+            return acumulador.resumo();
+        }, AgregacaoPrecos.Resumo::juntar);
+    }
+
+    /** Quantidade de produtos armazenados. */
+    public int tamanho() {
+        return quantidade;
+    }
+
+    /** Bytes ocupados pelas colunas e pela área de nomes. */
+    public long bytesArmazenados() {
+        long colunas = (long) ids.length * (Integer.BYTES * 3 + Long.BYTES * 2);
+        return colunas + nomes.length + 6 * 16L; // 6 arrays, 16 bytes de cabeçalho cada
+    }
+
+    private Produto materializar(int posicao) {
+        long preco = precos[posicao];
+        return new Produto(ids[posicao], lerNome(posicao),
+                preco == PRECO_NULO ? null : BigDecimal.valueOf(preco, ESCALA_PRECO), versoes[posicao]);
+    }
+
+    // O preço é convertido antes de mexer na linha: um preço inválido não deixa a linha pela metade.
+    private void gravar(int posicao, Produto produto) {
+        precos[posicao] = paraCentavos(produto);
+        versoes[posicao] = produto.getVersao();
+        descartarNome(posicao);
+        gravarNome(posicao, codificar(produto.getNome()));
+    }
+
+    private List<Produto> materializar(int inicio, int fim) {
+        List<Produto> lista = new ArrayList<>(fim - inicio);
+        for (int i = inicio; i < fim; i++) {
+            lista.add(materializar(i));
+        }
+        return lista;
+    }
+
+    private int primeiraPosicaoMaiorOuIgual(int id) {
+        int posicao = buscar(id);
+        return posicao >= 0 ? posicao : -posicao - 1;
+    }
+
+    private int buscar(int id) {
+        return Arrays.binarySearch(ids, 0, quantidade, id);
+    }
+
+    // No caso comum os centavos já vêm calculados no Produto. Acima dos 18 dígitos do Dinheiro o preço ainda pode
+    // caber no long da coluna.
+    private static long paraCentavos(Produto produto) {
+        BigDecimal preco = produto.getPreco();
+        if (preco == null) return PRECO_NULO;
+        long centavos = produto.getPrecoEmCentavos();
+        if (centavos != Dinheiro.FORA) return centavos;
+        try {
+            return preco.setScale(ESCALA_PRECO).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Preço inválido para armazenamento em centavos: " + preco + ".");
+        }
+    }
+
+    private String lerNome(int posicao) {
+        int tamanho = tamanhoNome[posicao];
+        if (tamanho == NOME_NULO) return null;
+        return new String(nomes, inicioNome[posicao], tamanho, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] codificar(String nome) {
+        return nome == null ? null : nome.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void gravarNome(int posicao, byte[] bytes) {
+        if (bytes == null) {
+            inicioNome[posicao] = 0;
+            tamanhoNome[posicao] = NOME_NULO;
+            return;
+        }
+        garantirEspacoNomes(bytes.length);
+        System.arraycopy(bytes, 0, nomes, nomesUsados, bytes.length);
+        inicioNome[posicao] = nomesUsados;
+        tamanhoNome[posicao] = bytes.length;
+        nomesUsados += bytes.length;
+    }
+
+    private void descartarNome(int posicao) {
+        if (tamanhoNome[posicao] != NOME_NULO) {
+            nomesDescartados += tamanhoNome[posicao];
+            tamanhoNome[posicao] = NOME_NULO;
+        }
+    }
+
+    private void garantirCapacidade(int necessaria) {
+        if (necessaria <= ids.length) return;
+        int nova = Math.max(necessaria, ids.length * 2);
+        ids = Arrays.copyOf(ids, nova);
+        precos = Arrays.copyOf(precos, nova);
+        versoes = Arrays.copyOf(versoes, nova);
+        inicioNome = Arrays.copyOf(inicioNome, nova);
+        tamanhoNome = Arrays.copyOf(tamanhoNome, nova);
+    }
+
+    private void garantirEspacoNomes(int bytes) {
+        if (nomesUsados + bytes <= nomes.length) return;
+        // Se metade da área é lixo, compactar resolve sem crescer.
+        if (nomesDescartados > nomesUsados / 2) {
+            compactarNomes();
+            if (nomesUsados + bytes <= nomes.length) return;
+        }
+        nomes = Arrays.copyOf(nomes, Math.max(nomesUsados + bytes, nomes.length * 2));
+    }
+
+    private void compactarNomes() {
+        byte[] compacta = new byte[nomes.length];
+        int usados = 0;
+        for (int i = 0; i < quantidade; i++) {
+            int tamanho = tamanhoNome[i];
+            if (tamanho == NOME_NULO) continue;
+            System.arraycopy(nomes, inicioNome[i], compacta, usados, tamanho);
+            inicioNome[i] = usados;
+            usados += tamanho;
+        }
+        nomes = compacta;
+        nomesUsados = usados;
+        nomesDescartados = 0;
+    }
+}
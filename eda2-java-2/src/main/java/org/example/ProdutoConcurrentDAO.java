@@ -0,0 +1,137 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * Versão thread-safe do {@link ProdutoMemoryDAO}, pensada para ser chamada por várias threads ao mesmo tempo
+ * sem um lock global em volta do DAO.
+ * <p>
+ * Usa um {@link ConcurrentSkipListMap}: as leituras nunca bloqueiam e a ordenação por ID é mantida,
+ * como no TreeMap original.
+ */
+public class ProdutoConcurrentDAO implements ProdutoDAO {
+    // Mapa ordenado e concorrente: chave é o ID do produto, valor é o Produto.
+    private final ConcurrentNavigableMap<Integer, Produto> produtos = new ConcurrentSkipListMap<>();
+
+    @Override
+    public void insere(Produto produto) {
+        if (produto == null || produto.getId() == null) {
+            throw new IllegalArgumentException("Produto ou ID do produto não pode ser nulo.");
+        }
+        // putIfAbsent faz a verificação e a inserção de forma atômica,
+        // sem a janela de corrida do containsKey seguido de put.
+        if (produtos.putIfAbsent(produto.getId(), produto) != null) {
+            throw new IllegalArgumentException("Erro: Já existe um produto com o ID " + produto.getId() + ".");
+        }
+    }
+
+    @Override
+    public Collection<Produto> listarTodos() {
+        // O iterador do skip list é fracamente consistente: nunca lança ConcurrentModificationException
+        // e devolve os produtos em ordem de ID.
+        return new ArrayList<>(produtos.values());
+    }
+
+    @Override
+    public Spliterator<Produto> spliterator() {
+        // Direto no skip list, sem cópia; fracamente consistente como o iterador usado no listarTodos.
+        return produtos.values().spliterator();
+    }
+
+    @Override
+    public Produto pesquisarPorId(Integer id) {
+        if (id == null) return null;
+        // get no ConcurrentSkipListMap não usa lock.
+        return produtos.get(id);
+    }
+
+    @Override
+    public boolean alterar(Produto produtoAtualizado) {
+        if (produtoAtualizado == null || produtoAtualizado.getId() == null) {
+            return false;
+        }
+        // replace só substitui se a chave existir, tudo em uma operação atômica.
+        return produtos.replace(produtoAtualizado.getId(), produtoAtualizado) != null;
+    }
+
+    @Override
+    public boolean alterarSeVersao(Produto produto, long versaoEsperada) {
+        if (produto == null || produto.getId() == null) {
+            return false;
+        }
+        // O replace(chave, antigo, novo) do mapa compara com equals, que no Produto é só o ID; o
+        // computeIfPresent do skip list troca o valor com compare-and-set por identidade e reaplica a função se
+        // outra thread tiver trocado antes. Se a versão não bate, a função devolve o próprio valor atual.
+        Produto novo = produto.withVersao(versaoEsperada + 1);
+        Produto gravado = produtos.computeIfPresent(produto.getId(),
+                (id, atual) -> atual.getVersao() == versaoEsperada ? novo : atual);
+        return gravado == novo;
+    }
+
+    @Override
+    public boolean excluir(Integer id) {
+        if (id == null) return false;
+        return produtos.remove(id) != null;
+    }
+
+    /**
+     * Insere o lote inteiro ou nada. Os produtos são inseridos em ordem de ID com {@code putIfAbsent}; se outra
+     * thread tiver inserido um dos IDs nesse meio tempo, os já inseridos por este lote são removidos antes de
+     * lançar a exceção (menos os que outra thread já tiver alterado). Leitores concorrentes podem ver parte de um
+     * lote que acaba sendo desfeito.
+     */
+    @Override
+    public void insereTodos(Collection<Produto> lote) {
+        Produto[] ordenados = LoteProdutos.ordenarEValidar(lote);
+        for (Produto produto : ordenados) {
+            if (produtos.containsKey(produto.getId())) {
+                throw LoteProdutos.idDuplicado(produto.getId());
+            }
+        }
+        for (int i = 0; i < ordenados.length; i++) {
+            if (produtos.putIfAbsent(ordenados[i].getId(), ordenados[i]) != null) {
+                // Remove só o objeto inserido por este lote: o remove(chave, valor) compara com equals, que no
+                // Produto é só o ID, e apagaria também uma alteração feita por outra thread nesse meio tempo.
+                for (int j = 0; j < i; j++) {
+                    Produto inserido = ordenados[j];
+                    produtos.computeIfPresent(inserido.getId(), (id, atual) -> atual == inserido ? null : atual);
+                }
+                throw LoteProdutos.idDuplicado(ordenados[i].getId());
+            }
+        }
+    }
+
+    // Consultas por ordem de ID direto no skip list: O(log n) para achar o início e depois só a faixa pedida.
+    // Como no listarTodos, a visão é fracamente consistente com escritas concorrentes.
+
+    @Override
+    public List<Produto> listarPorFaixaDeId(int de, int ate) {
+        return NavegacaoProdutos.faixa(produtos, de, ate, Function.identity());
+    }
+
+    @Override
+    public Produto primeiro() {
+        return NavegacaoProdutos.valor(produtos.firstEntry(), Function.identity());
+    }
+
+    @Override
+    public Produto ultimo() {
+        return NavegacaoProdutos.valor(produtos.lastEntry(), Function.identity());
+    }
+
+    @Override
+    public Produto proximoApos(int id) {
+        return NavegacaoProdutos.valor(produtos.higherEntry(id), Function.identity());
+    }
+
+    @Override
+    public List<Produto> pagina(Integer aposId, int limite) {
+        return NavegacaoProdutos.pagina(produtos, aposId, limite, Function.identity());
+    }
+}
@@ -1,6 +1,14 @@
 package org.example;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public interface ProdutoDAO {
     void insere(Produto produto);
@@ -8,4 +16,174 @@ public interface ProdutoDAO {
     Produto pesquisarPorId(Integer id);
     boolean alterar(Produto produto);
     boolean excluir(Integer id);
-}
\ No newline at end of file
+
+    // Sobrecargas com int primitivo. Por padrão apenas fazem o boxing e delegam;
+    // implementações com chave primitiva sobrescrevem para não alocar nada na busca.
+    default Produto pesquisarPorId(int id) {
+        return pesquisarPorId(Integer.valueOf(id));
+    }
+
+    default boolean excluir(int id) {
+        return excluir(Integer.valueOf(id));
+    }
+
+    /**
+     * Alteração otimista (compare-and-set): grava {@code produto} com a versão {@code versaoEsperada + 1} só se
+     * o produto guardado com o mesmo ID ainda estiver na versão {@code versaoEsperada}. Devolve false se o ID não
+     * existir ou se outra alteração condicional tiver passado na frente; quem editou relê e tenta de novo.
+     * <p>
+     * O {@code alterar} continua sendo a escrita cega e grava a versão que vier no produto, então editores
+     * concorrentes só ficam protegidos se todos usarem este método. A implementação padrão confere e altera em
+     * dois passos, o que basta nos DAOs de uma thread só; os DAOs thread-safe sobrescrevem para a conferência e a
+     * gravação serem uma operação atômica, sem lock.
+     */
+    default boolean alterarSeVersao(Produto produto, long versaoEsperada) {
+        if (produto == null || produto.getId() == null) {
+            return false;
+        }
+        Produto atual = pesquisarPorId(produto.getId());
+        if (atual == null || atual.getVersao() != versaoEsperada) {
+            return false;
+        }
+        return alterar(produto.withVersao(versaoEsperada + 1));
+    }
+
+    // Operações em lote. As implementações padrão chamam as operações unitárias;
+    // os DAOs sobrescrevem para ordenar o lote uma vez e montar/mesclar a estrutura de uma vez só.
+
+    /**
+     * Insere todos os produtos ou nenhum: se algum for nulo, tiver ID nulo ou ID já existente
+     * (no DAO ou repetido no próprio lote), lança {@link IllegalArgumentException} sem inserir nada.
+     */
+    default void insereTodos(Collection<Produto> produtos) {
+        Produto[] ordenados = LoteProdutos.ordenarEValidar(produtos);
+        for (Produto produto : ordenados) {
+            if (pesquisarPorId(produto.getId()) != null) {
+                throw LoteProdutos.idDuplicado(produto.getId());
+            }
+        }
+        for (Produto produto : ordenados) {
+            insere(produto);
+        }
+    }
+
+    /** Devolve os produtos na mesma ordem dos IDs pedidos, com null para os IDs inexistentes. */
+    default List<Produto> pesquisarPorIds(int[] ids) {
+        List<Produto> encontrados = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            encontrados.add(pesquisarPorId(id));
+        }
+        return encontrados;
+    }
+
+    /** Exclui os produtos com os IDs informados e devolve quantos existiam. */
+    default int excluirTodos(int[] ids) {
+        int excluidos = 0;
+        for (int id : ids) {
+            if (excluir(id)) {
+                excluidos++;
+            }
+        }
+        return excluidos;
+    }
+
+    // Percurso preguiçoso em ordem de ID. A implementação padrão parte do listarTodos() (que costuma copiar o
+    // catálogo inteiro); os DAOs sobrescrevem spliterator() para percorrer a própria estrutura sem montar lista.
+
+    /**
+     * Spliterator sobre todos os produtos, em ordem de ID. Os produtos são lidos sob demanda e o spliterator
+     * pode ser dividido, então {@code stream().parallel()} reparte o catálogo entre as threads.
+     * Assim como o iterador das coleções, não deve ser usado com escritas no meio do percurso, a não ser em
+     * DAOs thread-safe.
+     */
+    default Spliterator<Produto> spliterator() {
+        return listarTodos().spliterator();
+    }
+
+    /** Stream preguiçoso em ordem de ID: filtros e agregações não materializam a lista de produtos. */
+    default Stream<Produto> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /** Aplica {@code acao} a cada produto, em ordem de ID, sem montar a lista completa. */
+    default void forEach(Consumer<? super Produto> acao) {
+        spliterator().forEachRemaining(acao);
+    }
+
+    // Agregações sobre o catálogo inteiro, em paralelo: o spliterator() é dividido em tarefas do ForkJoinPool
+    // comum. Produtos sem preço ficam fora das somas, médias e histogramas. Nos DAOs que não são thread-safe,
+    // não pode haver escritas enquanto a agregação roda.
+
+    /** Soma exata dos preços. */
+    default BigDecimal somaPrecos() {
+        return AgregacaoPrecos.resumir(spliterator()).soma();
+    }
+
+    /** Média dos preços dos produtos que têm preço (com 34 dígitos significativos), ou null se nenhum tiver. */
+    default BigDecimal mediaPreco() {
+        return AgregacaoPrecos.resumir(spliterator()).media();
+    }
+
+    /** Quantidade de produtos em cada uma de {@code faixas} faixas de preço de mesma largura. */
+    default HistogramaPrecos histogramaPrecos(int faixas) {
+        return AgregacaoPrecos.histograma(this::spliterator, faixas);
+    }
+
+    /** Quantidade de produtos que atendem ao filtro. O filtro é chamado de várias threads ao mesmo tempo. */
+    default long contar(Predicate<? super Produto> filtro) {
+        return AgregacaoPrecos.contar(spliterator(), filtro);
+    }
+
+    // Consultas pela ordem de ID. As implementações padrão percorrem listarTodos() (O(n));
+    // os DAOs ordenados sobrescrevem para responder direto da árvore/array em O(log n + k).
+
+    /** Produtos com ID entre {@code de} e {@code ate} (inclusive), em ordem de ID. Vazia se {@code de > ate}. */
+    default List<Produto> listarPorFaixaDeId(int de, int ate) {
+        List<Produto> faixa = new ArrayList<>();
+        for (Produto produto : listarTodos()) {
+            if (produto.getId() > ate) break;
+            if (produto.getId() >= de) faixa.add(produto);
+        }
+        return faixa;
+    }
+
+    /** Produto de menor ID, ou null se não houver nenhum. */
+    default Produto primeiro() {
+        for (Produto produto : listarTodos()) {
+            return produto;
+        }
+        return null;
+    }
+
+    /** Produto de maior ID, ou null se não houver nenhum. */
+    default Produto ultimo() {
+        Produto ultimo = null;
+        for (Produto produto : listarTodos()) {
+            ultimo = produto;
+        }
+        return ultimo;
+    }
+
+    /** Produto com o menor ID maior que {@code id}, ou null se não houver. */
+    default Produto proximoApos(int id) {
+        for (Produto produto : listarTodos()) {
+            if (produto.getId() > id) return produto;
+        }
+        return null;
+    }
+
+    /**
+     * Paginação por chave: até {@code limite} produtos com ID maior que {@code aposId}, em ordem de ID.
+     * Com {@code aposId} nulo começa do primeiro produto; a página seguinte é pedida com o ID do último
+     * produto da página atual.
+     */
+    default List<Produto> pagina(Integer aposId, int limite) {
+        NavegacaoProdutos.validarLimite(limite);
+        List<Produto> pagina = new ArrayList<>(Math.min(limite, 1024));
+        for (Produto produto : listarTodos()) {
+            if (pagina.size() == limite) break;
+            if (aposId == null || produto.getId() > aposId) pagina.add(produto);
+        }
+        return pagina;
+    }
+}
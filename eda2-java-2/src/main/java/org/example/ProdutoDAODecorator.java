@@ -0,0 +1,117 @@
+package org.example;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Predicate;
+
+/**
+ * Base para DAOs que envolvem outro {@link ProdutoDAO} (log, cache, índices, métricas...).
+ * <p>
+ * Leituras são repassadas direto para o DAO envolvido. Já as variações de escrita (como {@code excluir(int)})
+ * passam pelos métodos principais {@link #insere}, {@link #alterar} e {@link #excluir(Integer)} <em>deste</em>
+ * objeto, para que uma subclasse que sobrescreva só esses três não deixe nenhuma escrita escapar por fora.
+ * Pelo mesmo motivo o {@code alterarSeVersao} fica com a implementação padrão (confere a versão e chama o
+ * {@code alterar} deste objeto), que não é atômica mesmo quando o DAO envolvido é thread-safe.
+ */
+public abstract class ProdutoDAODecorator implements ProdutoDAO {
+    protected final ProdutoDAO delegate;
+
+    protected ProdutoDAODecorator(ProdutoDAO delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("O DAO envolvido não pode ser nulo.");
+        }
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void insere(Produto produto) {
+        delegate.insere(produto);
+    }
+
+    @Override
+    public Collection<Produto> listarTodos() {
+        return delegate.listarTodos();
+    }
+
+    @Override
+    public Spliterator<Produto> spliterator() {
+        return delegate.spliterator();
+    }
+
+    @Override
+    public BigDecimal somaPrecos() {
+        return delegate.somaPrecos();
+    }
+
+    @Override
+    public BigDecimal mediaPreco() {
+        return delegate.mediaPreco();
+    }
+
+    @Override
+    public HistogramaPrecos histogramaPrecos(int faixas) {
+        return delegate.histogramaPrecos(faixas);
+    }
+
+    @Override
+    public long contar(Predicate<? super Produto> filtro) {
+        return delegate.contar(filtro);
+    }
+
+    @Override
+    public Produto pesquisarPorId(Integer id) {
+        return delegate.pesquisarPorId(id);
+    }
+
+    @Override
+    public Produto pesquisarPorId(int id) {
+        return delegate.pesquisarPorId(id);
+    }
+
+    @Override
+    public List<Produto> pesquisarPorIds(int[] ids) {
+        return delegate.pesquisarPorIds(ids);
+    }
+
+    @Override
+    public List<Produto> listarPorFaixaDeId(int de, int ate) {
+        return delegate.listarPorFaixaDeId(de, ate);
+    }
+
+    @Override
+    public Produto primeiro() {
+        return delegate.primeiro();
+    }
+
+    @Override
+    public Produto ultimo() {
+        return delegate.ultimo();
+    }
+
+    @Override
+    public Produto proximoApos(int id) {
+        return delegate.proximoApos(id);
+    }
+
+    @Override
+    public List<Produto> pagina(Integer aposId, int limite) {
+        return delegate.pagina(aposId, limite);
+    }
+
+    @Override
+    public boolean alterar(Produto produto) {
+        return delegate.alterar(produto);
+    }
+
+    @Override
+    public boolean excluir(Integer id) {
+        return delegate.excluir(id);
+    }
+
+    @Override
+    public boolean excluir(int id) {
+        return excluir(Integer.valueOf(id));
+    }
+}
@@ -0,0 +1,221 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decorator que deduplica {@code Produto.nome}: produtos com o mesmo nome passam a apontar para uma única
+ * {@link String}, tirada de um dicionário com contagem de referências. Em catálogos com muitas variações e
+ * importações repetidas ("Camiseta Básica" em 40 tamanhos e cores), cada nome repetido deixa de custar um
+ * String e um byte[] próprios.
+ * <p>
+ * Antes de gravar, {@code insere}, {@code insereTodos}, {@code alterar} e {@code alterarSeVersao} trocam o nome
+ * do produto pelo nome canônico do dicionário (com {@code withNome}, mantendo a versão). Então o produto gravado
+ * pode ser outro objeto, igual ao recebido. Cada nome conta quantos produtos gravados o usam. {@code alterar} e
+ * {@code excluir} descontam o nome anterior, e o nome sai do dicionário quando ninguém mais o usa. Assim o
+ * dicionário não segura nomes de produtos que já foram excluídos ou renomeados.
+ * <p>
+ * O dicionário é um {@link ConcurrentHashMap} e as escritas são serializadas por um lock (como no
+ * {@link ProdutoWalDAO}), para que a leitura do produto anterior e a gravação andem juntas. As leituras vão
+ * direto ao DAO envolvido e são thread-safe se ele for.
+ */
+public class ProdutoDicionarioNomesDAO extends ProdutoDAODecorator {
+    // Tamanhos no HotSpot de 64 bits com compressed oops: String (cabeçalho, hash, coder e referência ao
+    // byte[]) e cabeçalho do byte[], alinhados a 8 bytes.
+    private static final int BYTES_STRING = 24;
+    private static final int BYTES_CABECALHO_ARRAY = 16;
+
+    /** Nome canônico e quantos produtos gravados o usam. */
+    private static final class Entrada {
+        final String nome;
+        final AtomicInteger referencias = new AtomicInteger();
+
+        Entrada(String nome) {
+            this.nome = nome;
+        }
+    }
+
+    /**
+     * Retrato do dicionário. {@code bytesEconomizados} é a estimativa do que as cópias repetidas ocupariam
+     * (String mais byte[] de cada referência além da primeira).
+     */
+    public record Estatisticas(int nomesDistintos, long referencias, long bytesNomesDistintos, long bytesEconomizados) {
+        @Override
+        public String toString() {
+            return String.format("Nomes distintos: %d, produtos com nome: %d, bytes dos nomes distintos: %d, "
+                    + "bytes economizados: %d", nomesDistintos, referencias, bytesNomesDistintos, bytesEconomizados);
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entrada> dicionario = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public ProdutoDicionarioNomesDAO(ProdutoDAO delegate) {
+        super(delegate);
+        // O DAO envolvido pode já ter produtos (por exemplo, recuperados de disco): os nomes deles também são
+        // trocados pelos canônicos.
+        for (Produto produto : new ArrayList<>(delegate.listarTodos())) {
+            Produto canonico = canonizar(produto);
+            if (canonico != produto) {
+                delegate.alterar(canonico);
+            }
+        }
+    }
+
+    @Override
+    public void insere(Produto produto) {
+        lock.lock();
+        try {
+            Produto canonico = canonizar(produto);
+            try {
+                delegate.insere(canonico);
+            } catch (RuntimeException e) {
+                liberar(canonico);
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void insereTodos(Collection<Produto> produtos) {
+        lock.lock();
+        try {
+            // A validação fica com o DAO envolvido (tudo ou nada); nulos passam direto para ele recusar.
+            List<Produto> canonicos = new ArrayList<>(produtos == null ? 0 : produtos.size());
+            if (produtos != null) {
+                for (Produto produto : produtos) {
+                    canonicos.add(canonizar(produto));
+                }
+            }
+            try {
+                delegate.insereTodos(produtos == null ? null : canonicos);
+            } catch (RuntimeException e) {
+                canonicos.forEach(this::liberar);
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean alterar(Produto produtoAtualizado) {
+        if (produtoAtualizado == null || produtoAtualizado.getId() == null) {
+            return false;
+        }
+        lock.lock();
+        try {
+            Produto anterior = delegate.pesquisarPorId(produtoAtualizado.getId());
+            if (anterior == null) {
+                return false;
+            }
+            Produto canonico = canonizar(produtoAtualizado);
+            if (!delegate.alterar(canonico)) {
+                liberar(canonico);
+                return false;
+            }
+            liberar(anterior);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Conferência da versão e gravação sob o mesmo lock das outras escritas. */
+    @Override
+    public boolean alterarSeVersao(Produto produto, long versaoEsperada) {
+        if (produto == null || produto.getId() == null) {
+            return false;
+        }
+        lock.lock();
+        try {
+            Produto anterior = delegate.pesquisarPorId(produto.getId());
+            if (anterior == null || anterior.getVersao() != versaoEsperada) {
+                return false;
+            }
+            return alterar(produto.withVersao(versaoEsperada + 1));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean excluir(Integer id) {
+        lock.lock();
+        try {
+            Produto anterior = delegate.pesquisarPorId(id);
+            if (anterior == null || !delegate.excluir(id)) {
+                return false;
+            }
+            liberar(anterior);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Quantidade de nomes distintos no dicionário. */
+    public int nomesDistintos() {
+        return dicionario.size();
+    }
+
+    /** Quantos produtos gravados usam {@code nome} (0 se nenhum). */
+    public int referencias(String nome) {
+        Entrada entrada = nome == null ? null : dicionario.get(nome);
+        return entrada == null ? 0 : entrada.referencias.get();
+    }
+
+    public Estatisticas estatisticas() {
+        int distintos = 0;
+        long referencias = 0;
+        long bytesDistintos = 0;
+        long economizados = 0;
+        for (Entrada entrada : dicionario.values()) {
+            int usos = entrada.referencias.get();
+            long bytes = bytesDeString(entrada.nome);
+            distintos++;
+            referencias += usos;
+            bytesDistintos += bytes;
+            economizados += Math.max(0, usos - 1) * bytes;
+        }
+        return new Estatisticas(distintos, referencias, bytesDistintos, economizados);
+    }
+
+    /** Estimativa dos bytes de um String compacto (LATIN1 quando todos os caracteres cabem em um byte). */
+    static long bytesDeString(String nome) {
+        boolean latin1 = true;
+        for (int i = 0; i < nome.length() && latin1; i++) {
+            latin1 = nome.charAt(i) < 256;
+        }
+        long dados = BYTES_CABECALHO_ARRAY + (long) nome.length() * (latin1 ? 1 : 2);
+        return BYTES_STRING + ((dados + 7) & ~7L);
+    }
+
+    // Conta mais uma referência ao nome do produto e devolve o produto com o nome canônico.
+    private Produto canonizar(Produto produto) {
+        if (produto == null || produto.getNome() == null) {
+            return produto;
+        }
+        Entrada entrada = dicionario.compute(produto.getNome(), (nome, atual) -> {
+            Entrada usada = atual != null ? atual : new Entrada(nome);
+            usada.referencias.incrementAndGet();
+            return usada;
+        });
+        return produto.withNome(entrada.nome);
+    }
+
+    // Desconta a referência de um produto que saiu do DAO (ou não chegou a entrar); remove o nome sem uso.
+    private void liberar(Produto produto) {
+        if (produto == null || produto.getNome() == null) {
+            return;
+        }
+        dicionario.computeIfPresent(produto.getNome(),
+                (nome, entrada) -> entrada.referencias.decrementAndGet() == 0 ? null : entrada);
+    }
+}
@@ -0,0 +1,339 @@
+package org.example;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * DAO com um único escritor: {@code insere}, {@code alterar}, {@code excluir} e os lotes viram comandos em uma
+ * fila circular sem lock (várias threads produzem, uma consome), e uma thread escritora drena a fila em lotes e
+ * aplica os comandos em sequência. Sem disputa entre escritores, nenhuma escrita espera lock nem refaz trabalho.
+ * <p>
+ * As versões assíncronas ({@link #insereAsync}, {@link #alterarAsync}...) devolvem um {@link CompletableFuture}
+ * que a thread escritora completa; um ID repetido chega como conclusão excepcional com a mesma
+ * {@link IllegalArgumentException} do {@code insere}. Os métodos do {@link ProdutoDAO} enfileiram e esperam o
+ * resultado. Callbacks não assíncronos ({@code thenApply}, {@code whenComplete}...) rodam na thread escritora e
+ * atrasam a fila: trabalho pesado deve ir para as variantes {@code ...Async} do future.
+ * <p>
+ * Os produtos ficam em um {@link ProdutoSnapshotDAO}: cada escrita publica uma versão imutável, e as leituras vão
+ * direto na versão publicada, sem passar pela fila e sem bloquear. Uma escrita é visível para as leituras a
+ * partir do momento em que o seu future é completado.
+ * <p>
+ * Fila cheia é contrapressão: quem enfileira cede a CPU até abrir espaço. Depois do {@link #close()}, novos
+ * comandos falham com {@link IllegalStateException}; os já enfileirados são aplicados antes de a thread parar.
+ * <p>
+ * Qualquer {@link Throwable} lançado por um comando, inclusive um {@link Error} como {@link StackOverflowError},
+ * vai para o future daquele comando, e a thread escritora segue com os próximos. Se mesmo assim ela terminar,
+ * o DAO passa a se comportar como fechado e os comandos pendentes falham, em vez de esperarem para sempre.
+ */
+public final class ProdutoEventLoopDAO extends ProdutoDAODecorator implements AutoCloseable {
+    public static final int CAPACIDADE_PADRAO = 8_192;
+    // Máximo de comandos aplicados por volta da thread escritora.
+    private static final int LOTE_MAXIMO = 1_024;
+    // Voltas de espera ativa com a fila vazia antes de dormir: acordar uma thread custa microssegundos, e em
+    // rajadas o próximo comando costuma chegar antes disso. Com um processador só, girar só atrasaria quem
+    // enfileira.
+    private static final int VOLTAS_ANTES_DE_DORMIR = Runtime.getRuntime().availableProcessors() > 1 ? 2_000 : 0;
+
+    private final ProdutoSnapshotDAO produtos;
+    private final FilaDeComandos fila;
+    private final Thread escritor;
+    private final Object consumidor = new Object();
+    private volatile boolean fechado;
+    private volatile boolean encerrado;
+    private volatile boolean dormindo;
+
+    public ProdutoEventLoopDAO() {
+        this(CAPACIDADE_PADRAO);
+    }
+
+    /** {@code capacidade} é o número máximo de comandos esperando na fila (arredondado para potência de 2). */
+    public ProdutoEventLoopDAO(int capacidade) {
+        this(new ProdutoSnapshotDAO(), capacidade);
+    }
+
+    private ProdutoEventLoopDAO(ProdutoSnapshotDAO produtos, int capacidade) {
+        super(produtos);
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("A capacidade da fila deve ser positiva.");
+        }
+        this.produtos = produtos;
+        this.fila = new FilaDeComandos(capacidade);
+        this.escritor = new Thread(this::executar, "produto-event-loop");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    /** Versão publicada neste momento (veja {@link ProdutoSnapshotDAO#snapshot()}). */
+    public ProdutoSnapshotDAO.Snapshot snapshot() {
+        return produtos.snapshot();
+    }
+
+    public CompletableFuture<Void> insereAsync(Produto produto) {
+        return enfileirar(dao -> {
+            dao.insere(produto);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Boolean> alterarAsync(Produto produto) {
+        return enfileirar(dao -> dao.alterar(produto));
+    }
+
+    public CompletableFuture<Boolean> alterarSeVersaoAsync(Produto produto, long versaoEsperada) {
+        return enfileirar(dao -> dao.alterarSeVersao(produto, versaoEsperada));
+    }
+
+    public CompletableFuture<Boolean> excluirAsync(int id) {
+        return enfileirar(dao -> dao.excluir(id));
+    }
+
+    /** O lote é um comando só: entra inteiro em uma versão nova ou falha sem inserir nada. */
+    public CompletableFuture<Void> insereTodosAsync(Collection<Produto> lote) {
+        return enfileirar(dao -> {
+            dao.insereTodos(lote);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Integer> excluirTodosAsync(int[] ids) {
+        return enfileirar(dao -> dao.excluirTodos(ids));
+    }
+
+    @Override
+    public void insere(Produto produto) {
+        aguardar(insereAsync(produto));
+    }
+
+    @Override
+    public boolean alterar(Produto produto) {
+        return aguardar(alterarAsync(produto));
+    }
+
+    @Override
+    public boolean alterarSeVersao(Produto produto, long versaoEsperada) {
+        return aguardar(alterarSeVersaoAsync(produto, versaoEsperada));
+    }
+
+    @Override
+    public boolean excluir(Integer id) {
+        if (id == null) return false;
+        return excluir(id.intValue());
+    }
+
+    @Override
+    public boolean excluir(int id) {
+        return aguardar(excluirAsync(id));
+    }
+
+    @Override
+    public void insereTodos(Collection<Produto> lote) {
+        aguardar(insereTodosAsync(lote));
+    }
+
+    @Override
+    public int excluirTodos(int[] ids) {
+        return aguardar(excluirTodosAsync(ids));
+    }
+
+    /** Para de aceitar comandos, espera a thread escritora aplicar os que já estavam na fila e a encerra. */
+    @Override
+    public void close() {
+        fechado = true;
+        LockSupport.unpark(escritor);
+        boolean interrompida = false;
+        while (escritor.isAlive()) {
+            try {
+                escritor.join();
+            } catch (InterruptedException e) {
+                interrompida = true;
+            }
+        }
+        if (interrompida) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> CompletableFuture<T> enfileirar(Function<ProdutoDAO, T> operacao) {
+        Comando<T> comando = new Comando<>(operacao);
+        if (Thread.currentThread() == escritor) {
+            // Chamada de dentro de um callback na própria thread escritora: esperar a fila seria um deadlock.
+            comando.aplicar(produtos);
+            return comando.resultado;
+        }
+        if (fechado) {
+            return CompletableFuture.failedFuture(new IllegalStateException("O DAO foi fechado."));
+        }
+        while (!fila.oferecer(comando)) {
+            acordarEscritor();
+            Thread.yield();
+        }
+        acordarEscritor();
+        if (encerrado) {
+            // O escritor terminou entre a checagem de "fechado" e a publicação do comando: ninguém mais vai
+            // aplicá-lo.
+            descartarPendentes();
+        }
+        return comando.resultado;
+    }
+
+    private void acordarEscritor() {
+        if (dormindo) {
+            LockSupport.unpark(escritor);
+        }
+    }
+
+    private void executar() {
+        try {
+            executarComandos();
+        } finally {
+            fechado = true;
+            encerrado = true;
+            descartarPendentes();
+        }
+    }
+
+    private void executarComandos() {
+        int voltasOciosas = 0;
+        while (true) {
+            int aplicados = fila.drenar(this::aplicar, LOTE_MAXIMO);
+            if (aplicados > 0) {
+                voltasOciosas = 0;
+                continue;
+            }
+            if (fechado) {
+                break;
+            }
+            if (voltasOciosas++ < VOLTAS_ANTES_DE_DORMIR) {
+                Thread.onSpinWait();
+                continue;
+            }
+            voltasOciosas = 0;
+            // Avisa que vai dormir e confere a fila de novo: um comando publicado antes do aviso é visto aqui;
+            // um publicado depois vê "dormindo" e acorda esta thread.
+            dormindo = true;
+            if (fila.vazia() && !fechado) {
+                LockSupport.park(this);
+            }
+            dormindo = false;
+        }
+    }
+
+    private void aplicar(Comando<?> comando) {
+        comando.aplicar(produtos);
+    }
+
+    private void descartarPendentes() {
+        synchronized (consumidor) {
+            fila.drenar(comando -> comando.resultado.completeExceptionally(
+                    new IllegalStateException("O DAO foi fechado.")), Integer.MAX_VALUE);
+        }
+    }
+
+    private static <T> T aguardar(CompletableFuture<T> resultado) {
+        try {
+            return resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error erro) {
+                throw erro;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Comando<T> {
+        final Function<ProdutoDAO, T> operacao;
+        final CompletableFuture<T> resultado = new CompletableFuture<>();
+
+        Comando(Function<ProdutoDAO, T> operacao) {
+            this.operacao = operacao;
+        }
+
+        void aplicar(ProdutoDAO dao) {
+            T valor;
+            try {
+                valor = operacao.apply(dao);
+            } catch (Throwable e) {
+                // Também Error: se ele escapasse, a thread escritora morreria e quem espera no join nunca voltaria.
+                resultado.completeExceptionally(e);
+                return;
+            }
+            resultado.complete(valor);
+        }
+    }
+
+    /**
+     * Fila circular limitada com vários produtores e um consumidor, no esquema de D. Vyukov: cada posição tem um
+     * número de sequência que diz se ela está livre para a volta atual do produtor ou preenchida para o
+     * consumidor. Produtores disputam só o compare-and-set da cauda; o consumidor não usa nenhuma operação
+     * atômica além de ler e publicar a sequência da posição.
+     */
+    private static final class FilaDeComandos {
+        private final Comando<?>[] comandos;
+        private final AtomicLongArray sequencias;
+        private final int mascara;
+        private final AtomicLong cauda = new AtomicLong();
+        private long cabeca; // só a thread consumidora mexe
+
+        FilaDeComandos(int capacidade) {
+            int tamanho = capacidade <= 1 ? 1 : Integer.highestOneBit(capacidade - 1) << 1;
+            this.comandos = new Comando<?>[tamanho];
+            this.sequencias = new AtomicLongArray(tamanho);
+            this.mascara = tamanho - 1;
+            for (int i = 0; i < tamanho; i++) {
+                sequencias.set(i, i);
+            }
+        }
+
+        /** Enfileira o comando, ou devolve false se a fila estiver cheia. */
+        boolean oferecer(Comando<?> comando) {
+            long posicao = cauda.get();
+            while (true) {
+                int indice = (int) posicao & mascara;
+                long diferenca = sequencias.get(indice) - posicao;
+                if (diferenca == 0) {
+                    if (cauda.compareAndSet(posicao, posicao + 1)) {
+                        comandos[indice] = comando;
+                        sequencias.set(indice, posicao + 1);
+                        return true;
+                    }
+                    posicao = cauda.get();
+                } else if (diferenca < 0) {
+                    return false;
+                } else {
+                    posicao = cauda.get();
+                }
+            }
+        }
+
+        boolean vazia() {
+            return sequencias.get((int) cabeca & mascara) != cabeca + 1;
+        }
+
+        /** Entrega até {@code maximo} comandos, em ordem de chegada; para no primeiro ainda não publicado. */
+        int drenar(Consumer<Comando<?>> destino, int maximo) {
+            int entregues = 0;
+            while (entregues < maximo) {
+                int indice = (int) cabeca & mascara;
+                if (sequencias.get(indice) != cabeca + 1) {
+                    break;
+                }
+                Comando<?> comando = comandos[indice];
+                comandos[indice] = null;
+                sequencias.set(indice, cabeca + comandos.length);
+                cabeca++;
+                entregues++;
+                destino.accept(comando);
+            }
+            return entregues;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.example;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Decorator que mantém um índice secundário por preço sobre qualquer {@link ProdutoDAO}.
+ * <p>
+ * O índice é uma árvore ordenada por (preço, ID): faixas de preço e os N mais baratos/caros saem em
+ * O(log n + k), sem {@code listarTodos()} nem ordenação. Os produtos do resultado são lidos do DAO envolvido
+ * (com {@link ProdutoDAO#pesquisarPorIds}), então refletem exatamente o que está gravado nele.
+ * <p>
+ * O índice guarda a chave indexada de cada produto; assim o {@code alterar} remove a entrada antiga sem
+ * precisar consultar o DAO envolvido antes de gravar.
+ * Produtos sem preço não entram no índice. Não é thread-safe, assim como o {@link ProdutoMemoryDAO}.
+ */
+public class ProdutoIndicePrecoDAO extends ProdutoDAODecorator {
+    // (preço, ID): o ID desempata produtos de mesmo preço. Quando os dois preços têm representação em centavos
+    // (o caso comum) a comparação é entre longs; senão, compareTo do BigDecimal, que ignora a escala
+    // (10.0 == 10.00) como os centavos.
+    private record ChavePreco(long centavos, BigDecimal preco, int id) implements Comparable<ChavePreco> {
+        ChavePreco(BigDecimal preco, int id) {
+            this(Dinheiro.deBigDecimal(preco), preco, id);
+        }
+
+        @Override
+        public int compareTo(ChavePreco outra) {
+            int comparacao = centavos != Dinheiro.FORA && outra.centavos != Dinheiro.FORA
+                    ? Long.compare(centavos, outra.centavos)
+                    : preco.compareTo(outra.preco);
+            return comparacao != 0 ? comparacao : Integer.compare(id, outra.id);
+        }
+    }
+
+    private final NavigableSet<ChavePreco> indice = new TreeSet<>();
+    // Chave indexada de cada produto, para remover a entrada antiga no alterar/excluir.
+    private final Map<Integer, ChavePreco> chaveIndexada = new HashMap<>();
+
+    public ProdutoIndicePrecoDAO(ProdutoDAO delegate) {
+        super(delegate);
+        // O DAO envolvido pode já ter produtos (por exemplo, recuperados de disco).
+        delegate.forEach(this::indexar);
+    }
+
+    @Override
+    public void insere(Produto produto) {
+        delegate.insere(produto);
+        indexar(produto);
+    }
+
+    @Override
+    public boolean alterar(Produto produtoAtualizado) {
+        if (!delegate.alterar(produtoAtualizado)) {
+            return false;
+        }
+        desindexar(produtoAtualizado.getId());
+        indexar(produtoAtualizado);
+        return true;
+    }
+
+    @Override
+    public boolean excluir(Integer id) {
+        if (!delegate.excluir(id)) {
+            return false;
+        }
+        desindexar(id);
+        return true;
+    }
+
+    /** Produtos com preço entre {@code minimo} e {@code maximo} (inclusive), do mais barato para o mais caro. */
+    public List<Produto> listarPorFaixaDePreco(BigDecimal minimo, BigDecimal maximo) {
+        if (minimo == null || maximo == null) {
+            throw new IllegalArgumentException("Os limites da faixa de preço não podem ser nulos.");
+        }
+        if (minimo.compareTo(maximo) > 0) {
+            return new ArrayList<>();
+        }
+        NavigableSet<ChavePreco> faixa = indice.subSet(
+                new ChavePreco(minimo, Integer.MIN_VALUE), true, new ChavePreco(maximo, Integer.MAX_VALUE), true);
+        return resolver(faixa.iterator(), Integer.MAX_VALUE);
+    }
+
+    /** Os {@code quantidade} produtos mais baratos, do mais barato para o mais caro (empate: menor ID primeiro). */
+    public List<Produto> maisBaratos(int quantidade) {
+        validarQuantidade(quantidade);
+        return resolver(indice.iterator(), quantidade);
+    }
+
+    /** Os {@code quantidade} produtos mais caros, do mais caro para o mais barato (empate: maior ID primeiro). */
+    public List<Produto> maisCaros(int quantidade) {
+        validarQuantidade(quantidade);
+        return resolver(indice.descendingIterator(), quantidade);
+    }
+
+    private List<Produto> resolver(Iterator<ChavePreco> chaves, int limite) {
+        int[] ids = new int[Math.min(limite, Math.min(indice.size(), 1024))];
+        int n = 0;
+        while (n < limite && chaves.hasNext()) {
+            if (n == ids.length) {
+                ids = Arrays.copyOf(ids, (int) Math.min(limite, 2L * n));
+            }
+            ids[n++] = chaves.next().id();
+        }
+        // Um único pedido em lote ao DAO envolvido, na ordem do índice.
+        return delegate.pesquisarPorIds(n == ids.length ? ids : Arrays.copyOf(ids, n));
+    }
+
+    private void indexar(Produto produto) {
+        BigDecimal preco = produto.getPreco();
+        if (preco != null) {
+            // Os centavos já vêm calculados no Produto.
+            ChavePreco chave = new ChavePreco(produto.getPrecoEmCentavos(), preco, produto.getId());
+            indice.add(chave);
+            chaveIndexada.put(produto.getId(), chave);
+        }
+    }
+
+    private void desindexar(Integer id) {
+        ChavePreco chave = chaveIndexada.remove(id);
+        if (chave != null) {
+            indice.remove(chave);
+        }
+    }
+
+    private static void validarQuantidade(int quantidade) {
+        if (quantidade < 0) {
+            throw new IllegalArgumentException("A quantidade não pode ser negativa.");
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+
+/**
+ * DAO indexado por uma tabela hash de endereçamento aberto com chave {@code int} primitiva.
+ * <p>
+ * Em vez de um nó de TreeMap ({@code Entry}, ~40 bytes) mais um {@code Integer} (16 bytes) por produto,
+ * cada entrada ocupa só uma posição em {@code int[] ids} (4 bytes) e uma referência em {@code Produto[] produtos}
+ * (4 bytes com compressed oops). Com fator de carga entre 0,375 e 0,75 isso dá de ~11 a ~21 bytes de índice
+ * por produto, contra ~56 bytes no {@link ProdutoMemoryDAO}. O valor real pode ser consultado em
+ * {@link #bytesDoIndice()}.
+ * <p>
+ * A busca por {@code int} não aloca nada. Não é thread-safe, assim como o {@link ProdutoMemoryDAO}.
+ */
+public class ProdutoIntMapDAO implements ProdutoDAO {
+    private static final int CAPACIDADE_MINIMA = 16;
+    // Tamanho de uma referência assumindo compressed oops (padrão para heaps menores que 32 GB).
+    private static final int BYTES_REFERENCIA = 4;
+
+    // Posição livre é indicada por produtos[i] == null; assim qualquer int (inclusive 0) pode ser ID.
+    private int[] ids;
+    private Produto[] produtos;
+    private int mascara;
+    private int quantidade;
+
+    public ProdutoIntMapDAO() {
+        this(CAPACIDADE_MINIMA);
+    }
+
+    public ProdutoIntMapDAO(int capacidadeEsperada) {
+        alocar(capacidadePara(capacidadeEsperada));
+    }
+
+    @Override
+    public void insere(Produto produto) {
+        if (produto == null || produto.getId() == null) {
+            throw new IllegalArgumentException("Produto ou ID do produto não pode ser nulo.");
+        }
+        int id = produto.getId();
+        int posicao = posicao(id);
+        if (posicao >= 0) {
+            throw new IllegalArgumentException("Erro: Já existe um produto com o ID " + id + ".");
+        }
+        if (quantidade + 1 > limiteDeCarga()) {
+            redimensionar(ids.length * 2);
+            posicao = posicao(id);
+        }
+        int livre = -posicao - 1;
+        ids[livre] = id;
+        produtos[livre] = produto;
+        quantidade++;
+    }
+
+    @Override
+    public Collection<Produto> listarTodos() {
+        List<Produto> lista = new ArrayList<>(quantidade);
+        for (int id : idsOrdenados()) {
+            lista.add(produtos[posicao(id)]);
+        }
+        return lista;
+    }
+
+    @Override
+    public Spliterator<Produto> spliterator() {
+        // Só o int[] de IDs ordenados é montado de antemão; cada produto é buscado quando for consumido.
+        int[] ordenados = idsOrdenados();
+        return NavegacaoProdutos.porPosicao(0, ordenados.length, i -> produtos[posicao(ordenados[i])]);
+    }
+
+    @Override
+    public Produto pesquisarPorId(Integer id) {
+        if (id == null) return null;
+        return pesquisarPorId(id.intValue());
+    }
+
+    @Override
+    public Produto pesquisarPorId(int id) {
+        int posicao = posicao(id);
+        return posicao >= 0 ? produtos[posicao] : null;
+    }
+
+    @Override
+    public boolean alterar(Produto produtoAtualizado) {
+        if (produtoAtualizado == null || produtoAtualizado.getId() == null) {
+            return false;
+        }
+        int posicao = posicao(produtoAtualizado.getId());
+        if (posicao < 0) {
+            return false;
+        }
+        produtos[posicao] = produtoAtualizado;
+        return true;
+    }
+
+    @Override
+    public boolean excluir(Integer id) {
+        if (id == null) return false;
+        return excluir(id.intValue());
+    }
+
+    @Override
+    public boolean excluir(int id) {
+        int posicao = posicao(id);
+        if (posicao < 0) {
+            return false;
+        }
+        removerNaPosicao(posicao);
+        quantidade--;
+        return true;
+    }
+
+    // A tabela não tem ordem: as consultas por ordem de ID varrem os arrays em O(n) e ordenam só os IDs
+    // que entram no resultado, em vez de ordenar o catálogo inteiro como o listarTodos.
+
+    @Override
+    public List<Produto> listarPorFaixaDeId(int de, int ate) {
+        return ordenadosEntre(de, ate, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Produto primeiro() {
+        return menorAPartirDe(Integer.MIN_VALUE);
+    }
+
+    @Override
+    public Produto ultimo() {
+        int maior = -1;
+        for (int i = 0; i < produtos.length; i++) {
+            if (produtos[i] != null && (maior < 0 || ids[i] > ids[maior])) {
+                maior = i;
+            }
+        }
+        return maior < 0 ? null : produtos[maior];
+    }
+
+    @Override
+    public Produto proximoApos(int id) {
+        return id == Integer.MAX_VALUE ? null : menorAPartirDe(id + 1);
+    }
+
+    @Override
+    public List<Produto> pagina(Integer aposId, int limite) {
+        NavegacaoProdutos.validarLimite(limite);
+        if (aposId != null && aposId == Integer.MAX_VALUE) {
+            return new ArrayList<>();
+        }
+        return ordenadosEntre(aposId == null ? Integer.MIN_VALUE : aposId + 1, Integer.MAX_VALUE, limite);
+    }
+
+    /** Quantidade de produtos armazenados. */
+    public int tamanho() {
+        return quantidade;
+    }
+
+    /** Bytes ocupados pelos arrays do índice (sem contar os próprios objetos {@link Produto}). */
+    public long bytesDoIndice() {
+        // Cabeçalho de array (16 bytes) + conteúdo, para os dois arrays.
+        return 16L + (long) ids.length * Integer.BYTES + 16L + (long) produtos.length * BYTES_REFERENCIA;
+    }
+
+    private Produto menorAPartirDe(int de) {
+        int menor = -1;
+        for (int i = 0; i < produtos.length; i++) {
+            if (produtos[i] != null && ids[i] >= de && (menor < 0 || ids[i] < ids[menor])) {
+                menor = i;
+            }
+        }
+        return menor < 0 ? null : produtos[menor];
+    }
+
+    // Até "limite" produtos com ID em [de, ate], em ordem de ID, com uma única varredura da tabela.
+    private List<Produto> ordenadosEntre(int de, int ate, int limite) {
+        if (de > ate || limite == 0) {
+            return new ArrayList<>();
+        }
+        // ID nos 32 bits altos e posição nos baixos: ordenar os longs ordena por ID e já traz a posição junto.
+        // Quando o array chega ao limite, vira um heap de máximo que guarda só as "limite" menores chaves (O(n log k)).
+        long[] chaves = new long[Math.min(limite, Math.min(quantidade, 1024))];
+        int n = 0;
+        for (int i = 0; i < produtos.length; i++) {
+            if (produtos[i] == null || ids[i] < de || ids[i] > ate) continue;
+            long chave = ((long) ids[i] << 32) | i;
+            if (n < limite) {
+                if (n == chaves.length) {
+                    chaves = Arrays.copyOf(chaves, (int) Math.min(limite, Math.min(quantidade, 2L * n)));
+                }
+                chaves[n++] = chave;
+                if (n == limite) {
+                    for (int j = n / 2 - 1; j >= 0; j--) descerNoHeap(chaves, j);
+                }
+            } else if (chave < chaves[0]) {
+                chaves[0] = chave;
+                descerNoHeap(chaves, 0);
+            }
+        }
+        Arrays.sort(chaves, 0, n);
+        List<Produto> lista = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            lista.add(produtos[(int) chaves[i]]);
+        }
+        return lista;
+    }
+
+    private static void descerNoHeap(long[] heap, int i) {
+        while (true) {
+            int maior = i;
+            int esquerda = 2 * i + 1;
+            int direita = esquerda + 1;
+            if (esquerda < heap.length && heap[esquerda] > heap[maior]) maior = esquerda;
+            if (direita < heap.length && heap[direita] > heap[maior]) maior = direita;
+            if (maior == i) return;
+            long troca = heap[i];
+            heap[i] = heap[maior];
+            heap[maior] = troca;
+            i = maior;
+        }
+    }
+
+    // A tabela não guarda ordem, então ordenamos só os IDs (int[]) e buscamos cada um depois.
+    private int[] idsOrdenados() {
+        int[] ordenados = new int[quantidade];
+        int n = 0;
+        for (int i = 0; i < produtos.length; i++) {
+            if (produtos[i] != null) {
+                ordenados[n++] = ids[i];
+            }
+        }
+        Arrays.sort(ordenados);
+        return ordenados;
+    }
+
+    // Retorna a posição do ID se existir, ou (-posicaoLivre - 1) onde ele deveria ser inserido.
+    private int posicao(int id) {
+        int i = espalhar(id) & mascara;
+        while (true) {
+            if (produtos[i] == null) {
+                return -i - 1;
+            }
+            if (ids[i] == id) {
+                return i;
+            }
+            i = (i + 1) & mascara;
+        }
+    }
+
+    // Remoção com deslocamento para trás (backward shift): dispensa marcadores de "apagado"
+    // e mantém as sequências de sondagem curtas.
+    private void removerNaPosicao(int livre) {
+        int i = livre;
+        while (true) {
+            i = (i + 1) & mascara;
+            if (produtos[i] == null) {
+                break;
+            }
+            int ideal = espalhar(ids[i]) & mascara;
+            // Só move o elemento se a posição livre estiver no caminho entre a posição ideal e a atual.
+            if (((i - ideal) & mascara) >= ((i - livre) & mascara)) {
+                ids[livre] = ids[i];
+                produtos[livre] = produtos[i];
+                livre = i;
+            }
+        }
+        produtos[livre] = null;
+    }
+
+    private void redimensionar(int novaCapacidade) {
+        int[] idsAntigos = ids;
+        Produto[] produtosAntigos = produtos;
+        alocar(novaCapacidade);
+        for (int i = 0; i < produtosAntigos.length; i++) {
+            if (produtosAntigos[i] != null) {
+                int livre = -posicao(idsAntigos[i]) - 1;
+                ids[livre] = idsAntigos[i];
+                produtos[livre] = produtosAntigos[i];
+            }
+        }
+    }
+
+    private void alocar(int capacidade) {
+        ids = new int[capacidade];
+        produtos = new Produto[capacidade];
+        mascara = capacidade - 1;
+    }
+
+    private int limiteDeCarga() {
+        return ids.length - (ids.length >>> 2); // 75%
+    }
+
+    private static int capacidadePara(int esperada) {
+        int capacidade = CAPACIDADE_MINIMA;
+        while (capacidade - (capacidade >>> 2) < esperada && capacidade < (1 << 30)) {
+            capacidade <<= 1;
+        }
+        return capacidade;
+    }
+
+    // Mistura os bits do ID (finalizador do MurmurHash3) para que IDs sequenciais não formem aglomerados.
+    private static int espalhar(int id) {
+        int h = id;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    @Override
+    public void insereTodos(Collection<Produto> lote) {
+        Produto[] ordenados = LoteProdutos.ordenarEValidar(lote);
+        for (Produto produto : ordenados) {
+            if (posicao(produto.getId()) >= 0) {
+                throw LoteProdutos.idDuplicado(produto.getId());
+            }
+        }
+        // Redimensiona uma vez só para o tamanho final, em vez de dobrar várias vezes durante o lote.
+        int capacidade = capacidadePara(quantidade + ordenados.length);
+        if (capacidade > ids.length) {
+            redimensionar(capacidade);
+        }
+        for (Produto produto : ordenados) {
+            int livre = -posicao(produto.getId()) - 1;
+            ids[livre] = produto.getId();
+            produtos[livre] = produto;
+        }
+        quantidade += ordenados.length;
+    }
+}
@@ -0,0 +1,409 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.TreeMap;
+
+/**
+ * DAO persistente baseado em arquivos mapeados em memória ({@link MappedByteBuffer}).
+ * <p>
+ * O diretório informado guarda dois arquivos:
+ * <ul>
+ *     <li>{@code produtos.dat}: cabeçalho + registros de largura fixa ({@value #TAMANHO_REGISTRO} bytes),
+ *     um por produto, com ID, versão, preço (valor sem escala + escala) e a referência para o slot do nome;</li>
+ *     <li>{@code nomes.dat}: área de slots de tamanho variável com os nomes em UTF-8. Um slot é reaproveitado
+ *     quando o novo nome cabe nele (em {@code alterar} ou quando um registro excluído é reutilizado).</li>
+ * </ul>
+ * Ao abrir, os arquivos são apenas mapeados e os registros varridos uma vez para montar o índice de IDs em memória,
+ * sem reprocessar inserções. As escritas vão direto para o mapeamento; {@link #sincronizar()} (também chamado por
+ * {@link #close()}) força a gravação no disco.
+ * <p>
+ * Não é thread-safe, assim como o {@link ProdutoMemoryDAO}.
+ */
+public class ProdutoMappedFileDAO implements ProdutoDAO, AutoCloseable {
+    static final String ARQUIVO_PRODUTOS = "produtos.dat";
+    static final String ARQUIVO_NOMES = "nomes.dat";
+
+    private static final int MAGICO_PRODUTOS = 0x50524F44; // "PROD"
+    private static final int MAGICO_NOMES = 0x4E4F4D45; // "NOME"
+    // Versão 2: registros com a versão do produto.
+    private static final int VERSAO_FORMATO = 2;
+
+    // Cabeçalho de produtos.dat: mágico (int), versão (int), registros usados (int).
+    private static final int CABECALHO_PRODUTOS = 32;
+    private static final int POS_REGISTROS_USADOS = 8;
+    // Cabeçalho de nomes.dat: mágico (int), versão (int), fim da área usada (long).
+    private static final int CABECALHO_NOMES = 16;
+    private static final int POS_FIM_NOMES = 8;
+
+    // Layout de cada registro de produto.
+    static final int TAMANHO_REGISTRO = 48;
+    private static final int REG_ESTADO = 0;         // byte: 0 = livre, 1 = ativo
+    private static final int REG_FLAGS = 1;          // byte: bit 0 = nome nulo, bit 1 = preço nulo
+    private static final int REG_ID = 4;             // int
+    private static final int REG_PRECO_VALOR = 8;    // long (valor sem escala)
+    private static final int REG_PRECO_ESCALA = 16;  // int
+    private static final int REG_NOME_TAMANHO = 20;  // int
+    private static final int REG_NOME_OFFSET = 24;   // long, posição do slot em nomes.dat
+    private static final int REG_NOME_CAPACIDADE = 32; // int, tamanho do slot
+    private static final int REG_VERSAO = 40;        // long, versão do produto
+
+    private static final byte LIVRE = 0;
+    private static final byte ATIVO = 1;
+    private static final byte FLAG_NOME_NULO = 1;
+    private static final byte FLAG_PRECO_NULO = 2;
+
+    private static final int CAPACIDADE_INICIAL_REGISTROS = 1024;
+    private static final int CAPACIDADE_INICIAL_NOMES = 64 * 1024;
+
+    private final FileChannel canalProdutos;
+    private final FileChannel canalNomes;
+    private MappedByteBuffer produtos;
+    private MappedByteBuffer nomes;
+
+    // Índice em memória: ID -> número do registro no arquivo. Ordenado para o listarTodos.
+    private final TreeMap<Integer, Integer> indice = new TreeMap<>();
+    // Registros excluídos que podem ser reaproveitados por novas inserções.
+    private final Deque<Integer> registrosLivres = new ArrayDeque<>();
+    private int registrosUsados;
+    private long fimNomes;
+
+    public ProdutoMappedFileDAO(Path diretorio) {
+        FileChannel produtosAberto = null;
+        FileChannel nomesAberto = null;
+        try {
+            Files.createDirectories(diretorio);
+            produtosAberto = FileChannel.open(diretorio.resolve(ARQUIVO_PRODUTOS),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            canalProdutos = produtosAberto;
+            nomesAberto = FileChannel.open(diretorio.resolve(ARQUIVO_NOMES),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            canalNomes = nomesAberto;
+            abrirProdutos();
+            abrirNomes();
+            carregarIndice();
+        } catch (IOException e) {
+            // Canais esquecidos abertos mantêm os arquivos travados (no Windows) até o GC.
+            fecharAposFalha(e, produtosAberto, nomesAberto);
+            throw new UncheckedIOException("Não foi possível abrir o arquivo de produtos em " + diretorio + ".", e);
+        } catch (RuntimeException e) {
+            // Ex.: cabeçalho inválido ou de versão incompatível.
+            fecharAposFalha(e, produtosAberto, nomesAberto);
+            throw e;
+        }
+    }
+
+    @Override
+    public void insere(Produto produto) {
+        if (produto == null || produto.getId() == null) {
+            throw new IllegalArgumentException("Produto ou ID do produto não pode ser nulo.");
+        }
+        if (indice.containsKey(produto.getId())) {
+            throw new IllegalArgumentException("Erro: Já existe um produto com o ID " + produto.getId() + ".");
+        }
+        validarPreco(produto.getPreco());
+
+        Integer reaproveitado = registrosLivres.poll();
+        int registro;
+        if (reaproveitado != null) {
+            registro = reaproveitado;
+        } else {
+            registro = registrosUsados;
+            garantirCapacidadeProdutos(registro + 1);
+            // Registro novo ainda não tem slot de nome.
+            int base = posicao(registro);
+            produtos.putLong(base + REG_NOME_OFFSET, 0);
+            produtos.putInt(base + REG_NOME_CAPACIDADE, 0);
+        }
+        gravarRegistro(registro, produto);
+        if (reaproveitado == null) {
+            registrosUsados++;
+            produtos.putInt(POS_REGISTROS_USADOS, registrosUsados);
+        }
+        indice.put(produto.getId(), registro);
+    }
+
+    @Override
+    public Collection<Produto> listarTodos() {
+        List<Produto> lista = new ArrayList<>(indice.size());
+        for (int registro : indice.values()) {
+            lista.add(lerRegistro(registro));
+        }
+        return lista;
+    }
+
+    @Override
+    public Spliterator<Produto> spliterator() {
+        // Percorre o índice e lê cada registro do arquivo só quando ele for consumido.
+        return NavegacaoProdutos.mapear(indice.values().spliterator(), this::lerRegistro);
+    }
+
+    @Override
+    public Produto pesquisarPorId(Integer id) {
+        if (id == null) return null;
+        Integer registro = indice.get(id);
+        return registro != null ? lerRegistro(registro) : null;
+    }
+
+    @Override
+    public boolean alterar(Produto produtoAtualizado) {
+        if (produtoAtualizado == null || produtoAtualizado.getId() == null) {
+            return false;
+        }
+        Integer registro = indice.get(produtoAtualizado.getId());
+        if (registro == null) {
+            return false;
+        }
+        validarPreco(produtoAtualizado.getPreco());
+        gravarRegistro(registro, produtoAtualizado);
+        return true;
+    }
+
+    @Override
+    public boolean alterarSeVersao(Produto produto, long versaoEsperada) {
+        if (produto == null || produto.getId() == null) {
+            return false;
+        }
+        // Confere a versão direto no registro, sem ler o nome do arquivo.
+        Integer registro = indice.get(produto.getId());
+        if (registro == null || produtos.getLong(posicao(registro) + REG_VERSAO) != versaoEsperada) {
+            return false;
+        }
+        validarPreco(produto.getPreco());
+        gravarRegistro(registro, produto.withVersao(versaoEsperada + 1));
+        return true;
+    }
+
+    @Override
+    public boolean excluir(Integer id) {
+        if (id == null) return false;
+        Integer registro = indice.remove(id);
+        if (registro == null) {
+            return false;
+        }
+        // O slot do nome continua associado ao registro para ser reaproveitado.
+        produtos.put(posicao(registro) + REG_ESTADO, LIVRE);
+        registrosLivres.push(registro);
+        return true;
+    }
+
+    // O índice em memória já está ordenado por ID: só os registros da faixa pedida são lidos do arquivo.
+
+    @Override
+    public List<Produto> listarPorFaixaDeId(int de, int ate) {
+        return NavegacaoProdutos.faixa(indice, de, ate, this::lerRegistro);
+    }
+
+    @Override
+    public Produto primeiro() {
+        return NavegacaoProdutos.valor(indice.firstEntry(), this::lerRegistro);
+    }
+
+    @Override
+    public Produto ultimo() {
+        return NavegacaoProdutos.valor(indice.lastEntry(), this::lerRegistro);
+    }
+
+    @Override
+    public Produto proximoApos(int id) {
+        return NavegacaoProdutos.valor(indice.higherEntry(id), this::lerRegistro);
+    }
+
+    @Override
+    public List<Produto> pagina(Integer aposId, int limite) {
+        return NavegacaoProdutos.pagina(indice, aposId, limite, this::lerRegistro);
+    }
+
+    /** Força a gravação no disco de tudo o que foi alterado no mapeamento. */
+    public void sincronizar() {
+        produtos.force();
+        nomes.force();
+    }
+
+    @Override
+    public void close() {
+        sincronizar();
+        try {
+            canalProdutos.close();
+            canalNomes.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void fecharAposFalha(Exception erro, FileChannel... canais) {
+        for (FileChannel canal : canais) {
+            if (canal == null) continue;
+            try {
+                canal.close();
+            } catch (IOException e) {
+                erro.addSuppressed(e);
+            }
+        }
+    }
+
+    private void gravarRegistro(int registro, Produto produto) {
+        int base = posicao(registro);
+        byte flags = 0;
+
+        BigDecimal preco = produto.getPreco();
+        if (preco == null) {
+            flags |= FLAG_PRECO_NULO;
+            produtos.putLong(base + REG_PRECO_VALOR, 0);
+            produtos.putInt(base + REG_PRECO_ESCALA, 0);
+        } else {
+            produtos.putLong(base + REG_PRECO_VALOR, preco.unscaledValue().longValue());
+            produtos.putInt(base + REG_PRECO_ESCALA, preco.scale());
+        }
+
+        String nome = produto.getNome();
+        if (nome == null) {
+            flags |= FLAG_NOME_NULO;
+            produtos.putInt(base + REG_NOME_TAMANHO, 0);
+        } else {
+            byte[] bytes = nome.getBytes(StandardCharsets.UTF_8);
+            long offset = produtos.getLong(base + REG_NOME_OFFSET);
+            int capacidade = produtos.getInt(base + REG_NOME_CAPACIDADE);
+            if (bytes.length > capacidade) {
+                // Não cabe no slot atual: aloca um novo no fim da área de nomes.
+                capacidade = Math.max(16, (bytes.length + 7) & ~7);
+                offset = alocarSlotNome(capacidade);
+                produtos.putLong(base + REG_NOME_OFFSET, offset);
+                produtos.putInt(base + REG_NOME_CAPACIDADE, capacidade);
+            }
+            nomes.put((int) offset, bytes);
+            produtos.putInt(base + REG_NOME_TAMANHO, bytes.length);
+        }
+
+        produtos.putInt(base + REG_ID, produto.getId());
+        produtos.putLong(base + REG_VERSAO, produto.getVersao());
+        produtos.put(base + REG_FLAGS, flags);
+        // O estado é gravado por último: um registro só vale depois de completo.
+        produtos.put(base + REG_ESTADO, ATIVO);
+    }
+
+    private Produto lerRegistro(int registro) {
+        int base = posicao(registro);
+        byte flags = produtos.get(base + REG_FLAGS);
+
+        String nome = null;
+        if ((flags & FLAG_NOME_NULO) == 0) {
+            byte[] bytes = new byte[produtos.getInt(base + REG_NOME_TAMANHO)];
+            nomes.get((int) produtos.getLong(base + REG_NOME_OFFSET), bytes);
+            nome = new String(bytes, StandardCharsets.UTF_8);
+        }
+        BigDecimal preco = null;
+        if ((flags & FLAG_PRECO_NULO) == 0) {
+            preco = BigDecimal.valueOf(produtos.getLong(base + REG_PRECO_VALOR), produtos.getInt(base + REG_PRECO_ESCALA));
+        }
+        return new Produto(produtos.getInt(base + REG_ID), nome, preco, produtos.getLong(base + REG_VERSAO));
+    }
+
+    private static void validarPreco(BigDecimal preco) {
+        // O valor sem escala precisa caber no long do registro.
+        if (preco != null && preco.unscaledValue().bitLength() > 63) {
+            throw new IllegalArgumentException("Preço fora do intervalo suportado: " + preco + ".");
+        }
+    }
+
+    private long alocarSlotNome(int capacidade) {
+        long offset = fimNomes;
+        garantirCapacidadeNomes(offset + capacidade);
+        fimNomes = offset + capacidade;
+        nomes.putLong(POS_FIM_NOMES, fimNomes);
+        return offset;
+    }
+
+    private void abrirProdutos() throws IOException {
+        boolean novo = canalProdutos.size() == 0;
+        long tamanho = novo ? CABECALHO_PRODUTOS + (long) CAPACIDADE_INICIAL_REGISTROS * TAMANHO_REGISTRO
+                : canalProdutos.size();
+        produtos = mapear(canalProdutos, tamanho);
+        if (novo) {
+            produtos.putInt(0, MAGICO_PRODUTOS);
+            produtos.putInt(4, VERSAO_FORMATO);
+            produtos.putInt(POS_REGISTROS_USADOS, 0);
+        } else {
+            validarCabecalho(produtos, MAGICO_PRODUTOS, ARQUIVO_PRODUTOS);
+        }
+        registrosUsados = produtos.getInt(POS_REGISTROS_USADOS);
+    }
+
+    private void abrirNomes() throws IOException {
+        boolean novo = canalNomes.size() == 0;
+        long tamanho = novo ? CAPACIDADE_INICIAL_NOMES : canalNomes.size();
+        nomes = mapear(canalNomes, tamanho);
+        if (novo) {
+            nomes.putInt(0, MAGICO_NOMES);
+            nomes.putInt(4, VERSAO_FORMATO);
+            nomes.putLong(POS_FIM_NOMES, CABECALHO_NOMES);
+        } else {
+            validarCabecalho(nomes, MAGICO_NOMES, ARQUIVO_NOMES);
+        }
+        fimNomes = nomes.getLong(POS_FIM_NOMES);
+    }
+
+    private void carregarIndice() {
+        for (int registro = 0; registro < registrosUsados; registro++) {
+            int base = posicao(registro);
+            if (produtos.get(base + REG_ESTADO) == ATIVO) {
+                indice.put(produtos.getInt(base + REG_ID), registro);
+            } else {
+                registrosLivres.push(registro);
+            }
+        }
+    }
+
+    private static void validarCabecalho(MappedByteBuffer buffer, int magico, String arquivo) {
+        if (buffer.getInt(0) != magico || buffer.getInt(4) != VERSAO_FORMATO) {
+            throw new IllegalStateException("Arquivo " + arquivo + " inválido ou de versão incompatível.");
+        }
+    }
+
+    private void garantirCapacidadeProdutos(int registros) {
+        long necessario = CABECALHO_PRODUTOS + (long) registros * TAMANHO_REGISTRO;
+        if (necessario > produtos.capacity()) {
+            produtos = remapear(canalProdutos, produtos.capacity(), necessario);
+        }
+    }
+
+    private void garantirCapacidadeNomes(long necessario) {
+        if (necessario > nomes.capacity()) {
+            nomes = remapear(canalNomes, nomes.capacity(), necessario);
+        }
+    }
+
+    private static MappedByteBuffer remapear(FileChannel canal, long atual, long necessario) {
+        long novo = Math.max(necessario, atual * 2);
+        if (novo > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Arquivo de produtos excedeu o tamanho máximo de um mapeamento.");
+        }
+        try {
+            // Mapear além do fim estende o arquivo; o mapeamento antigo é liberado pelo GC.
+            return mapear(canal, novo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MappedByteBuffer mapear(FileChannel canal, long tamanho) throws IOException {
+        return canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+    }
+
+    private static int posicao(int registro) {
+        return CABECALHO_PRODUTOS + registro * TAMANHO_REGISTRO;
+    }
+}
@@ -2,14 +2,17 @@ package org.example;
 
 import java.math.BigDecimal;
 import java.util.Collection;
-import java.util.Map; // Importar Map
+import java.util.List;
+import java.util.Spliterator;
 import java.util.TreeMap; // Importar TreeMap
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.ArrayList; // Para retornar cópia da coleção de valores
 
 public class ProdutoMemoryDAO implements ProdutoDAO {
     // Alterar de TreeSet para TreeMap
     // A chave é o ID do produto (Integer), o valor é o objeto Produto.
-    private final Map<Integer, Produto> produtos = new TreeMap<>();
+    private final TreeMap<Integer, Produto> produtos = new TreeMap<>();
 
     @Override
     public void insere(Produto produto) {
@@ -32,6 +35,20 @@ public class ProdutoMemoryDAO implements ProdutoDAO {
         return new ArrayList<>(produtos.values());
     }
 
+    @Override
+    public Spliterator<Produto> spliterator() {
+        // Percorre o próprio TreeMap, sem a cópia do listarTodos. Como o iterador do TreeMap, falha com
+        // ConcurrentModificationException se o DAO for alterado no meio do percurso.
+        return produtos.values().spliterator();
+    }
+
+    @Override
+    public void forEach(Consumer<? super Produto> acao) {
+        // Pelo iterador, que confere alterações a cada produto; o forEachRemaining do spliterator do TreeMap
+        // só confere no fim, e uma ação que insere no DAO nunca terminaria.
+        produtos.values().forEach(acao);
+    }
+
     @Override
     public Produto pesquisarPorId(Integer id) {
         if (id == null) return null;
@@ -65,4 +82,46 @@ public class ProdutoMemoryDAO implements ProdutoDAO {
         // Podemos verificar se o valor retornado é não nulo para confirmar a exclusão.
         return produtos.remove(id) != null;
     }
-}
\ No newline at end of file
+
+    @Override
+    public void insereTodos(Collection<Produto> lote) {
+        Produto[] ordenados = LoteProdutos.ordenarEValidar(lote);
+        // Tudo ou nada: verifica todos os IDs antes de inserir o primeiro.
+        for (Produto produto : ordenados) {
+            if (produtos.containsKey(produto.getId())) {
+                throw LoteProdutos.idDuplicado(produto.getId());
+            }
+        }
+        // Em ordem de ID, cada put desce pelo mesmo caminho da árvore que o anterior (já em cache).
+        for (Produto produto : ordenados) {
+            produtos.put(produto.getId(), produto);
+        }
+    }
+
+    // Consultas por ordem de ID direto na árvore: O(log n) para achar o início e depois só a faixa pedida.
+
+    @Override
+    public List<Produto> listarPorFaixaDeId(int de, int ate) {
+        return NavegacaoProdutos.faixa(produtos, de, ate, Function.identity());
+    }
+
+    @Override
+    public Produto primeiro() {
+        return NavegacaoProdutos.valor(produtos.firstEntry(), Function.identity());
+    }
+
+    @Override
+    public Produto ultimo() {
+        return NavegacaoProdutos.valor(produtos.lastEntry(), Function.identity());
+    }
+
+    @Override
+    public Produto proximoApos(int id) {
+        return NavegacaoProdutos.valor(produtos.higherEntry(id), Function.identity());
+    }
+
+    @Override
+    public List<Produto> pagina(Integer aposId, int limite) {
+        return NavegacaoProdutos.pagina(produtos, aposId, limite, Function.identity());
+    }
+}
@@ -0,0 +1,271 @@
+package org.example;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Decorator que mede {@code insere}, {@code insereTodos} (o lote inteiro como uma chamada),
+ * {@code pesquisarPorId}, {@code alterar}, {@code excluir} e {@code listarTodos} de qualquer {@link ProdutoDAO}:
+ * quantidade de chamadas, de falhas e um histograma de latência (p50, p99, p99.9 e máximo).
+ * <p>
+ * Falha é o {@code insere}/{@code insereTodos} que lança exceção (ID repetido, produto nulo), o
+ * {@code alterar}/{@code excluir} que devolve false e o {@code pesquisarPorId} que não encontra o produto.
+ * <p>
+ * O histograma é log-linear, no estilo do HdrHistogram: 16 baldes por potência de 2, então o percentil sai com
+ * erro relativo de até 1/16 (~6%), de 1 ns a ~68 s. Chamadas e falhas são contadas sempre, mas só 1 a cada
+ * {@code amostragem} chamadas (sorteada) é cronometrada: cada {@link System#nanoTime()} custa de 20 a 50 ns
+ * conforme a fonte de relógio da máquina, e medir toda chamada dobraria o custo de uma busca em memória. Os
+ * percentis e o máximo saem das chamadas cronometradas. O registro não aloca nem usa lock: um incremento em um
+ * {@link AtomicLongArray} listrado por thread (cada thread cai em uma faixa do array, como os buffers do
+ * {@link ProdutoCacheDAO}) e os contadores em {@link LongAdder}.
+ * As leituras ({@link #metricas()}, {@link #relatorio()}) somam as faixas e não bloqueiam as chamadas medidas;
+ * com chamadas em andamento, o retrato pode estar alguns registros atrasado.
+ */
+public class ProdutoMetricasDAO extends ProdutoDAODecorator implements AutoCloseable {
+
+    public enum Operacao { INSERE, INSERE_TODOS, PESQUISAR_POR_ID, ALTERAR, EXCLUIR, LISTAR_TODOS }
+
+    /**
+     * Retrato de uma operação; latências em nanossegundos (limite superior do balde do percentil), calculadas
+     * sobre as chamadas cronometradas.
+     */
+    public record Metricas(long chamadas, long falhas, long p50, long p99, long p999, long maximo) {
+    }
+
+    // Baldes 0-31 são exatos; a partir daí, 16 baldes por potência de 2.
+    private static final int BITS_SUB_BALDE = 4;
+    private static final int SUB_BALDES = 1 << BITS_SUB_BALDE;
+    private static final int EXPOENTE_MAXIMO = 36; // 2^36 ns ≈ 68 s; acima disso vai para o último balde
+    private static final int BALDES = (EXPOENTE_MAXIMO - BITS_SUB_BALDE + 2) * SUB_BALDES;
+    private static final long NAO_CRONOMETRADA = Long.MIN_VALUE;
+
+    /** Cronometra 1 a cada 8 chamadas. */
+    public static final int AMOSTRAGEM_PADRAO = 8;
+
+    private final Medidor[] medidores = new Medidor[Operacao.values().length];
+    private final int mascaraAmostragem;
+    private ScheduledExecutorService agendador;
+
+    public ProdutoMetricasDAO(ProdutoDAO delegate) {
+        this(delegate, AMOSTRAGEM_PADRAO);
+    }
+
+    /** {@code amostragem} é uma potência de 2; com 1, toda chamada é cronometrada. */
+    public ProdutoMetricasDAO(ProdutoDAO delegate, int amostragem) {
+        super(delegate);
+        if (amostragem < 1 || Integer.bitCount(amostragem) != 1) {
+            throw new IllegalArgumentException("A amostragem deve ser uma potência de 2 maior que zero.");
+        }
+        this.mascaraAmostragem = amostragem - 1;
+        int faixas = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        for (Operacao operacao : Operacao.values()) {
+            medidores[operacao.ordinal()] = new Medidor(faixas);
+        }
+    }
+
+    @Override
+    public void insere(Produto produto) {
+        long inicio = inicio();
+        boolean falhou = true;
+        try {
+            delegate.insere(produto);
+            falhou = false;
+        } finally {
+            medidores[Operacao.INSERE.ordinal()].registrar(inicio, falhou);
+        }
+    }
+
+    @Override
+    public void insereTodos(Collection<Produto> produtos) {
+        // Direto para o DAO envolvido: o insereTodos padrão consultaria cada ID com pesquisarPorId, e essas
+        // consultas apareceriam como buscas sem sucesso.
+        long inicio = inicio();
+        boolean falhou = true;
+        try {
+            delegate.insereTodos(produtos);
+            falhou = false;
+        } finally {
+            medidores[Operacao.INSERE_TODOS.ordinal()].registrar(inicio, falhou);
+        }
+    }
+
+    @Override
+    public Produto pesquisarPorId(Integer id) {
+        long inicio = inicio();
+        Produto produto = delegate.pesquisarPorId(id);
+        medidores[Operacao.PESQUISAR_POR_ID.ordinal()].registrar(inicio, produto == null);
+        return produto;
+    }
+
+    @Override
+    public Produto pesquisarPorId(int id) {
+        long inicio = inicio();
+        Produto produto = delegate.pesquisarPorId(id);
+        medidores[Operacao.PESQUISAR_POR_ID.ordinal()].registrar(inicio, produto == null);
+        return produto;
+    }
+
+    @Override
+    public boolean alterar(Produto produto) {
+        long inicio = inicio();
+        boolean alterado = delegate.alterar(produto);
+        medidores[Operacao.ALTERAR.ordinal()].registrar(inicio, !alterado);
+        return alterado;
+    }
+
+    @Override
+    public boolean excluir(Integer id) {
+        long inicio = inicio();
+        boolean excluido = delegate.excluir(id);
+        medidores[Operacao.EXCLUIR.ordinal()].registrar(inicio, !excluido);
+        return excluido;
+    }
+
+    @Override
+    public Collection<Produto> listarTodos() {
+        long inicio = inicio();
+        Collection<Produto> todos = delegate.listarTodos();
+        medidores[Operacao.LISTAR_TODOS.ordinal()].registrar(inicio, false);
+        return todos;
+    }
+
+    /** Retrato de todas as operações, na ordem de {@link Operacao}. */
+    public Map<Operacao, Metricas> metricas() {
+        Map<Operacao, Metricas> metricas = new EnumMap<>(Operacao.class);
+        for (Operacao operacao : Operacao.values()) {
+            metricas.put(operacao, medidores[operacao.ordinal()].retrato());
+        }
+        return metricas;
+    }
+
+    public Metricas metricas(Operacao operacao) {
+        return medidores[operacao.ordinal()].retrato();
+    }
+
+    /** Tabela em texto com as métricas de todas as operações. */
+    public String relatorio() {
+        StringBuilder texto = new StringBuilder(String.format("%-17s %12s %10s %10s %10s %10s %12s%n",
+                "operação", "chamadas", "falhas", "p50 ns", "p99 ns", "p99.9 ns", "máximo ns"));
+        metricas().forEach((operacao, m) -> texto.append(String.format("%-17s %12d %10d %10d %10d %10d %12d%n",
+                operacao.name().toLowerCase(), m.chamadas(), m.falhas(), m.p50(), m.p99(), m.p999(), m.maximo())));
+        return texto.toString();
+    }
+
+    /** Entrega o {@link #relatorio()} para {@code destino} (ex.: {@code System.out::print}) a cada intervalo. */
+    public synchronized void agendarRelatorio(Duration intervalo, Consumer<String> destino) {
+        if (agendador == null) {
+            agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "produto-metricas-relatorio");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        long nanos = intervalo.toNanos();
+        agendador.scheduleWithFixedDelay(() -> destino.accept(relatorio()), nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Cancela os relatórios agendados. O DAO envolvido continua aberto. */
+    @Override
+    public synchronized void close() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+            agendador = null;
+        }
+    }
+
+    // Instante de início das chamadas sorteadas; as demais só são contadas.
+    private long inicio() {
+        if ((ThreadLocalRandom.current().nextInt() & mascaraAmostragem) != 0) {
+            return NAO_CRONOMETRADA;
+        }
+        return System.nanoTime();
+    }
+
+    static int balde(long nanos) {
+        if (nanos < 2 * SUB_BALDES) {
+            return (int) Math.max(0, nanos);
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(nanos);
+        if (expoente > EXPOENTE_MAXIMO) {
+            return BALDES - 1;
+        }
+        int subBalde = (int) (nanos >>> (expoente - BITS_SUB_BALDE)) & (SUB_BALDES - 1);
+        return (expoente - BITS_SUB_BALDE + 1) * SUB_BALDES + subBalde;
+    }
+
+    /** Maior valor que cai no balde (como o "highest equivalent value" do HdrHistogram). */
+    static long limiteSuperior(int balde) {
+        if (balde < 2 * SUB_BALDES) {
+            return balde;
+        }
+        int expoente = balde / SUB_BALDES + BITS_SUB_BALDE - 1;
+        long largura = 1L << (expoente - BITS_SUB_BALDE);
+        return (SUB_BALDES + balde % SUB_BALDES) * largura + largura - 1;
+    }
+
+    /** Contadores e histograma de uma operação. */
+    private static final class Medidor {
+        private final LongAdder chamadas = new LongAdder();
+        private final LongAdder falhas = new LongAdder();
+        private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+        // faixas * BALDES contadores; a thread usa só a sua faixa, então threads diferentes raramente disputam
+        // a mesma linha de cache.
+        private final AtomicLongArray baldes;
+        private final int mascara;
+
+        Medidor(int faixas) {
+            this.baldes = new AtomicLongArray(faixas * BALDES);
+            this.mascara = faixas - 1;
+        }
+
+        void registrar(long inicio, boolean falhou) {
+            chamadas.increment();
+            if (falhou) {
+                falhas.increment();
+            }
+            if (inicio != NAO_CRONOMETRADA) {
+                long nanos = System.nanoTime() - inicio;
+                int faixa = (int) Thread.currentThread().threadId() & mascara;
+                baldes.getAndIncrement(faixa * BALDES + balde(nanos));
+                maximo.accumulate(nanos);
+            }
+        }
+
+        Metricas retrato() {
+            long[] contagens = new long[BALDES];
+            long total = 0;
+            for (int i = 0; i < baldes.length(); i++) {
+                long contagem = baldes.get(i);
+                contagens[i % BALDES] += contagem;
+                total += contagem;
+            }
+            return new Metricas(chamadas.sum(), falhas.sum(), percentil(contagens, total, 0.50),
+                    percentil(contagens, total, 0.99), percentil(contagens, total, 0.999), maximo.get());
+        }
+
+        private static long percentil(long[] contagens, long total, double fracao) {
+            if (total == 0) {
+                return 0;
+            }
+            long posicao = Math.max(1, (long) Math.ceil(fracao * total));
+            long acumulado = 0;
+            for (int balde = 0; balde < contagens.length; balde++) {
+                acumulado += contagens[balde];
+                if (acumulado >= posicao) {
+                    return limiteSuperior(balde);
+                }
+            }
+            return limiteSuperior(contagens.length - 1);
+        }
+    }
+}
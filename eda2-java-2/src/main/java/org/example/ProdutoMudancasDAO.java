@@ -0,0 +1,356 @@
+package org.example;
+
+import java.util.Collection;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decorator que publica cada {@code insere}, {@code alterar} e {@code excluir} bem-sucedido como uma
+ * {@link Mudanca} numerada, em um {@link Flow.Publisher} (change data capture). Quem precisa acompanhar o
+ * catálogo (busca, preços, caches) assina o feed em vez de varrer o {@code listarTodos()} e comparar cópias.
+ * <p>
+ * As mudanças recebem números de sequência consecutivos, na ordem em que foram aplicadas no DAO envolvido (as
+ * escritas são serializadas por um lock, como no {@link ProdutoWalDAO}), e as de {@code alterar} levam o produto
+ * anterior e o novo. As últimas {@code capacidade} mudanças ficam em um buffer circular: um assinante que caiu
+ * pode voltar com {@link #subscribe(Flow.Subscriber, long)} a partir da última sequência que processou, sem
+ * reler o catálogo. Se ela já saiu do buffer, o assinante recebe {@code onError} e precisa recomeçar de uma
+ * varredura completa.
+ * <p>
+ * Contrapressão: cada assinante recebe só o que pediu com {@code request(n)}, e as escritas nunca esperam por
+ * assinantes. Quem ficar mais de {@code capacidade} mudanças atrás perde a assinatura com
+ * {@link IllegalStateException} (as mudanças que faltavam foram sobrescritas). As entregas rodam em
+ * {@code executor} (por padrão uma virtual thread por rodada de entrega), fora do lock das escritas.
+ * <p>
+ * As leituras vão direto ao DAO envolvido. Depois do {@link #close()}, as escritas lançam
+ * {@link IllegalStateException} e cada assinante recebe {@code onComplete} quando terminar de consumir o que já
+ * tinha sido publicado.
+ */
+public class ProdutoMudancasDAO extends ProdutoDAODecorator implements Flow.Publisher<ProdutoMudancasDAO.Mudanca>, AutoCloseable {
+    public static final int CAPACIDADE_PADRAO = 65_536;
+
+    public enum Tipo { INSERCAO, ALTERACAO, EXCLUSAO }
+
+    /**
+     * Uma escrita aplicada. {@code anterior} é null na inserção e {@code atual} é null na exclusão; a sequência
+     * começa em 1.
+     */
+    public record Mudanca(long sequencia, Tipo tipo, Produto anterior, Produto atual) {
+        public int id() {
+            return (atual != null ? atual : anterior).getId();
+        }
+    }
+
+    private final AtomicReferenceArray<Mudanca> buffer;
+    private final int mascara;
+    private final Executor executor;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final CopyOnWriteArrayList<Assinatura> assinaturas = new CopyOnWriteArrayList<>();
+    // Última sequência publicada; as mudanças até ela já estão no buffer.
+    private volatile long ultimaSequencia;
+    private volatile boolean fechado;
+
+    public ProdutoMudancasDAO(ProdutoDAO delegate) {
+        this(delegate, CAPACIDADE_PADRAO, Thread::startVirtualThread);
+    }
+
+    /** {@code capacidade} é arredondada para potência de 2; {@code executor} roda as entregas aos assinantes. */
+    public ProdutoMudancasDAO(ProdutoDAO delegate, int capacidade, Executor executor) {
+        super(delegate);
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("A capacidade do buffer de mudanças deve ser positiva.");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("O executor não pode ser nulo.");
+        }
+        int tamanho = capacidade == 1 ? 1 : Integer.highestOneBit(capacidade - 1) << 1;
+        this.buffer = new AtomicReferenceArray<>(tamanho);
+        this.mascara = tamanho - 1;
+        this.executor = executor;
+    }
+
+    /** Sequência da última mudança publicada (0 se nenhuma). Quem varre o catálogo anota este número antes. */
+    public long ultimaSequencia() {
+        return ultimaSequencia;
+    }
+
+    @Override
+    public void insere(Produto produto) {
+        lock.lock();
+        try {
+            verificarAberto();
+            delegate.insere(produto);
+            publicar(Tipo.INSERCAO, null, produto);
+        } finally {
+            lock.unlock();
+        }
+        avisarAssinantes();
+    }
+
+    @Override
+    public boolean alterar(Produto produto) {
+        lock.lock();
+        try {
+            verificarAberto();
+            Produto anterior = produto == null ? null : delegate.pesquisarPorId(produto.getId());
+            if (anterior == null || !delegate.alterar(produto)) {
+                return false;
+            }
+            publicar(Tipo.ALTERACAO, anterior, produto);
+        } finally {
+            lock.unlock();
+        }
+        avisarAssinantes();
+        return true;
+    }
+
+    /** Conferência da versão e gravação sob o mesmo lock das outras escritas: atômica entre escritores deste feed. */
+    @Override
+    public boolean alterarSeVersao(Produto produto, long versaoEsperada) {
+        Produto novo;
+        lock.lock();
+        try {
+            verificarAberto();
+            Produto anterior = produto == null ? null : delegate.pesquisarPorId(produto.getId());
+            if (anterior == null || anterior.getVersao() != versaoEsperada) {
+                return false;
+            }
+            novo = produto.withVersao(versaoEsperada + 1);
+            if (!delegate.alterar(novo)) {
+                return false;
+            }
+            publicar(Tipo.ALTERACAO, anterior, novo);
+        } finally {
+            lock.unlock();
+        }
+        avisarAssinantes();
+        return true;
+    }
+
+    @Override
+    public boolean excluir(Integer id) {
+        lock.lock();
+        try {
+            verificarAberto();
+            Produto anterior = delegate.pesquisarPorId(id);
+            if (anterior == null || !delegate.excluir(id)) {
+                return false;
+            }
+            publicar(Tipo.EXCLUSAO, anterior, null);
+        } finally {
+            lock.unlock();
+        }
+        avisarAssinantes();
+        return true;
+    }
+
+    /** Tudo ou nada no DAO envolvido; depois, uma mudança por produto, em ordem de ID. */
+    @Override
+    public void insereTodos(Collection<Produto> produtos) {
+        Produto[] ordenados = LoteProdutos.ordenarEValidar(produtos);
+        lock.lock();
+        try {
+            verificarAberto();
+            delegate.insereTodos(produtos);
+            for (Produto produto : ordenados) {
+                publicar(Tipo.INSERCAO, null, produto);
+            }
+        } finally {
+            lock.unlock();
+        }
+        avisarAssinantes();
+    }
+
+    /** Assina a partir da próxima mudança. */
+    @Override
+    public void subscribe(Flow.Subscriber<? super Mudanca> assinante) {
+        assinar(assinante, ultimaSequencia);
+    }
+
+    /**
+     * Retoma a partir da mudança seguinte a {@code aposSequencia} (a última que o assinante processou; 0 para
+     * tudo o que ainda está no buffer desde a criação). Se alguma mudança depois dela já saiu do buffer, o
+     * assinante recebe {@code onError} com {@link IllegalStateException}.
+     */
+    public void subscribe(Flow.Subscriber<? super Mudanca> assinante, long aposSequencia) {
+        assinar(assinante, aposSequencia);
+    }
+
+    /** Para de aceitar escritas; os assinantes terminam de receber o que já foi publicado e recebem onComplete. */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            fechado = true;
+        } finally {
+            lock.unlock();
+        }
+        avisarAssinantes();
+    }
+
+    private void verificarAberto() {
+        if (fechado) {
+            throw new IllegalStateException("O feed de mudanças já foi fechado.");
+        }
+    }
+
+    // Chamado com o lock: grava no buffer e só então avança a sequência publicada.
+    private void publicar(Tipo tipo, Produto anterior, Produto atual) {
+        long sequencia = ultimaSequencia + 1;
+        buffer.set((int) sequencia & mascara, new Mudanca(sequencia, tipo, anterior, atual));
+        ultimaSequencia = sequencia;
+    }
+
+    private void avisarAssinantes() {
+        for (Assinatura assinatura : assinaturas) {
+            assinatura.agendar();
+        }
+    }
+
+    private void assinar(Flow.Subscriber<? super Mudanca> assinante, long aposSequencia) {
+        if (assinante == null) {
+            throw new NullPointerException("O assinante não pode ser nulo.");
+        }
+        Assinatura assinatura = new Assinatura(assinante, aposSequencia + 1);
+        assinante.onSubscribe(assinatura);
+        long ultima = ultimaSequencia;
+        // Os erros também passam pela rodada de entrega, para não correrem junto com um request() feito no
+        // onSubscribe.
+        if (aposSequencia < 0 || aposSequencia > ultima) {
+            assinatura.encerrarComErro(new IllegalArgumentException("Sequência " + aposSequencia
+                    + " inválida: a última publicada é " + ultima + "."));
+            return;
+        }
+        long maisAntiga = Math.max(1, ultima - buffer.length() + 1);
+        if (aposSequencia + 1 < maisAntiga) {
+            assinatura.encerrarComErro(new IllegalStateException("As mudanças depois da sequência " + aposSequencia
+                    + " já saíram do buffer (a mais antiga guardada é " + maisAntiga + "); refaça a varredura completa."));
+            return;
+        }
+        assinaturas.add(assinatura);
+        assinatura.agendar();
+    }
+
+    /**
+     * Estado de um assinante. As entregas de uma assinatura nunca rodam em paralelo: {@code trabalho} conta os
+     * pedidos de entrega, e só quem o tira de 0 agenda uma rodada no executor, que repete enquanto houver pedidos.
+     */
+    private final class Assinatura implements Flow.Subscription {
+        private final Flow.Subscriber<? super Mudanca> assinante;
+        private final AtomicLong pedidas = new AtomicLong();
+        private final AtomicInteger trabalho = new AtomicInteger();
+        private long proxima; // só lida e escrita dentro da rodada de entrega
+        private volatile boolean encerrada;
+        private volatile Throwable erroPendente;
+
+        Assinatura(Flow.Subscriber<? super Mudanca> assinante, long proxima) {
+            this.assinante = assinante;
+            this.proxima = proxima;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // Regra 3.9 do Reactive Streams: pedido não positivo encerra a assinatura com erro.
+                encerrarComErro(new IllegalArgumentException("A quantidade pedida deve ser positiva: " + n + "."));
+                return;
+            }
+            pedidas.getAndAccumulate(n, (atual, mais) -> atual + mais < 0 ? Long.MAX_VALUE : atual + mais);
+            agendar();
+        }
+
+        void encerrarComErro(Throwable erro) {
+            erroPendente = erro;
+            agendar();
+        }
+
+        @Override
+        public void cancel() {
+            encerrada = true;
+            assinaturas.remove(this);
+        }
+
+        private void falhar(Throwable erro) {
+            if (!encerrada) {
+                cancel();
+                assinante.onError(erro);
+            }
+        }
+
+        void agendar() {
+            if (trabalho.getAndIncrement() == 0) {
+                executor.execute(this::entregar);
+            }
+        }
+
+        private void entregar() {
+            int pendentes = 1;
+            do {
+                try {
+                    entregarDisponiveis();
+                } catch (Throwable erro) {
+                    // A exceção não pode escapar daqui: o trabalho nunca voltaria a 0 e não haveria outra rodada.
+                    assinanteFalhou(erro);
+                }
+                pendentes = trabalho.addAndGet(-pendentes);
+            } while (pendentes != 0);
+        }
+
+        // Regra 2.13 do Reactive Streams: um assinante que lança exceção em vez de retornar tem a assinatura
+        // cancelada. Se o erro veio do onNext, ele ainda recebe o onError (como no SubmissionPublisher); se veio
+        // de um sinal final, o erro vai para o tratador de exceções não capturadas da thread.
+        private void assinanteFalhou(Throwable erro) {
+            if (!encerrada) {
+                cancel();
+                try {
+                    assinante.onError(erro);
+                    return;
+                } catch (Throwable outro) {
+                    outro.addSuppressed(erro);
+                    erro = outro;
+                }
+            }
+            Thread atual = Thread.currentThread();
+            atual.getUncaughtExceptionHandler().uncaughtException(atual, erro);
+        }
+
+        private void entregarDisponiveis() {
+            long disponiveis = pedidas.get();
+            long entregues = 0;
+            while (!encerrada) {
+                if (erroPendente != null) {
+                    falhar(erroPendente);
+                    return;
+                }
+                long ultima = ultimaSequencia;
+                if (proxima > ultima) {
+                    // "fechado" é lido depois da sequência: se já estava fechado, nada mais será publicado.
+                    if (fechado && proxima > ultimaSequencia) {
+                        cancel();
+                        assinante.onComplete();
+                    }
+                    break;
+                }
+                if (entregues == disponiveis) {
+                    break;
+                }
+                Mudanca mudanca = buffer.get((int) proxima & mascara);
+                if (mudanca == null || mudanca.sequencia() != proxima) {
+                    falhar(new IllegalStateException("Assinante atrasado: a mudança " + proxima
+                            + " foi sobrescrita no buffer de " + buffer.length() + " mudanças."));
+                    return;
+                }
+                assinante.onNext(mudanca);
+                proxima++;
+                entregues++;
+            }
+            if (entregues > 0 && disponiveis != Long.MAX_VALUE) {
+                pedidas.addAndGet(-entregues);
+            }
+        }
+    }
+}
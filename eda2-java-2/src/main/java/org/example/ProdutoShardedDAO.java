@@ -0,0 +1,326 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * DAO particionado: os produtos são repartidos pelo hash do ID entre N DAOs independentes (partições), cada um
+ * com o seu próprio lock de leitura/escrita. Escritas em partições diferentes não disputam nada, então a vazão
+ * de escrita cresce com o número de partições (até o número de núcleos), ao contrário de um único TreeMap atrás
+ * de um lock.
+ * <p>
+ * Operações por ID vão direto para a partição do ID. As consultas em ordem de ID ({@code listarTodos},
+ * {@code listarPorFaixaDeId}, {@code pagina}...) consultam todas as partições e fazem a intercalação (k-way
+ * merge) dos resultados, que já vêm ordenados de cada uma. Cada partição é lida sob o seu lock, mas não há um
+ * retrato único de todas: com escritas concorrentes, a visão é fracamente consistente como a do
+ * {@link ProdutoConcurrentDAO}.
+ * <p>
+ * Thread-safe mesmo com partições que não são (o padrão é {@link ProdutoMemoryDAO}).
+ */
+public class ProdutoShardedDAO implements ProdutoDAO, AutoCloseable {
+    // Abaixo disso, repartir o lote entre as threads do pool custa mais do que inserir.
+    private static final int LOTE_MINIMO_PARALELO = 10_000;
+
+    private record Particao(ProdutoDAO dao, ReentrantReadWriteLock lock) {
+    }
+
+    private final Particao[] particoes;
+
+    /** Uma partição {@link ProdutoMemoryDAO} por processador. */
+    public ProdutoShardedDAO() {
+        this(Runtime.getRuntime().availableProcessors(), ProdutoMemoryDAO::new);
+    }
+
+    /** {@code quantidade} partições criadas por {@code fabrica}; cada chamada deve devolver um DAO novo e vazio. */
+    public ProdutoShardedDAO(int quantidade, Supplier<? extends ProdutoDAO> fabrica) {
+        if (quantidade <= 0) {
+            throw new IllegalArgumentException("A quantidade de partições deve ser positiva.");
+        }
+        if (fabrica == null) {
+            throw new IllegalArgumentException("A fábrica de partições não pode ser nula.");
+        }
+        this.particoes = new Particao[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            particoes[i] = new Particao(fabrica.get(), new ReentrantReadWriteLock());
+        }
+    }
+
+    public int quantidadeDeParticoes() {
+        return particoes.length;
+    }
+
+    // IDs sequenciais caem em partições diferentes: o multiplicador de Fibonacci espalha os bits baixos pelos
+    // altos e o xor traz os altos de volta antes do resto.
+    int particao(int id) {
+        int h = id * 0x9E3779B9;
+        h ^= h >>> 16;
+        return Integer.remainderUnsigned(h, particoes.length);
+    }
+
+    @Override
+    public void insere(Produto produto) {
+        if (produto == null || produto.getId() == null) {
+            throw new IllegalArgumentException("Produto ou ID do produto não pode ser nulo.");
+        }
+        Particao particao = particoes[particao(produto.getId())];
+        particao.lock.writeLock().lock();
+        try {
+            particao.dao.insere(produto);
+        } finally {
+            particao.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Produto pesquisarPorId(Integer id) {
+        if (id == null) return null;
+        return pesquisarPorId(id.intValue());
+    }
+
+    @Override
+    public Produto pesquisarPorId(int id) {
+        Particao particao = particoes[particao(id)];
+        particao.lock.readLock().lock();
+        try {
+            return particao.dao.pesquisarPorId(id);
+        } finally {
+            particao.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean alterar(Produto produto) {
+        if (produto == null || produto.getId() == null) {
+            return false;
+        }
+        Particao particao = particoes[particao(produto.getId())];
+        particao.lock.writeLock().lock();
+        try {
+            return particao.dao.alterar(produto);
+        } finally {
+            particao.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean alterarSeVersao(Produto produto, long versaoEsperada) {
+        if (produto == null || produto.getId() == null) {
+            return false;
+        }
+        // A conferência da versão e a gravação acontecem sob o lock de escrita da partição.
+        Particao particao = particoes[particao(produto.getId())];
+        particao.lock.writeLock().lock();
+        try {
+            return particao.dao.alterarSeVersao(produto, versaoEsperada);
+        } finally {
+            particao.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean excluir(Integer id) {
+        if (id == null) return false;
+        return excluir(id.intValue());
+    }
+
+    @Override
+    public boolean excluir(int id) {
+        Particao particao = particoes[particao(id)];
+        particao.lock.writeLock().lock();
+        try {
+            return particao.dao.excluir(id);
+        } finally {
+            particao.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Insere o lote inteiro ou nada. O lote é repartido, os locks de escrita das partições envolvidas são
+     * tomados em ordem de índice (sem risco de deadlock entre lotes) e, depois de conferir que nenhum ID existe,
+     * cada partição recebe a sua parte pelo {@code insereTodos} dela, em paralelo nos lotes grandes.
+     */
+    @Override
+    public void insereTodos(Collection<Produto> lote) {
+        Produto[] ordenados = LoteProdutos.ordenarEValidar(lote);
+        List<List<Produto>> partes = new ArrayList<>(particoes.length);
+        for (int i = 0; i < particoes.length; i++) {
+            partes.add(new ArrayList<>(ordenados.length / particoes.length + 1));
+        }
+        for (Produto produto : ordenados) {
+            partes.get(particao(produto.getId())).add(produto);
+        }
+        int travadas = 0;
+        try {
+            for (; travadas < particoes.length; travadas++) {
+                if (!partes.get(travadas).isEmpty()) {
+                    particoes[travadas].lock.writeLock().lock();
+                }
+            }
+            for (int i = 0; i < particoes.length; i++) {
+                for (Produto produto : partes.get(i)) {
+                    if (particoes[i].dao.pesquisarPorId(produto.getId().intValue()) != null) {
+                        throw LoteProdutos.idDuplicado(produto.getId());
+                    }
+                }
+            }
+            IntStream indices = IntStream.range(0, particoes.length).filter(i -> !partes.get(i).isEmpty());
+            if (ordenados.length >= LOTE_MINIMO_PARALELO && Runtime.getRuntime().availableProcessors() > 1) {
+                // As threads do pool escrevem sob os locks tomados por esta thread; o join do stream publica
+                // as escritas antes de os locks serem liberados.
+                indices = indices.parallel();
+            }
+            indices.forEach(i -> particoes[i].dao.insereTodos(partes.get(i)));
+        } finally {
+            for (int i = travadas - 1; i >= 0; i--) {
+                if (!partes.get(i).isEmpty()) {
+                    particoes[i].lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    @Override
+    public Collection<Produto> listarTodos() {
+        return intercalar(ProdutoDAO::listarTodos, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Produto> listarPorFaixaDeId(int de, int ate) {
+        return intercalar(dao -> dao.listarPorFaixaDeId(de, ate), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Produto> pagina(Integer aposId, int limite) {
+        NavegacaoProdutos.validarLimite(limite);
+        // Cada partição devolve até "limite" produtos; a página são os "limite" menores IDs entre todos eles.
+        return intercalar(dao -> dao.pagina(aposId, limite), limite);
+    }
+
+    @Override
+    public Produto primeiro() {
+        return extremo(ProdutoDAO::primeiro, false);
+    }
+
+    @Override
+    public Produto ultimo() {
+        return extremo(ProdutoDAO::ultimo, true);
+    }
+
+    @Override
+    public Produto proximoApos(int id) {
+        return extremo(dao -> dao.proximoApos(id), false);
+    }
+
+    /**
+     * Fecha as partições que forem {@link AutoCloseable} (ex.: DAOs em arquivo), todas mesmo que alguma falhe. A
+     * primeira falha é lançada, com as outras como suprimidas; exceções verificadas de partições de fora do
+     * projeto chegam como {@link UncheckedIOException} (ou {@link IllegalStateException}), como no
+     * {@link ProdutoWalDAO#close()}.
+     */
+    @Override
+    public void close() {
+        RuntimeException erro = null;
+        for (Particao particao : particoes) {
+            if (particao.dao instanceof AutoCloseable fechavel) {
+                try {
+                    fechavel.close();
+                } catch (Exception e) {
+                    RuntimeException falha = naoVerificada(e);
+                    if (erro == null) erro = falha;
+                    else erro.addSuppressed(falha);
+                }
+            }
+        }
+        if (erro != null) {
+            throw erro;
+        }
+    }
+
+    private static RuntimeException naoVerificada(Exception e) {
+        if (e instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (e instanceof IOException io) {
+            return new UncheckedIOException("Falha ao fechar uma partição.", io);
+        }
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        return new IllegalStateException("Falha ao fechar uma partição.", e);
+    }
+
+    private <T> T ler(Particao particao, Function<ProdutoDAO, T> consulta) {
+        particao.lock.readLock().lock();
+        try {
+            return consulta.apply(particao.dao);
+        } finally {
+            particao.lock.readLock().unlock();
+        }
+    }
+
+    /** Menor (ou maior) ID entre os produtos que cada partição devolve para {@code consulta}. */
+    private Produto extremo(Function<ProdutoDAO, Produto> consulta, boolean maior) {
+        Produto escolhido = null;
+        for (Particao particao : particoes) {
+            Produto candidato = ler(particao, consulta);
+            if (candidato != null && (escolhido == null || candidato.compareTo(escolhido) > 0 == maior)) {
+                escolhido = candidato;
+            }
+        }
+        return escolhido;
+    }
+
+    /** Intercala as listas ordenadas por ID de cada partição, parando em {@code limite} produtos. */
+    private List<Produto> intercalar(Function<ProdutoDAO, Collection<Produto>> consulta, int limite) {
+        PriorityQueue<Cabeca> cabecas = new PriorityQueue<>(particoes.length);
+        int total = 0;
+        for (Particao particao : particoes) {
+            Collection<Produto> produtos = ler(particao, consulta);
+            total += produtos.size();
+            Iterator<Produto> iterador = produtos.iterator();
+            if (iterador.hasNext()) {
+                cabecas.add(new Cabeca(iterador));
+            }
+        }
+        List<Produto> intercalados = new ArrayList<>(Math.min(total, limite));
+        while (intercalados.size() < limite && !cabecas.isEmpty()) {
+            Cabeca menor = cabecas.poll();
+            intercalados.add(menor.atual);
+            if (menor.avancar()) {
+                cabecas.add(menor);
+            }
+        }
+        return intercalados;
+    }
+
+    /** Próximo produto ainda não intercalado de uma partição. */
+    private static final class Cabeca implements Comparable<Cabeca> {
+        private final Iterator<Produto> restantes;
+        private Produto atual;
+
+        Cabeca(Iterator<Produto> restantes) {
+            this.restantes = restantes;
+            this.atual = restantes.next();
+        }
+
+        boolean avancar() {
+            if (!restantes.hasNext()) return false;
+            atual = restantes.next();
+            return true;
+        }
+
+        @Override
+        public int compareTo(Cabeca outra) {
+            return Integer.compare(atual.getId(), outra.atual.getId());
+        }
+    }
+}
@@ -0,0 +1,526 @@
+package org.example;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * DAO thread-safe em que cada escrita publica uma nova versão imutável do catálogo (copy-on-write).
+ * <p>
+ * Os produtos ficam em uma árvore AVL persistente: uma escrita copia só os O(log n) nós do caminho até o ID
+ * alterado e reaproveita o resto da árvore anterior. A nova raiz é publicada com um compare-and-set; se outra
+ * escrita publicou antes, a operação é refeita sobre a versão mais nova.
+ * <p>
+ * Leitores nunca bloqueiam e nunca copiam: {@link #listarTodos()} devolve a própria versão atual, que não muda
+ * mais depois de publicada. Quem está percorrendo uma listagem continua vendo o catálogo daquele momento, mesmo
+ * com escritas acontecendo em paralelo.
+ */
+public class ProdutoSnapshotDAO implements ProdutoDAO {
+
+    private static final class No {
+        final int id;
+        final Produto produto;
+        final No esquerda;
+        final No direita;
+        final int altura;
+
+        No(Produto produto, No esquerda, No direita) {
+            this.id = produto.getId();
+            this.produto = produto;
+            this.esquerda = esquerda;
+            this.direita = direita;
+            this.altura = Math.max(altura(esquerda), altura(direita)) + 1;
+        }
+    }
+
+    /**
+     * Uma versão publicada do catálogo: coleção somente leitura, em ordem de ID, que nunca muda.
+     * Iterar sobre ela não copia nada e não depende de lock.
+     */
+    public static final class Snapshot extends AbstractCollection<Produto> {
+        private static final Snapshot VAZIO = new Snapshot(null, 0, 0);
+
+        private final No raiz;
+        private final int tamanho;
+        private final long versao;
+
+        private Snapshot(No raiz, int tamanho, long versao) {
+            this.raiz = raiz;
+            this.tamanho = tamanho;
+            this.versao = versao;
+        }
+
+        /** Número da versão: começa em 0 e aumenta em 1 a cada escrita que mudou o catálogo. */
+        public long versao() {
+            return versao;
+        }
+
+        /** Busca o ID nesta versão, ignorando escritas publicadas depois dela. */
+        public Produto pesquisarPorId(int id) {
+            No no = raiz;
+            while (no != null) {
+                if (id < no.id) no = no.esquerda;
+                else if (id > no.id) no = no.direita;
+                else return no.produto;
+            }
+            return null;
+        }
+
+        @Override
+        public boolean contains(Object objeto) {
+            return objeto instanceof Produto produto && produto.getId() != null
+                    && pesquisarPorId(produto.getId()) != null;
+        }
+
+        @Override
+        public Iterator<Produto> iterator() {
+            return new Percurso(raiz, Long.MIN_VALUE);
+        }
+
+        @Override
+        public Spliterator<Produto> spliterator() {
+            return new Fatia(raiz, Long.MIN_VALUE, Long.MAX_VALUE, tamanho, true);
+        }
+
+        @Override
+        public int size() {
+            return tamanho;
+        }
+    }
+
+    /** Percurso em ordem de ID a partir do primeiro ID maior que {@code aposId}, com uma pilha do tamanho da altura. */
+    private static final class Percurso implements Iterator<Produto> {
+        private final No[] pilha;
+        private int topo;
+
+        Percurso(No raiz, long aposId) {
+            pilha = new No[altura(raiz)];
+            No no = raiz;
+            while (no != null) {
+                if (no.id > aposId) {
+                    pilha[topo++] = no;
+                    no = no.esquerda;
+                } else {
+                    no = no.direita;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return topo > 0;
+        }
+
+        // ID do próximo produto; só pode ser chamado se hasNext().
+        int proximoId() {
+            return pilha[topo - 1].id;
+        }
+
+        @Override
+        public Produto next() {
+            if (topo == 0) throw new NoSuchElementException();
+            No atual = pilha[--topo];
+            for (No no = atual.direita; no != null; no = no.esquerda) {
+                pilha[topo++] = no;
+            }
+            return atual.produto;
+        }
+    }
+
+    /**
+     * Spliterator dos IDs em ({@code aposId}, {@code ate}] de uma versão. A divisão segue a própria árvore: o
+     * nó mais alto dentro da faixa separa o prefixo (ele e a subárvore esquerda) do resto, então as metades
+     * ficam equilibradas como a AVL. Depois que o percurso começa, não divide mais.
+     */
+    private static final class Fatia implements Spliterator<Produto> {
+        // Subárvore que contém todos os IDs da faixa (pode conter outros, que são ignorados).
+        private final No raiz;
+        private long aposId;
+        private final long ate;
+        private long estimativa;
+        private boolean exata;
+        private Percurso percurso;
+
+        Fatia(No raiz, long aposId, long ate, long estimativa, boolean exata) {
+            this.raiz = raiz;
+            this.aposId = aposId;
+            this.ate = ate;
+            this.estimativa = estimativa;
+            this.exata = exata;
+        }
+
+        private Percurso percurso() {
+            if (percurso == null) {
+                percurso = new Percurso(raiz, aposId);
+            }
+            return percurso;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Produto> acao) {
+            Percurso percurso = percurso();
+            if (!percurso.hasNext() || percurso.proximoId() > ate) {
+                return false;
+            }
+            acao.accept(percurso.next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Produto> acao) {
+            Percurso percurso = percurso();
+            while (percurso.hasNext() && percurso.proximoId() <= ate) {
+                acao.accept(percurso.next());
+            }
+        }
+
+        @Override
+        public Spliterator<Produto> trySplit() {
+            if (percurso != null) {
+                return null;
+            }
+            // Nó mais alto com aposId < id < ate; todos os IDs da faixa até ele estão na subárvore dele.
+            No meio = raiz;
+            while (meio != null && (meio.id <= aposId || meio.id >= ate)) {
+                meio = meio.id <= aposId ? meio.direita : meio.esquerda;
+            }
+            if (meio == null) {
+                return null;
+            }
+            estimativa >>>= 1;
+            exata = false;
+            Fatia prefixo = new Fatia(meio, aposId, meio.id, estimativa, false);
+            aposId = meio.id;
+            return prefixo;
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimativa;
+        }
+
+        @Override
+        public int characteristics() {
+            // Produto é Comparable pelo ID, então a ordem por ID é a ordem natural (SORTED sem comparator).
+            return ORDERED | SORTED | DISTINCT | NONNULL | IMMUTABLE | (exata ? SIZED : 0);
+        }
+
+        @Override
+        public Comparator<? super Produto> getComparator() {
+            return null;
+        }
+    }
+
+    private final AtomicReference<Snapshot> atual = new AtomicReference<>(Snapshot.VAZIO);
+
+    /** Versão publicada neste momento. Todas as leituras feitas nela são consistentes entre si. */
+    public Snapshot snapshot() {
+        return atual.get();
+    }
+
+    @Override
+    public void insere(Produto produto) {
+        if (produto == null || produto.getId() == null) {
+            throw new IllegalArgumentException("Produto ou ID do produto não pode ser nulo.");
+        }
+        while (true) {
+            Snapshot versao = atual.get();
+            // inserir lança a exceção de ID duplicado antes de qualquer publicação.
+            No raiz = inserir(versao.raiz, produto);
+            if (publicar(versao, raiz, versao.tamanho + 1)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public Collection<Produto> listarTodos() {
+        // A própria versão atual: somente leitura e imutável, então pode ser entregue sem cópia.
+        return atual.get();
+    }
+
+    @Override
+    public Spliterator<Produto> spliterator() {
+        // Percorre a versão atual; escritas publicadas durante o percurso não aparecem nele.
+        return atual.get().spliterator();
+    }
+
+    /** As duas passadas do histograma leem a mesma versão. */
+    @Override
+    public HistogramaPrecos histogramaPrecos(int faixas) {
+        return AgregacaoPrecos.histograma(atual.get()::spliterator, faixas);
+    }
+
+    @Override
+    public Produto pesquisarPorId(Integer id) {
+        if (id == null) return null;
+        return atual.get().pesquisarPorId(id);
+    }
+
+    @Override
+    public Produto pesquisarPorId(int id) {
+        return atual.get().pesquisarPorId(id);
+    }
+
+    @Override
+    public boolean alterar(Produto produtoAtualizado) {
+        if (produtoAtualizado == null || produtoAtualizado.getId() == null) {
+            return false;
+        }
+        while (true) {
+            Snapshot versao = atual.get();
+            No raiz = substituir(versao.raiz, produtoAtualizado);
+            if (raiz == versao.raiz) {
+                return false; // ID inexistente: nada a publicar.
+            }
+            if (publicar(versao, raiz, versao.tamanho)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean alterarSeVersao(Produto produto, long versaoEsperada) {
+        if (produto == null || produto.getId() == null) {
+            return false;
+        }
+        Produto novo = produto.withVersao(versaoEsperada + 1);
+        while (true) {
+            Snapshot versao = atual.get();
+            Produto guardado = versao.pesquisarPorId(produto.getId());
+            if (guardado == null || guardado.getVersao() != versaoEsperada) {
+                return false;
+            }
+            // Se outra escrita publicar antes, a versão do produto é conferida de novo na versão mais nova.
+            if (publicar(versao, substituir(versao.raiz, novo), versao.tamanho)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean excluir(Integer id) {
+        if (id == null) return false;
+        return excluir(id.intValue());
+    }
+
+    @Override
+    public boolean excluir(int id) {
+        while (true) {
+            Snapshot versao = atual.get();
+            No raiz = remover(versao.raiz, id);
+            if (raiz == versao.raiz) {
+                return false;
+            }
+            if (publicar(versao, raiz, versao.tamanho - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /** O lote inteiro entra em uma única versão nova: leitores veem todos os produtos dele ou nenhum. */
+    @Override
+    public void insereTodos(Collection<Produto> lote) {
+        Produto[] ordenados = LoteProdutos.ordenarEValidar(lote);
+        if (ordenados.length == 0) {
+            return;
+        }
+        while (true) {
+            Snapshot versao = atual.get();
+            No raiz = versao.raiz;
+            for (Produto produto : ordenados) {
+                raiz = inserir(raiz, produto);
+            }
+            if (publicar(versao, raiz, versao.tamanho + ordenados.length)) {
+                return;
+            }
+        }
+    }
+
+    /** Todos os IDs são lidos na mesma versão. */
+    @Override
+    public List<Produto> pesquisarPorIds(int[] ids) {
+        Snapshot versao = atual.get();
+        List<Produto> encontrados = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            encontrados.add(versao.pesquisarPorId(id));
+        }
+        return encontrados;
+    }
+
+    /** Exclui os IDs em uma única versão nova. */
+    @Override
+    public int excluirTodos(int[] ids) {
+        while (true) {
+            Snapshot versao = atual.get();
+            No raiz = versao.raiz;
+            int excluidos = 0;
+            for (int id : ids) {
+                No semId = remover(raiz, id);
+                if (semId != raiz) {
+                    raiz = semId;
+                    excluidos++;
+                }
+            }
+            if (excluidos == 0 || publicar(versao, raiz, versao.tamanho - excluidos)) {
+                return excluidos;
+            }
+        }
+    }
+
+    // Consultas por ordem de ID direto na árvore da versão atual: O(log n) para achar o início e depois só a
+    // faixa pedida. Cada consulta enxerga uma única versão.
+
+    @Override
+    public List<Produto> listarPorFaixaDeId(int de, int ate) {
+        List<Produto> faixa = new ArrayList<>();
+        if (de > ate) {
+            return faixa;
+        }
+        Percurso percurso = new Percurso(atual.get().raiz, (long) de - 1);
+        while (percurso.hasNext()) {
+            Produto produto = percurso.next();
+            if (produto.getId() > ate) break;
+            faixa.add(produto);
+        }
+        return faixa;
+    }
+
+    @Override
+    public Produto primeiro() {
+        No no = atual.get().raiz;
+        if (no == null) return null;
+        while (no.esquerda != null) no = no.esquerda;
+        return no.produto;
+    }
+
+    @Override
+    public Produto ultimo() {
+        No no = atual.get().raiz;
+        if (no == null) return null;
+        while (no.direita != null) no = no.direita;
+        return no.produto;
+    }
+
+    @Override
+    public Produto proximoApos(int id) {
+        No no = atual.get().raiz;
+        Produto sucessor = null;
+        while (no != null) {
+            if (no.id > id) {
+                sucessor = no.produto;
+                no = no.esquerda;
+            } else {
+                no = no.direita;
+            }
+        }
+        return sucessor;
+    }
+
+    @Override
+    public List<Produto> pagina(Integer aposId, int limite) {
+        NavegacaoProdutos.validarLimite(limite);
+        List<Produto> pagina = new ArrayList<>(Math.min(limite, 1024));
+        Percurso percurso = new Percurso(atual.get().raiz, aposId == null ? Long.MIN_VALUE : aposId);
+        while (pagina.size() < limite && percurso.hasNext()) {
+            pagina.add(percurso.next());
+        }
+        return pagina;
+    }
+
+    private boolean publicar(Snapshot anterior, No raiz, int tamanho) {
+        return atual.compareAndSet(anterior, new Snapshot(raiz, tamanho, anterior.versao + 1));
+    }
+
+    // Operações da árvore persistente. Nenhuma modifica um nó existente: devolvem a raiz de uma nova árvore
+    // (ou a mesma raiz, quando não há nada a mudar) que compartilha com a anterior tudo fora do caminho.
+
+    private static int altura(No no) {
+        return no == null ? 0 : no.altura;
+    }
+
+    private static No inserir(No no, Produto produto) {
+        if (no == null) {
+            return new No(produto, null, null);
+        }
+        int id = produto.getId();
+        if (id < no.id) return balancear(no.produto, inserir(no.esquerda, produto), no.direita);
+        if (id > no.id) return balancear(no.produto, no.esquerda, inserir(no.direita, produto));
+        throw LoteProdutos.idDuplicado(id);
+    }
+
+    private static No substituir(No no, Produto produto) {
+        if (no == null) {
+            return null;
+        }
+        int id = produto.getId();
+        if (id < no.id) {
+            No esquerda = substituir(no.esquerda, produto);
+            return esquerda == no.esquerda ? no : new No(no.produto, esquerda, no.direita);
+        }
+        if (id > no.id) {
+            No direita = substituir(no.direita, produto);
+            return direita == no.direita ? no : new No(no.produto, no.esquerda, direita);
+        }
+        return new No(produto, no.esquerda, no.direita);
+    }
+
+    private static No remover(No no, int id) {
+        if (no == null) {
+            return null;
+        }
+        if (id < no.id) {
+            No esquerda = remover(no.esquerda, id);
+            return esquerda == no.esquerda ? no : balancear(no.produto, esquerda, no.direita);
+        }
+        if (id > no.id) {
+            No direita = remover(no.direita, id);
+            return direita == no.direita ? no : balancear(no.produto, no.esquerda, direita);
+        }
+        if (no.esquerda == null) return no.direita;
+        if (no.direita == null) return no.esquerda;
+        No sucessor = no.direita;
+        while (sucessor.esquerda != null) sucessor = sucessor.esquerda;
+        return balancear(sucessor.produto, no.esquerda, removerMinimo(no.direita));
+    }
+
+    private static No removerMinimo(No no) {
+        if (no.esquerda == null) return no.direita;
+        return balancear(no.produto, removerMinimo(no.esquerda), no.direita);
+    }
+
+    // Monta o nó (produto, esquerda, direita) e faz as rotações AVL se as alturas diferirem em mais de 1.
+    private static No balancear(Produto produto, No esquerda, No direita) {
+        int fator = altura(esquerda) - altura(direita);
+        if (fator > 1) {
+            if (altura(esquerda.esquerda) < altura(esquerda.direita)) {
+                esquerda = rotacionarEsquerda(esquerda);
+            }
+            return rotacionarDireita(new No(produto, esquerda, direita));
+        }
+        if (fator < -1) {
+            if (altura(direita.direita) < altura(direita.esquerda)) {
+                direita = rotacionarDireita(direita);
+            }
+            return rotacionarEsquerda(new No(produto, esquerda, direita));
+        }
+        return new No(produto, esquerda, direita);
+    }
+
+    private static No rotacionarDireita(No no) {
+        No esquerda = no.esquerda;
+        return new No(esquerda.produto, esquerda.esquerda, new No(no.produto, esquerda.direita, no.direita));
+    }
+
+    private static No rotacionarEsquerda(No no) {
+        No direita = no.direita;
+        return new No(direita.produto, new No(no.produto, no.esquerda, direita.esquerda), direita.direita);
+    }
+}
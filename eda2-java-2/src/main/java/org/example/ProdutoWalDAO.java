@@ -0,0 +1,634 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Decorator que torna duráveis as escritas de qualquer {@link ProdutoDAO} por meio de um write-ahead log.
+ * <p>
+ * Cada {@code insere}, {@code alterar}, {@code alterarSeVersao} e {@code excluir} bem-sucedido vira um registro
+ * binário compacto, com a versão do produto, anexado ao arquivo {@code produtos.wal}. Em vez de um fsync por
+ * chamada, uma thread de commit junta os registros de várias threads em um único {@code write + force} (group
+ * commit): o lote é gravado quando atinge {@code tamanhoMaximoLote} registros ou quando o registro mais antigo
+ * esperou {@code latenciaMaxima}.
+ * A chamada só retorna depois que o seu registro está no disco.
+ * <p>
+ * Na abertura, o último snapshot ({@code produtos.snapshot}) é carregado no DAO envolvido e o log é reaplicado
+ * por cima. {@link #snapshot()} grava o estado atual e trunca o log, mantendo a recuperação rápida; ele pode ser
+ * executado periodicamente com {@link #agendarSnapshots(Duration)}.
+ * <p>
+ * As escritas são serializadas pelo próprio log. As leituras vão direto ao DAO envolvido, então leituras
+ * concorrentes com escritas exigem um DAO envolvido thread-safe (ex.: {@link ProdutoConcurrentDAO}).
+ * <p>
+ * A escrita é aplicada no DAO envolvido antes de o registro chegar ao disco (é o DAO que decide se ela é válida),
+ * então uma leitura concorrente pode ver uma escrita que ainda não é durável. Se a gravação do log falhar, a
+ * chamada lança {@link UncheckedIOException} e todas as escritas seguintes também, mas a memória fica com as
+ * escritas do lote que não foi gravado: o estado confiável passa a ser o do disco, e o DAO deve ser fechado e
+ * recuperado com {@link #recuperar(Path)}.
+ */
+public class ProdutoWalDAO extends ProdutoDAODecorator implements AutoCloseable {
+    static final String ARQUIVO_LOG = "produtos.wal";
+    static final String ARQUIVO_SNAPSHOT = "produtos.snapshot";
+
+    private static final Duration LATENCIA_PADRAO = Duration.ofMillis(2);
+    private static final int LOTE_PADRAO = 256;
+
+    private static final int MAGICO_SNAPSHOT = 0x534E4150; // "SNAP"
+    private static final int MAGICO_LOG = 0x57414C50; // "WALP"
+    // Versão 2: registros com a versão do produto.
+    private static final int VERSAO_FORMATO = 2;
+    // Cabeçalho do log e do snapshot: mágico (int) + versão do formato (int).
+    static final int CABECALHO_ARQUIVO = 8;
+    // Cabeçalho de cada registro: tamanho do conteúdo (int) + CRC32C do conteúdo (int).
+    private static final int CABECALHO_REGISTRO = 8;
+    // Bloco lido de cada vez na recuperação; um registro maior que ele ganha um buffer do seu tamanho.
+    private static final int BLOCO_LEITURA = 64 * 1024;
+
+    private static final byte INSERE = 1;
+    private static final byte ALTERA = 2;
+    private static final byte EXCLUI = 3;
+
+    private static final byte FLAG_NOME_NULO = 1;
+    private static final byte FLAG_PRECO_NULO = 2;
+
+    private final Path diretorio;
+    private final FileChannel log;
+    private final long latenciaMaximaNanos;
+    private final int tamanhoMaximoLote;
+
+    // Protege o DAO envolvido (nas escritas) e o estado do group commit.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition temRegistros = lock.newCondition();
+    private final Condition loteCheio = lock.newCondition();
+    private final Condition gravado = lock.newCondition();
+
+    // Registros anexados e ainda não gravados; trocado com o buffer livre a cada lote.
+    private ByteBuffer pendentes = ByteBuffer.allocate(64 * 1024);
+    private ByteBuffer livre = ByteBuffer.allocate(64 * 1024);
+    private int registrosPendentes;
+    private long sequenciaAnexada;
+    private long sequenciaGravada;
+    private IOException falha;
+    private boolean fechado;
+
+    private final Thread threadCommit;
+    private ScheduledExecutorService agendador;
+
+    public ProdutoWalDAO(ProdutoDAO delegate, Path diretorio) {
+        this(delegate, diretorio, LATENCIA_PADRAO, LOTE_PADRAO);
+    }
+
+    /**
+     * @param delegate          DAO (vazio) que será reconstruído a partir do snapshot e do log
+     * @param latenciaMaxima    tempo máximo que um registro espera por outros antes de o lote ser gravado
+     * @param tamanhoMaximoLote quantidade de registros que dispara a gravação imediata do lote
+     */
+    public ProdutoWalDAO(ProdutoDAO delegate, Path diretorio, Duration latenciaMaxima, int tamanhoMaximoLote) {
+        super(delegate);
+        if (tamanhoMaximoLote < 1) {
+            throw new IllegalArgumentException("O tamanho máximo do lote deve ser positivo.");
+        }
+        this.diretorio = diretorio;
+        this.latenciaMaximaNanos = latenciaMaxima.toNanos();
+        this.tamanhoMaximoLote = tamanhoMaximoLote;
+        FileChannel canal = null;
+        try {
+            Files.createDirectories(diretorio);
+            carregarSnapshot();
+            canal = FileChannel.open(diretorio.resolve(ARQUIVO_LOG),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            log = canal;
+            reaplicarLog();
+        } catch (IOException e) {
+            fecharAposFalha(canal, e);
+            throw new UncheckedIOException("Não foi possível recuperar o log de produtos em " + diretorio + ".", e);
+        } catch (RuntimeException e) {
+            // Ex.: o DAO envolvido recusou um registro reaplicado.
+            fecharAposFalha(canal, e);
+            throw e;
+        }
+        threadCommit = new Thread(this::executarCommits, "produto-wal-commit");
+        threadCommit.setDaemon(true);
+        threadCommit.start();
+    }
+
+    /** Reconstrói um {@link ProdutoMemoryDAO} a partir do snapshot e do log gravados em {@code diretorio}. */
+    public static ProdutoWalDAO recuperar(Path diretorio) {
+        return new ProdutoWalDAO(new ProdutoMemoryDAO(), diretorio);
+    }
+
+    @Override
+    public void insere(Produto produto) {
+        long sequencia;
+        lock.lock();
+        try {
+            verificarAberto();
+            delegate.insere(produto); // Se lançar exceção, nada vai para o log.
+            sequencia = anexar(INSERE, produto.getId(), produto);
+        } finally {
+            lock.unlock();
+        }
+        aguardarGravacao(sequencia);
+    }
+
+    @Override
+    public boolean alterar(Produto produto) {
+        long sequencia;
+        lock.lock();
+        try {
+            verificarAberto();
+            if (!delegate.alterar(produto)) {
+                return false;
+            }
+            sequencia = anexar(ALTERA, produto.getId(), produto);
+        } finally {
+            lock.unlock();
+        }
+        aguardarGravacao(sequencia);
+        return true;
+    }
+
+    /** Conferência da versão, alteração e registro no log sob o mesmo lock das outras escritas. */
+    @Override
+    public boolean alterarSeVersao(Produto produto, long versaoEsperada) {
+        long sequencia;
+        lock.lock();
+        try {
+            verificarAberto();
+            Produto atual = produto == null ? null : delegate.pesquisarPorId(produto.getId());
+            if (atual == null || atual.getVersao() != versaoEsperada) {
+                return false;
+            }
+            Produto novo = produto.withVersao(versaoEsperada + 1);
+            if (!delegate.alterar(novo)) {
+                return false;
+            }
+            sequencia = anexar(ALTERA, novo.getId(), novo);
+        } finally {
+            lock.unlock();
+        }
+        aguardarGravacao(sequencia);
+        return true;
+    }
+
+    @Override
+    public boolean excluir(Integer id) {
+        long sequencia;
+        lock.lock();
+        try {
+            verificarAberto();
+            if (!delegate.excluir(id)) {
+                return false;
+            }
+            sequencia = anexar(EXCLUI, id, null);
+        } finally {
+            lock.unlock();
+        }
+        aguardarGravacao(sequencia);
+        return true;
+    }
+
+    /** Insere o lote no DAO envolvido e espera uma única gravação para todos os registros. */
+    @Override
+    public void insereTodos(Collection<Produto> produtos) {
+        long sequencia;
+        lock.lock();
+        try {
+            verificarAberto();
+            delegate.insereTodos(produtos); // Tudo ou nada: se lançar exceção, nada vai para o log.
+            sequencia = sequenciaAnexada;
+            for (Produto produto : produtos) {
+                sequencia = anexar(INSERE, produto.getId(), produto);
+            }
+        } finally {
+            lock.unlock();
+        }
+        aguardarGravacao(sequencia);
+    }
+
+    @Override
+    public int excluirTodos(int[] ids) {
+        long sequencia;
+        int excluidos = 0;
+        lock.lock();
+        try {
+            verificarAberto();
+            sequencia = sequenciaAnexada;
+            for (int id : ids) {
+                if (delegate.excluir(id)) {
+                    sequencia = anexar(EXCLUI, id, null);
+                    excluidos++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        aguardarGravacao(sequencia);
+        return excluidos;
+    }
+
+    /**
+     * Grava o estado completo do DAO em um novo snapshot e trunca o log.
+     * Escritas ficam bloqueadas enquanto o snapshot é gravado.
+     */
+    public void snapshot() {
+        lock.lock();
+        try {
+            verificarAberto();
+            // Tudo o que já foi anexado precisa estar no disco antes de o log ser truncado.
+            while (sequenciaGravada < sequenciaAnexada && falha == null) {
+                gravado.awaitUninterruptibly();
+            }
+            verificarFalha();
+            Path temporario = diretorio.resolve(ARQUIVO_SNAPSHOT + ".tmp");
+            try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+                buffer.putInt(MAGICO_SNAPSHOT).putInt(VERSAO_FORMATO);
+                for (Produto produto : delegate.listarTodos()) {
+                    buffer = escreverRegistro(buffer, INSERE, produto.getId(), produto);
+                    if (buffer.position() > 32 * 1024) {
+                        gravarTudo(canal, buffer);
+                    }
+                }
+                gravarTudo(canal, buffer);
+                canal.force(true);
+            }
+            // A troca atômica garante que sempre existe um snapshot completo no disco.
+            Files.move(temporario, diretorio.resolve(ARQUIVO_SNAPSHOT),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            // Se cair entre o move e o truncate, o log é reaplicado sobre o snapshot sem problemas
+            // (a reaplicação é idempotente).
+            log.truncate(CABECALHO_ARQUIVO);
+            log.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar o snapshot de produtos.", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Executa {@link #snapshot()} periodicamente, limitando o tamanho do log e o tempo de recuperação. */
+    public void agendarSnapshots(Duration intervalo) {
+        lock.lock();
+        try {
+            verificarAberto();
+            if (agendador == null) {
+                agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "produto-wal-snapshot");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            long nanos = intervalo.toNanos();
+            agendador.scheduleWithFixedDelay(this::snapshot, nanos, nanos, TimeUnit.NANOSECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Tamanho atual do log em bytes. */
+    public long tamanhoDoLog() {
+        try {
+            return log.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (fechado) return;
+            fechado = true;
+            temRegistros.signal();
+            loteCheio.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+        // A thread de commit grava o que ainda estiver pendente antes de terminar.
+        try {
+            threadCommit.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ---------------------------------------------------------------- group commit
+
+    // Chamado com o lock; devolve o número de sequência do registro.
+    private long anexar(byte tipo, int id, Produto produto) {
+        pendentes = escreverRegistro(pendentes, tipo, id, produto);
+        registrosPendentes++;
+        if (registrosPendentes == 1) {
+            temRegistros.signal();
+        }
+        if (registrosPendentes >= tamanhoMaximoLote) {
+            loteCheio.signal();
+        }
+        return ++sequenciaAnexada;
+    }
+
+    private void aguardarGravacao(long sequencia) {
+        lock.lock();
+        try {
+            while (sequenciaGravada < sequencia && falha == null) {
+                gravado.awaitUninterruptibly();
+            }
+            verificarFalha();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void executarCommits() {
+        while (true) {
+            ByteBuffer lote;
+            long ateSequencia;
+            lock.lock();
+            try {
+                while (registrosPendentes == 0 && !fechado) {
+                    temRegistros.awaitUninterruptibly();
+                }
+                if (registrosPendentes == 0) {
+                    return; // Fechado e sem nada pendente.
+                }
+                // Espera mais escritores até o lote encher ou a latência máxima vencer.
+                long restante = latenciaMaximaNanos;
+                while (registrosPendentes < tamanhoMaximoLote && restante > 0 && !fechado) {
+                    try {
+                        restante = loteCheio.awaitNanos(restante);
+                    } catch (InterruptedException e) {
+                        restante = 0;
+                    }
+                }
+                lote = pendentes;
+                pendentes = livre;
+                pendentes.clear();
+                ateSequencia = sequenciaAnexada;
+                registrosPendentes = 0;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException erro = null;
+            try {
+                gravarTudo(log, lote);
+                log.force(false);
+            } catch (IOException e) {
+                erro = e;
+            }
+
+            lock.lock();
+            try {
+                livre = lote;
+                if (erro != null) {
+                    falha = erro;
+                } else {
+                    sequenciaGravada = ateSequencia;
+                }
+                gravado.signalAll();
+                if (erro != null) return;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void verificarAberto() {
+        if (fechado) {
+            throw new IllegalStateException("O log de produtos já foi fechado.");
+        }
+        verificarFalha();
+    }
+
+    private void verificarFalha() {
+        if (falha != null) {
+            throw new UncheckedIOException("Falha ao gravar o log de produtos.", falha);
+        }
+    }
+
+    private static void gravarTudo(FileChannel canal, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // ---------------------------------------------------------------- recuperação
+
+    private void carregarSnapshot() throws IOException {
+        Path arquivo = diretorio.resolve(ARQUIVO_SNAPSHOT);
+        if (!Files.exists(arquivo)) return;
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(arquivo));
+        if (!cabecalhoValido(buffer, MAGICO_SNAPSHOT)) {
+            throw new IOException("Snapshot de produtos inválido ou de versão incompatível: " + arquivo);
+        }
+        while (buffer.hasRemaining()) {
+            if (!aplicarProximo(buffer)) {
+                throw new IOException("Snapshot de produtos corrompido: " + arquivo);
+            }
+        }
+    }
+
+    private void reaplicarLog() throws IOException {
+        long tamanho = log.size();
+        if (tamanho < CABECALHO_ARQUIVO) {
+            // Log novo, ou queda antes de o cabeçalho ser gravado: começa um log vazio.
+            log.truncate(0);
+            gravarTudo(log, ByteBuffer.allocate(CABECALHO_ARQUIVO).putInt(MAGICO_LOG).putInt(VERSAO_FORMATO));
+            log.force(true);
+            return;
+        }
+        ByteBuffer buffer = carregar(ByteBuffer.allocate(BLOCO_LEITURA).limit(0), 0, CABECALHO_ARQUIVO);
+        if (!cabecalhoValido(buffer, MAGICO_LOG)) {
+            throw new IOException("Log de produtos inválido ou de versão incompatível: " + diretorio.resolve(ARQUIVO_LOG));
+        }
+        // O log é lido em blocos, guiado pelo tamanho no cabeçalho de cada registro: só o registro atual precisa
+        // caber no buffer, qualquer que seja o tamanho do arquivo.
+        long inicio = CABECALHO_ARQUIVO;
+        while (inicio < tamanho) {
+            buffer = carregar(buffer, inicio, CABECALHO_REGISTRO);
+            long registro = 0;
+            if (buffer.remaining() >= CABECALHO_REGISTRO) {
+                registro = CABECALHO_REGISTRO + (long) buffer.getInt(buffer.position());
+            }
+            boolean completo = registro > CABECALHO_REGISTRO && registro <= Math.min(tamanho - inicio, Integer.MAX_VALUE);
+            if (completo) {
+                buffer = carregar(buffer, inicio, (int) registro);
+            }
+            if (!completo || !aplicarProximo(buffer)) {
+                // Registro incompleto ou corrompido no fim (queda no meio de uma gravação): descarta o resto.
+                log.truncate(inicio);
+                break;
+            }
+            inicio += registro;
+        }
+        log.position(log.size());
+    }
+
+    // Garante no buffer os próximos bytes do log a partir de inicio (o offset no arquivo da posição atual do
+    // buffer), lendo até encher o bloco; devolve menos que o necessário se o arquivo acabar antes.
+    private ByteBuffer carregar(ByteBuffer buffer, long inicio, int necessario) throws IOException {
+        if (buffer.remaining() >= necessario) return buffer;
+        long lido = inicio + buffer.remaining();
+        if (buffer.capacity() < necessario) {
+            buffer = ByteBuffer.allocate(necessario).put(buffer);
+        } else {
+            buffer.compact();
+        }
+        int bytes;
+        while (buffer.hasRemaining() && (bytes = log.read(buffer, lido)) > 0) {
+            lido += bytes;
+        }
+        return buffer.flip();
+    }
+
+    private static void fecharAposFalha(FileChannel canal, Exception erro) {
+        if (canal == null) return;
+        try {
+            canal.close();
+        } catch (IOException e) {
+            erro.addSuppressed(e);
+        }
+    }
+
+    private static boolean cabecalhoValido(ByteBuffer buffer, int magico) {
+        return buffer.remaining() >= CABECALHO_ARQUIVO && buffer.getInt() == magico && buffer.getInt() == VERSAO_FORMATO;
+    }
+
+    // Lê e aplica um registro; devolve false se ele estiver incompleto ou com CRC inválido.
+    private boolean aplicarProximo(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < CABECALHO_REGISTRO) return false;
+        int tamanho = buffer.getInt();
+        int crc = buffer.getInt();
+        if (tamanho <= 0 || tamanho > buffer.remaining()) return false;
+        ByteBuffer conteudo = buffer.slice(buffer.position(), tamanho);
+        CRC32C crc32 = new CRC32C();
+        crc32.update(conteudo.duplicate());
+        if ((int) crc32.getValue() != crc) return false;
+        buffer.position(buffer.position() + tamanho);
+
+        byte tipo = conteudo.get();
+        int id = conteudo.getInt();
+        if (tipo == EXCLUI) {
+            delegate.excluir(id);
+            return true;
+        }
+        Produto produto = lerProduto(conteudo, id);
+        // Aplicação idempotente: o mesmo registro pode aparecer no snapshot e no log.
+        if (!delegate.alterar(produto)) {
+            delegate.insere(produto);
+        }
+        return true;
+    }
+
+    // ---------------------------------------------------------------- formato dos registros
+
+    // Registro: [tamanho][crc][tipo][id] e, para INSERE/ALTERA, [versão][flags][nome][preço]. Nome e valor sem escala do
+    // preço vão com o tamanho em int: um preço de mais de 255 bytes não cabe em um tamanho de um byte.
+    private static ByteBuffer escreverRegistro(ByteBuffer buffer, byte tipo, int id, Produto produto) {
+        byte[] nome = null;
+        byte[] valorPreco = null;
+        byte flags = 0;
+        int tamanho = 1 + 4;
+        if (tipo != EXCLUI) {
+            tamanho += 8 + 1;
+            if (produto.getNome() == null) {
+                flags |= FLAG_NOME_NULO;
+            } else {
+                nome = produto.getNome().getBytes(StandardCharsets.UTF_8);
+                tamanho += 4 + nome.length;
+            }
+            if (produto.getPreco() == null) {
+                flags |= FLAG_PRECO_NULO;
+            } else {
+                valorPreco = produto.getPreco().unscaledValue().toByteArray();
+                tamanho += 4 + 4 + valorPreco.length;
+            }
+        }
+
+        buffer = garantirEspaco(buffer, CABECALHO_REGISTRO + tamanho);
+        buffer.putInt(tamanho);
+        int posicaoCrc = buffer.position();
+        buffer.putInt(0);
+        int inicio = buffer.position();
+        buffer.put(tipo).putInt(id);
+        if (tipo != EXCLUI) {
+            buffer.putLong(produto.getVersao()).put(flags);
+            if (nome != null) {
+                buffer.putInt(nome.length).put(nome);
+            }
+            if (valorPreco != null) {
+                buffer.putInt(produto.getPreco().scale()).putInt(valorPreco.length).put(valorPreco);
+            }
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(inicio, tamanho));
+        buffer.putInt(posicaoCrc, (int) crc.getValue());
+        return buffer;
+    }
+
+    private static Produto lerProduto(ByteBuffer conteudo, int id) throws IOException {
+        long versao = conteudo.getLong();
+        byte flags = conteudo.get();
+        String nome = null;
+        if ((flags & FLAG_NOME_NULO) == 0) {
+            byte[] bytes = new byte[lerTamanho(conteudo)];
+            conteudo.get(bytes);
+            nome = new String(bytes, StandardCharsets.UTF_8);
+        }
+        BigDecimal preco = null;
+        if ((flags & FLAG_PRECO_NULO) == 0) {
+            int escala = conteudo.getInt();
+            byte[] valor = new byte[lerTamanho(conteudo)];
+            conteudo.get(valor);
+            preco = new BigDecimal(new BigInteger(valor), escala);
+        }
+        return new Produto(id, nome, preco, versao);
+    }
+
+    // Tamanho de um campo dentro do registro; um valor além do que resta do registro é dado corrompido.
+    private static int lerTamanho(ByteBuffer conteudo) throws IOException {
+        int tamanho = conteudo.getInt();
+        if (tamanho < 0 || tamanho > conteudo.remaining()) {
+            throw new IOException("Registro de produto com tamanho de campo inválido: " + tamanho + ".");
+        }
+        return tamanho;
+    }
+
+    private static ByteBuffer garantirEspaco(ByteBuffer buffer, int necessario) {
+        if (buffer.remaining() >= necessario) return buffer;
+        ByteBuffer maior = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + necessario));
+        buffer.flip();
+        maior.put(buffer);
+        return maior;
+    }
+}
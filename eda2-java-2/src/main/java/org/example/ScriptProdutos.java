@@ -0,0 +1,231 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Executa um script de comandos sobre um {@link ProdutoDAO}, sem menu nem prompts: um comando por linha, lido de
+ * um arquivo ou de um pipe ({@code java org.example.Main --script comandos.txt}).
+ * <pre>
+ * insere 1;Arroz;10.50     # id;nome;preco (nome ou preço vazios ficam nulos)
+ * altera 1;Arroz integral;12.00
+ * exclui 7
+ * pesquisa 1
+ * busca pao de q           # só com um ProdutoBuscaNomeDAO
+ * lista
+ * importa produtos.csv     # ArquivoProdutos; .csv ou binário
+ * exporta produtos.bin
+ * </pre>
+ * Linhas em branco e as que começam com {@code #} são ignoradas. O nome vai do primeiro ao último {@code ;},
+ * então pode conter {@code ;}.
+ * <p>
+ * Resultados vão para {@code saida} e falhas para {@code erros} (com o número da linha), ambos sem flush por
+ * comando. Inserções seguidas são agrupadas em um {@link ProdutoDAO#insereTodos}; se o lote falhar, ele é refeito
+ * produto a produto só para apontar a linha culpada. Uma falha não interrompe o script.
+ */
+public final class ScriptProdutos {
+    /** Todos os comandos foram executados com sucesso. */
+    public static final int SUCESSO = 0;
+    /** Algum comando falhou (ID duplicado, produto inexistente...), mas o script foi até o fim. */
+    public static final int FALHA = 1;
+    /** O script tinha comandos inválidos ou não pôde ser lido. */
+    public static final int ERRO_DE_SINTAXE = 2;
+
+    private static final int LOTE_INSERCAO = 10_000;
+    private static final int LIMITE_BUSCA = 20;
+
+    private final ProdutoDAO dao;
+    private final PrintWriter saida;
+    private final PrintWriter erros;
+
+    // Inserções ainda não enviadas ao DAO e as linhas de onde vieram.
+    private final List<Produto> insercoes = new ArrayList<>();
+    private final List<Long> linhasDasInsercoes = new ArrayList<>();
+    private long linha;
+    private long executados;
+    private long falhas;
+    private boolean erroDeSintaxe;
+
+    public ScriptProdutos(ProdutoDAO dao, PrintWriter saida, PrintWriter erros) {
+        if (dao == null || saida == null || erros == null) {
+            throw new IllegalArgumentException("O DAO e as saídas do script não podem ser nulos.");
+        }
+        this.dao = dao;
+        this.saida = saida;
+        this.erros = erros;
+    }
+
+    /** Executa todos os comandos de {@code script} e devolve o código de saída ({@link #SUCESSO}, ...). */
+    public int executar(BufferedReader script) {
+        try {
+            String comando;
+            while ((comando = script.readLine()) != null) {
+                linha++;
+                executarLinha(comando.strip());
+            }
+        } catch (IOException | UncheckedIOException e) {
+            erroDeSintaxe = true;
+            erros.println("Erro ao ler o script: " + e.getMessage());
+        } finally {
+            descarregarInsercoes();
+            erros.println(executados + " comandos executados, " + falhas + " com falha.");
+            saida.flush();
+            erros.flush();
+        }
+        return erroDeSintaxe ? ERRO_DE_SINTAXE : falhas > 0 ? FALHA : SUCESSO;
+    }
+
+    private void executarLinha(String comando) {
+        if (comando.isEmpty() || comando.charAt(0) == '#') {
+            return;
+        }
+        int espaco = comando.indexOf(' ');
+        String nome = espaco < 0 ? comando : comando.substring(0, espaco);
+        String argumento = espaco < 0 ? "" : comando.substring(espaco + 1).strip();
+        if (!nome.equals("insere")) {
+            // Os outros comandos precisam ver as inserções anteriores já gravadas.
+            descarregarInsercoes();
+        }
+        try {
+            switch (nome) {
+                case "insere" -> adicionarInsercao(produto(argumento));
+                case "altera" -> {
+                    Produto produto = produto(argumento);
+                    contar(dao.alterar(produto), "Produto com ID " + produto.getId() + " não encontrado.");
+                }
+                case "exclui" -> {
+                    int id = id(argumento);
+                    contar(dao.excluir(id), "Produto com ID " + id + " não encontrado.");
+                }
+                case "pesquisa" -> {
+                    int id = id(argumento);
+                    Produto produto = dao.pesquisarPorId(id);
+                    if (produto != null) saida.println(produto);
+                    contar(produto != null, "Produto com ID " + id + " não encontrado.");
+                }
+                case "busca" -> {
+                    if (!(dao instanceof ProdutoBuscaNomeDAO buscaNome)) {
+                        throw new IllegalArgumentException("busca exige um ProdutoBuscaNomeDAO.");
+                    }
+                    buscaNome.buscarPorNome(argumento, LIMITE_BUSCA).forEach(saida::println);
+                    executados++;
+                }
+                case "lista" -> {
+                    dao.forEach(saida::println);
+                    executados++;
+                }
+                case "importa" -> {
+                    Path arquivo = arquivo(argumento);
+                    long importados = Main.ehCsv(arquivo) ? ArquivoProdutos.importarCsv(arquivo, dao)
+                            : ArquivoProdutos.importarBinario(arquivo, dao);
+                    saida.println(importados + " produtos importados de " + arquivo + ".");
+                    executados++;
+                }
+                case "exporta" -> {
+                    Path arquivo = arquivo(argumento);
+                    long exportados = Main.ehCsv(arquivo) ? ArquivoProdutos.exportarCsv(dao, arquivo)
+                            : ArquivoProdutos.exportarBinario(dao, arquivo);
+                    saida.println(exportados + " produtos exportados para " + arquivo + ".");
+                    executados++;
+                }
+                default -> throw new ComandoInvalido("comando desconhecido '" + nome + "'");
+            }
+        } catch (ComandoInvalido e) {
+            erroDeSintaxe = true;
+            erros.println("Linha " + linha + ": " + e.getMessage() + ".");
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            // Mesmas mensagens do menu interativo (ex.: "Erro: Já existe um produto com o ID 1.").
+            falhar(linha, e.getMessage());
+        }
+    }
+
+    private void adicionarInsercao(Produto produto) {
+        insercoes.add(produto);
+        linhasDasInsercoes.add(linha);
+        if (insercoes.size() == LOTE_INSERCAO) {
+            descarregarInsercoes();
+        }
+    }
+
+    private void descarregarInsercoes() {
+        if (insercoes.isEmpty()) {
+            return;
+        }
+        try {
+            dao.insereTodos(insercoes);
+            executados += insercoes.size();
+        } catch (IllegalArgumentException loteRecusado) {
+            // O lote é tudo ou nada: refaz um a um para gravar os válidos e apontar as linhas com erro.
+            for (int i = 0; i < insercoes.size(); i++) {
+                try {
+                    dao.insere(insercoes.get(i));
+                    executados++;
+                } catch (IllegalArgumentException e) {
+                    falhar(linhasDasInsercoes.get(i), e.getMessage());
+                }
+            }
+        }
+        insercoes.clear();
+        linhasDasInsercoes.clear();
+    }
+
+    private void contar(boolean sucesso, String mensagemDeFalha) {
+        if (sucesso) {
+            executados++;
+        } else {
+            falhar(linha, mensagemDeFalha);
+        }
+    }
+
+    private void falhar(long linhaDoComando, String mensagem) {
+        falhas++;
+        erros.println("Linha " + linhaDoComando + ": " + mensagem);
+    }
+
+    // id;nome;preco, com o nome entre o primeiro e o último ';'.
+    private static Produto produto(String argumento) {
+        int primeiro = argumento.indexOf(';');
+        int ultimo = argumento.lastIndexOf(';');
+        if (primeiro < 0 || primeiro == ultimo) {
+            throw new ComandoInvalido("esperado id;nome;preco");
+        }
+        int id = id(argumento.substring(0, primeiro).strip());
+        String nome = argumento.substring(primeiro + 1, ultimo);
+        String preco = argumento.substring(ultimo + 1).strip();
+        try {
+            return new Produto(id, nome.isEmpty() ? null : nome, preco.isEmpty() ? null : new BigDecimal(preco));
+        } catch (NumberFormatException e) {
+            throw new ComandoInvalido("preço inválido '" + preco + "'");
+        }
+    }
+
+    private static int id(String argumento) {
+        try {
+            return Integer.parseInt(argumento);
+        } catch (NumberFormatException e) {
+            throw new ComandoInvalido("ID inválido '" + argumento + "'");
+        }
+    }
+
+    private static Path arquivo(String argumento) {
+        if (argumento.isEmpty()) {
+            throw new ComandoInvalido("informe o arquivo");
+        }
+        return Path.of(argumento);
+    }
+
+    // Erro no texto do script, e não no resultado do comando; não sai de executarLinha.
+    private static final class ComandoInvalido extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ComandoInvalido(String mensagem) {
+            super(mensagem, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serviço HTTP/JSON sobre um {@link ProdutoDAO}, com o {@link HttpServer} do JDK e uma virtual thread por
+ * requisição.
+ * <pre>
+ * GET    /produtos?apos=ID&amp;limite=N   página em ordem de ID: {"produtos":[...],"proximo":ID ou null}
+ * GET    /produtos/{id}                 200 ou 404
+ * POST   /produtos                      201, 400 ou 409 (ID já existe)
+ * PUT    /produtos/{id}                 200 ou 404 (o ID do corpo, se houver, deve ser o do caminho)
+ * DELETE /produtos/{id}                 204 ou 404
+ * </pre>
+ * Erros vão como {@code {"erro":"mensagem"}}, com as mesmas mensagens do DAO. O JSON é escrito e lido à mão
+ * ({@link JsonProdutos}). Toda resposta tem {@code Content-Length}, então a conexão fica aberta entre requisições
+ * (keep-alive do HTTP/1.1).
+ * <p>
+ * As requisições rodam em paralelo, então o DAO precisa ser thread-safe (ex.: {@link ProdutoConcurrentDAO}).
+ */
+public class ServidorProdutos implements AutoCloseable {
+    static final String CAMINHO = "/produtos";
+    static final int LIMITE_PADRAO = 20;
+    static final int LIMITE_MAXIMO = 1_000;
+    private static final int TAMANHO_MAXIMO_CORPO = 64 * 1024;
+
+    static {
+        // Sem TCP_NODELAY, o cabeçalho e o corpo saem em pacotes separados e o Nagle segura o corpo até o ACK
+        // atrasado do cliente (~40 ms por resposta em conexões keep-alive). Precisa estar definido antes de o
+        // primeiro HttpServer ser criado; respeita um valor passado na linha de comando.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final ProdutoDAO dao;
+    private final HttpServer servidor;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /** Sobe o servidor em {@code porta} (0 escolhe uma porta livre; veja {@link #porta()}). */
+    public ServidorProdutos(ProdutoDAO dao, int porta) {
+        if (dao == null) {
+            throw new IllegalArgumentException("O DAO não pode ser nulo.");
+        }
+        this.dao = dao;
+        try {
+            servidor = HttpServer.create(new InetSocketAddress(porta), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir a porta " + porta + ".", e);
+        }
+        servidor.createContext(CAMINHO, this::atender);
+        servidor.setExecutor(executor);
+        servidor.start();
+    }
+
+    public int porta() {
+        return servidor.getAddress().getPort();
+    }
+
+    /** Para de aceitar conexões e espera até 1 s pelas requisições em andamento. */
+    @Override
+    public void close() {
+        servidor.stop(1);
+        executor.close();
+    }
+
+    private void atender(HttpExchange troca) throws IOException {
+        try (troca) {
+            String caminho = troca.getRequestURI().getRawPath();
+            Integer id = null;
+            if (caminho.length() > CAMINHO.length()) {
+                if (caminho.charAt(CAMINHO.length()) != '/') {
+                    responder(troca, 404, JsonProdutos.erro("Recurso não encontrado."));
+                    return;
+                }
+                id = id(caminho.substring(CAMINHO.length() + 1));
+                if (id == null) {
+                    responder(troca, 400, JsonProdutos.erro("ID inválido no caminho."));
+                    return;
+                }
+            }
+            String metodo = troca.getRequestMethod();
+            try {
+                if (id == null) {
+                    switch (metodo) {
+                        case "GET" -> listar(troca);
+                        case "POST" -> inserir(troca);
+                        default -> metodoNaoPermitido(troca, "GET, POST");
+                    }
+                } else {
+                    switch (metodo) {
+                        case "GET" -> pesquisar(troca, id);
+                        case "PUT" -> alterar(troca, id);
+                        case "DELETE" -> excluir(troca, id);
+                        default -> metodoNaoPermitido(troca, "GET, PUT, DELETE");
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                responder(troca, 400, JsonProdutos.erro(e.getMessage()));
+            }
+        }
+    }
+
+    private void listar(HttpExchange troca) throws IOException {
+        Integer apos = null;
+        int limite = LIMITE_PADRAO;
+        String consulta = troca.getRequestURI().getRawQuery();
+        if (consulta != null) {
+            for (String parametro : consulta.split("&")) {
+                int igual = parametro.indexOf('=');
+                String nome = igual < 0 ? parametro : parametro.substring(0, igual);
+                String valor = igual < 0 ? "" : parametro.substring(igual + 1);
+                switch (nome) {
+                    case "apos" -> apos = inteiro(valor, "apos");
+                    case "limite" -> limite = inteiro(valor, "limite");
+                    default -> throw new IllegalArgumentException("Parâmetro desconhecido '" + nome + "'.");
+                }
+            }
+        }
+        if (limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("O limite máximo por página é " + LIMITE_MAXIMO + ".");
+        }
+        List<Produto> pagina = dao.pagina(apos, limite);
+        // Página cheia: pode haver mais produtos depois do último.
+        Integer proximo = limite > 0 && pagina.size() == limite ? pagina.get(pagina.size() - 1).getId() : null;
+        responder(troca, 200, JsonProdutos.pagina(pagina, proximo));
+    }
+
+    private void pesquisar(HttpExchange troca, int id) throws IOException {
+        Produto produto = dao.pesquisarPorId(id);
+        if (produto == null) {
+            naoEncontrado(troca, id);
+        } else {
+            responder(troca, 200, JsonProdutos.escrever(new StringBuilder(64), produto).toString());
+        }
+    }
+
+    private void inserir(HttpExchange troca) throws IOException {
+        Produto produto = JsonProdutos.ler(corpo(troca));
+        if (produto.getId() == null) {
+            throw new IllegalArgumentException("Produto ou ID do produto não pode ser nulo.");
+        }
+        try {
+            dao.insere(produto);
+        } catch (IllegalArgumentException e) {
+            // Com produto e ID validados acima, a única recusa do insere é o ID repetido.
+            responder(troca, 409, JsonProdutos.erro(e.getMessage()));
+            return;
+        }
+        troca.getResponseHeaders().set("Location", CAMINHO + "/" + produto.getId());
+        responder(troca, 201, JsonProdutos.escrever(new StringBuilder(64), produto).toString());
+    }
+
+    private void alterar(HttpExchange troca, int id) throws IOException {
+        Produto produto = JsonProdutos.ler(corpo(troca));
+        if (produto.getId() != null && produto.getId() != id) {
+            throw new IllegalArgumentException("O ID do corpo (" + produto.getId() + ") difere do ID do caminho (" + id + ").");
+        }
+        Produto atualizado = new Produto(id, produto.getNome(), produto.getPreco());
+        if (dao.alterar(atualizado)) {
+            responder(troca, 200, JsonProdutos.escrever(new StringBuilder(64), atualizado).toString());
+        } else {
+            naoEncontrado(troca, id);
+        }
+    }
+
+    private void excluir(HttpExchange troca, int id) throws IOException {
+        if (dao.excluir(id)) {
+            responder(troca, 204, null);
+        } else {
+            naoEncontrado(troca, id);
+        }
+    }
+
+    private static void naoEncontrado(HttpExchange troca, int id) throws IOException {
+        responder(troca, 404, JsonProdutos.erro("Produto com ID " + id + " não encontrado."));
+    }
+
+    private static void metodoNaoPermitido(HttpExchange troca, String permitidos) throws IOException {
+        troca.getResponseHeaders().set("Allow", permitidos);
+        responder(troca, 405, JsonProdutos.erro("Método não permitido."));
+    }
+
+    private static String corpo(HttpExchange troca) throws IOException {
+        try (InputStream entrada = troca.getRequestBody()) {
+            byte[] bytes = entrada.readNBytes(TAMANHO_MAXIMO_CORPO + 1);
+            if (bytes.length > TAMANHO_MAXIMO_CORPO) {
+                throw new IllegalArgumentException("Corpo da requisição maior que " + TAMANHO_MAXIMO_CORPO + " bytes.");
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    // Sem corpo (204) vai com tamanho -1; os demais com Content-Length, o que mantém a conexão aberta.
+    private static void responder(HttpExchange troca, int status, String json) throws IOException {
+        if (json == null) {
+            troca.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        troca.sendResponseHeaders(status, bytes.length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(bytes);
+        }
+    }
+
+    private static int inteiro(String valor, String parametro) {
+        Integer numero = id(valor);
+        if (numero == null) {
+            throw new IllegalArgumentException("Parâmetro '" + parametro + "' deve ser um número inteiro.");
+        }
+        return numero;
+    }
+
+    private static Integer id(String texto) {
+        try {
+            return Integer.valueOf(texto);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArquivoProdutosTest {
+
+    @TempDir
+    Path diretorio;
+
+    // Casos difíceis dos dois formatos: nulos, nome vazio, separador, aspas, quebra de linha, acentos,
+    // preços negativos, sem casas, com muitas casas e grandes demais para um long.
+    private static List<Produto> produtosVariados() {
+        return List.of(
+                new Produto(-7, "Negativo", new BigDecimal("-3.50")),
+                new Produto(1, "Arroz", new BigDecimal("10.99")),
+                new Produto(2, null, null),
+                new Produto(3, "", new BigDecimal("0.05")),
+                new Produto(4, "Pão; \"francês\"\nquentinho", new BigDecimal("7")),
+                new Produto(5, "Feijão à moda", new BigDecimal("1E+3")),
+                new Produto(6, "Longo", new BigDecimal("123456789012345678901234.5678")),
+                new Produto(Integer.MAX_VALUE, "Último", new BigDecimal("0.123456789")));
+    }
+
+    private static void assertMesmosProdutos(List<Produto> esperados, ProdutoDAO dao) {
+        List<Produto> lidos = new ArrayList<>(dao.listarTodos());
+        assertEquals(esperados.size(), lidos.size());
+        for (int i = 0; i < esperados.size(); i++) {
+            Produto esperado = esperados.get(i);
+            Produto lido = lidos.get(i);
+            assertEquals(esperado.getId(), lido.getId());
+            assertEquals(esperado.getNome(), lido.getNome());
+            if (esperado.getPreco() == null) {
+                assertNull(lido.getPreco());
+            } else {
+                assertEquals(0, esperado.getPreco().compareTo(lido.getPreco()), "Preço do ID " + esperado.getId());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Exportar e importar em CSV deve preservar todos os campos")
+    void csv_DeveFazerIdaEVoltaSemPerda() {
+        ProdutoDAO origem = new ProdutoMemoryDAO();
+        origem.insereTodos(produtosVariados());
+        Path arquivo = diretorio.resolve("produtos.csv");
+
+        assertEquals(8, ArquivoProdutos.exportarCsv(origem, arquivo));
+        ProdutoDAO destino = new ProdutoMemoryDAO();
+        assertEquals(8, ArquivoProdutos.importarCsv(arquivo, destino));
+
+        assertMesmosProdutos(new ArrayList<>(origem.listarTodos()), destino);
+    }
+
+    @Test
+    @DisplayName("Exportar e importar no formato binário deve preservar todos os campos, inclusive a escala")
+    void binario_DeveFazerIdaEVoltaSemPerda() {
+        ProdutoDAO origem = new ProdutoMemoryDAO();
+        origem.insereTodos(produtosVariados());
+        Path arquivo = diretorio.resolve("produtos.bin");
+
+        assertEquals(8, ArquivoProdutos.exportarBinario(origem, arquivo));
+        ProdutoDAO destino = new ProdutoMemoryDAO();
+        assertEquals(8, ArquivoProdutos.importarBinario(arquivo, destino));
+
+        assertMesmosProdutos(new ArrayList<>(origem.listarTodos()), destino);
+        assertEquals(new BigDecimal("0.05").scale(), destino.pesquisarPorId(3).getPreco().scale());
+        assertEquals(new BigDecimal("1E+3"), destino.pesquisarPorId(5).getPreco());
+    }
+
+    @Test
+    @DisplayName("O CSV deve aceitar cabeçalho, CRLF, linhas em branco e a última linha sem quebra")
+    void importarCsv_DeveAceitarVariacoesDeFormato() throws IOException {
+        Path arquivo = diretorio.resolve("manual.csv");
+        Files.writeString(arquivo, "id;nome;preco\r\n1;Arroz;10.99\r\n\r\n2;\"A;B\";\n3;;+2.5", StandardCharsets.UTF_8);
+        ProdutoDAO dao = new ProdutoMemoryDAO();
+
+        assertEquals(3, ArquivoProdutos.importarCsv(arquivo, dao));
+
+        assertEquals(new BigDecimal("10.99"), dao.pesquisarPorId(1).getPreco());
+        assertEquals("A;B", dao.pesquisarPorId(2).getNome());
+        assertNull(dao.pesquisarPorId(2).getPreco());
+        assertNull(dao.pesquisarPorId(3).getNome());
+        assertEquals(new BigDecimal("2.5"), dao.pesquisarPorId(3).getPreco());
+    }
+
+    @Test
+    @DisplayName("O BOM do UTF-8 no início deve ser ignorado, sem descartar a primeira linha nem o cabeçalho")
+    void importarCsv_QuandoComBom_DeveIgnorarBom() throws IOException {
+        Path semCabecalho = diretorio.resolve("bom.csv");
+        Files.writeString(semCabecalho, "\uFEFF1;Arroz;10.99\n2;Feijão;8.99\n", StandardCharsets.UTF_8);
+        ProdutoDAO dao = new ProdutoMemoryDAO();
+        assertEquals(2, ArquivoProdutos.importarCsv(semCabecalho, dao));
+        assertEquals("Arroz", dao.pesquisarPorId(1).getNome());
+
+        Path comCabecalho = diretorio.resolve("bom-cabecalho.csv");
+        Files.writeString(comCabecalho, "\uFEFFid;nome;preco\n3;Café;5.00\n", StandardCharsets.UTF_8);
+        assertEquals(1, ArquivoProdutos.importarCsv(comCabecalho, dao));
+        assertEquals("Café", dao.pesquisarPorId(3).getNome());
+    }
+
+    @Test
+    @DisplayName("Arquivos maiores que o buffer devem ser importados em lotes, com progresso a cada lote")
+    void importar_QuandoArquivoGrande_DeveInserirEmLotesComProgresso() {
+        ProdutoDAO origem = new ProdutoMemoryDAO();
+        List<Produto> produtos = new ArrayList<>();
+        for (int id = 0; id < 100_000; id++) {
+            // Nomes longos para o arquivo passar de 1 MB e registros cruzarem a borda do buffer.
+            produtos.add(new Produto(id, "Produto com um nome bem comprido número " + id, BigDecimal.valueOf(id, 2)));
+        }
+        origem.insereTodos(produtos);
+
+        for (String nome : List.of("grande.csv", "grande.bin")) {
+            Path arquivo = diretorio.resolve(nome);
+            boolean csv = nome.endsWith(".csv");
+            List<Long> exportados = new ArrayList<>();
+            if (csv) ArquivoProdutos.exportarCsv(origem, arquivo, exportados::add);
+            else ArquivoProdutos.exportarBinario(origem, arquivo, exportados::add);
+            assertEquals(List.of(100_000L), exportados);
+
+            ProdutoDAO destino = new ProdutoMemoryDAO();
+            List<Long> progresso = new ArrayList<>();
+            long importados = csv ? ArquivoProdutos.importarCsv(arquivo, destino, 30_000, progresso::add)
+                    : ArquivoProdutos.importarBinario(arquivo, destino, 30_000, progresso::add);
+
+            assertEquals(100_000, importados);
+            assertEquals(List.of(30_000L, 60_000L, 90_000L, 100_000L), progresso);
+            assertEquals(origem.listarTodos().toString(), destino.listarTodos().toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Uma linha inválida deve informar o número da linha e manter os lotes anteriores")
+    void importarCsv_QuandoLinhaInvalida_DeveLancarExcecaoComALinha() throws IOException {
+        Path arquivo = diretorio.resolve("invalido.csv");
+        Files.writeString(arquivo, "1;A;1.00\n2;B;1.00\n3;C;1,5\n", StandardCharsets.UTF_8);
+        ProdutoDAO dao = new ProdutoMemoryDAO();
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ArquivoProdutos.importarCsv(arquivo, dao, 2, total -> {
+                }));
+        assertEquals("Linha 3 do CSV inválida: preço inválido '1,5'.", exception.getMessage());
+        assertEquals(List.of(1, 2), dao.listarTodos().stream().map(Produto::getId).toList());
+
+        Files.writeString(arquivo, "1;A;1.00\nx;B;1.00\n", StandardCharsets.UTF_8);
+        assertThrows(IllegalArgumentException.class, () -> ArquivoProdutos.importarCsv(arquivo, new ProdutoMemoryDAO()));
+        Files.writeString(arquivo, "1;\"sem fechar;1.00\n", StandardCharsets.UTF_8);
+        assertThrows(IllegalArgumentException.class, () -> ArquivoProdutos.importarCsv(arquivo, new ProdutoMemoryDAO()));
+    }
+
+    @Test
+    @DisplayName("IDs já existentes no DAO devem ser rejeitados com a mesma mensagem do insere")
+    void importar_QuandoIdJaExiste_DeveLancarExcecao() throws IOException {
+        Path arquivo = diretorio.resolve("duplicado.csv");
+        Files.writeString(arquivo, "1;A;1.00\n", StandardCharsets.UTF_8);
+        ProdutoDAO dao = new ProdutoMemoryDAO();
+        dao.insere(new Produto(1, "Existente", BigDecimal.ONE));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ArquivoProdutos.importarCsv(arquivo, dao));
+        assertEquals("Erro: Já existe um produto com o ID 1.", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> ArquivoProdutos.importarCsv(arquivo, dao, 0, total -> {
+        }));
+    }
+
+    @Test
+    @DisplayName("Um arquivo binário truncado ou de outro formato deve ser rejeitado")
+    void importarBinario_QuandoArquivoCorrompido_DeveLancarExcecao() throws IOException {
+        ProdutoDAO origem = new ProdutoMemoryDAO();
+        origem.insereTodos(produtosVariados());
+        Path arquivo = diretorio.resolve("produtos.bin");
+        ArquivoProdutos.exportarBinario(origem, arquivo);
+        byte[] bytes = Files.readAllBytes(arquivo);
+
+        Files.write(arquivo, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(UncheckedIOException.class, () -> ArquivoProdutos.importarBinario(arquivo, new ProdutoMemoryDAO()));
+        Files.writeString(arquivo, "id;nome;preco\n", StandardCharsets.UTF_8);
+        assertThrows(UncheckedIOException.class, () -> ArquivoProdutos.importarBinario(arquivo, new ProdutoMemoryDAO()));
+        // Cabeçalho + ID + flags (preço nulo) + tamanho do nome de ~2 GB em base 128: deve falhar sem crescer o
+        // buffer até faltar memória.
+        byte[] tamanhoCorrompido = {'P', 'R', 'D', 'B', 1, 0, 0, 0, 1, 2,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 'x'};
+        Files.write(arquivo, tamanhoCorrompido);
+        UncheckedIOException exception = assertThrows(UncheckedIOException.class,
+                () -> ArquivoProdutos.importarBinario(arquivo, new ProdutoMemoryDAO()));
+        assertEquals("Arquivo binário de produtos truncado.", exception.getCause().getMessage());
+    }
+}
@@ -0,0 +1,77 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DinheiroTest {
+
+    @Test
+    @DisplayName("parse deve aceitar vírgula ou ponto, sinal, espaços nas pontas e até 2 casas")
+    void parse_QuandoFormatoValido_DeveDevolverCentavos() {
+        assertEquals(1099, Dinheiro.parse("10,99"));
+        assertEquals(1099, Dinheiro.parse("10.99"));
+        assertEquals(1050, Dinheiro.parse("10,5"));
+        assertEquals(1000, Dinheiro.parse("10"));
+        assertEquals(1000, Dinheiro.parse("10."));
+        assertEquals(50, Dinheiro.parse(",5"));
+        assertEquals(-325, Dinheiro.parse("-3.25"));
+        assertEquals(7, Dinheiro.parse(" +0,07 "));
+        assertEquals(0, Dinheiro.parse("0000"));
+        assertEquals(9_999_999_999_999_999_99L, Dinheiro.parse("0009999999999999999.99"));
+    }
+
+    @Test
+    @DisplayName("parse deve recusar texto que não é um valor em centavos")
+    void parse_QuandoFormatoInvalido_DeveLancarExcecao() {
+        for (String texto : new String[]{"", " ", "-", ",", "abc", "10,999", "1.000,00", "1E+3", "10 reais",
+                "--1", "10,9,9", "99999999999999999"}) {
+            assertThrows(NumberFormatException.class, () -> Dinheiro.parse(texto), texto);
+        }
+        assertThrows(NumberFormatException.class, () -> Dinheiro.parse(null));
+    }
+
+    @Test
+    @DisplayName("A conversão de BigDecimal deve ser exata, sem arredondar")
+    void deBigDecimal_DeveSerExata() {
+        assertEquals(1050, Dinheiro.deBigDecimal(new BigDecimal("10.5")));
+        assertEquals(1050, Dinheiro.deBigDecimal(new BigDecimal("10.500")));
+        assertEquals(100_000, Dinheiro.deBigDecimal(new BigDecimal("1E+3")));
+        assertEquals(0, Dinheiro.deBigDecimal(new BigDecimal("0.0000")));
+        assertEquals(-1, Dinheiro.deBigDecimal(new BigDecimal("-0.01")));
+        assertEquals(Dinheiro.FORA, Dinheiro.deBigDecimal(new BigDecimal("10.555")));
+        assertEquals(Dinheiro.FORA, Dinheiro.deBigDecimal(new BigDecimal("1E+17")));
+        assertEquals(Dinheiro.FORA, Dinheiro.deBigDecimal(null));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> Dinheiro.deBigDecimalExato(new BigDecimal("0.001")));
+        assertEquals("Preço inválido para armazenamento em centavos: 0.001.", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("A volta para BigDecimal deve ter o mesmo valor, com escala 2")
+    void paraBigDecimal_DeveVoltarOMesmoValor() {
+        for (String valor : new String[]{"0", "10.99", "-3.5", "123456789012345.67"}) {
+            BigDecimal original = new BigDecimal(valor);
+            BigDecimal volta = Dinheiro.paraBigDecimal(Dinheiro.deBigDecimal(original));
+            assertEquals(0, original.compareTo(volta), valor);
+            assertEquals(Dinheiro.ESCALA, volta.scale());
+        }
+        assertThrows(IllegalArgumentException.class, () -> Dinheiro.paraBigDecimal(Dinheiro.FORA));
+    }
+
+    @Test
+    @DisplayName("Produto deve guardar o preço em centavos, também nas cópias com withPreco")
+    void produto_DeveGuardarPrecoEmCentavos() {
+        Produto produto = new Produto(1, "Teste", new BigDecimal("10.99"));
+        assertEquals(1099, produto.getPrecoEmCentavos());
+        assertEquals(500, produto.withPreco(new BigDecimal("5")).getPrecoEmCentavos());
+        assertEquals(1099, produto.withNome("Outro").withVersao(3).getPrecoEmCentavos());
+        assertEquals(Dinheiro.FORA, produto.withPreco(null).getPrecoEmCentavos());
+        assertEquals(Dinheiro.FORA, produto.withPreco(new BigDecimal("0.125")).getPrecoEmCentavos());
+        assertFalse(produto.toString().contains("Centavos"));
+    }
+}
@@ -0,0 +1,124 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProdutoBuscaNomeDAOTest {
+
+    private ProdutoBuscaNomeDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        dao = new ProdutoBuscaNomeDAO(new ProdutoMemoryDAO());
+        dao.insere(new Produto(1, "Pão de Queijo", BigDecimal.ONE));
+        dao.insere(new Produto(2, "Arroz Integral", BigDecimal.ONE));
+        dao.insere(new Produto(3, "Arroz branco tipo 1", BigDecimal.ONE));
+        dao.insere(new Produto(4, "PÃO FRANCÊS", BigDecimal.ONE));
+        dao.insere(new Produto(5, null, BigDecimal.ONE));
+    }
+
+    private static List<Integer> ids(List<Produto> produtos) {
+        return produtos.stream().map(Produto::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Deve ignorar maiúsculas e acentos na busca")
+    void buscarPorNome_DeveIgnorarMaiusculasEAcentos() {
+        assertEquals(List.of(1, 4), ids(dao.buscarPorNome("pao", 10)));
+        assertEquals(List.of(4), ids(dao.buscarPorNome("frances", 10)));
+        assertEquals(List.of(1), ids(dao.buscarPorNome("QUEIJO", 10)));
+        assertArrayEquals(new String[]{"acucar", "cafe", "1kg"}, ProdutoBuscaNomeDAO.termos("Açúcar/Café - 1kg"));
+    }
+
+    @Test
+    @DisplayName("Todos os termos devem aparecer no nome e o último vale como prefixo")
+    void buscarPorNome_ComVariosTermos_DeveExigirTodosEUsarPrefixoNoUltimo() {
+        assertEquals(List.of(2), ids(dao.buscarPorNome("arroz int", 10)));
+        assertEquals(List.of(2, 3), ids(dao.buscarPorNome("arr", 10)));
+        assertEquals(List.of(3), ids(dao.buscarPorNome("tipo arroz", 10)));
+        assertTrue(dao.buscarPorNome("arroz queijo", 10).isEmpty());
+        assertTrue(dao.buscarPorNome("inexistente arroz", 10).isEmpty());
+        assertTrue(dao.buscarPorNome("  ", 10).isEmpty());
+        assertEquals(List.of(2), ids(dao.buscarPorNome("arroz", 1)));
+    }
+
+    @Test
+    @DisplayName("Deve sugerir termos do dicionário pelo prefixo")
+    void autocompletar_DeveRetornarTermosComPrefixoEmOrdem() {
+        dao.insere(new Produto(6, "Arrozina", BigDecimal.ONE));
+        assertEquals(List.of("arroz", "arrozina"), dao.autocompletar("Arr", 10));
+        assertEquals(List.of("arroz"), dao.autocompletar("arr", 1));
+        assertTrue(dao.autocompletar("xyz", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Alterar e excluir devem atualizar o índice")
+    void alterarEExcluir_DevemManterIndiceAtualizado() {
+        assertTrue(dao.alterar(dao.pesquisarPorId(2).withNome("Feijão Carioca")));
+
+        assertEquals(List.of(3), ids(dao.buscarPorNome("arroz", 10)));
+        assertEquals(List.of(2), ids(dao.buscarPorNome("feijao", 10)));
+        assertFalse(dao.autocompletar("int", 10).contains("integral"));
+
+        assertTrue(dao.excluir(3));
+        assertTrue(dao.buscarPorNome("arroz", 10).isEmpty());
+        assertFalse(dao.excluir(3));
+        assertFalse(dao.alterar(new Produto(99, "Arroz", BigDecimal.ONE)));
+        assertTrue(dao.buscarPorNome("arroz", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve indexar os produtos que o DAO envolvido já tinha")
+    void construtor_DeveIndexarProdutosExistentes() {
+        ProdutoDAO memoria = new ProdutoMemoryDAO();
+        memoria.insere(new Produto(1, "Café torrado", BigDecimal.ONE));
+        dao = new ProdutoBuscaNomeDAO(memoria);
+        assertEquals(List.of(1), ids(dao.buscarPorNome("cafe tor", 10)));
+    }
+
+    @Test
+    @DisplayName("Buscas aleatórias devem coincidir com uma varredura completa dos nomes")
+    void buscasAleatorias_DevemCoincidirComVarreduraCompleta() {
+        String[] palavras = {"arroz", "arrozina", "feijão", "feijoada", "pão", "paçoca", "café", "cafeteira", "leite", "leitão"};
+        dao = new ProdutoBuscaNomeDAO(new ProdutoMemoryDAO());
+        Map<Integer, Produto> referencia = new TreeMap<>();
+        Random random = new Random(5);
+        for (int i = 0; i < 5_000; i++) {
+            int id = random.nextInt(800);
+            String nome = palavras[random.nextInt(palavras.length)] + " " + palavras[random.nextInt(palavras.length)];
+            Produto produto = new Produto(id, nome, BigDecimal.ONE);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    if (referencia.putIfAbsent(id, produto) == null) dao.insere(produto);
+                }
+                case 1 -> assertEquals(referencia.remove(id) != null, dao.excluir(id));
+                default -> assertEquals(referencia.replace(id, produto) != null, dao.alterar(produto));
+            }
+        }
+
+        String[] consultas = {"arroz", "arr", "feij", "pao", "pa", "cafe leit", "leite caf", "arroz arrozina", "c", "leitao pac"};
+        for (String consulta : consultas) {
+            String[] termos = ProdutoBuscaNomeDAO.termos(consulta);
+            List<Integer> esperado = new ArrayList<>();
+            for (Produto produto : referencia.values()) {
+                List<String> doNome = Arrays.asList(ProdutoBuscaNomeDAO.termos(produto.getNome()));
+                boolean completos = doNome.containsAll(Arrays.asList(termos).subList(0, termos.length - 1));
+                boolean prefixo = doNome.stream().anyMatch(t -> t.startsWith(termos[termos.length - 1]));
+                if (completos && prefixo) esperado.add(produto.getId());
+            }
+            assertEquals(esperado, ids(dao.buscarPorNome(consulta, Integer.MAX_VALUE)), consulta);
+            assertEquals(esperado.subList(0, Math.min(5, esperado.size())), ids(dao.buscarPorNome(consulta, 5)), consulta);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProdutoCacheDAOTest {
+
+    /** DAO envolvido que conta quantas buscas chegaram até ele. */
+    private static class ContadorDeBuscas extends ProdutoDAODecorator {
+        final AtomicInteger buscas = new AtomicInteger();
+
+        ContadorDeBuscas(ProdutoDAO delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Produto pesquisarPorId(Integer id) {
+            buscas.incrementAndGet();
+            return super.pesquisarPorId(id);
+        }
+
+        @Override
+        public Produto pesquisarPorId(int id) {
+            return pesquisarPorId(Integer.valueOf(id));
+        }
+    }
+
+    private ContadorDeBuscas lento;
+    private ProdutoCacheDAO cache;
+
+    @BeforeEach
+    void setUp() {
+        lento = new ContadorDeBuscas(new ProdutoConcurrentDAO());
+        cache = new ProdutoCacheDAO(lento, ProdutoCacheDAO.Politica.LRU, 100);
+    }
+
+    @Test
+    @DisplayName("A segunda busca pelo mesmo ID deve sair do cache")
+    void pesquisarPorId_QuandoRepetida_DeveBuscarNoDaoUmaVez() {
+        cache.insere(new Produto(1, "A", BigDecimal.ONE));
+
+        assertEquals("A", cache.pesquisarPorId(1).getNome());
+        assertEquals("A", cache.pesquisarPorId(Integer.valueOf(1)).getNome());
+        assertEquals(1, lento.buscas.get());
+        assertEquals(new ProdutoCacheDAO.Estatisticas(1, 1, 0), cache.estatisticas());
+        assertEquals(0.5, cache.estatisticas().taxaDeAcerto());
+        assertNull(cache.pesquisarPorId((Integer) null));
+    }
+
+    @Test
+    @DisplayName("IDs inexistentes devem ficar no cache até o produto ser inserido")
+    void pesquisarPorId_QuandoInexistente_DeveGuardarAusenciaAteInsercao() {
+        assertNull(cache.pesquisarPorId(7));
+        assertNull(cache.pesquisarPorId(7));
+        assertEquals(1, lento.buscas.get());
+
+        cache.insere(new Produto(7, "Agora existe", BigDecimal.ONE));
+        assertEquals("Agora existe", cache.pesquisarPorId(7).getNome());
+    }
+
+    @Test
+    @DisplayName("Alterar e excluir devem invalidar a entrada do cache")
+    void alterarEExcluir_DevemInvalidarEntrada() {
+        cache.insere(new Produto(1, "Original", BigDecimal.ONE));
+        cache.pesquisarPorId(1);
+
+        assertTrue(cache.alterar(new Produto(1, "Alterado", BigDecimal.TEN)));
+        assertEquals("Alterado", cache.pesquisarPorId(1).getNome());
+
+        assertTrue(cache.excluir(1));
+        assertNull(cache.pesquisarPorId(1));
+        assertFalse(cache.excluir(1));
+        assertFalse(cache.alterar(new Produto(1, "Inexistente", BigDecimal.ONE)));
+        assertNull(cache.pesquisarPorId(1));
+    }
+
+    @Test
+    @DisplayName("Uma inserção rejeitada pelo DAO não deve deixar o cache desatualizado")
+    void insere_QuandoDaoRejeita_DeveManterCacheCorreto() {
+        cache.insere(new Produto(1, "Original", BigDecimal.ONE));
+        cache.pesquisarPorId(1);
+        assertThrows(IllegalArgumentException.class, () -> cache.insere(new Produto(1, "Duplicado", BigDecimal.ONE)));
+        assertEquals("Original", cache.pesquisarPorId(1).getNome());
+        assertEquals(1, cache.excluirTodos(new int[]{1, 2}));
+        assertEquals(List.of(), cache.pesquisarPorIds(new int[]{1, 2}).stream().filter(p -> p != null).toList());
+    }
+
+    @Test
+    @DisplayName("LRU deve despejar o produto usado há mais tempo")
+    void lru_QuandoCheio_DeveDespejarMenosRecente() {
+        cache = new ProdutoCacheDAO(lento, ProdutoCacheDAO.Politica.LRU, 2);
+        for (int id = 1; id <= 3; id++) {
+            lento.insere(new Produto(id, "P" + id, BigDecimal.ONE));
+        }
+        cache.pesquisarPorId(1);
+        cache.pesquisarPorId(2);
+        cache.pesquisarPorId(1); // 2 passa a ser o menos recente
+        cache.pesquisarPorId(3);
+
+        assertEquals(2, cache.tamanho());
+        assertEquals(1, cache.estatisticas().despejos());
+        lento.buscas.set(0);
+        cache.pesquisarPorId(1);
+        cache.pesquisarPorId(3);
+        assertEquals(0, lento.buscas.get());
+        cache.pesquisarPorId(2);
+        assertEquals(1, lento.buscas.get());
+    }
+
+    @Test
+    @DisplayName("W-TinyLFU deve manter os produtos frequentes mesmo depois de uma varredura")
+    void wTinyLfu_QuandoHaVarredura_DeveManterProdutosFrequentes() {
+        int capacidade = 100;
+        for (int id = 0; id < 10_000; id++) {
+            lento.insere(new Produto(id, "P" + id, BigDecimal.ONE));
+        }
+        ProdutoCacheDAO lfu = new ProdutoCacheDAO(lento, ProdutoCacheDAO.Politica.W_TINY_LFU, capacidade);
+        ProdutoCacheDAO lru = new ProdutoCacheDAO(lento, ProdutoCacheDAO.Politica.LRU, capacidade);
+        for (ProdutoCacheDAO dao : List.of(lfu, lru)) {
+            for (int rodada = 0; rodada < 20; rodada++) {
+                for (int id = 0; id < 50; id++) dao.pesquisarPorId(id);       // conjunto quente
+            }
+            for (int id = 1_000; id < 3_000; id++) dao.pesquisarPorId(id);    // varredura de uma vez só
+        }
+
+        lento.buscas.set(0);
+        for (int id = 0; id < 50; id++) lfu.pesquisarPorId(id);
+        assertTrue(lento.buscas.get() <= 5, "W-TinyLFU perdeu " + lento.buscas.get() + " produtos quentes");
+
+        lento.buscas.set(0);
+        for (int id = 0; id < 50; id++) lru.pesquisarPorId(id);
+        assertEquals(50, lento.buscas.get(), "O LRU deveria ter perdido todo o conjunto quente");
+        assertTrue(lfu.tamanho() <= capacidade);
+    }
+
+    @Test
+    @DisplayName("Com limite em bytes, o peso total não deve passar do máximo")
+    void pesoEmBytes_DeveLimitarPesoTotal() {
+        long maximo = 20_000;
+        cache = new ProdutoCacheDAO(lento, ProdutoCacheDAO.Politica.W_TINY_LFU, maximo, ProdutoCacheDAO::pesoEmBytes);
+        for (int id = 0; id < 1_000; id++) {
+            lento.insere(new Produto(id, "Nome de tamanho variado ".repeat(id % 5), BigDecimal.ONE));
+        }
+        Random random = new Random(1);
+        for (int i = 0; i < 10_000; i++) {
+            cache.pesquisarPorId(random.nextInt(1_200));
+            assertTrue(cache.pesoAtual() <= maximo);
+        }
+        assertTrue(cache.estatisticas().despejos() > 0);
+        assertTrue(ProdutoCacheDAO.pesoEmBytes(null) < ProdutoCacheDAO.pesoEmBytes(new Produto(1, "A", BigDecimal.ONE)));
+    }
+
+    @Test
+    @DisplayName("Leituras e escritas concorrentes não devem deixar valores antigos no cache")
+    void acessoConcorrente_NaoDeveDeixarValoresAntigos() throws Exception {
+        cache = new ProdutoCacheDAO(lento, ProdutoCacheDAO.Politica.W_TINY_LFU, 50);
+        int ids = 200;
+        for (int id = 0; id < ids; id++) {
+            cache.insere(new Produto(id, "v0", BigDecimal.ONE));
+        }
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> tarefas = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                tarefas.add(executor.submit(() -> {
+                    Random random = new Random(thread);
+                    for (int i = 0; i < 20_000; i++) {
+                        int id = random.nextInt(ids);
+                        if (thread == 0 && i % 10 == 0) {
+                            cache.alterar(new Produto(id, "v" + i, BigDecimal.ONE));
+                        } else {
+                            assertNotNull(cache.pesquisarPorId(id));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int id = 0; id < ids; id++) {
+            assertEquals(lento.pesquisarPorId(id).getNome(), cache.pesquisarPorId(id).getNome());
+        }
+        assertTrue(cache.tamanho() <= 50);
+        assertEquals(cache.tamanho(), cache.pesoAtual());
+    }
+}
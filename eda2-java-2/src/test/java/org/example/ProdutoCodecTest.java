@@ -0,0 +1,122 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProdutoCodecTest {
+
+    private static final List<Produto> VARIADOS = List.of(
+            new Produto(1, "Arroz", new BigDecimal("10.99")),
+            new Produto(200, "Feijão Açaí 🍇 \ud800", new BigDecimal("-3.5"), 7),
+            new Produto(70_000, "", new BigDecimal("1E+3")),
+            new Produto(-5, null, null, Long.MAX_VALUE),
+            new Produto(Integer.MAX_VALUE, "Caro", new BigDecimal("92233720368547758070000.123")),
+            new Produto(3, "Escala zero", BigDecimal.TEN));
+
+    private static void assertMesmoProduto(Produto esperado, Produto lido) {
+        assertEquals(esperado.getId(), lido.getId());
+        assertEquals(esperado.getNome(), lido.getNome());
+        // equals do BigDecimal: mesmo valor e mesma escala.
+        assertEquals(esperado.getPreco(), lido.getPreco());
+        assertEquals(esperado.getVersao(), lido.getVersao());
+    }
+
+    @Test
+    @DisplayName("Cada produto deve voltar igual, em buffer de heap ou direto, ocupando o tamanho informado")
+    void escreverLer_DeveVoltarOMesmoProduto() {
+        for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(256), ByteBuffer.allocateDirect(256)}) {
+            for (Produto produto : VARIADOS) {
+                buffer.clear();
+                ProdutoCodec.escrever(buffer, produto);
+                assertEquals(ProdutoCodec.tamanho(produto), buffer.position(), produto.toString());
+                buffer.flip();
+                Produto lido = ProdutoCodec.ler(buffer);
+                assertFalse(buffer.hasRemaining());
+                // Surrogate sem par vira '?', como no getBytes.
+                assertMesmoProduto(produto.getNome() != null && produto.getNome().endsWith("\ud800")
+                        ? produto.withNome(produto.getNome().replace('\ud800', '?')) : produto, lido);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Um produto comum deve ocupar poucos bytes")
+    void escrever_QuandoProdutoComum_DeveSerCompacto() {
+        // versão + flags + id + versão do produto + tamanho do nome + "Arroz" + 1099 centavos em zigzag.
+        assertEquals(1 + 1 + 1 + 1 + 1 + 5 + 2, ProdutoCodec.tamanho(new Produto(1, "Arroz", new BigDecimal("10.99"))));
+    }
+
+    @Test
+    @DisplayName("Lotes devem voltar na mesma ordem, e o lote vazio também deve ser aceito")
+    void escreverLoteLerLote_DeveVoltarOsMesmosProdutos() {
+        ByteBuffer buffer = ByteBuffer.allocate(ProdutoCodec.tamanhoLote(VARIADOS));
+        ProdutoCodec.escreverLote(buffer, VARIADOS);
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        List<Produto> lidos = ProdutoCodec.lerLote(buffer);
+        assertEquals(VARIADOS.size(), lidos.size());
+        assertEquals(VARIADOS.get(0).getNome(), lidos.get(0).getNome());
+        assertEquals(VARIADOS.get(4).getPreco(), lidos.get(4).getPreco());
+        assertEquals(Long.MAX_VALUE, lidos.get(3).getVersao());
+
+        buffer.clear();
+        ProdutoCodec.escreverLote(buffer, List.of());
+        buffer.flip();
+        assertTrue(ProdutoCodec.lerLote(buffer).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Sem espaço no buffer, a gravação deve falhar sem avançar a posição")
+    void escrever_QuandoSemEspaco_DeveRestaurarPosicao() {
+        ByteBuffer buffer = ByteBuffer.allocate(20);
+        buffer.position(3);
+        assertThrows(BufferOverflowException.class,
+                () -> ProdutoCodec.escrever(buffer, new Produto(1, "Um nome bem maior que o buffer", BigDecimal.ONE)));
+        assertEquals(3, buffer.position());
+        assertThrows(BufferOverflowException.class, () -> ProdutoCodec.escreverLote(buffer, VARIADOS));
+        assertEquals(3, buffer.position());
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ProdutoCodec.escrever(buffer, new Produto(null, "Sem ID", BigDecimal.ONE)));
+        assertEquals("Produto ou ID do produto não pode ser nulo.", exception.getMessage());
+        assertEquals(3, buffer.position());
+    }
+
+    @Test
+    @DisplayName("Dados truncados, versão desconhecida ou flags inválidas devem ser recusados sem avançar a posição")
+    void ler_QuandoDadosInvalidos_DeveLancarExcecao() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        ProdutoCodec.escrever(buffer, new Produto(1, "Arroz", new BigDecimal("10.99")));
+        buffer.flip();
+        ByteBuffer truncado = buffer.slice(0, buffer.limit() - 1);
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> ProdutoCodec.ler(truncado));
+        assertEquals("Produto codificado truncado.", exception.getMessage());
+        assertEquals(0, truncado.position());
+
+        buffer.put(0, (byte) 2);
+        exception = assertThrows(IllegalArgumentException.class, () -> ProdutoCodec.ler(buffer));
+        assertEquals("Versão do formato não suportada: 2.", exception.getMessage());
+
+        buffer.put(0, ProdutoCodec.VERSAO).put(1, (byte) 0x40);
+        assertThrows(IllegalArgumentException.class, () -> ProdutoCodec.ler(buffer));
+        assertEquals(0, buffer.position());
+
+        // Nome nulo e preço grande (flags 1 | 8) que diz ter 2 GB de bytes: deve falhar sem tentar alocar.
+        ByteBuffer precoGigante = ByteBuffer.wrap(new byte[]{ProdutoCodec.VERSAO, 9, 1, 0, 0,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 1, 2, 3});
+        exception = assertThrows(IllegalArgumentException.class, () -> ProdutoCodec.ler(precoGigante));
+        assertEquals("Produto codificado truncado.", exception.getMessage());
+        assertEquals(0, precoGigante.position());
+
+        // Lote que diz ter um milhão de produtos em 4 bytes.
+        ByteBuffer lote = ByteBuffer.wrap(new byte[]{ProdutoCodec.VERSAO, (byte) 0xC0, (byte) 0x84, 0x3D, 0});
+        assertThrows(IllegalArgumentException.class, () -> ProdutoCodec.lerLote(lote));
+        assertEquals(0, lote.position());
+    }
+}
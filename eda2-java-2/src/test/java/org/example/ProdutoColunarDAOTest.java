@@ -0,0 +1,273 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.Spliterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProdutoColunarDAOTest {
+
+    private ProdutoColunarDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        dao = new ProdutoColunarDAO();
+    }
+
+    @Test
+    @DisplayName("Deve inserir e materializar o produto com os mesmos dados")
+    void insere_QuandoProdutoNovo_DeveMaterializarMesmosDados() {
+        dao.insere(new Produto(1, "Pão de queijo", new BigDecimal("10.5")));
+        Produto encontrado = dao.pesquisarPorId(1);
+        assertNotNull(encontrado);
+        assertEquals(1, encontrado.getId());
+        assertEquals("Pão de queijo", encontrado.getNome());
+        assertEquals(0, new BigDecimal("10.50").compareTo(encontrado.getPreco()));
+    }
+
+    @Test
+    @DisplayName("Deve preservar nome e preço nulos")
+    void insere_QuandoNomeEPrecoNulos_DevePreservarNulos() {
+        dao.insere(new Produto(2, null, null));
+        Produto encontrado = dao.pesquisarPorId(2);
+        assertNull(encontrado.getNome());
+        assertNull(encontrado.getPreco());
+    }
+
+    @Test
+    @DisplayName("Não deve inserir produto com ID duplicado e deve lançar exceção")
+    void insere_QuandoIdDuplicado_DeveLancarIllegalArgumentException() {
+        dao.insere(new Produto(1, "Teste 1", new BigDecimal("10.00")));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> dao.insere(new Produto(1, "Teste 2", new BigDecimal("20.00"))));
+        assertEquals("Erro: Já existe um produto com o ID 1.", exception.getMessage());
+        assertEquals(1, dao.tamanho());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar preço com mais de duas casas decimais")
+    void insere_QuandoPrecoNaoCabeEmCentavos_DeveLancarIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> dao.insere(new Produto(1, "Fracionado", new BigDecimal("1.005"))));
+        assertEquals(0, dao.tamanho());
+    }
+
+    @Test
+    @DisplayName("Deve listar os produtos ordenados por ID")
+    void listarTodos_QuandoHaProdutos_DeveRetornarOrdenadoPorId() {
+        dao.insere(new Produto(3, "C", new BigDecimal("3.00")));
+        dao.insere(new Produto(1, "A", new BigDecimal("1.00")));
+        dao.insere(new Produto(2, "B", new BigDecimal("2.00")));
+        List<Integer> ids = dao.listarTodos().stream().map(Produto::getId).toList();
+        assertEquals(List.of(1, 2, 3), ids);
+    }
+
+    @Test
+    @DisplayName("Deve alterar e excluir somente produtos existentes")
+    void alterarEExcluir_DevemRespeitarExistenciaDoId() {
+        dao.insere(new Produto(5, "Original", new BigDecimal("50.00")));
+
+        assertTrue(dao.alterar(new Produto(5, "Alterado Nome", new BigDecimal("55.50"))));
+        assertEquals("Alterado Nome", dao.pesquisarPorId(5).getNome());
+        assertEquals(0, new BigDecimal("55.50").compareTo(dao.pesquisarPorId(5).getPreco()));
+        assertFalse(dao.alterar(new Produto(6, "Inexistente", BigDecimal.ONE)));
+
+        assertTrue(dao.excluir(5));
+        assertFalse(dao.excluir(5));
+        assertFalse(dao.excluir(null));
+        assertTrue(dao.listarTodos().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve somar e calcular a média dos preços direto das colunas")
+    void somaEMediaPrecos_DevemConsiderarApenasProdutosComPreco() {
+        assertEquals(0, BigDecimal.ZERO.compareTo(dao.somaPrecos()));
+        assertNull(dao.mediaPreco());
+
+        dao.insere(new Produto(1, "A", new BigDecimal("1.10")));
+        dao.insere(new Produto(2, "B", new BigDecimal("2.20")));
+        dao.insere(new Produto(3, "Sem preço", null));
+        dao.insere(new Produto(4, "C", new BigDecimal("3.30")));
+
+        assertEquals(0, new BigDecimal("6.60").compareTo(dao.somaPrecos()));
+        assertEquals(0, new BigDecimal("2.20").compareTo(dao.mediaPreco()));
+    }
+
+    @Test
+    @DisplayName("A soma não deve perder precisão quando ultrapassa o limite de long")
+    void somaPrecos_QuandoEstouraLong_DeveSerExata() {
+        BigDecimal grande = BigDecimal.valueOf(Long.MAX_VALUE, 2);
+        dao.insere(new Produto(1, "A", grande));
+        dao.insere(new Produto(2, "B", grande));
+        dao.insere(new Produto(3, "C", new BigDecimal("0.01")));
+        assertEquals(0, grande.add(grande).add(new BigDecimal("0.01")).compareTo(dao.somaPrecos()));
+    }
+
+    @Test
+    @DisplayName("Sequência aleatória de operações deve se comportar igual a um TreeMap")
+    void operacoesAleatorias_DevemCoincidirComTreeMap() {
+        Map<Integer, Produto> referencia = new TreeMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            int id = random.nextInt(2_000);
+            Produto produto = new Produto(id, "Nome " + i + (i % 3 == 0 ? " ção" : ""),
+                    BigDecimal.valueOf(random.nextInt(100_000), 2));
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    if (referencia.putIfAbsent(id, produto) == null) {
+                        dao.insere(produto);
+                    }
+                }
+                case 1 -> assertEquals(referencia.remove(id) != null, dao.excluir(id));
+                default -> assertEquals(referencia.replace(id, produto) != null, dao.alterar(produto));
+            }
+        }
+        List<Produto> esperado = new ArrayList<>(referencia.values());
+        List<Produto> obtido = new ArrayList<>(dao.listarTodos());
+        assertEquals(esperado.size(), obtido.size());
+        for (int i = 0; i < esperado.size(); i++) {
+            assertEquals(esperado.get(i).getId(), obtido.get(i).getId());
+            assertEquals(esperado.get(i).getNome(), obtido.get(i).getNome());
+            assertEquals(0, esperado.get(i).getPreco().compareTo(obtido.get(i).getPreco()));
+        }
+    }
+
+    @Test
+    @DisplayName("Inserção e exclusão em lote devem manter as colunas ordenadas e consistentes")
+    void insereTodosEExcluirTodos_DevemManterColunasConsistentes() {
+        for (int id = 0; id < 100; id += 2) {
+            dao.insere(new Produto(id, "Par " + id, BigDecimal.valueOf(id, 2)));
+        }
+        List<Produto> impares = new ArrayList<>();
+        for (int id = 99; id > 0; id -= 2) {
+            impares.add(new Produto(id, "Ímpar " + id, BigDecimal.valueOf(id, 2)));
+        }
+        dao.insereTodos(impares);
+
+        List<Produto> todos = new ArrayList<>(dao.listarTodos());
+        assertEquals(100, todos.size());
+        for (int id = 0; id < 100; id++) {
+            assertEquals(id, todos.get(id).getId());
+            assertEquals((id % 2 == 0 ? "Par " : "Ímpar ") + id, todos.get(id).getNome());
+            assertEquals(0, BigDecimal.valueOf(id, 2).compareTo(todos.get(id).getPreco()));
+        }
+
+        assertThrows(IllegalArgumentException.class,
+                () -> dao.insereTodos(List.of(new Produto(200, "Novo", BigDecimal.ONE), new Produto(50, "Existe", BigDecimal.ONE))));
+        assertNull(dao.pesquisarPorId(200));
+
+        assertEquals(3, dao.excluirTodos(new int[]{99, 0, 50, 1_000}));
+        assertEquals(97, dao.tamanho());
+        assertNull(dao.pesquisarPorId(50));
+        assertEquals("Ímpar 51", dao.pesquisarPorId(51).getNome());
+    }
+
+    @Test
+    @DisplayName("Consultas por ordem de ID devem coincidir com um TreeMap, inclusive nos extremos de int")
+    void consultasPorOrdem_DevemCoincidirComTreeMap() {
+        NavigableMap<Integer, Produto> referencia = new TreeMap<>();
+        assertNull(dao.primeiro());
+        assertNull(dao.ultimo());
+        Random random = new Random(11);
+        for (int id : new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE, 0, -1}) {
+            Produto produto = new Produto(id, "Extremo " + id, BigDecimal.ONE);
+            referencia.put(id, produto);
+            dao.insere(produto);
+        }
+        while (referencia.size() < 2_000) {
+            int id = random.nextInt(10_000) - 5_000;
+            if (!referencia.containsKey(id)) {
+                Produto produto = new Produto(id, "P" + id, BigDecimal.ONE);
+                referencia.put(id, produto);
+                dao.insere(produto);
+            }
+        }
+
+        assertEquals(Integer.MIN_VALUE, dao.primeiro().getId());
+        assertEquals(Integer.MAX_VALUE, dao.ultimo().getId());
+        assertNull(dao.proximoApos(Integer.MAX_VALUE));
+        assertEquals(2_000, dao.listarPorFaixaDeId(Integer.MIN_VALUE, Integer.MAX_VALUE).size());
+        assertTrue(dao.pagina(Integer.MAX_VALUE, 10).isEmpty());
+        for (int i = 0; i < 200; i++) {
+            int de = random.nextInt(12_000) - 6_000;
+            int ate = de + random.nextInt(500);
+            assertEquals(List.copyOf(referencia.subMap(de, true, ate, true).keySet()),
+                    dao.listarPorFaixaDeId(de, ate).stream().map(Produto::getId).toList());
+            Integer proximo = referencia.higherKey(de);
+            assertEquals(proximo, dao.proximoApos(de) == null ? null : dao.proximoApos(de).getId());
+            assertEquals(referencia.tailMap(de, false).keySet().stream().limit(25).toList(),
+                    dao.pagina(de, 25).stream().map(Produto::getId).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Stream paralelo deve dividir as linhas e manter a ordem de ID")
+    void stream_QuandoParalelo_DeveCoincidirComListarTodos() {
+        for (int id = 0; id < 5_000; id++) {
+            dao.insere(new Produto(id * 3, "P" + id, BigDecimal.valueOf(id, 2)));
+        }
+
+        assertEquals(dao.listarTodos().toString(), dao.stream().parallel().toList().toString());
+        assertEquals(0, dao.somaPrecos().compareTo(
+                dao.stream().parallel().map(Produto::getPreco).reduce(BigDecimal.ZERO, BigDecimal::add)));
+        Spliterator<Produto> spliterator = dao.spliterator();
+        assertEquals(5_000, spliterator.getExactSizeIfKnown());
+        assertEquals(2_500, spliterator.trySplit().estimateSize());
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SORTED | Spliterator.NONNULL));
+    }
+
+    @Test
+    @DisplayName("Agregações pela coluna de preços devem coincidir com as feitas sobre os produtos")
+    void agregacoes_DevemCoincidirComAsDoProdutoMemoryDAO() {
+        ProdutoDAO referencia = new ProdutoMemoryDAO();
+        Random random = new Random(9);
+        for (int id = 0; id < 50_000; id++) {
+            BigDecimal preco = id % 7 == 0 ? null : BigDecimal.valueOf(random.nextLong(-1_000, 10_000_000), 2);
+            dao.insere(new Produto(id, "P" + id, preco));
+            referencia.insere(new Produto(id, "P" + id, preco));
+        }
+        dao.insere(new Produto(-1, "Caro", BigDecimal.valueOf(Long.MAX_VALUE - 1, 2)));
+        referencia.insere(new Produto(-1, "Caro", BigDecimal.valueOf(Long.MAX_VALUE - 1, 2)));
+
+        assertEquals(0, referencia.somaPrecos().compareTo(dao.somaPrecos()));
+        assertEquals(0, referencia.mediaPreco().compareTo(dao.mediaPreco()));
+        assertEquals(referencia.histogramaPrecos(10), dao.histogramaPrecos(10));
+        dao.excluir(-1);
+        referencia.excluir(-1);
+        assertEquals(referencia.histogramaPrecos(37), dao.histogramaPrecos(37));
+        assertEquals(referencia.contar(p -> p.getId() % 3 == 0), dao.contar(p -> p.getId() % 3 == 0));
+    }
+
+    @Test
+    @DisplayName("alterarSeVersao deve conferir a versão guardada na coluna, que sobrevive a deslocamentos e lotes")
+    void alterarSeVersao_QuandoVersaoDesatualizada_NaoDeveGravar() {
+        dao.insere(new Produto(5, "Cinco", BigDecimal.ONE, 3));
+        Produto lido = dao.pesquisarPorId(5);
+        assertEquals(3, lido.getVersao());
+
+        assertTrue(dao.alterarSeVersao(lido.withNome("Primeiro"), 3));
+        assertFalse(dao.alterarSeVersao(lido.withNome("Segundo"), 3));
+        assertFalse(dao.alterarSeVersao(lido, 0));
+        assertEquals("Primeiro", dao.pesquisarPorId(5).getNome());
+
+        // Inserções antes e a exclusão de um vizinho deslocam as linhas; a versão acompanha.
+        dao.insere(new Produto(1, "Um", BigDecimal.ONE));
+        dao.insereTodos(List.of(new Produto(3, "Três", BigDecimal.ONE, 9), new Produto(7, "Sete", BigDecimal.ONE)));
+        dao.excluir(1);
+        assertEquals(4, dao.pesquisarPorId(5).getVersao());
+        assertEquals(9, dao.pesquisarPorId(3).getVersao());
+        assertTrue(dao.alterarSeVersao(dao.pesquisarPorId(5).withNome("Segundo"), 4));
+        assertEquals(5, dao.pesquisarPorId(5).getVersao());
+        assertFalse(dao.alterarSeVersao(new Produto(2, "Inexistente", BigDecimal.ONE), 0));
+    }
+}
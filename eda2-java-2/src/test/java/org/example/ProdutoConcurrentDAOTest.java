@@ -0,0 +1,277 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProdutoConcurrentDAOTest {
+
+    private static final int THREADS = 8;
+
+    private ProdutoDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        dao = new ProdutoConcurrentDAO();
+    }
+
+    @Test
+    @DisplayName("Deve inserir e pesquisar um produto")
+    void insere_QuandoProdutoNovo_DevePermitirPesquisa() {
+        Produto produto = new Produto(1, "Teste", new BigDecimal("10.00"));
+        dao.insere(produto);
+        assertEquals(1, dao.listarTodos().size());
+        assertSame(produto, dao.pesquisarPorId(1));
+    }
+
+    @Test
+    @DisplayName("Não deve inserir produto com ID duplicado e deve lançar exceção")
+    void insere_QuandoIdDuplicado_DeveLancarIllegalArgumentException() {
+        dao.insere(new Produto(1, "Teste 1", new BigDecimal("10.00")));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> dao.insere(new Produto(1, "Teste 2", new BigDecimal("20.00"))));
+        assertEquals("Erro: Já existe um produto com o ID 1.", exception.getMessage());
+        assertEquals("Teste 1", dao.pesquisarPorId(1).getNome());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao tentar inserir produto nulo ou com ID nulo")
+    void insere_QuandoProdutoOuIdNulo_DeveLancarIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> dao.insere(null));
+        assertThrows(IllegalArgumentException.class, () -> dao.insere(new Produto(null, "Sem ID", BigDecimal.ONE)));
+    }
+
+    @Test
+    @DisplayName("Deve listar os produtos ordenados por ID")
+    void listarTodos_QuandoHaProdutos_DeveRetornarOrdenadoPorId() {
+        dao.insere(new Produto(3, "C", new BigDecimal("3.00")));
+        dao.insere(new Produto(1, "A", new BigDecimal("1.00")));
+        dao.insere(new Produto(2, "B", new BigDecimal("2.00")));
+
+        List<Produto> lista = new ArrayList<>(dao.listarTodos());
+        assertEquals(List.of(1, 2, 3), lista.stream().map(Produto::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Deve alterar apenas produtos existentes")
+    void alterar_DeveRetornarTrueSomenteSeIdExiste() {
+        dao.insere(new Produto(5, "Original", new BigDecimal("50.00")));
+
+        assertTrue(dao.alterar(new Produto(5, "Alterado", new BigDecimal("55.50"))));
+        assertEquals("Alterado", dao.pesquisarPorId(5).getNome());
+        assertFalse(dao.alterar(new Produto(99, "Inexistente", BigDecimal.ONE)));
+        assertNull(dao.pesquisarPorId(99));
+        assertFalse(dao.alterar(null));
+    }
+
+    @Test
+    @DisplayName("Deve excluir apenas produtos existentes")
+    void excluir_DeveRetornarTrueSomenteSeIdExiste() {
+        dao.insere(new Produto(7, "Para Excluir", new BigDecimal("70.00")));
+
+        assertTrue(dao.excluir(7));
+        assertFalse(dao.excluir(7));
+        assertFalse(dao.excluir(null));
+        assertTrue(dao.listarTodos().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Inserções concorrentes do mesmo ID: exatamente uma deve vencer")
+    void insere_QuandoVariasThreadsDisputamOMesmoId_ApenasUmaDeveInserir() throws Exception {
+        int rodadas = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int id = 0; id < rodadas; id++) {
+                int idRodada = id;
+                AtomicInteger sucessos = new AtomicInteger();
+                AtomicInteger duplicados = new AtomicInteger();
+                CountDownLatch largada = new CountDownLatch(1);
+                List<Future<?>> tarefas = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    int thread = t;
+                    tarefas.add(executor.submit(() -> {
+                        largada.await();
+                        try {
+                            dao.insere(new Produto(idRodada, "Thread " + thread, BigDecimal.ONE));
+                            sucessos.incrementAndGet();
+                        } catch (IllegalArgumentException e) {
+                            duplicados.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                largada.countDown();
+                for (Future<?> tarefa : tarefas) {
+                    tarefa.get();
+                }
+                assertEquals(1, sucessos.get(), "ID " + idRodada + " inserido mais de uma vez");
+                assertEquals(THREADS - 1, duplicados.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(rodadas, dao.listarTodos().size());
+    }
+
+    @Test
+    @DisplayName("Inserções concorrentes de IDs distintos não devem perder nenhum produto")
+    void insere_QuandoVariasThreadsInseremIdsDistintos_NaoDevePerderNenhum() throws Exception {
+        int porThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    // IDs intercalados entre as threads para forçar disputa nos mesmos trechos do mapa.
+                    for (int i = 0; i < porThread; i++) {
+                        int id = i * THREADS + thread;
+                        dao.insere(new Produto(id, "Produto " + id, BigDecimal.valueOf(id)));
+                        // Leituras concorrentes com as escritas não podem falhar nem bloquear.
+                        assertNotNull(dao.pesquisarPorId(id));
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Produto> todos = new ArrayList<>(dao.listarTodos());
+        assertEquals(THREADS * porThread, todos.size());
+        for (int i = 0; i < todos.size(); i++) {
+            // Ordenado, sem buracos e sem repetição.
+            assertEquals(i, todos.get(i).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Lote com ID existente não deve deixar nenhum produto inserido")
+    void insereTodos_QuandoIdExistente_NaoDeveInserirNenhum() {
+        dao.insere(new Produto(2, "Existente", BigDecimal.ONE));
+        assertThrows(IllegalArgumentException.class, () -> dao.insereTodos(List.of(
+                new Produto(1, "A", BigDecimal.ONE), new Produto(2, "B", BigDecimal.ONE), new Produto(3, "C", BigDecimal.ONE))));
+        assertEquals(1, dao.listarTodos().size());
+
+        dao.insereTodos(List.of(new Produto(3, "C", BigDecimal.ONE), new Produto(1, "A", BigDecimal.ONE)));
+        assertEquals(List.of(1, 2, 3), dao.listarTodos().stream().map(Produto::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Desfazer um lote não deve apagar a alteração que outra thread fez em um produto já inserido")
+    void insereTodos_QuandoDesfeito_DeveManterAlteracaoConcorrente() throws Exception {
+        List<Produto> lote = new ArrayList<>();
+        for (int id = 1; id <= 1_000; id++) {
+            lote.add(new Produto(id, "Lote", BigDecimal.ONE));
+        }
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        int desfeitos = 0;
+        try {
+            for (int rodada = 0; rodada < 200; rodada++) {
+                dao = new ProdutoConcurrentDAO();
+                // Assim que o lote insere o ID 1, a outra thread o altera e ocupa o último ID do lote.
+                Future<?> concorrente = executor.submit(() -> {
+                    while (dao.pesquisarPorId(1) == null) {
+                        Thread.onSpinWait();
+                    }
+                    dao.alterar(new Produto(1, "Alterado", BigDecimal.TEN));
+                    try {
+                        dao.insere(new Produto(1_000, "Concorrente", BigDecimal.ONE));
+                    } catch (IllegalArgumentException e) {
+                        // O lote chegou antes ao último ID.
+                    }
+                });
+                try {
+                    dao.insereTodos(lote);
+                } catch (IllegalArgumentException e) {
+                    // Desfeito: a alteração veio antes do desfazer e precisa continuar lá.
+                    concorrente.get(10, TimeUnit.SECONDS);
+                    desfeitos++;
+                    assertEquals("Alterado", dao.pesquisarPorId(1).getNome());
+                    assertEquals(2, dao.listarTodos().size());
+                }
+                concorrente.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(desfeitos > 0);
+    }
+
+    @Test
+    @DisplayName("Paginação por chave deve continuar do último ID mesmo com exclusões entre as páginas")
+    void pagina_QuandoProdutosExcluidosEntrePaginas_DeveContinuarDoUltimoId() {
+        for (int id = 1; id <= 10; id++) {
+            dao.insere(new Produto(id, "P" + id, BigDecimal.ONE));
+        }
+        List<Produto> primeira = dao.pagina(null, 4);
+        assertEquals(List.of(1, 2, 3, 4), primeira.stream().map(Produto::getId).toList());
+
+        dao.excluir(4);
+        dao.excluir(5);
+
+        assertEquals(List.of(6, 7, 8, 9), dao.pagina(4, 4).stream().map(Produto::getId).toList());
+        assertEquals(List.of(3, 6), dao.listarPorFaixaDeId(3, 6).stream().map(Produto::getId).toList());
+        assertEquals(6, dao.proximoApos(3).getId());
+    }
+
+    @Test
+    @DisplayName("alterarSeVersao deve gravar só quando a versão lida ainda é a atual")
+    void alterarSeVersao_QuandoVersaoDesatualizada_NaoDeveGravar() {
+        dao.insere(new Produto(1, "Original", BigDecimal.ONE));
+        Produto lido = dao.pesquisarPorId(1);
+        assertEquals(0, lido.getVersao());
+
+        assertTrue(dao.alterarSeVersao(lido.withNome("Primeiro"), lido.getVersao()));
+        assertEquals(1, dao.pesquisarPorId(1).getVersao());
+        assertFalse(dao.alterarSeVersao(lido.withNome("Segundo"), lido.getVersao()));
+        assertEquals("Primeiro", dao.pesquisarPorId(1).getNome());
+        assertFalse(dao.alterarSeVersao(new Produto(2, "Inexistente", BigDecimal.ONE), 0));
+        assertFalse(dao.alterarSeVersao(null, 0));
+    }
+
+    @Test
+    @DisplayName("alterarSeVersao concorrente não deve perder atualizações")
+    void alterarSeVersao_QuandoConcorrente_NaoDevePerderAtualizacoes() throws Exception {
+        dao.insere(new Produto(1, "Contador", BigDecimal.ZERO));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        Produto lido;
+                        do {
+                            lido = dao.pesquisarPorId(1);
+                        } while (!dao.alterarSeVersao(lido.withPreco(lido.getPreco().add(BigDecimal.ONE)), lido.getVersao()));
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(BigDecimal.valueOf(THREADS * 1_000), dao.pesquisarPorId(1).getPreco());
+        assertEquals(THREADS * 1_000, dao.pesquisarPorId(1).getVersao());
+    }
+}
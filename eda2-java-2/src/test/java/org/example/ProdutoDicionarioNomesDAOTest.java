@@ -0,0 +1,144 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProdutoDicionarioNomesDAOTest {
+
+    private static final int THREADS = 8;
+
+    private ProdutoDicionarioNomesDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        dao = new ProdutoDicionarioNomesDAO(new ProdutoMemoryDAO());
+    }
+
+    // Um String novo a cada chamada, como o que vem de uma importação.
+    private static String copia(String nome) {
+        return new String(nome.toCharArray());
+    }
+
+    @Test
+    @DisplayName("Produtos com o mesmo nome devem apontar para o mesmo String")
+    void insere_QuandoNomesIguais_DeveCompartilharString() {
+        dao.insere(new Produto(1, copia("Camiseta Básica"), BigDecimal.ONE));
+        dao.insere(new Produto(2, copia("Camiseta Básica"), BigDecimal.TEN));
+        dao.insereTodos(List.of(new Produto(3, copia("Camiseta Básica"), BigDecimal.ONE),
+                new Produto(4, copia("Calça"), BigDecimal.ONE)));
+
+        String nome = dao.pesquisarPorId(1).getNome();
+        assertSame(nome, dao.pesquisarPorId(2).getNome());
+        assertSame(nome, dao.pesquisarPorId(3).getNome());
+        assertEquals(2, dao.nomesDistintos());
+        assertEquals(3, dao.referencias("Camiseta Básica"));
+        assertEquals(BigDecimal.TEN, dao.pesquisarPorId(2).getPreco());
+    }
+
+    @Test
+    @DisplayName("alterar e excluir devem descontar o nome anterior e tirar do dicionário o que ninguém usa")
+    void alterarExcluir_DevemManterContagemCorreta() {
+        dao.insere(new Produto(1, "A", BigDecimal.ONE));
+        dao.insere(new Produto(2, "A", BigDecimal.ONE));
+
+        assertTrue(dao.alterar(new Produto(1, copia("B"), BigDecimal.ONE)));
+        assertEquals(1, dao.referencias("A"));
+        assertEquals(1, dao.referencias("B"));
+        assertFalse(dao.alterar(new Produto(9, "C", BigDecimal.ONE)));
+        assertEquals(0, dao.referencias("C"));
+
+        assertTrue(dao.excluir(2));
+        assertFalse(dao.excluir(2));
+        assertEquals(0, dao.referencias("A"));
+        assertEquals(1, dao.nomesDistintos());
+
+        Produto lido = dao.pesquisarPorId(1);
+        assertTrue(dao.alterarSeVersao(lido.withNome(copia("B")), lido.getVersao()));
+        assertFalse(dao.alterarSeVersao(lido.withNome("D"), lido.getVersao()));
+        assertEquals(1, dao.referencias("B"));
+        assertEquals(0, dao.referencias("D"));
+        assertEquals(1, dao.pesquisarPorId(1).getVersao());
+    }
+
+    @Test
+    @DisplayName("Inserção recusada não deve deixar referência no dicionário")
+    void insere_QuandoRecusado_NaoDeveContarReferencia() {
+        dao.insere(new Produto(1, "A", BigDecimal.ONE));
+        assertThrows(IllegalArgumentException.class, () -> dao.insere(new Produto(1, "B", BigDecimal.ONE)));
+        assertThrows(IllegalArgumentException.class,
+                () -> dao.insereTodos(List.of(new Produto(2, "A", BigDecimal.ONE), new Produto(1, "C", BigDecimal.ONE))));
+        assertEquals(1, dao.referencias("A"));
+        assertEquals(0, dao.referencias("B"));
+        assertEquals(0, dao.referencias("C"));
+        dao.insere(new Produto(3, null, BigDecimal.ONE));
+        assertNull(dao.pesquisarPorId(3).getNome());
+        assertEquals(1, dao.nomesDistintos());
+    }
+
+    @Test
+    @DisplayName("Produtos que já estavam no DAO envolvido devem entrar no dicionário")
+    void construtor_QuandoDelegateComProdutos_DeveCanonizarNomes() {
+        ProdutoDAO memoria = new ProdutoMemoryDAO();
+        memoria.insere(new Produto(1, copia("X"), BigDecimal.ONE));
+        memoria.insere(new Produto(2, copia("X"), BigDecimal.ONE));
+        ProdutoDicionarioNomesDAO comProdutos = new ProdutoDicionarioNomesDAO(memoria);
+
+        assertSame(comProdutos.pesquisarPorId(1).getNome(), comProdutos.pesquisarPorId(2).getNome());
+        assertEquals(2, comProdutos.referencias("X"));
+    }
+
+    @Test
+    @DisplayName("As estatísticas devem estimar os bytes economizados com os nomes repetidos")
+    void estatisticas_DevemContarBytesEconomizados() {
+        for (int id = 0; id < 10; id++) {
+            dao.insere(new Produto(id, copia("Nome12345"), BigDecimal.ONE));
+        }
+        ProdutoDicionarioNomesDAO.Estatisticas estatisticas = dao.estatisticas();
+        // String de 24 bytes + byte[] de 16 + 9 bytes, alinhado em 32.
+        assertEquals(56, ProdutoDicionarioNomesDAO.bytesDeString("Nome12345"));
+        assertEquals(1, estatisticas.nomesDistintos());
+        assertEquals(10, estatisticas.referencias());
+        assertEquals(9 * 56, estatisticas.bytesEconomizados());
+    }
+
+    @Test
+    @DisplayName("Escritas concorrentes devem manter as contagens certas")
+    void escritasConcorrentes_DevemManterContagens() throws Exception {
+        ProdutoDicionarioNomesDAO concorrente = new ProdutoDicionarioNomesDAO(new ProdutoConcurrentDAO());
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int inicio = t * 1_000;
+                tarefas.add(executor.submit(() -> {
+                    for (int id = inicio; id < inicio + 1_000; id++) {
+                        concorrente.insere(new Produto(id, copia("Nome " + id % 10), BigDecimal.ONE));
+                        if (id % 2 == 0) {
+                            concorrente.alterar(new Produto(id, copia("Par"), BigDecimal.ONE));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(THREADS * 500, concorrente.referencias("Par"));
+        assertEquals(THREADS * 100, concorrente.referencias("Nome 1"));
+        assertEquals(0, concorrente.referencias("Nome 2"));
+        assertEquals(6, concorrente.nomesDistintos());
+    }
+}
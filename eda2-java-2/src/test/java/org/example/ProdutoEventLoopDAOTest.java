@@ -0,0 +1,215 @@
+package org.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProdutoEventLoopDAOTest {
+
+    private static final int THREADS = 8;
+
+    private ProdutoEventLoopDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        // Fila pequena para exercitar a contrapressão nos testes concorrentes.
+        dao = new ProdutoEventLoopDAO(64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dao.close();
+    }
+
+    @Test
+    @DisplayName("Os métodos síncronos devem seguir o contrato do DAO")
+    void metodosSincronos_DevemSeguirContratoDoDao() {
+        Produto produto = new Produto(1, "Teste", new BigDecimal("10.00"));
+        dao.insere(produto);
+        assertSame(produto, dao.pesquisarPorId(1));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> dao.insere(new Produto(1, "Outro", BigDecimal.ONE)));
+        assertEquals("Erro: Já existe um produto com o ID 1.", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> dao.insere(null));
+
+        assertTrue(dao.alterar(new Produto(1, "Alterado", BigDecimal.TEN)));
+        assertEquals("Alterado", dao.pesquisarPorId(1).getNome());
+        assertFalse(dao.alterar(new Produto(2, "Inexistente", BigDecimal.ONE)));
+        assertFalse(dao.alterar(null));
+
+        dao.insereTodos(List.of(new Produto(3, "C", BigDecimal.ONE), new Produto(2, "B", BigDecimal.ONE)));
+        assertEquals(List.of(1, 2, 3), dao.listarTodos().stream().map(Produto::getId).toList());
+        assertThrows(IllegalArgumentException.class,
+                () -> dao.insereTodos(List.of(new Produto(4, "D", BigDecimal.ONE), new Produto(3, "C", BigDecimal.ONE))));
+        assertNull(dao.pesquisarPorId(4));
+
+        assertTrue(dao.excluir(1));
+        assertFalse(dao.excluir(Integer.valueOf(1)));
+        assertFalse(dao.excluir((Integer) null));
+        assertEquals(2, dao.excluirTodos(new int[]{2, 3, 99}));
+        assertTrue(dao.listarTodos().isEmpty());
+    }
+
+    @Test
+    @DisplayName("ID duplicado deve chegar como conclusão excepcional do future")
+    void insereAsync_QuandoIdDuplicado_DeveCompletarComExcecao() throws Exception {
+        dao.insereAsync(new Produto(1, "A", BigDecimal.ONE)).get(10, TimeUnit.SECONDS);
+        CompletableFuture<Void> duplicado = dao.insereAsync(new Produto(1, "B", BigDecimal.ONE));
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> duplicado.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+        assertEquals("Erro: Já existe um produto com o ID 1.", exception.getCause().getMessage());
+        assertEquals("A", dao.pesquisarPorId(1).getNome());
+    }
+
+    @Test
+    @DisplayName("Comandos de uma mesma thread devem ser aplicados na ordem em que foram enfileirados")
+    void comandosAsync_DevemSerAplicadosEmOrdem() throws Exception {
+        List<CompletableFuture<?>> futuros = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            futuros.add(dao.insereAsync(new Produto(i, "P" + i, BigDecimal.ONE)));
+            futuros.add(dao.alterarAsync(new Produto(i, "Alterado " + i, BigDecimal.TEN)));
+            if (i % 2 == 0) {
+                futuros.add(dao.excluirAsync(i));
+            }
+        }
+        CompletableFuture.allOf(futuros.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+
+        assertEquals(500, dao.listarTodos().size());
+        for (Produto produto : dao.listarTodos()) {
+            assertEquals(1, produto.getId() % 2);
+            assertEquals("Alterado " + produto.getId(), produto.getNome());
+        }
+        // Uma versão por escrita: 1000 inserções, 1000 alterações e 500 exclusões.
+        assertEquals(2_500, dao.snapshot().versao());
+    }
+
+    @Test
+    @DisplayName("Escritas concorrentes de várias threads devem ser todas aplicadas")
+    void insere_QuandoConcorrente_DeveAplicarTodas() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int inicio = t * 5_000;
+                tarefas.add(executor.submit(() -> {
+                    for (int id = inicio; id < inicio + 5_000; id++) {
+                        dao.insere(new Produto(id, "P" + id, BigDecimal.ONE));
+                        assertNotNull(dao.pesquisarPorId(id));
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(THREADS * 5_000, dao.listarTodos().size());
+    }
+
+    @Test
+    @DisplayName("Escrita feita dentro de um callback na thread escritora não deve travar")
+    void callbackNaThreadEscritora_NaoDeveTravar() throws Exception {
+        CompletableFuture<Boolean> encadeado = dao.insereAsync(new Produto(1, "A", BigDecimal.ONE))
+                .thenApply(nada -> dao.alterar(new Produto(1, "B", BigDecimal.ONE)));
+        assertTrue(encadeado.get(10, TimeUnit.SECONDS));
+        assertEquals("B", dao.pesquisarPorId(1).getNome());
+    }
+
+    @Test
+    @DisplayName("Um Error lançado por um comando deve falhar só aquele comando, sem matar a thread escritora")
+    void comando_QuandoLancaError_DeveManterThreadEscritora() throws Exception {
+        // Lote cuja leitura estoura a pilha, como uma coleção recursiva por engano.
+        Collection<Produto> loteQuebrado = new AbstractCollection<>() {
+            @Override
+            public Iterator<Produto> iterator() {
+                throw new StackOverflowError();
+            }
+
+            @Override
+            public int size() {
+                return 1;
+            }
+
+            @Override
+            public Object[] toArray() {
+                throw new StackOverflowError();
+            }
+
+            @Override
+            public <T> T[] toArray(T[] destino) {
+                throw new StackOverflowError();
+            }
+        };
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> dao.insereTodosAsync(loteQuebrado).get(10, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, exception.getCause());
+        assertThrows(StackOverflowError.class, () -> dao.insereTodos(loteQuebrado));
+
+        dao.insere(new Produto(1, "Depois", BigDecimal.ONE));
+        assertEquals("Depois", dao.pesquisarPorId(1).getNome());
+    }
+
+    @Test
+    @DisplayName("Depois do close, os comandos já enfileirados são aplicados e os novos falham")
+    void close_DeveAplicarPendentesERecusarNovos() throws Exception {
+        List<CompletableFuture<Void>> pendentes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            pendentes.add(dao.insereAsync(new Produto(i, "P" + i, BigDecimal.ONE)));
+        }
+        dao.close();
+
+        for (CompletableFuture<Void> pendente : pendentes) {
+            assertTrue(pendente.isDone());
+            assertFalse(pendente.isCompletedExceptionally());
+        }
+        assertEquals(200, dao.listarTodos().size());
+        assertThrows(IllegalStateException.class, () -> dao.insere(new Produto(1_000, "Tarde", BigDecimal.ONE)));
+        assertNotNull(dao.pesquisarPorId(0));
+    }
+
+    @Test
+    @DisplayName("alterarSeVersao concorrente não deve perder atualizações")
+    void alterarSeVersao_QuandoConcorrente_NaoDevePerderAtualizacoes() throws Exception {
+        dao.insere(new Produto(1, "Contador", BigDecimal.ZERO));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        Produto lido;
+                        do {
+                            lido = dao.pesquisarPorId(1);
+                        } while (!dao.alterarSeVersao(lido.withPreco(lido.getPreco().add(BigDecimal.ONE)), lido.getVersao()));
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(BigDecimal.valueOf(THREADS * 1_000), dao.pesquisarPorId(1).getPreco());
+        assertEquals(THREADS * 1_000, dao.pesquisarPorId(1).getVersao());
+    }
+}
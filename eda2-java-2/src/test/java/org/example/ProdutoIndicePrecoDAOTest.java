@@ -0,0 +1,134 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProdutoIndicePrecoDAOTest {
+
+    private ProdutoIndicePrecoDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        dao = new ProdutoIndicePrecoDAO(new ProdutoMemoryDAO());
+    }
+
+    private static List<Integer> ids(List<Produto> produtos) {
+        return produtos.stream().map(Produto::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Deve listar por faixa de preço do mais barato para o mais caro")
+    void listarPorFaixaDePreco_DeveRetornarOrdenadoPorPreco() {
+        dao.insere(new Produto(1, "A", new BigDecimal("50.00")));
+        dao.insere(new Produto(2, "B", new BigDecimal("9.99")));
+        dao.insere(new Produto(3, "C", new BigDecimal("10")));
+        dao.insere(new Produto(4, "D", new BigDecimal("25.50")));
+        dao.insere(new Produto(5, "E", new BigDecimal("50.01")));
+        dao.insere(new Produto(6, "Sem preço", null));
+
+        assertEquals(List.of(3, 4, 1), ids(dao.listarPorFaixaDePreco(new BigDecimal("10.00"), new BigDecimal("50"))));
+        assertTrue(dao.listarPorFaixaDePreco(new BigDecimal("50"), BigDecimal.TEN).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> dao.listarPorFaixaDePreco(null, BigDecimal.TEN));
+    }
+
+    @Test
+    @DisplayName("Deve devolver os N mais baratos e mais caros, desempatando pelo ID")
+    void maisBaratosEMaisCaros_DevemDesempatarPeloId() {
+        dao.insere(new Produto(1, "A", new BigDecimal("5.00")));
+        dao.insere(new Produto(2, "B", new BigDecimal("1.00")));
+        dao.insere(new Produto(3, "C", new BigDecimal("5.0")));
+        dao.insere(new Produto(4, "D", new BigDecimal("9.00")));
+
+        assertEquals(List.of(2, 1), ids(dao.maisBaratos(2)));
+        assertEquals(List.of(4, 3, 1), ids(dao.maisCaros(3)));
+        assertEquals(4, dao.maisBaratos(100).size());
+        assertTrue(dao.maisCaros(0).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> dao.maisBaratos(-1));
+    }
+
+    @Test
+    @DisplayName("Alterar o preço deve mover o produto no índice")
+    void alterar_QuandoPrecoMuda_DeveMoverEntradaNoIndice() {
+        Produto produto = new Produto(1, "A", new BigDecimal("10.00"));
+        dao.insere(produto);
+        dao.insere(new Produto(2, "B", new BigDecimal("20.00")));
+
+        assertTrue(dao.alterar(dao.pesquisarPorId(1).withPreco(new BigDecimal("30.00"))));
+
+        assertEquals(List.of(2, 1), ids(dao.maisBaratos(10)));
+        assertTrue(dao.listarPorFaixaDePreco(new BigDecimal("10.00"), new BigDecimal("10.00")).isEmpty());
+
+        assertTrue(dao.alterar(new Produto(2, "B", null)));
+        assertEquals(List.of(1), ids(dao.maisBaratos(10)));
+        assertFalse(dao.alterar(new Produto(99, "Inexistente", BigDecimal.ONE)));
+        assertEquals(1, dao.maisBaratos(10).size());
+    }
+
+    @Test
+    @DisplayName("Escritas rejeitadas pelo DAO envolvido não devem alterar o índice")
+    void escritasRejeitadas_NaoDevemAlterarIndice() {
+        dao.insere(new Produto(1, "A", BigDecimal.ONE));
+        assertThrows(IllegalArgumentException.class, () -> dao.insere(new Produto(1, "Duplicado", BigDecimal.TEN)));
+        assertFalse(dao.excluir(2));
+
+        assertEquals(List.of(1), ids(dao.maisCaros(10)));
+        assertEquals(0, BigDecimal.ONE.compareTo(dao.maisCaros(1).get(0).getPreco()));
+    }
+
+    @Test
+    @DisplayName("Deve indexar os produtos que o DAO envolvido já tinha e seguir operações em lote")
+    void construtor_DeveIndexarProdutosExistentes() {
+        ProdutoDAO memoria = new ProdutoMemoryDAO();
+        memoria.insere(new Produto(1, "A", new BigDecimal("3.00")));
+        memoria.insere(new Produto(2, "B", new BigDecimal("1.00")));
+        dao = new ProdutoIndicePrecoDAO(memoria);
+
+        dao.insereTodos(List.of(new Produto(3, "C", new BigDecimal("2.00"))));
+        assertEquals(List.of(2, 3, 1), ids(dao.maisBaratos(3)));
+        assertEquals(2, dao.excluirTodos(new int[]{1, 2}));
+        assertEquals(List.of(3), ids(dao.maisCaros(3)));
+    }
+
+    @Test
+    @DisplayName("Sequência aleatória de operações deve coincidir com a ordenação completa por preço")
+    void operacoesAleatorias_DevemCoincidirComOrdenacaoCompleta() {
+        dao = new ProdutoIndicePrecoDAO(new ProdutoColunarDAO());
+        Map<Integer, Produto> referencia = new TreeMap<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(1_000);
+            Produto produto = new Produto(id, "P" + id, BigDecimal.valueOf(random.nextInt(500), 2));
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    if (referencia.putIfAbsent(id, produto) == null) dao.insere(produto);
+                }
+                case 1 -> assertEquals(referencia.remove(id) != null, dao.excluir(id));
+                default -> assertEquals(referencia.replace(id, produto) != null, dao.alterar(produto));
+            }
+        }
+
+        List<Produto> ordenados = new ArrayList<>(referencia.values());
+        ordenados.sort(Comparator.comparing(Produto::getPreco).thenComparing(Produto::getId));
+        assertEquals(ids(ordenados), ids(dao.maisBaratos(Integer.MAX_VALUE)));
+        assertEquals(ids(ordenados.subList(0, 10)), ids(dao.maisBaratos(10)));
+        assertEquals(ids(ordenados.reversed().subList(0, 10)), ids(dao.maisCaros(10)));
+
+        BigDecimal minimo = new BigDecimal("1.00");
+        BigDecimal maximo = new BigDecimal("2.50");
+        List<Integer> esperado = ordenados.stream()
+                .filter(p -> p.getPreco().compareTo(minimo) >= 0 && p.getPreco().compareTo(maximo) <= 0)
+                .map(Produto::getId).toList();
+        assertEquals(esperado, ids(dao.listarPorFaixaDePreco(minimo, maximo)));
+    }
+}
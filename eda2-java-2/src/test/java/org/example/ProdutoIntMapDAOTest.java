@@ -0,0 +1,188 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProdutoIntMapDAOTest {
+
+    private ProdutoIntMapDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        dao = new ProdutoIntMapDAO();
+    }
+
+    @Test
+    @DisplayName("Deve inserir e pesquisar pelas sobrecargas Integer e int")
+    void insere_QuandoProdutoNovo_DevePermitirPesquisaPorIntEInteger() {
+        Produto produto = new Produto(0, "ID zero", new BigDecimal("10.00"));
+        dao.insere(produto);
+        assertSame(produto, dao.pesquisarPorId(0));
+        assertSame(produto, dao.pesquisarPorId(Integer.valueOf(0)));
+        assertNull(dao.pesquisarPorId(1));
+        assertNull(dao.pesquisarPorId(null));
+    }
+
+    @Test
+    @DisplayName("Não deve inserir produto com ID duplicado e deve lançar exceção")
+    void insere_QuandoIdDuplicado_DeveLancarIllegalArgumentException() {
+        dao.insere(new Produto(1, "Teste 1", new BigDecimal("10.00")));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> dao.insere(new Produto(1, "Teste 2", new BigDecimal("20.00"))));
+        assertEquals("Erro: Já existe um produto com o ID 1.", exception.getMessage());
+        assertEquals(1, dao.tamanho());
+    }
+
+    @Test
+    @DisplayName("Deve listar os produtos ordenados por ID, inclusive negativos")
+    void listarTodos_QuandoHaProdutos_DeveRetornarOrdenadoPorId() {
+        for (int id : new int[]{42, -3, 7, 0, 1_000_000}) {
+            dao.insere(new Produto(id, "P" + id, BigDecimal.ONE));
+        }
+        List<Integer> ids = dao.listarTodos().stream().map(Produto::getId).toList();
+        assertEquals(List.of(-3, 0, 7, 42, 1_000_000), ids);
+    }
+
+    @Test
+    @DisplayName("Deve alterar e excluir somente produtos existentes")
+    void alterarEExcluir_DevemRespeitarExistenciaDoId() {
+        dao.insere(new Produto(5, "Original", new BigDecimal("50.00")));
+
+        assertTrue(dao.alterar(new Produto(5, "Alterado", new BigDecimal("55.50"))));
+        assertEquals("Alterado", dao.pesquisarPorId(5).getNome());
+        assertFalse(dao.alterar(new Produto(6, "Inexistente", BigDecimal.ONE)));
+
+        assertTrue(dao.excluir(5));
+        assertFalse(dao.excluir(5));
+        assertFalse(dao.excluir(null));
+        assertTrue(dao.listarTodos().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Sequência aleatória de operações deve se comportar igual a um TreeMap")
+    void operacoesAleatorias_DevemCoincidirComTreeMap() {
+        Map<Integer, Produto> referencia = new TreeMap<>();
+        Random random = new Random(2024);
+        for (int i = 0; i < 200_000; i++) {
+            int id = random.nextInt(5_000);
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    Produto produto = new Produto(id, "P" + i, BigDecimal.ONE);
+                    if (referencia.putIfAbsent(id, produto) == null) {
+                        dao.insere(produto);
+                    } else {
+                        assertThrows(IllegalArgumentException.class, () -> dao.insere(produto));
+                    }
+                }
+                case 1 -> assertEquals(referencia.remove(id) != null, dao.excluir(id));
+                case 2 -> {
+                    Produto produto = new Produto(id, "A" + i, BigDecimal.TEN);
+                    assertEquals(referencia.replace(id, produto) != null, dao.alterar(produto));
+                }
+                default -> assertSame(referencia.get(id), dao.pesquisarPorId(id));
+            }
+        }
+        assertEquals(new ArrayList<>(referencia.values()), new ArrayList<>(dao.listarTodos()));
+    }
+
+    @Test
+    @DisplayName("A busca por int não deve alocar memória")
+    void pesquisarPorId_ComIntPrimitivo_NaoDeveAlocar() {
+        int total = 100_000;
+        for (int id = 0; id < total; id++) {
+            dao.insere(new Produto(id * 31, "P" + id, BigDecimal.ONE));
+        }
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+
+        long encontrados = 0;
+        long antes = threads.getThreadAllocatedBytes(thread);
+        for (int id = 0; id < total * 31; id++) {
+            if (dao.pesquisarPorId(id) != null) encontrados++;
+        }
+        long alocados = threads.getThreadAllocatedBytes(thread) - antes;
+
+        assertEquals(total, encontrados);
+        // Margem pequena para alocações da própria JVM (ex.: compilação); boxing daria dezenas de MB.
+        assertTrue(alocados < 64 * 1024, "Busca alocou " + alocados + " bytes");
+    }
+
+    @Test
+    @DisplayName("O índice deve custar bem menos que os ~56 bytes por produto do TreeMap")
+    void bytesDoIndice_DeveFicarAbaixoDoCustoDoTreeMap() {
+        int total = 1_000_000;
+        for (int id = 0; id < total; id++) {
+            dao.insere(new Produto(id, null, null));
+        }
+        double bytesPorProduto = (double) dao.bytesDoIndice() / total;
+        assertTrue(bytesPorProduto <= 22, "Índice usa " + bytesPorProduto + " bytes por produto");
+    }
+
+    @Test
+    @DisplayName("Consultas por ordem de ID devem coincidir com um TreeMap, inclusive nos extremos de int")
+    void consultasPorOrdem_DevemCoincidirComTreeMap() {
+        NavigableMap<Integer, Produto> referencia = new TreeMap<>();
+        assertNull(dao.primeiro());
+        assertNull(dao.ultimo());
+        Random random = new Random(11);
+        for (int id : new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE, 0, -1}) {
+            Produto produto = new Produto(id, "Extremo " + id, BigDecimal.ONE);
+            referencia.put(id, produto);
+            dao.insere(produto);
+        }
+        while (referencia.size() < 2_000) {
+            int id = random.nextInt(10_000) - 5_000;
+            if (!referencia.containsKey(id)) {
+                Produto produto = new Produto(id, "P" + id, BigDecimal.ONE);
+                referencia.put(id, produto);
+                dao.insere(produto);
+            }
+        }
+
+        assertEquals(Integer.MIN_VALUE, dao.primeiro().getId());
+        assertEquals(Integer.MAX_VALUE, dao.ultimo().getId());
+        assertNull(dao.proximoApos(Integer.MAX_VALUE));
+        assertEquals(2_000, dao.listarPorFaixaDeId(Integer.MIN_VALUE, Integer.MAX_VALUE).size());
+        assertTrue(dao.pagina(Integer.MAX_VALUE, 10).isEmpty());
+        for (int i = 0; i < 200; i++) {
+            int de = random.nextInt(12_000) - 6_000;
+            int ate = de + random.nextInt(500);
+            assertEquals(List.copyOf(referencia.subMap(de, true, ate, true).keySet()),
+                    dao.listarPorFaixaDeId(de, ate).stream().map(Produto::getId).toList());
+            Integer proximo = referencia.higherKey(de);
+            assertEquals(proximo, dao.proximoApos(de) == null ? null : dao.proximoApos(de).getId());
+            assertEquals(referencia.tailMap(de, false).keySet().stream().limit(25).toList(),
+                    dao.pagina(de, 25).stream().map(Produto::getId).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Stream deve sair em ordem de ID mesmo com a tabela hash fora de ordem")
+    void stream_DeveSairEmOrdemDeId() {
+        Random random = new Random(5);
+        for (int i = 0; i < 3_000; i++) {
+            int id = random.nextInt();
+            if (dao.pesquisarPorId(id) == null) {
+                dao.insere(new Produto(id, "P" + i, BigDecimal.ONE));
+            }
+        }
+
+        List<Integer> ids = dao.stream().map(Produto::getId).toList();
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertEquals(ids, dao.stream().parallel().map(Produto::getId).toList());
+        assertEquals(dao.listarTodos().size(), ids.size());
+    }
+}
@@ -0,0 +1,212 @@
+package org.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ProdutoMappedFileDAOTest {
+
+    @TempDir
+    Path diretorio;
+
+    private ProdutoMappedFileDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        dao = new ProdutoMappedFileDAO(diretorio);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dao.close();
+    }
+
+    private ProdutoMappedFileDAO reabrir() {
+        dao.close();
+        dao = new ProdutoMappedFileDAO(diretorio);
+        return dao;
+    }
+
+    @Test
+    @DisplayName("Deve inserir e pesquisar um produto preservando nome e preço")
+    void insere_QuandoProdutoNovo_DevePermitirPesquisa() {
+        dao.insere(new Produto(1, "Feijão preto", new BigDecimal("10.990")));
+        Produto encontrado = dao.pesquisarPorId(1);
+        assertNotNull(encontrado);
+        assertEquals("Feijão preto", encontrado.getNome());
+        assertEquals(new BigDecimal("10.990"), encontrado.getPreco());
+    }
+
+    @Test
+    @DisplayName("Não deve inserir produto com ID duplicado e deve lançar exceção")
+    void insere_QuandoIdDuplicado_DeveLancarIllegalArgumentException() {
+        dao.insere(new Produto(1, "Teste 1", new BigDecimal("10.00")));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> dao.insere(new Produto(1, "Teste 2", new BigDecimal("20.00"))));
+        assertEquals("Erro: Já existe um produto com o ID 1.", exception.getMessage());
+        assertEquals(1, dao.listarTodos().size());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao tentar inserir produto nulo ou com ID nulo")
+    void insere_QuandoProdutoOuIdNulo_DeveLancarIllegalArgumentException() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> dao.insere(null));
+        assertEquals("Produto ou ID do produto não pode ser nulo.", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> dao.insere(new Produto(null, "Sem ID", BigDecimal.ONE)));
+    }
+
+    @Test
+    @DisplayName("Deve alterar e excluir somente produtos existentes")
+    void alterarEExcluir_DevemRespeitarExistenciaDoId() {
+        dao.insere(new Produto(5, "Curto", new BigDecimal("50.00")));
+
+        assertTrue(dao.alterar(new Produto(5, "Um nome bem mais comprido que o slot original", new BigDecimal("55.50"))));
+        assertEquals("Um nome bem mais comprido que o slot original", dao.pesquisarPorId(5).getNome());
+        assertFalse(dao.alterar(new Produto(6, "Inexistente", BigDecimal.ONE)));
+        assertFalse(dao.alterar(null));
+
+        assertTrue(dao.excluir(5));
+        assertFalse(dao.excluir(5));
+        assertFalse(dao.excluir(null));
+        assertNull(dao.pesquisarPorId(5));
+        assertTrue(dao.listarTodos().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Os produtos devem sobreviver ao fechamento e reabertura do arquivo")
+    void reabrir_DeveRecuperarProdutosAlteracoesEExclusoes() {
+        dao.insere(new Produto(3, "C", new BigDecimal("3.00")));
+        dao.insere(new Produto(1, "A", new BigDecimal("1.00")));
+        dao.insere(new Produto(2, "B", null));
+        dao.insere(new Produto(4, null, new BigDecimal("4.00")));
+        dao.alterar(new Produto(1, "A alterado", new BigDecimal("1.50")));
+        dao.excluir(3);
+
+        reabrir();
+
+        List<Produto> lista = new ArrayList<>(dao.listarTodos());
+        assertEquals(List.of(1, 2, 4), lista.stream().map(Produto::getId).toList());
+        assertEquals("A alterado", lista.get(0).getNome());
+        assertEquals(new BigDecimal("1.50"), lista.get(0).getPreco());
+        assertNull(lista.get(1).getPreco());
+        assertNull(lista.get(2).getNome());
+
+        // O ID duplicado continua sendo detectado depois da reabertura.
+        assertThrows(IllegalArgumentException.class, () -> dao.insere(new Produto(2, "Duplicado", BigDecimal.ONE)));
+        // E o registro excluído pode ser reaproveitado.
+        dao.insere(new Produto(3, "C de novo", new BigDecimal("3.30")));
+        assertEquals("C de novo", reabrir().pesquisarPorId(3).getNome());
+    }
+
+    @Test
+    @DisplayName("Deve crescer os arquivos além da capacidade inicial")
+    void insere_QuandoUltrapassaCapacidadeInicial_DeveRemapearArquivos() {
+        int total = 10_000;
+        for (int id = 0; id < total; id++) {
+            dao.insere(new Produto(id, "Produto número " + id, BigDecimal.valueOf(id, 2)));
+        }
+        reabrir();
+        assertEquals(total, dao.listarTodos().size());
+        assertEquals("Produto número 9999", dao.pesquisarPorId(9_999).getNome());
+        assertEquals(new BigDecimal("99.99"), dao.pesquisarPorId(9_999).getPreco());
+    }
+
+    @Test
+    @DisplayName("Consultas por ordem de ID devem ler só os registros pedidos, também depois de reabrir")
+    void consultasPorOrdem_DepoisDeReabrir_DevemRespeitarOrdemPorId() {
+        for (int id = 10; id >= 1; id--) {
+            dao.insere(new Produto(id, "P" + id, BigDecimal.valueOf(id)));
+        }
+        dao.excluir(5);
+
+        reabrir();
+
+        assertEquals(List.of(4, 6), dao.listarPorFaixaDeId(4, 6).stream().map(Produto::getId).toList());
+        assertEquals("P1", dao.primeiro().getNome());
+        assertEquals("P10", dao.ultimo().getNome());
+        assertEquals(6, dao.proximoApos(4).getId());
+        assertEquals(List.of(7, 8), dao.pagina(6, 2).stream().map(Produto::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Stream deve ler os registros do arquivo sob demanda, em ordem de ID")
+    void stream_DeveLerRegistrosEmOrdemDeId() {
+        for (int id = 300; id >= 1; id--) {
+            dao.insere(new Produto(id, "Produto " + id, BigDecimal.valueOf(id, 2)));
+        }
+        dao.excluir(150);
+
+        assertEquals(dao.listarTodos().toString(), dao.stream().toList().toString());
+        assertEquals(dao.listarTodos().toString(), dao.stream().parallel().toList().toString());
+        assertEquals(List.of(149, 151), dao.stream().map(Produto::getId).filter(id -> id >= 149 && id <= 151).toList());
+    }
+
+    @Test
+    @DisplayName("alterarSeVersao deve conferir a versão gravada no registro, também depois de reabrir")
+    void alterarSeVersao_DepoisDeReabrir_DeveConferirVersaoGravada() {
+        dao.insere(new Produto(1, "Original", BigDecimal.ONE));
+        Produto lido = dao.pesquisarPorId(1);
+        assertEquals(0, lido.getVersao());
+
+        assertTrue(dao.alterarSeVersao(lido.withNome("Primeiro"), 0));
+        assertFalse(dao.alterarSeVersao(lido.withNome("Segundo"), 0));
+
+        reabrir();
+        assertEquals(1, dao.pesquisarPorId(1).getVersao());
+        assertEquals("Primeiro", dao.pesquisarPorId(1).getNome());
+        assertFalse(dao.alterarSeVersao(lido.withNome("Segundo"), 0));
+        assertTrue(dao.alterarSeVersao(dao.pesquisarPorId(1).withNome("Segundo"), 1));
+        assertEquals(2, reabrir().pesquisarPorId(1).getVersao());
+    }
+
+    @Test
+    @DisplayName("Se a abertura falhar, os arquivos já abertos devem ser fechados")
+    void construtor_QuandoArquivoInvalido_DeveFecharOsArquivos() throws IOException {
+        dao.insere(new Produto(1, "Um", BigDecimal.ONE));
+        dao.close();
+        Path nomes = diretorio.resolve(ProdutoMappedFileDAO.ARQUIVO_NOMES);
+        try (FileChannel canal = FileChannel.open(nomes, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(4).putInt(0, 0xBAD), 0);
+        }
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> new ProdutoMappedFileDAO(diretorio));
+        assertEquals("Arquivo nomes.dat inválido ou de versão incompatível.", exception.getMessage());
+        // No Linux, os descritores abertos pelo processo aparecem em /proc/self/fd.
+        Path descritores = Path.of("/proc/self/fd");
+        assumeTrue(Files.isDirectory(descritores));
+        try (Stream<Path> abertos = Files.list(descritores)) {
+            assertTrue(abertos.map(ProdutoMappedFileDAOTest::alvo)
+                    .noneMatch(alvo -> alvo.startsWith(diretorio.toAbsolutePath().toString())));
+        }
+
+        Files.delete(nomes);
+        Files.delete(diretorio.resolve(ProdutoMappedFileDAO.ARQUIVO_PRODUTOS));
+        dao = new ProdutoMappedFileDAO(diretorio);
+        assertNull(dao.pesquisarPorId(1));
+    }
+
+    private static String alvo(Path descritor) {
+        try {
+            return Files.readSymbolicLink(descritor).toString();
+        } catch (IOException e) {
+            return ""; // O descritor foi fechado durante a listagem.
+        }
+    }
+}
@@ -5,9 +5,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List; // Para verificar a ordem se necessário, embora Collection seja suficiente
 import java.util.ArrayList; // Para construir a lista esperada se necessário
+import java.util.ConcurrentModificationException;
+import java.math.MathContext;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -195,4 +198,187 @@ class ProdutoMemoryDAOTest {
         boolean resultado = dao.excluir(null);
         assertFalse(resultado);
     }
+
+    @Test
+    @DisplayName("Deve inserir um lote mesclando com os produtos existentes na ordem de ID")
+    void insereTodos_QuandoLoteValido_DeveMesclarOrdenadoPorId() {
+        dao.insere(new Produto(2, "Existente", new BigDecimal("2.00")));
+        dao.insereTodos(List.of(
+                new Produto(3, "C", new BigDecimal("3.00")),
+                new Produto(1, "A", new BigDecimal("1.00"))));
+        // Segundo lote mesclado a um catálogo que já tem produtos.
+        dao.insereTodos(List.of(new Produto(0, "Zero", BigDecimal.ZERO)));
+
+        List<Produto> lista = new ArrayList<>(dao.listarTodos());
+        assertEquals(List.of(0, 1, 2, 3), lista.stream().map(Produto::getId).toList());
+        assertEquals("Existente", dao.pesquisarPorId(2).getNome());
+        dao.insere(new Produto(4, "Depois do lote", BigDecimal.ONE));
+        assertEquals(5, dao.listarTodos().size());
+    }
+
+    @Test
+    @DisplayName("Não deve inserir nada do lote se algum ID já existir, se repetir ou for nulo")
+    void insereTodos_QuandoLoteInvalido_NaoDeveInserirNenhum() {
+        dao.insere(new Produto(2, "Existente", new BigDecimal("2.00")));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> dao.insereTodos(List.of(
+                new Produto(1, "A", new BigDecimal("1.00")),
+                new Produto(2, "Duplicado", new BigDecimal("2.00")))));
+        assertEquals("Erro: Já existe um produto com o ID 2.", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> dao.insereTodos(List.of(
+                new Produto(5, "A", BigDecimal.ONE), new Produto(5, "Repetido no lote", BigDecimal.ONE))));
+        assertThrows(IllegalArgumentException.class, () -> dao.insereTodos(
+                Arrays.asList(new Produto(6, "A", BigDecimal.ONE), null)));
+
+        assertEquals(1, dao.listarTodos().size());
+    }
+
+    @Test
+    @DisplayName("Deve pesquisar e excluir vários IDs de uma vez")
+    void pesquisarEExcluirPorIds_DevemRespeitarOrdemEExistencia() {
+        Produto produto1 = new Produto(1, "A", new BigDecimal("1.00"));
+        Produto produto3 = new Produto(3, "C", new BigDecimal("3.00"));
+        dao.insereTodos(List.of(produto1, produto3));
+
+        assertEquals(Arrays.asList(produto3, null, produto1), dao.pesquisarPorIds(new int[]{3, 2, 1}));
+        assertEquals(1, dao.excluirTodos(new int[]{3, 4}));
+        assertEquals(1, dao.listarTodos().size());
+    }
+
+    @Test
+    @DisplayName("Deve consultar faixa, extremos e próximo ID direto da ordem por ID")
+    void consultasPorOrdem_DevemRespeitarOrdemPorId() {
+        for (int id : new int[]{40, 10, 30, 20}) {
+            dao.insere(new Produto(id, "P" + id, BigDecimal.ONE));
+        }
+
+        assertEquals(List.of(20, 30), dao.listarPorFaixaDeId(15, 30).stream().map(Produto::getId).toList());
+        assertTrue(dao.listarPorFaixaDeId(30, 15).isEmpty());
+        assertEquals(10, dao.primeiro().getId());
+        assertEquals(40, dao.ultimo().getId());
+        assertEquals(30, dao.proximoApos(20).getId());
+        assertEquals(10, dao.proximoApos(Integer.MIN_VALUE).getId());
+        assertNull(dao.proximoApos(40));
+    }
+
+    @Test
+    @DisplayName("Deve paginar por chave usando o último ID da página anterior")
+    void pagina_DevePercorrerTodosOsProdutosSemRepetir() {
+        for (int id = 1; id <= 7; id++) {
+            dao.insere(new Produto(id, "P" + id, BigDecimal.ONE));
+        }
+
+        List<Integer> vistos = new ArrayList<>();
+        List<Produto> pagina = dao.pagina(null, 3);
+        while (!pagina.isEmpty()) {
+            assertTrue(pagina.size() <= 3);
+            pagina.forEach(p -> vistos.add(p.getId()));
+            pagina = dao.pagina(pagina.get(pagina.size() - 1).getId(), 3);
+        }
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), vistos);
+        assertTrue(dao.pagina(null, 0).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> dao.pagina(null, -1));
+    }
+
+    @Test
+    @DisplayName("Consultas por ordem em DAO vazio devem retornar vazio ou null")
+    void consultasPorOrdem_QuandoVazio_DevemRetornarVazioOuNull() {
+        assertNull(dao.primeiro());
+        assertNull(dao.ultimo());
+        assertNull(dao.proximoApos(0));
+        assertTrue(dao.listarPorFaixaDeId(Integer.MIN_VALUE, Integer.MAX_VALUE).isEmpty());
+        assertTrue(dao.pagina(null, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Stream deve filtrar e agregar em ordem de ID sem copiar, inclusive em paralelo")
+    void stream_DeveFiltrarEAgregarEmOrdemDeId() {
+        for (int id = 1_000; id >= 1; id--) {
+            dao.insere(new Produto(id, "P" + id, BigDecimal.valueOf(id)));
+        }
+
+        assertEquals(List.of(10, 20, 30), dao.stream().filter(p -> p.getId() % 10 == 0).limit(3).map(Produto::getId).toList());
+        assertEquals(BigDecimal.valueOf(500_500), dao.stream().parallel().map(Produto::getPreco).reduce(BigDecimal.ZERO, BigDecimal::add));
+        assertEquals(dao.stream().map(Produto::getId).toList(), dao.stream().parallel().map(Produto::getId).toList());
+        List<Integer> visitados = new ArrayList<>();
+        dao.forEach(p -> visitados.add(p.getId()));
+        assertEquals(1_000, visitados.size());
+        assertEquals(1, visitados.get(0));
+    }
+
+    @Test
+    @DisplayName("Alterar o DAO no meio do forEach deve falhar em vez de pular produtos")
+    void forEach_QuandoDaoAlteradoNoMeio_DeveLancarConcurrentModificationException() {
+        dao.insere(new Produto(1, "A", BigDecimal.ONE));
+        dao.insere(new Produto(2, "B", BigDecimal.ONE));
+
+        assertThrows(ConcurrentModificationException.class,
+                () -> dao.forEach(p -> dao.insere(new Produto(p.getId() + 10, "Novo", BigDecimal.ONE))));
+    }
+
+    @Test
+    @DisplayName("Agregações em paralelo devem ser exatas com escalas variadas, preços nulos e valores além do long")
+    void agregacoes_DevemSerExatasEmParalelo() {
+        BigDecimal esperado = BigDecimal.ZERO;
+        long comPreco = 0;
+        for (int id = 0; id < 100_000; id++) {
+            BigDecimal preco = switch (id % 5) {
+                case 0 -> null;
+                case 1 -> BigDecimal.valueOf(id, 2);
+                case 2 -> BigDecimal.valueOf(id);                    // escala 0
+                case 3 -> BigDecimal.valueOf(id, 4);                 // mais casas que centavos
+                default -> BigDecimal.valueOf(Long.MAX_VALUE - id, 2); // estoura a parcial em long
+            };
+            dao.insere(new Produto(id, "P" + id, preco));
+            if (preco != null) {
+                esperado = esperado.add(preco);
+                comPreco++;
+            }
+        }
+
+        assertEquals(0, esperado.compareTo(dao.somaPrecos()));
+        assertEquals(0, esperado.divide(BigDecimal.valueOf(comPreco), MathContext.DECIMAL128).compareTo(dao.mediaPreco()));
+        assertEquals(20_000, dao.contar(p -> p.getPreco() == null));
+        assertThrows(IllegalArgumentException.class, () -> dao.contar(null));
+    }
+
+    @Test
+    @DisplayName("Histograma deve dividir do menor ao maior preço em faixas de mesma largura")
+    void histogramaPrecos_DeveContarPorFaixa() {
+        assertNull(dao.mediaPreco());
+        assertEquals(0, dao.histogramaPrecos(3).total());
+        assertNull(dao.histogramaPrecos(3).minimo());
+
+        dao.insere(new Produto(1, "A", new BigDecimal("10")));
+        dao.insere(new Produto(2, "B", new BigDecimal("12.49")));
+        dao.insere(new Produto(3, "C", new BigDecimal("12.50")));
+        dao.insere(new Produto(4, "D", new BigDecimal("19.99")));
+        dao.insere(new Produto(5, "E", new BigDecimal("20.00")));
+        dao.insere(new Produto(6, "Sem preço", null));
+
+        // Faixas de 2,51 (10,01 arredondado para cima em 4 partes): [10,00; 12,51) [12,51; 15,02) ...
+        HistogramaPrecos histograma = dao.histogramaPrecos(4);
+        assertEquals(0, new BigDecimal("10").compareTo(histograma.minimo()));
+        assertEquals(new BigDecimal("2.51"), histograma.largura());
+        assertArrayEquals(new long[]{3, 0, 0, 2}, histograma.contagens());
+        assertEquals(0, new BigDecimal("17.53").compareTo(histograma.inicioDaFaixa(3)));
+        assertEquals(5, histograma.total());
+        assertArrayEquals(new long[]{5}, dao.histogramaPrecos(1).contagens());
+        assertThrows(IllegalArgumentException.class, () -> dao.histogramaPrecos(0));
+    }
+
+    @Test
+    @DisplayName("alterarSeVersao deve gravar só quando a versão lida ainda é a atual")
+    void alterarSeVersao_QuandoVersaoDesatualizada_NaoDeveGravar() {
+        dao.insere(new Produto(1, "Original", BigDecimal.ONE));
+        Produto lido = dao.pesquisarPorId(1);
+        assertEquals(0, lido.getVersao());
+
+        assertTrue(dao.alterarSeVersao(lido.withNome("Primeiro"), lido.getVersao()));
+        assertEquals(1, dao.pesquisarPorId(1).getVersao());
+        assertFalse(dao.alterarSeVersao(lido.withNome("Segundo"), lido.getVersao()));
+        assertEquals("Primeiro", dao.pesquisarPorId(1).getNome());
+        assertFalse(dao.alterarSeVersao(new Produto(2, "Inexistente", BigDecimal.ONE), 0));
+        assertFalse(dao.alterarSeVersao(null, 0));
+    }
 }
\ No newline at end of file
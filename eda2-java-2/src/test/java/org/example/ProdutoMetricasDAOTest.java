@@ -0,0 +1,135 @@
+package org.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProdutoMetricasDAOTest {
+
+    private ProdutoMetricasDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        // Cronometra toda chamada, para os percentis não dependerem do sorteio.
+        dao = new ProdutoMetricasDAO(new ProdutoMemoryDAO(), 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dao.close();
+    }
+
+    @Test
+    @DisplayName("Deve contar chamadas e falhas de cada operação sem mudar o resultado do DAO envolvido")
+    void operacoes_DevemSerContadasComFalhas() {
+        dao.insere(new Produto(1, "A", BigDecimal.ONE));
+        dao.insere(new Produto(2, "B", BigDecimal.ONE));
+        assertThrows(IllegalArgumentException.class, () -> dao.insere(new Produto(1, "Duplicado", BigDecimal.ONE)));
+        assertThrows(IllegalArgumentException.class, () -> dao.insere(null));
+        dao.insereTodos(List.of(new Produto(3, "C", BigDecimal.ONE), new Produto(4, "D", BigDecimal.ONE)));
+        assertNotNull(dao.pesquisarPorId(1));
+        assertNull(dao.pesquisarPorId(99));
+        assertTrue(dao.alterar(new Produto(1, "A2", BigDecimal.TEN)));
+        assertFalse(dao.alterar(new Produto(99, "X", BigDecimal.TEN)));
+        assertTrue(dao.excluir(2));
+        assertFalse(dao.excluir(2));
+        assertEquals(3, dao.listarTodos().size());
+
+        assertEquals(4, dao.metricas(ProdutoMetricasDAO.Operacao.INSERE).chamadas());
+        assertEquals(2, dao.metricas(ProdutoMetricasDAO.Operacao.INSERE).falhas());
+        assertEquals(1, dao.metricas(ProdutoMetricasDAO.Operacao.INSERE_TODOS).chamadas());
+        // O insereTodos não passa pelo pesquisarPorId medido.
+        assertEquals(2, dao.metricas(ProdutoMetricasDAO.Operacao.PESQUISAR_POR_ID).chamadas());
+        assertEquals(1, dao.metricas(ProdutoMetricasDAO.Operacao.PESQUISAR_POR_ID).falhas());
+        assertEquals(1, dao.metricas(ProdutoMetricasDAO.Operacao.ALTERAR).falhas());
+        assertEquals(2, dao.metricas(ProdutoMetricasDAO.Operacao.EXCLUIR).chamadas());
+        assertEquals(1, dao.metricas(ProdutoMetricasDAO.Operacao.EXCLUIR).falhas());
+        assertEquals(1, dao.metricas(ProdutoMetricasDAO.Operacao.LISTAR_TODOS).chamadas());
+
+        ProdutoMetricasDAO.Metricas pesquisas = dao.metricas(ProdutoMetricasDAO.Operacao.PESQUISAR_POR_ID);
+        assertTrue(pesquisas.p50() <= pesquisas.p99() && pesquisas.p99() <= pesquisas.p999());
+        assertTrue(pesquisas.maximo() > 0);
+    }
+
+    @Test
+    @DisplayName("Os baldes do histograma devem cobrir todos os valores com erro relativo de até 1/16")
+    void baldes_DevemTerErroRelativoLimitado() {
+        Random random = new Random(3);
+        int anterior = -1;
+        for (long nanos = 0; nanos < 5_000; nanos++) {
+            int balde = ProdutoMetricasDAO.balde(nanos);
+            assertTrue(balde == anterior || balde == anterior + 1, "Balde pulado em " + nanos);
+            anterior = balde;
+        }
+        for (int i = 0; i < 100_000; i++) {
+            long nanos = random.nextLong(1L << 36);
+            long limite = ProdutoMetricasDAO.limiteSuperior(ProdutoMetricasDAO.balde(nanos));
+            assertTrue(limite >= nanos, nanos + " acima do limite " + limite);
+            assertTrue(limite - nanos <= Math.max(0, nanos / 16), nanos + " longe demais de " + limite);
+        }
+        assertEquals(ProdutoMetricasDAO.balde(Long.MAX_VALUE), ProdutoMetricasDAO.balde(1L << 40));
+    }
+
+    @Test
+    @DisplayName("A amostragem deve ser uma potência de 2")
+    void construtor_QuandoAmostragemInvalida_DeveLancarExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> new ProdutoMetricasDAO(new ProdutoMemoryDAO(), 0));
+        assertThrows(IllegalArgumentException.class, () -> new ProdutoMetricasDAO(new ProdutoMemoryDAO(), 6));
+    }
+
+    @Test
+    @DisplayName("Com amostragem, todas as chamadas de várias threads devem ser contadas")
+    void registrar_QuandoConcorrente_NaoDevePerderChamadas() throws Exception {
+        ProdutoMetricasDAO concorrente = new ProdutoMetricasDAO(new ProdutoConcurrentDAO());
+        concorrente.insere(new Produto(1, "A", BigDecimal.ONE));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < 50_000; i++) {
+                        concorrente.pesquisarPorId(i % 2);
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        ProdutoMetricasDAO.Metricas metricas = concorrente.metricas(ProdutoMetricasDAO.Operacao.PESQUISAR_POR_ID);
+        assertEquals(200_000, metricas.chamadas());
+        assertEquals(100_000, metricas.falhas());
+        assertTrue(metricas.maximo() > 0);
+    }
+
+    @Test
+    @DisplayName("O relatório periódico deve listar todas as operações")
+    void agendarRelatorio_DeveEntregarATabela() throws Exception {
+        dao.insere(new Produto(1, "A", BigDecimal.ONE));
+        LinkedBlockingQueue<String> relatorios = new LinkedBlockingQueue<>();
+        dao.agendarRelatorio(Duration.ofMillis(10), relatorios::add);
+
+        String relatorio = relatorios.poll(10, TimeUnit.SECONDS);
+        assertNotNull(relatorio);
+        String[] linhas = relatorio.split(System.lineSeparator());
+        assertEquals(ProdutoMetricasDAO.Operacao.values().length + 1, linhas.length);
+        assertTrue(linhas[0].startsWith("operação"));
+        assertTrue(linhas[1].matches("insere\\s+1\\s+0\\s+\\d+.*"), linhas[1]);
+    }
+}
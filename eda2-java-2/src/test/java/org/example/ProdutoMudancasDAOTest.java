@@ -0,0 +1,271 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProdutoMudancasDAOTest {
+
+    private static final int THREADS = 8;
+
+    /** Assinante que anota tudo o que recebe e só pede o que o teste mandar. */
+    private static class Assinante implements Flow.Subscriber<ProdutoMudancasDAO.Mudanca> {
+        final List<ProdutoMudancasDAO.Mudanca> recebidas = new ArrayList<>();
+        final AtomicReference<Throwable> erro = new AtomicReference<>();
+        final CountDownLatch terminou = new CountDownLatch(1);
+        Flow.Subscription assinatura;
+
+        @Override
+        public void onSubscribe(Flow.Subscription assinatura) {
+            this.assinatura = assinatura;
+        }
+
+        @Override
+        public void onNext(ProdutoMudancasDAO.Mudanca mudanca) {
+            recebidas.add(mudanca);
+        }
+
+        @Override
+        public void onError(Throwable erro) {
+            this.erro.set(erro);
+            terminou.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            terminou.countDown();
+        }
+
+        List<Long> sequencias() {
+            return recebidas.stream().map(ProdutoMudancasDAO.Mudanca::sequencia).toList();
+        }
+    }
+
+    // Entregas na própria thread: cada escrita já chega ao assinante quando o método retorna.
+    private static ProdutoMudancasDAO novoDao(int capacidade) {
+        return new ProdutoMudancasDAO(new ProdutoMemoryDAO(), capacidade, Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Cada escrita bem-sucedida deve virar uma mudança numerada, com o valor anterior e o novo")
+    void escritas_DevemPublicarMudancasEmOrdem() {
+        ProdutoMudancasDAO dao = novoDao(16);
+        Assinante assinante = new Assinante();
+        dao.subscribe(assinante);
+        assinante.assinatura.request(Long.MAX_VALUE);
+
+        Produto original = new Produto(1, "Teste", BigDecimal.ONE);
+        Produto alterado = new Produto(1, "Alterado", BigDecimal.TEN);
+        dao.insere(original);
+        assertTrue(dao.alterar(alterado));
+        assertFalse(dao.alterar(new Produto(2, "Inexistente", BigDecimal.ONE)));
+        assertThrows(IllegalArgumentException.class, () -> dao.insere(new Produto(1, "Duplicado", BigDecimal.ONE)));
+        dao.insereTodos(List.of(new Produto(3, "C", BigDecimal.ONE), new Produto(2, "B", BigDecimal.ONE)));
+        assertTrue(dao.excluir(1));
+        assertFalse(dao.excluir(1));
+
+        assertNull(assinante.erro.get());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), assinante.sequencias());
+        assertEquals(5, dao.ultimaSequencia());
+        ProdutoMudancasDAO.Mudanca alteracao = assinante.recebidas.get(1);
+        assertEquals(ProdutoMudancasDAO.Tipo.ALTERACAO, alteracao.tipo());
+        assertSame(original, alteracao.anterior());
+        assertSame(alterado, alteracao.atual());
+        assertEquals(List.of(2, 3), assinante.recebidas.subList(2, 4).stream().map(ProdutoMudancasDAO.Mudanca::id).toList());
+        ProdutoMudancasDAO.Mudanca exclusao = assinante.recebidas.get(4);
+        assertEquals(ProdutoMudancasDAO.Tipo.EXCLUSAO, exclusao.tipo());
+        assertSame(alterado, exclusao.anterior());
+        assertNull(exclusao.atual());
+    }
+
+    @Test
+    @DisplayName("O assinante deve receber só a quantidade que pediu")
+    void request_DeveLimitarAsEntregas() {
+        ProdutoMudancasDAO dao = novoDao(16);
+        Assinante assinante = new Assinante();
+        dao.subscribe(assinante);
+        for (int id = 0; id < 10; id++) {
+            dao.insere(new Produto(id, "P" + id, BigDecimal.ONE));
+        }
+        assertTrue(assinante.recebidas.isEmpty());
+
+        assinante.assinatura.request(3);
+        assertEquals(List.of(1L, 2L, 3L), assinante.sequencias());
+        assinante.assinatura.request(4);
+        assertEquals(7, assinante.recebidas.size());
+
+        assinante.assinatura.cancel();
+        assinante.assinatura.request(10);
+        assertEquals(7, assinante.recebidas.size());
+    }
+
+    @Test
+    @DisplayName("Deve retomar a partir de uma sequência ainda guardada no buffer")
+    void subscribe_QuandoRetomando_DeveEntregarAPartirDaSequencia() {
+        ProdutoMudancasDAO dao = novoDao(8);
+        for (int id = 0; id < 6; id++) {
+            dao.insere(new Produto(id, "P" + id, BigDecimal.ONE));
+        }
+        Assinante retomado = new Assinante();
+        dao.subscribe(retomado, 3);
+        retomado.assinatura.request(Long.MAX_VALUE);
+        assertEquals(List.of(4L, 5L, 6L), retomado.sequencias());
+
+        Assinante desdeOInicio = new Assinante();
+        dao.subscribe(desdeOInicio, 0);
+        desdeOInicio.assinatura.request(Long.MAX_VALUE);
+        assertEquals(6, desdeOInicio.recebidas.size());
+        assertNull(desdeOInicio.erro.get());
+    }
+
+    @Test
+    @DisplayName("Retomar de uma sequência que já saiu do buffer deve falhar")
+    void subscribe_QuandoSequenciaForaDoBuffer_DeveFalhar() {
+        ProdutoMudancasDAO dao = novoDao(4);
+        for (int id = 0; id < 10; id++) {
+            dao.insere(new Produto(id, "P" + id, BigDecimal.ONE));
+        }
+        Assinante antigo = new Assinante();
+        dao.subscribe(antigo, 2);
+        assertInstanceOf(IllegalStateException.class, antigo.erro.get());
+
+        Assinante futuro = new Assinante();
+        dao.subscribe(futuro, 11);
+        assertInstanceOf(IllegalArgumentException.class, futuro.erro.get());
+
+        Assinante noLimite = new Assinante();
+        dao.subscribe(noLimite, 6);
+        noLimite.assinatura.request(Long.MAX_VALUE);
+        assertEquals(List.of(7L, 8L, 9L, 10L), noLimite.sequencias());
+    }
+
+    @Test
+    @DisplayName("Assinante que fica mais atrás do que o buffer deve receber erro, sem travar as escritas")
+    void assinanteLento_DeveReceberErro() {
+        ProdutoMudancasDAO dao = novoDao(4);
+        Assinante lento = new Assinante();
+        dao.subscribe(lento);
+        lento.assinatura.request(1);
+        for (int id = 0; id < 10; id++) {
+            dao.insere(new Produto(id, "P" + id, BigDecimal.ONE));
+        }
+        assertEquals(10, dao.listarTodos().size());
+
+        lento.assinatura.request(100);
+        assertEquals(List.of(1L), lento.sequencias());
+        assertInstanceOf(IllegalStateException.class, lento.erro.get());
+    }
+
+    @Test
+    @DisplayName("Assinante que lança exceção no onNext deve ser cancelado e receber o erro, sem afetar os outros")
+    void onNext_QuandoLancaExcecao_DeveCancelarAssinatura() {
+        ProdutoMudancasDAO dao = novoDao(16);
+        RuntimeException defeito = new RuntimeException("defeito no assinante");
+        Assinante quebrado = new Assinante() {
+            @Override
+            public void onNext(ProdutoMudancasDAO.Mudanca mudanca) {
+                super.onNext(mudanca);
+                if (recebidas.size() == 2) {
+                    throw defeito;
+                }
+            }
+        };
+        Assinante saudavel = new Assinante();
+        dao.subscribe(quebrado);
+        dao.subscribe(saudavel);
+        quebrado.assinatura.request(Long.MAX_VALUE);
+        saudavel.assinatura.request(Long.MAX_VALUE);
+
+        for (int id = 0; id < 5; id++) {
+            dao.insere(new Produto(id, "P" + id, BigDecimal.ONE));
+        }
+
+        assertEquals(2, quebrado.recebidas.size());
+        assertSame(defeito, quebrado.erro.get());
+        assertEquals(5, saudavel.recebidas.size());
+        assertNull(saudavel.erro.get());
+    }
+
+    @Test
+    @DisplayName("Pedido não positivo deve encerrar a assinatura com erro")
+    void request_QuandoNaoPositivo_DeveFalhar() {
+        ProdutoMudancasDAO dao = novoDao(4);
+        Assinante assinante = new Assinante();
+        dao.subscribe(assinante);
+        assinante.assinatura.request(0);
+        assertInstanceOf(IllegalArgumentException.class, assinante.erro.get());
+    }
+
+    @Test
+    @DisplayName("Depois do close, as escritas falham e o assinante recebe onComplete ao terminar o que falta")
+    void close_DeveRecusarEscritasECompletarAssinantes() throws Exception {
+        ProdutoMudancasDAO dao = novoDao(16);
+        Assinante assinante = new Assinante();
+        dao.subscribe(assinante);
+        dao.insere(new Produto(1, "A", BigDecimal.ONE));
+        dao.insere(new Produto(2, "B", BigDecimal.ONE));
+        dao.close();
+
+        assertThrows(IllegalStateException.class, () -> dao.insere(new Produto(3, "Tarde", BigDecimal.ONE)));
+        assertThrows(IllegalStateException.class, () -> dao.excluir(1));
+        assertEquals(1, assinante.terminou.getCount());
+
+        assinante.assinatura.request(2);
+        assertTrue(assinante.terminou.await(10, TimeUnit.SECONDS));
+        assertNull(assinante.erro.get());
+        assertEquals(2, assinante.recebidas.size());
+    }
+
+    @Test
+    @DisplayName("Com escritas concorrentes, o assinante deve receber todas as mudanças, em sequência")
+    void escritasConcorrentes_DevemChegarTodasEmOrdem() throws Exception {
+        ProdutoMudancasDAO dao = new ProdutoMudancasDAO(new ProdutoConcurrentDAO());
+        Assinante assinante = new Assinante() {
+            @Override
+            public void onSubscribe(Flow.Subscription assinatura) {
+                super.onSubscribe(assinatura);
+                assinatura.request(Long.MAX_VALUE);
+            }
+        };
+        dao.subscribe(assinante);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int inicio = t * 2_000;
+                tarefas.add(executor.submit(() -> {
+                    for (int id = inicio; id < inicio + 2_000; id++) {
+                        dao.insere(new Produto(id, "P" + id, BigDecimal.ONE));
+                        Produto lido = dao.pesquisarPorId(id);
+                        assertTrue(dao.alterarSeVersao(lido.withNome("Alterado"), lido.getVersao()));
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        dao.close();
+
+        assertTrue(assinante.terminou.await(1, TimeUnit.MINUTES));
+        assertNull(assinante.erro.get());
+        assertEquals(THREADS * 4_000, assinante.recebidas.size());
+        for (int i = 0; i < assinante.recebidas.size(); i++) {
+            assertEquals(i + 1, assinante.recebidas.get(i).sequencia());
+        }
+    }
+}
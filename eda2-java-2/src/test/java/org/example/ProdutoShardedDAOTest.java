@@ -0,0 +1,244 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProdutoShardedDAOTest {
+
+    private static final int THREADS = 8;
+
+    private ProdutoShardedDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        dao = new ProdutoShardedDAO(4, ProdutoMemoryDAO::new);
+    }
+
+    private static List<Integer> ids(List<Produto> produtos) {
+        return produtos.stream().map(Produto::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Operações por ID devem seguir o contrato do DAO")
+    void operacoesPorId_DevemSeguirContratoDoDao() {
+        Produto produto = new Produto(1, "Teste", new BigDecimal("10.00"));
+        dao.insere(produto);
+        assertSame(produto, dao.pesquisarPorId(1));
+        assertSame(produto, dao.pesquisarPorId(Integer.valueOf(1)));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> dao.insere(new Produto(1, "Outro", BigDecimal.ONE)));
+        assertEquals("Erro: Já existe um produto com o ID 1.", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> dao.insere(null));
+        assertThrows(IllegalArgumentException.class, () -> dao.insere(new Produto(null, "Sem ID", BigDecimal.ONE)));
+
+        assertTrue(dao.alterar(new Produto(1, "Alterado", BigDecimal.TEN)));
+        assertEquals("Alterado", dao.pesquisarPorId(1).getNome());
+        assertFalse(dao.alterar(new Produto(2, "Inexistente", BigDecimal.ONE)));
+        assertFalse(dao.alterar(null));
+        assertNull(dao.pesquisarPorId((Integer) null));
+
+        assertTrue(dao.excluir(1));
+        assertFalse(dao.excluir(1));
+        assertFalse(dao.excluir((Integer) null));
+        assertTrue(dao.listarTodos().isEmpty());
+    }
+
+    @Test
+    @DisplayName("IDs sequenciais devem se espalhar por todas as partições")
+    void particao_QuandoIdsSequenciais_DeveEspalhar() {
+        int[] contagem = new int[dao.quantidadeDeParticoes()];
+        for (int id = 0; id < 10_000; id++) {
+            contagem[dao.particao(id)]++;
+        }
+        for (int quantidade : contagem) {
+            assertTrue(quantidade > 2_000 && quantidade < 3_000, "Partição desbalanceada: " + quantidade);
+        }
+    }
+
+    @Test
+    @DisplayName("Consultas em ordem de ID devem dar o mesmo resultado do ProdutoMemoryDAO")
+    void consultasOrdenadas_DevemIgualarProdutoMemoryDAO() {
+        ProdutoDAO referencia = new ProdutoMemoryDAO();
+        Random random = new Random(19);
+        for (int i = 0; i < 2_000; i++) {
+            int id = random.nextInt(5_000) - 1_000;
+            if (referencia.pesquisarPorId(id) == null) {
+                Produto produto = new Produto(id, "P" + id, BigDecimal.valueOf(id));
+                referencia.insere(produto);
+                dao.insere(produto);
+            }
+        }
+
+        assertEquals(ids(new ArrayList<>(referencia.listarTodos())), ids(new ArrayList<>(dao.listarTodos())));
+        assertEquals(ids(referencia.listarPorFaixaDeId(-50, 700)), ids(dao.listarPorFaixaDeId(-50, 700)));
+        assertTrue(dao.listarPorFaixaDeId(10, 5).isEmpty());
+        assertEquals(referencia.primeiro(), dao.primeiro());
+        assertEquals(referencia.ultimo(), dao.ultimo());
+        for (int id = -1_100; id < 4_100; id += 37) {
+            assertEquals(referencia.proximoApos(id), dao.proximoApos(id));
+        }
+
+        List<Integer> paginadas = new ArrayList<>();
+        Integer apos = null;
+        List<Produto> pagina;
+        while (!(pagina = dao.pagina(apos, 25)).isEmpty()) {
+            assertEquals(ids(referencia.pagina(apos, 25)), ids(pagina));
+            paginadas.addAll(ids(pagina));
+            apos = pagina.get(pagina.size() - 1).getId();
+        }
+        assertEquals(ids(new ArrayList<>(referencia.listarTodos())), paginadas);
+        assertTrue(dao.pagina(null, 0).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> dao.pagina(null, -1));
+        assertEquals(referencia.somaPrecos(), dao.somaPrecos());
+    }
+
+    @Test
+    @DisplayName("DAO vazio não deve ter primeiro, último nem próximo")
+    void navegacao_QuandoVazio_DeveRetornarNull() {
+        assertNull(dao.primeiro());
+        assertNull(dao.ultimo());
+        assertNull(dao.proximoApos(0));
+        assertTrue(dao.pagina(null, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("insereTodos com ID já existente em uma partição não deve inserir nada em nenhuma")
+    void insereTodos_QuandoIdExistente_NaoDeveInserirNada() {
+        dao.insere(new Produto(7, "Existente", BigDecimal.ONE));
+        List<Produto> lote = new ArrayList<>();
+        for (int id = 0; id < 100; id++) {
+            lote.add(new Produto(id, "P" + id, BigDecimal.ONE));
+        }
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> dao.insereTodos(lote));
+        assertEquals("Erro: Já existe um produto com o ID 7.", exception.getMessage());
+        assertEquals(1, dao.listarTodos().size());
+
+        lote.remove(7);
+        dao.insereTodos(lote);
+        assertEquals(100, dao.listarTodos().size());
+    }
+
+    @Test
+    @DisplayName("Um lote grande deve ser repartido e inserido por inteiro")
+    void insereTodos_QuandoLoteGrande_DeveInserirTodos() {
+        List<Produto> lote = new ArrayList<>();
+        for (int id = 50_000; id > 0; id--) {
+            lote.add(new Produto(id, "P" + id, BigDecimal.ONE));
+        }
+        dao.insereTodos(lote);
+        assertEquals(50_000, dao.listarTodos().size());
+        assertEquals(1, dao.primeiro().getId());
+        assertEquals(50_000, dao.ultimo().getId());
+    }
+
+    @Test
+    @DisplayName("Inserções concorrentes em todas as partições devem ser todas gravadas")
+    void insere_QuandoConcorrente_DeveGravarTodas() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int inicio = t * 10_000;
+                tarefas.add(executor.submit(() -> {
+                    for (int id = inicio; id < inicio + 10_000; id++) {
+                        dao.insere(new Produto(id, "P" + id, BigDecimal.ONE));
+                        assertNotNull(dao.pesquisarPorId(id));
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        List<Produto> todos = new ArrayList<>(dao.listarTodos());
+        assertEquals(THREADS * 10_000, todos.size());
+        Set<Integer> distintos = new HashSet<>(ids(todos));
+        assertEquals(todos.size(), distintos.size());
+    }
+
+    @Test
+    @DisplayName("Deve recusar quantidade de partições inválida ou fábrica nula")
+    void construtor_QuandoParametrosInvalidos_DeveLancarExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> new ProdutoShardedDAO(0, ProdutoMemoryDAO::new));
+        assertThrows(IllegalArgumentException.class, () -> new ProdutoShardedDAO(2, null));
+        assertEquals(Runtime.getRuntime().availableProcessors(), new ProdutoShardedDAO().quantidadeDeParticoes());
+    }
+
+    @Test
+    @DisplayName("alterarSeVersao concorrente não deve perder atualizações")
+    void alterarSeVersao_QuandoConcorrente_NaoDevePerderAtualizacoes() throws Exception {
+        dao.insere(new Produto(1, "Contador", BigDecimal.ZERO));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        Produto lido;
+                        do {
+                            lido = dao.pesquisarPorId(1);
+                        } while (!dao.alterarSeVersao(lido.withPreco(lido.getPreco().add(BigDecimal.ONE)), lido.getVersao()));
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(BigDecimal.valueOf(THREADS * 1_000), dao.pesquisarPorId(1).getPreco());
+        assertEquals(THREADS * 1_000, dao.pesquisarPorId(1).getVersao());
+    }
+
+    /** Partição em arquivo de mentira: conta os fechamentos e falha com IOException ao fechar. */
+    private static final class ParticaoQueFalhaAoFechar extends ProdutoMemoryDAO implements AutoCloseable {
+        private final List<Integer> fechadas;
+        private final int numero;
+
+        ParticaoQueFalhaAoFechar(List<Integer> fechadas, int numero) {
+            this.fechadas = fechadas;
+            this.numero = numero;
+        }
+
+        @Override
+        public void close() throws IOException {
+            fechadas.add(numero);
+            throw new IOException("disco " + numero);
+        }
+    }
+
+    @Test
+    @DisplayName("close deve fechar todas as partições e lançar a primeira falha como exceção não verificada")
+    void close_QuandoParticoesFalham_DeveFecharTodasELancarPrimeiraFalha() {
+        List<Integer> fechadas = new ArrayList<>();
+        int[] proxima = {0};
+        ProdutoShardedDAO comArquivos = new ProdutoShardedDAO(3,
+                () -> new ParticaoQueFalhaAoFechar(fechadas, proxima[0]++));
+
+        UncheckedIOException exception = assertThrows(UncheckedIOException.class, comArquivos::close);
+
+        assertEquals(List.of(0, 1, 2), fechadas);
+        assertEquals("disco 0", exception.getCause().getMessage());
+        assertEquals(2, exception.getSuppressed().length);
+    }
+}
@@ -0,0 +1,248 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.Spliterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProdutoSnapshotDAOTest {
+
+    private ProdutoSnapshotDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        dao = new ProdutoSnapshotDAO();
+    }
+
+    private static List<Integer> ids(Collection<Produto> produtos) {
+        return produtos.stream().map(Produto::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Deve inserir, alterar e excluir com as mesmas regras dos outros DAOs")
+    void operacoesBasicas_DevemSeguirContratoDoDao() {
+        Produto produto = new Produto(1, "Teste", new BigDecimal("10.00"));
+        dao.insere(produto);
+        assertSame(produto, dao.pesquisarPorId(1));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> dao.insere(new Produto(1, "Duplicado", BigDecimal.ONE)));
+        assertEquals("Erro: Já existe um produto com o ID 1.", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> dao.insere(null));
+        assertThrows(IllegalArgumentException.class, () -> dao.insere(new Produto(null, "Sem ID", BigDecimal.ONE)));
+
+        assertTrue(dao.alterar(produto.withNome("Alterado")));
+        assertEquals("Alterado", dao.pesquisarPorId(1).getNome());
+        assertEquals("Teste", produto.getNome());
+        assertFalse(dao.alterar(new Produto(99, "Inexistente", BigDecimal.ONE)));
+        assertFalse(dao.alterar(null));
+
+        assertTrue(dao.excluir(1));
+        assertFalse(dao.excluir(1));
+        assertFalse(dao.excluir(null));
+        assertNull(dao.pesquisarPorId((Integer) null));
+        assertTrue(dao.listarTodos().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Uma listagem obtida antes de uma escrita não deve enxergar a escrita")
+    void listarTodos_QuandoHaEscritaDepois_DeveManterVersaoAntiga() {
+        for (int id = 1; id <= 5; id++) {
+            dao.insere(new Produto(id, "P" + id, BigDecimal.ONE));
+        }
+        Collection<Produto> antes = dao.listarTodos();
+        Iterator<Produto> percorrendo = dao.listarTodos().iterator();
+        percorrendo.next();
+
+        dao.excluir(2);
+        dao.insere(new Produto(6, "P6", BigDecimal.ONE));
+        dao.alterar(new Produto(3, "Alterado", BigDecimal.TEN));
+
+        assertEquals(List.of(1, 2, 3, 4, 5), ids(antes));
+        assertEquals("P3", antes.stream().filter(p -> p.getId() == 3).findFirst().orElseThrow().getNome());
+        assertEquals(2, percorrendo.next().getId());
+        assertEquals(List.of(1, 3, 4, 5, 6), ids(dao.listarTodos()));
+        assertEquals(((ProdutoSnapshotDAO.Snapshot) antes).versao() + 3, dao.snapshot().versao());
+    }
+
+    @Test
+    @DisplayName("A listagem deve ser somente leitura")
+    void listarTodos_DeveSerSomenteLeitura() {
+        dao.insere(new Produto(1, "A", BigDecimal.ONE));
+        Collection<Produto> todos = dao.listarTodos();
+
+        assertThrows(UnsupportedOperationException.class, () -> todos.add(new Produto(2, "B", BigDecimal.ONE)));
+        assertThrows(UnsupportedOperationException.class, todos::clear);
+        assertTrue(todos.contains(new Produto(1, "Qualquer nome", null)));
+        assertEquals(1, dao.listarTodos().size());
+    }
+
+    @Test
+    @DisplayName("Lotes devem entrar e sair em uma única versão, tudo ou nada")
+    void operacoesEmLote_DevemPublicarUmaVersao() {
+        dao.insere(new Produto(2, "Existente", BigDecimal.ONE));
+        long versao = dao.snapshot().versao();
+
+        assertThrows(IllegalArgumentException.class, () -> dao.insereTodos(List.of(
+                new Produto(1, "A", BigDecimal.ONE), new Produto(2, "B", BigDecimal.ONE))));
+        assertEquals(List.of(2), ids(dao.listarTodos()));
+        assertEquals(versao, dao.snapshot().versao());
+
+        dao.insereTodos(List.of(new Produto(3, "C", BigDecimal.ONE), new Produto(1, "A", BigDecimal.ONE)));
+        assertEquals(versao + 1, dao.snapshot().versao());
+        assertEquals(List.of(1, 2, 3), ids(dao.listarTodos()));
+
+        assertEquals(2, dao.excluirTodos(new int[]{1, 3, 7}));
+        assertEquals(versao + 2, dao.snapshot().versao());
+        assertEquals(0, dao.excluirTodos(new int[]{7}));
+        assertEquals(versao + 2, dao.snapshot().versao());
+    }
+
+    @Test
+    @DisplayName("Sequência aleatória de operações deve coincidir com um TreeMap, inclusive na navegação por ID")
+    void operacoesAleatorias_DevemCoincidirComTreeMap() {
+        TreeMap<Integer, Produto> referencia = new TreeMap<>();
+        Random random = new Random(12);
+        for (int i = 0; i < 50_000; i++) {
+            int id = random.nextInt(2_000) - 1_000;
+            Produto produto = new Produto(id, "P" + i, BigDecimal.ONE);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    if (referencia.putIfAbsent(id, produto) == null) dao.insere(produto);
+                }
+                case 1 -> assertEquals(referencia.remove(id) != null, dao.excluir(id));
+                default -> assertEquals(referencia.replace(id, produto) != null, dao.alterar(produto));
+            }
+        }
+
+        // toString compara também nome e preço, não só o ID.
+        assertEquals(referencia.values().toString(), dao.listarTodos().toString());
+        assertEquals(referencia.size(), dao.listarTodos().size());
+        assertEquals(referencia.firstEntry().getValue(), dao.primeiro());
+        assertEquals(referencia.lastEntry().getValue(), dao.ultimo());
+        assertEquals(ids(referencia.subMap(-100, true, 250, true).values()), ids(dao.listarPorFaixaDeId(-100, 250)));
+        assertEquals(referencia.higherKey(17), dao.proximoApos(17).getId());
+        assertNull(dao.proximoApos(Integer.MAX_VALUE));
+        assertEquals(ids(referencia.tailMap(0, false).values()).subList(0, 20), ids(dao.pagina(0, 20)));
+        assertEquals(ids(referencia.values()).subList(0, 3), ids(dao.pagina(null, 3)));
+        assertTrue(dao.pagina(null, 0).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> dao.pagina(null, -1));
+    }
+
+    @Test
+    @DisplayName("Leitores concorrentes devem sempre ver versões completas enquanto um escritor troca lotes")
+    void leiturasConcorrentes_DevemVerVersoesConsistentes() throws Exception {
+        int porLote = 100;
+        List<Produto> lote = new ArrayList<>();
+        int[] idsDoLote = new int[porLote];
+        for (int id = 0; id < porLote; id++) {
+            lote.add(new Produto(id, "P" + id, BigDecimal.ONE));
+            idsDoLote[id] = id;
+        }
+        AtomicBoolean parar = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> escritor = executor.submit(() -> {
+                try {
+                    for (int i = 0; i < 2_000; i++) {
+                        dao.insereTodos(lote);
+                        assertEquals(porLote, dao.excluirTodos(idsDoLote));
+                    }
+                } finally {
+                    parar.set(true);
+                }
+            });
+            List<Future<?>> leitores = new ArrayList<>();
+            for (int t = 0; t < 3; t++) {
+                leitores.add(executor.submit(() -> {
+                    while (!parar.get()) {
+                        Collection<Produto> todos = dao.listarTodos();
+                        int contados = 0;
+                        for (Produto ignorado : todos) {
+                            contados++;
+                        }
+                        // Cada versão tem o lote inteiro ou nenhum produto dele.
+                        assertTrue(contados == 0 || contados == porLote, "Versão parcial com " + contados);
+                        assertEquals(todos.size(), contados);
+                    }
+                }));
+            }
+            escritor.get(1, TimeUnit.MINUTES);
+            for (Future<?> leitor : leitores) {
+                leitor.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(dao.listarTodos().isEmpty());
+    }
+
+    @Test
+    @DisplayName("O spliterator deve se dividir pela árvore, cobrir todos os produtos e ignorar escritas posteriores")
+    void spliterator_DeveDividirCobrindoTodosSemEnxergarEscritas() {
+        List<Produto> lote = new ArrayList<>();
+        for (int id = 0; id < 10_000; id++) {
+            lote.add(new Produto(id * 2, "P" + id, BigDecimal.ONE));
+        }
+        dao.insereTodos(lote);
+
+        Spliterator<Produto> resto = dao.spliterator();
+        assertEquals(10_000, resto.getExactSizeIfKnown());
+        Spliterator<Produto> prefixo = resto.trySplit();
+        assertNotNull(prefixo);
+        List<Integer> ids = new ArrayList<>();
+        prefixo.forEachRemaining(p -> ids.add(p.getId()));
+        int tamanhoDoPrefixo = ids.size();
+        dao.excluirTodos(new int[]{0, 19_998});
+        dao.insere(new Produto(-1, "Depois", BigDecimal.ONE));
+        resto.forEachRemaining(p -> ids.add(p.getId()));
+
+        // As duas metades ficam equilibradas e, juntas, são a versão de quando o spliterator foi criado.
+        assertTrue(tamanhoDoPrefixo > 3_000 && tamanhoDoPrefixo < 7_000, "Prefixo com " + tamanhoDoPrefixo);
+        assertEquals(ids(lote), ids);
+        assertEquals(ids(dao.listarTodos()), dao.stream().parallel().map(Produto::getId).toList());
+        assertEquals(9_998, dao.stream().parallel().filter(p -> p.getId() >= 0).count());
+    }
+
+    @Test
+    @DisplayName("alterarSeVersao concorrente não deve perder atualizações")
+    void alterarSeVersao_QuandoConcorrente_NaoDevePerderAtualizacoes() throws Exception {
+        dao.insere(new Produto(1, "Contador", BigDecimal.ZERO));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        Produto lido;
+                        do {
+                            lido = dao.pesquisarPorId(1);
+                        } while (!dao.alterarSeVersao(lido.withPreco(lido.getPreco().add(BigDecimal.ONE)), lido.getVersao()));
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(BigDecimal.valueOf(8 * 1_000), dao.pesquisarPorId(1).getPreco());
+        assertEquals(8 * 1_000, dao.pesquisarPorId(1).getVersao());
+    }
+}
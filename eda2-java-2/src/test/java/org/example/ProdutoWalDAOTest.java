@@ -0,0 +1,268 @@
+package org.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProdutoWalDAOTest {
+
+    @TempDir
+    Path diretorio;
+
+    private ProdutoWalDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        dao = ProdutoWalDAO.recuperar(diretorio);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dao.close();
+    }
+
+    private ProdutoWalDAO reabrir() {
+        dao.close();
+        dao = ProdutoWalDAO.recuperar(diretorio);
+        return dao;
+    }
+
+    @Test
+    @DisplayName("Inserções, alterações e exclusões devem ser recuperadas do log")
+    void reabrir_DeveReaplicarTodasAsEscritasDoLog() {
+        dao.insere(new Produto(1, "Arroz", new BigDecimal("10.50")));
+        dao.insere(new Produto(2, "Feijão", new BigDecimal("8.99")));
+        dao.insere(new Produto(3, null, null));
+        dao.alterar(new Produto(1, "Arroz integral", new BigDecimal("12.345")));
+        dao.excluir(2);
+
+        reabrir();
+
+        List<Produto> lista = new ArrayList<>(dao.listarTodos());
+        assertEquals(List.of(1, 3), lista.stream().map(Produto::getId).toList());
+        assertEquals("Arroz integral", lista.get(0).getNome());
+        assertEquals(new BigDecimal("12.345"), lista.get(0).getPreco());
+        assertNull(lista.get(1).getNome());
+        assertNull(lista.get(1).getPreco());
+    }
+
+    @Test
+    @DisplayName("Preço com valor sem escala de mais de 255 bytes deve ser recuperado igual")
+    void reabrir_QuandoPrecoGrande_DeveRecuperarOMesmoValor() {
+        BigDecimal grande = new BigDecimal(BigInteger.ONE.shiftLeft(300 * 8).subtract(BigInteger.ONE), 7);
+        dao.insere(new Produto(1, "Caro", grande));
+        dao.insere(new Produto(2, "Depois", BigDecimal.ONE));
+
+        reabrir();
+
+        assertEquals(grande, dao.pesquisarPorId(1).getPreco());
+        assertEquals("Depois", dao.pesquisarPorId(2).getNome());
+        dao.snapshot();
+        reabrir();
+        assertEquals(grande, dao.pesquisarPorId(1).getPreco());
+    }
+
+    @Test
+    @DisplayName("A versão dos produtos deve ser recuperada do log e do snapshot, e o alterarSeVersao deve conferi-la")
+    void alterarSeVersao_DepoisDeReabrir_DeveConferirVersaoRecuperada() {
+        dao.insere(new Produto(1, "Original", BigDecimal.ONE));
+        dao.insere(new Produto(2, "Outro", BigDecimal.ONE, 7));
+        Produto lido = dao.pesquisarPorId(1);
+        assertTrue(dao.alterarSeVersao(lido.withNome("Primeiro"), 0));
+        assertFalse(dao.alterarSeVersao(lido.withNome("Segundo"), 0));
+        assertTrue(dao.alterarSeVersao(dao.pesquisarPorId(1).withNome("Segundo"), 1));
+
+        reabrir();
+        assertEquals(2, dao.pesquisarPorId(1).getVersao());
+        assertEquals(7, dao.pesquisarPorId(2).getVersao());
+        assertFalse(dao.alterarSeVersao(lido.withNome("Atrasado"), 0));
+        assertTrue(dao.alterarSeVersao(dao.pesquisarPorId(1).withNome("Terceiro"), 2));
+
+        dao.snapshot();
+        reabrir();
+        assertEquals(3, dao.pesquisarPorId(1).getVersao());
+        assertEquals("Terceiro", dao.pesquisarPorId(1).getNome());
+        assertEquals(7, dao.pesquisarPorId(2).getVersao());
+    }
+
+    @Test
+    @DisplayName("A recuperação deve ler o log em blocos, com registros cruzando blocos e maiores que um bloco")
+    void reabrir_QuandoLogMaiorQueUmBloco_DeveReaplicarTodosOsRegistros() {
+        String nomeGrande = "x".repeat(200_000);
+        List<Produto> lote = new ArrayList<>();
+        for (int id = 0; id < 5_000; id++) {
+            lote.add(new Produto(id, "Produto " + id, BigDecimal.valueOf(id, 2)));
+            if (id == 2_500) {
+                lote.add(new Produto(-1, nomeGrande, BigDecimal.ONE));
+            }
+        }
+        dao.insereTodos(lote);
+        assertTrue(dao.tamanhoDoLog() > 4 * 64 * 1024);
+
+        reabrir();
+
+        assertEquals(5_001, dao.listarTodos().size());
+        assertEquals(nomeGrande, dao.pesquisarPorId(-1).getNome());
+        assertEquals("Produto 4999", dao.pesquisarPorId(4_999).getNome());
+    }
+
+    @Test
+    @DisplayName("Se a recuperação falhar, o arquivo do log deve ser fechado")
+    void recuperar_QuandoLogInvalido_DeveFecharOArquivo() throws IOException {
+        dao.insere(new Produto(1, "Um", BigDecimal.ONE));
+        dao.close();
+        Path arquivo = diretorio.resolve(ProdutoWalDAO.ARQUIVO_LOG);
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(4).putInt(0, 0xBAD), 0);
+        }
+
+        UncheckedIOException exception = assertThrows(UncheckedIOException.class, () -> ProdutoWalDAO.recuperar(diretorio));
+        assertTrue(exception.getCause().getMessage().startsWith("Log de produtos inválido"));
+        // Com o canal fechado, o arquivo pode ser apagado e o diretório recuperado do zero (no Windows, um canal
+        // esquecido aberto impediria a exclusão).
+        Files.delete(arquivo);
+        dao = ProdutoWalDAO.recuperar(diretorio);
+        assertNull(dao.pesquisarPorId(1));
+    }
+
+    @Test
+    @DisplayName("Escritas rejeitadas pelo DAO não devem ir para o log")
+    void escritasRejeitadas_NaoDevemSerRegistradas() {
+        dao.insere(new Produto(1, "Original", BigDecimal.ONE));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> dao.insere(new Produto(1, "Duplicado", BigDecimal.TEN)));
+        assertEquals("Erro: Já existe um produto com o ID 1.", exception.getMessage());
+        assertFalse(dao.alterar(new Produto(2, "Inexistente", BigDecimal.ONE)));
+        assertFalse(dao.excluir(2));
+        long tamanho = dao.tamanhoDoLog();
+
+        reabrir();
+
+        assertEquals(tamanho, dao.tamanhoDoLog());
+        assertEquals(1, dao.listarTodos().size());
+        assertEquals("Original", dao.pesquisarPorId(1).getNome());
+    }
+
+    @Test
+    @DisplayName("Um registro incompleto no fim do log deve ser descartado na recuperação")
+    void reabrir_QuandoUltimoRegistroIncompleto_DeveDescartarApenasEle() throws IOException {
+        dao.insere(new Produto(1, "Completo", BigDecimal.ONE));
+        dao.insere(new Produto(2, "Cortado", BigDecimal.TEN));
+        dao.close();
+
+        // Simula uma queda no meio da gravação do último registro.
+        try (FileChannel canal = FileChannel.open(diretorio.resolve(ProdutoWalDAO.ARQUIVO_LOG), StandardOpenOption.WRITE)) {
+            canal.truncate(canal.size() - 3);
+        }
+        dao = ProdutoWalDAO.recuperar(diretorio);
+
+        assertNotNull(dao.pesquisarPorId(1));
+        assertNull(dao.pesquisarPorId(2));
+        // O log continua utilizável depois do descarte.
+        dao.insere(new Produto(2, "Regravado", BigDecimal.TEN));
+        assertEquals("Regravado", reabrir().pesquisarPorId(2).getNome());
+    }
+
+    @Test
+    @DisplayName("O snapshot deve truncar o log e a recuperação deve combinar snapshot e log")
+    void snapshot_DeveTruncarLogEManterRecuperacaoCompleta() {
+        for (int id = 0; id < 1_000; id++) {
+            dao.insere(new Produto(id, "Produto " + id, BigDecimal.valueOf(id, 2)));
+        }
+        assertTrue(dao.tamanhoDoLog() > 0);
+
+        dao.snapshot();
+        assertEquals(ProdutoWalDAO.CABECALHO_ARQUIVO, dao.tamanhoDoLog());
+
+        dao.excluir(0);
+        dao.alterar(new Produto(1, "Depois do snapshot", BigDecimal.ONE));
+        dao.insere(new Produto(5_000, "Novo", BigDecimal.TEN));
+
+        reabrir();
+
+        assertEquals(1_000, dao.listarTodos().size());
+        assertNull(dao.pesquisarPorId(0));
+        assertEquals("Depois do snapshot", dao.pesquisarPorId(1).getNome());
+        assertEquals("Produto 999", dao.pesquisarPorId(999).getNome());
+        assertNotNull(dao.pesquisarPorId(5_000));
+    }
+
+    @Test
+    @DisplayName("Escritores concorrentes devem ser gravados em lotes sem perder registros")
+    void insere_ComVariasThreads_DeveAgruparCommitsSemPerderRegistros() throws Exception {
+        dao.close();
+        dao = new ProdutoWalDAO(new ProdutoConcurrentDAO(), diretorio, Duration.ofMillis(5), 64);
+
+        int threads = 8;
+        int porThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> tarefas = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < porThread; i++) {
+                        int id = thread * porThread + i;
+                        dao.insere(new Produto(id, "P" + id, BigDecimal.ONE));
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        reabrir();
+        assertEquals(threads * porThread, dao.listarTodos().size());
+    }
+
+    @Test
+    @DisplayName("Não deve aceitar escritas depois de fechado")
+    void insere_QuandoFechado_DeveLancarIllegalStateException() {
+        dao.close();
+        assertThrows(IllegalStateException.class, () -> dao.insere(new Produto(1, "Tarde demais", BigDecimal.ONE)));
+        dao = ProdutoWalDAO.recuperar(diretorio);
+        assertTrue(dao.listarTodos().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Inserções e exclusões em lote devem ser recuperadas do log")
+    void lotes_DevemSerRecuperadosDoLog() {
+        List<Produto> lote = new ArrayList<>();
+        for (int id = 0; id < 100; id++) {
+            lote.add(new Produto(id, "P" + id, BigDecimal.ONE));
+        }
+        dao.insereTodos(lote);
+        assertEquals(2, dao.excluirTodos(new int[]{10, 20, 500}));
+        assertThrows(IllegalArgumentException.class, () -> dao.insereTodos(List.of(new Produto(1, "Duplicado", BigDecimal.ONE))));
+
+        reabrir();
+
+        assertEquals(98, dao.listarTodos().size());
+        assertNull(dao.pesquisarPorId(10));
+        assertEquals("P1", dao.pesquisarPorId(1).getNome());
+    }
+}
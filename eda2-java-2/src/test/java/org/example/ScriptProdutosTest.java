@@ -0,0 +1,128 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptProdutosTest {
+
+    private ProdutoBuscaNomeDAO dao;
+    private StringWriter saida;
+    private StringWriter erros;
+
+    @BeforeEach
+    void setUp() {
+        dao = new ProdutoBuscaNomeDAO(new ProdutoMemoryDAO());
+        saida = new StringWriter();
+        erros = new StringWriter();
+    }
+
+    private int executar(String script) {
+        return new ScriptProdutos(dao, new PrintWriter(saida), new PrintWriter(erros))
+                .executar(new BufferedReader(new StringReader(script)));
+    }
+
+    private List<Integer> ids() {
+        return dao.listarTodos().stream().map(Produto::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Um script válido deve executar todos os comandos e sair com código 0")
+    void executar_QuandoScriptValido_DeveExecutarTudo() {
+        int codigo = executar("""
+                # carga inicial
+                insere 1;Arroz;10.50
+                insere 2;Pão de queijo;3.00
+                insere 3;Sem preço;
+
+                altera 1;Arroz integral;12.00
+                exclui 3
+                pesquisa 2
+                busca pao de q
+                lista
+                """);
+
+        assertEquals(ScriptProdutos.SUCESSO, codigo);
+        assertEquals(List.of(1, 2), ids());
+        assertEquals("Arroz integral", dao.pesquisarPorId(1).getNome());
+        assertEquals(new BigDecimal("12.00"), dao.pesquisarPorId(1).getPreco());
+        Produto pao = dao.pesquisarPorId(2);
+        assertEquals(String.join(System.lineSeparator(), pao.toString(), pao.toString(),
+                dao.pesquisarPorId(1).toString(), pao.toString(), ""), saida.toString());
+        assertEquals("8 comandos executados, 0 com falha." + System.lineSeparator(), erros.toString());
+    }
+
+    @Test
+    @DisplayName("Falhas devem ser informadas com a linha, sem interromper o script, e sair com código 1")
+    void executar_QuandoComandoFalha_DeveContinuarESairComCodigo1() {
+        int codigo = executar("""
+                insere 1;A;1.00
+                insere 2;B;1.00
+                insere 1;Duplicado;1.00
+                insere 3;C;1.00
+                exclui 9
+                altera 9;X;1.00
+                pesquisa 9
+                """);
+
+        assertEquals(ScriptProdutos.FALHA, codigo);
+        // O lote com o ID repetido foi refeito um a um: os válidos foram gravados.
+        assertEquals(List.of(1, 2, 3), ids());
+        assertEquals("A", dao.pesquisarPorId(1).getNome());
+        String relatorio = erros.toString();
+        assertTrue(relatorio.contains("Linha 3: Erro: Já existe um produto com o ID 1."), relatorio);
+        assertTrue(relatorio.contains("Linha 5: Produto com ID 9 não encontrado."), relatorio);
+        assertTrue(relatorio.contains("Linha 6: Produto com ID 9 não encontrado."), relatorio);
+        assertTrue(relatorio.contains("Linha 7: Produto com ID 9 não encontrado."), relatorio);
+        assertTrue(relatorio.contains("3 comandos executados, 4 com falha."), relatorio);
+    }
+
+    @Test
+    @DisplayName("Comandos inválidos devem sair com código 2, executando os demais")
+    void executar_QuandoSintaxeInvalida_DeveSairComCodigo2() {
+        int codigo = executar("""
+                apaga 1
+                insere x;A;1.00
+                insere 1;A;1,00
+                insere 1;sem preço
+                insere 2;Nome; com; ponto e vírgula;5
+                """);
+
+        assertEquals(ScriptProdutos.ERRO_DE_SINTAXE, codigo);
+        assertEquals(List.of(2), ids());
+        assertEquals("Nome; com; ponto e vírgula", dao.pesquisarPorId(2).getNome());
+        String relatorio = erros.toString();
+        assertTrue(relatorio.contains("Linha 1: comando desconhecido 'apaga'."), relatorio);
+        assertTrue(relatorio.contains("Linha 2: ID inválido 'x'."), relatorio);
+        assertTrue(relatorio.contains("Linha 3: preço inválido '1,00'."), relatorio);
+        assertTrue(relatorio.contains("Linha 4: esperado id;nome;preco."), relatorio);
+    }
+
+    @Test
+    @DisplayName("Milhares de inserções devem ir em lotes e ser vistas pelos comandos seguintes")
+    void executar_QuandoMuitasInsercoes_DeveGravarAntesDoProximoComando(@TempDir Path diretorio) {
+        StringBuilder script = new StringBuilder();
+        for (int id = 0; id < 25_000; id++) {
+            script.append("insere ").append(id).append(";Produto ").append(id).append(";1.00\n");
+        }
+        Path arquivo = diretorio.resolve("produtos.csv");
+        script.append("exclui 24999\n").append("exporta ").append(arquivo).append('\n');
+
+        assertEquals(ScriptProdutos.SUCESSO, executar(script.toString()));
+        assertEquals(24_999, dao.listarTodos().size());
+
+        ProdutoDAO importado = new ProdutoMemoryDAO();
+        assertEquals(24_999, ArquivoProdutos.importarCsv(arquivo, importado));
+    }
+}
@@ -0,0 +1,172 @@
+package org.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServidorProdutosTest {
+
+    private ProdutoConcurrentDAO dao;
+    private ServidorProdutos servidor;
+    private HttpClient cliente;
+
+    @BeforeEach
+    void setUp() {
+        dao = new ProdutoConcurrentDAO();
+        servidor = new ServidorProdutos(dao, 0);
+        cliente = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.close();
+    }
+
+    private HttpResponse<String> enviar(String metodo, String caminho, String corpo) throws Exception {
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + servidor.porta() + caminho))
+                .method(metodo, corpo == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+        return cliente.send(requisicao, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    @DisplayName("Inserir, pesquisar, alterar e excluir devem seguir o contrato do DAO com os status HTTP")
+    void crud_DeveSeguirContratoDoDaoComStatusHttp() throws Exception {
+        HttpResponse<String> criado = enviar("POST", "/produtos", "{\"id\": 1, \"nome\": \"Pão \\\"francês\\\"\", \"preco\": 0.50}");
+        assertEquals(201, criado.statusCode());
+        assertEquals("/produtos/1", criado.headers().firstValue("Location").orElseThrow());
+        assertEquals("Pão \"francês\"", dao.pesquisarPorId(1).getNome());
+        assertEquals(new BigDecimal("0.50"), dao.pesquisarPorId(1).getPreco());
+
+        HttpResponse<String> duplicado = enviar("POST", "/produtos", "{\"id\":1,\"nome\":\"Outro\",\"preco\":1}");
+        assertEquals(409, duplicado.statusCode());
+        assertEquals("{\"erro\":\"Erro: Já existe um produto com o ID 1.\"}", duplicado.body());
+
+        HttpResponse<String> encontrado = enviar("GET", "/produtos/1", null);
+        assertEquals(200, encontrado.statusCode());
+        assertEquals("{\"id\":1,\"nome\":\"Pão \\\"francês\\\"\",\"preco\":0.50}", encontrado.body());
+        assertTrue(encontrado.headers().firstValue("Content-Type").orElseThrow().startsWith("application/json"));
+
+        assertEquals(200, enviar("PUT", "/produtos/1", "{\"nome\":\"Pão\",\"preco\":\"0.75\"}").statusCode());
+        assertEquals(new BigDecimal("0.75"), dao.pesquisarPorId(1).getPreco());
+        assertEquals(404, enviar("PUT", "/produtos/2", "{\"nome\":\"X\",\"preco\":1}").statusCode());
+        assertEquals(400, enviar("PUT", "/produtos/1", "{\"id\":2,\"nome\":\"X\",\"preco\":1}").statusCode());
+
+        assertEquals(204, enviar("DELETE", "/produtos/1", null).statusCode());
+        assertEquals(404, enviar("DELETE", "/produtos/1", null).statusCode());
+        HttpResponse<String> inexistente = enviar("GET", "/produtos/1", null);
+        assertEquals(404, inexistente.statusCode());
+        assertEquals("{\"erro\":\"Produto com ID 1 não encontrado.\"}", inexistente.body());
+    }
+
+    @Test
+    @DisplayName("Requisições inválidas devem responder 400, 404 ou 405 com o erro em JSON")
+    void requisicoesInvalidas_DevemResponderComErro() throws Exception {
+        assertEquals(400, enviar("POST", "/produtos", "{\"nome\":\"Sem ID\"}").statusCode());
+        assertEquals(400, enviar("POST", "/produtos", "{\"id\":1,\"cor\":\"azul\"}").statusCode());
+        assertEquals(400, enviar("POST", "/produtos", "{\"id\":1.5}").statusCode());
+        assertEquals(400, enviar("POST", "/produtos", "{\"id\":1,\"nome\":\"sem fechar}").statusCode());
+        assertEquals(400, enviar("GET", "/produtos/abc", null).statusCode());
+        assertEquals(400, enviar("GET", "/produtos?limite=-1", null).statusCode());
+        assertEquals(400, enviar("GET", "/produtos?limite=100000", null).statusCode());
+        assertEquals(404, enviar("GET", "/produtosx", null).statusCode());
+        HttpResponse<String> naoPermitido = enviar("PATCH", "/produtos/1", "{}");
+        assertEquals(405, naoPermitido.statusCode());
+        assertEquals("GET, PUT, DELETE", naoPermitido.headers().firstValue("Allow").orElseThrow());
+        assertTrue(dao.listarTodos().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Preço com escala ou dígitos demais deve responder 400 e não ser gravado")
+    void inserir_QuandoPrecoForaDoIntervalo_DeveResponder400() throws Exception {
+        for (String preco : new String[]{"1e999999999", "1e-999999999", "\"1E+2147483648\"", "1e19",
+                "1.0000000000000000001", "123456789012345678901234567890123456789"}) {
+            HttpResponse<String> resposta = enviar("POST", "/produtos", "{\"id\":1,\"preco\":" + preco + "}");
+            assertEquals(400, resposta.statusCode(), preco);
+            assertTrue(resposta.body().contains("preço fora do intervalo"), resposta.body());
+        }
+        assertTrue(dao.listarTodos().isEmpty());
+
+        assertEquals(201, enviar("POST", "/produtos", "{\"id\":1,\"preco\":92233720368547758.07}").statusCode());
+        assertEquals(201, enviar("POST", "/produtos", "{\"id\":2,\"preco\":1E+3}").statusCode());
+        assertEquals(200, enviar("GET", "/produtos", null).statusCode());
+    }
+
+    @Test
+    @DisplayName("A listagem deve paginar por ID e indicar o próximo cursor")
+    void listar_DevePaginarPorId() throws Exception {
+        for (int id = 1; id <= 5; id++) {
+            dao.insere(new Produto(id, "P" + id, id == 3 ? null : BigDecimal.valueOf(id)));
+        }
+
+        HttpResponse<String> primeira = enviar("GET", "/produtos?limite=2", null);
+        assertEquals("{\"produtos\":[{\"id\":1,\"nome\":\"P1\",\"preco\":1},{\"id\":2,\"nome\":\"P2\",\"preco\":2}],"
+                + "\"proximo\":2}", primeira.body());
+        HttpResponse<String> ultima = enviar("GET", "/produtos?apos=2&limite=10", null);
+        assertEquals("{\"produtos\":[{\"id\":3,\"nome\":\"P3\",\"preco\":null},{\"id\":4,\"nome\":\"P4\",\"preco\":4},"
+                + "{\"id\":5,\"nome\":\"P5\",\"preco\":5}],\"proximo\":null}", ultima.body());
+    }
+
+    @Test
+    @DisplayName("Várias requisições devem reaproveitar a mesma conexão (keep-alive)")
+    void conexao_DeveSerReaproveitadaEntreRequisicoes() throws Exception {
+        dao.insere(new Produto(1, "A", BigDecimal.ONE));
+        try (Socket socket = new Socket("localhost", servidor.porta())) {
+            OutputStream saida = socket.getOutputStream();
+            BufferedReader entrada = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            for (int i = 0; i < 3; i++) {
+                saida.write("GET /produtos/1 HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                saida.flush();
+                assertEquals("HTTP/1.1 200 OK", entrada.readLine());
+                int tamanho = -1;
+                String cabecalho;
+                while (!(cabecalho = entrada.readLine()).isEmpty()) {
+                    if (cabecalho.toLowerCase().startsWith("content-length:")) {
+                        tamanho = Integer.parseInt(cabecalho.substring(15).strip());
+                    }
+                }
+                char[] corpo = new char[tamanho];
+                assertEquals(tamanho, entrada.read(corpo));
+                assertEquals("{\"id\":1,\"nome\":\"A\",\"preco\":1}", new String(corpo));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Inserções concorrentes de muitos clientes devem ser todas gravadas")
+    void inserir_QuandoConcorrente_DeveGravarTodas() throws Exception {
+        ExecutorService clientes = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> status = new ArrayList<>();
+            for (int id = 0; id < 400; id++) {
+                String corpo = "{\"id\":" + id + ",\"nome\":\"P" + id + "\",\"preco\":1.00}";
+                status.add(clientes.submit(() -> enviar("POST", "/produtos", corpo).statusCode()));
+            }
+            for (Future<Integer> resposta : status) {
+                assertEquals(201, resposta.get());
+            }
+        } finally {
+            clientes.shutdownNow();
+        }
+        assertEquals(400, dao.listarTodos().size());
+    }
+}
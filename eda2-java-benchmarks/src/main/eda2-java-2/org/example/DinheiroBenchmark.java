@@ -0,0 +1,117 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Preços em {@link BigDecimal} contra centavos em {@code long} ({@link Dinheiro}) nos três usos do caminho quente:
+ * somar um catálogo, comparar cada preço com um limite (o que um filtro ou um índice por preço faz) e ler o preço
+ * digitado. Os preços são aleatórios com 2 casas, metade deles com escala 1 ou 0 (como {@code 10.5} ou
+ * {@code 10}), que é o que o {@code compareTo} do BigDecimal encontra na prática.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class DinheiroBenchmark {
+
+    @Param({"100000"})
+    public int tamanho;
+
+    private BigDecimal[] precos;
+    private long[] centavos;
+    private BigDecimal limite;
+    private long limiteCentavos;
+    private String[] digitados;
+
+    @Setup(Level.Trial)
+    public void carregar() {
+        Random random = new Random(23);
+        precos = new BigDecimal[tamanho];
+        centavos = new long[tamanho];
+        digitados = new String[1024];
+        for (int i = 0; i < tamanho; i++) {
+            BigDecimal preco = BigDecimal.valueOf(random.nextInt(1_000_000), 2);
+            if (random.nextBoolean()) {
+                preco = preco.stripTrailingZeros();
+            }
+            precos[i] = preco;
+            centavos[i] = Dinheiro.deBigDecimalExato(preco);
+        }
+        for (int i = 0; i < digitados.length; i++) {
+            digitados[i] = precos[i].toPlainString().replace('.', ',');
+        }
+        limite = new BigDecimal("5000.00");
+        limiteCentavos = Dinheiro.deBigDecimalExato(limite);
+    }
+
+    @Benchmark
+    public BigDecimal somaBigDecimal() {
+        BigDecimal soma = BigDecimal.ZERO;
+        for (BigDecimal preco : precos) {
+            soma = soma.add(preco);
+        }
+        return soma;
+    }
+
+    @Benchmark
+    public BigDecimal somaCentavos() {
+        long soma = 0;
+        for (long preco : centavos) {
+            soma += preco;
+        }
+        return Dinheiro.paraBigDecimal(soma);
+    }
+
+    @Benchmark
+    public int compararBigDecimal() {
+        int acima = 0;
+        for (BigDecimal preco : precos) {
+            if (preco.compareTo(limite) > 0) acima++;
+        }
+        return acima;
+    }
+
+    @Benchmark
+    public int compararCentavos() {
+        int acima = 0;
+        for (long preco : centavos) {
+            if (preco > limiteCentavos) acima++;
+        }
+        return acima;
+    }
+
+    @Benchmark
+    public BigDecimal parseBigDecimal() {
+        BigDecimal ultimo = null;
+        for (String texto : digitados) {
+            ultimo = new BigDecimal(texto.replace(',', '.'));
+        }
+        return ultimo;
+    }
+
+    @Benchmark
+    public long parseCentavos() {
+        long soma = 0;
+        for (String texto : digitados) {
+            soma += Dinheiro.parse(texto);
+        }
+        return soma;
+    }
+}
@@ -0,0 +1,85 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agregações de preço em paralelo ({@link ProdutoDAO#somaPrecos()} e companhia) contra a soma sequencial de
+ * antes ({@code listarTodos()} e um {@code reduce} de BigDecimal em uma thread).
+ * <p>
+ * O paralelismo é o do ForkJoinPool comum; para medir a escala por núcleo, repita com
+ * {@code -jvmArgsAppend -Djava.util.concurrent.ForkJoinPool.common.parallelism=N}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ProdutoAgregacaoBenchmark {
+
+    @Param({"ProdutoMemoryDAO", "ProdutoSnapshotDAO", "ProdutoColunarDAO", "ProdutoIntMapDAO"})
+    public String implementacao;
+
+    @Param({"1000000", "10000000"})
+    public int tamanho;
+
+    private ProdutoDAO dao;
+
+    @Setup(Level.Trial)
+    public void carregar() throws Exception {
+        dao = FabricaDAO.criar(implementacao);
+        FabricaDAO.preencher(dao, tamanho);
+        // A carga embaralhada espalha os nós pelo heap; sem um GC antes, só os benchmarks que alocam (e por isso
+        // disparam GCs, que compactam o que está vivo na ordem de percurso) medem com os nós já próximos.
+        System.gc();
+    }
+
+    @TearDown(Level.Trial)
+    public void fechar() throws Exception {
+        FabricaDAO.fechar(dao);
+    }
+
+    @Benchmark
+    public BigDecimal somaSequencialComListarTodos() {
+        BigDecimal soma = BigDecimal.ZERO;
+        for (Produto produto : dao.listarTodos()) {
+            soma = soma.add(produto.getPreco());
+        }
+        return soma;
+    }
+
+    @Benchmark
+    public BigDecimal somaPrecos() {
+        return dao.somaPrecos();
+    }
+
+    @Benchmark
+    public BigDecimal mediaPreco() {
+        return dao.mediaPreco();
+    }
+
+    @Benchmark
+    public HistogramaPrecos histogramaDezFaixas() {
+        return dao.histogramaPrecos(10);
+    }
+
+    @Benchmark
+    public long contarIdsPares() {
+        return dao.contar(produto -> (produto.getId() & 1) == 0);
+    }
+}
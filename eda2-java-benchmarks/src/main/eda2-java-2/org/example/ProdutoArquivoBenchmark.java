@@ -0,0 +1,85 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importação e exportação em lote ({@link ArquivoProdutos}) do catálogo inteiro, em CSV e no formato binário.
+ * <p>
+ * Cada medida é uma carga completa ({@code SingleShotTime}) para um {@link ProdutoMemoryDAO} vazio; a meta é
+ * importar 10 milhões de linhas em menos de 10 s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ProdutoArquivoBenchmark {
+
+    @Param({"csv", "binario"})
+    public String formato;
+
+    @Param({"1000000", "10000000"})
+    public int tamanho;
+
+    private Path diretorio;
+    private Path arquivo;
+    private ProdutoDAO origem;
+    private ProdutoDAO destino;
+
+    @Setup(Level.Trial)
+    public void gerarArquivo() throws IOException {
+        diretorio = Files.createTempDirectory("benchmark-arquivo");
+        arquivo = diretorio.resolve("produtos." + formato);
+        origem = new ProdutoMemoryDAO();
+        FabricaDAO.preencher(origem, tamanho);
+        exportar(arquivo);
+    }
+
+    @Setup(Level.Iteration)
+    public void novoDestino() {
+        destino = null;
+        System.gc(); // Libera o DAO da iteração anterior antes de medir a próxima carga.
+        destino = new ProdutoMemoryDAO();
+    }
+
+    @TearDown(Level.Trial)
+    public void apagar() throws IOException {
+        Files.deleteIfExists(arquivo);
+        Files.deleteIfExists(diretorio.resolve("exportado." + formato));
+        Files.delete(diretorio);
+    }
+
+    @Benchmark
+    public long importar() {
+        return formato.equals("csv") ? ArquivoProdutos.importarCsv(arquivo, destino)
+                : ArquivoProdutos.importarBinario(arquivo, destino);
+    }
+
+    @Benchmark
+    public long exportar() {
+        return exportar(diretorio.resolve("exportado." + formato));
+    }
+
+    private long exportar(Path saida) {
+        return formato.equals("csv") ? ArquivoProdutos.exportarCsv(origem, saida)
+                : ArquivoProdutos.exportarBinario(origem, saida);
+    }
+}
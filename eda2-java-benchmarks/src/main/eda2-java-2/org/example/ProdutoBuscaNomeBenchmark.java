@@ -0,0 +1,96 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca por nome com o {@link ProdutoBuscaNomeDAO}, comparada com a varredura de {@code listarTodos()} que o
+ * menu fazia antes. Os nomes combinam três palavras de um vocabulário fixo mais uma marca numerada, para
+ * haver termos muito comuns e termos raros.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ProdutoBuscaNomeBenchmark {
+    private static final String[] PALAVRAS = {
+            "Arroz", "Feijão", "Pão", "Café", "Leite", "Açúcar", "Farinha", "Óleo", "Macarrão", "Queijo",
+            "Integral", "Carioca", "Francês", "Torrado", "Desnatado", "Cristal", "Trigo", "Soja", "Parafuso", "Minas",
+            "Orgânico", "Light", "Tradicional", "Premium", "Econômico", "Pacote", "Caixa", "Garrafa", "Lata", "Granel"};
+
+    @Param({"100000", "1000000"})
+    public int tamanho;
+
+    private ProdutoBuscaNomeDAO dao;
+    private String[] consultas;
+    private int proxima;
+
+    @Setup(Level.Trial)
+    public void carregar() {
+        dao = new ProdutoBuscaNomeDAO(new ProdutoMemoryDAO());
+        SplittableRandom random = new SplittableRandom(42);
+        List<Produto> lote = new ArrayList<>(tamanho);
+        for (int id = 0; id < tamanho; id++) {
+            String nome = PALAVRAS[random.nextInt(10)] + " " + PALAVRAS[10 + random.nextInt(10)] + " "
+                    + PALAVRAS[20 + random.nextInt(10)] + " Marca" + random.nextInt(10_000);
+            lote.add(new Produto(id, nome, BigDecimal.ONE));
+        }
+        dao.insereTodos(lote);
+        consultas = new String[1024];
+        for (int i = 0; i < consultas.length; i++) {
+            String palavra = PALAVRAS[random.nextInt(10)];
+            String marca = "marca" + random.nextInt(10_000);
+            consultas[i] = switch (i % 3) {
+                case 0 -> palavra.substring(0, 3);                  // digitando: prefixo de termo comum
+                case 1 -> palavra + " " + PALAVRAS[10 + random.nextInt(10)].substring(0, 2); // dois termos
+                default -> palavra + " " + marca.substring(0, 7);   // termo comum + prefixo raro
+            };
+        }
+    }
+
+    private String proximaConsulta() {
+        proxima = (proxima + 1) & (consultas.length - 1);
+        return consultas[proxima];
+    }
+
+    @Benchmark
+    public List<Produto> buscarVintePrimeiros() {
+        return dao.buscarPorNome(proximaConsulta(), 20);
+    }
+
+    @Benchmark
+    public List<String> autocompletar() {
+        return dao.autocompletar(proximaConsulta(), 10);
+    }
+
+    /** O que o menu faria sem índice: varrer todos os nomes com contains. */
+    @Benchmark
+    public List<Produto> varreduraSemIndice() {
+        String consulta = proximaConsulta().toLowerCase();
+        List<Produto> encontrados = new ArrayList<>();
+        for (Produto produto : dao.listarTodos()) {
+            if (produto.getNome().toLowerCase().contains(consulta) && encontrados.size() < 20) {
+                encontrados.add(produto);
+            }
+        }
+        return encontrados;
+    }
+}
@@ -0,0 +1,90 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ProdutoCacheDAO} com 4 threads lendo IDs em distribuição de Zipf (poucos produtos muito procurados),
+ * na frente de um {@link ProdutoMappedFileDAO}. O cache comporta 10% do catálogo. A taxa de acerto de cada
+ * iteração é impressa no fim dela.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ProdutoCacheBenchmark {
+    private static final int AMOSTRAS = 1 << 20;
+
+    @Param({"LRU", "W_TINY_LFU"})
+    public ProdutoCacheDAO.Politica politica;
+
+    @Param({"100000", "1000000"})
+    public int tamanho;
+
+    @Param({"1.0", "1.2"})
+    public double expoenteZipf;
+
+    private ProdutoDAO disco;
+    private ProdutoCacheDAO cache;
+    private int[] sequencia;
+
+    @Setup(Level.Trial)
+    public void carregar() throws Exception {
+        disco = FabricaDAO.criar("ProdutoMappedFileDAO");
+        int[] ids = FabricaDAO.preencher(disco, tamanho);
+        cache = new ProdutoCacheDAO(disco, politica, tamanho / 10);
+        sequencia = zipf(ids, expoenteZipf);
+    }
+
+    @TearDown(Level.Iteration)
+    public void imprimirTaxa() {
+        System.out.printf("%n  taxa de acerto acumulada: %.2f%%%n", cache.estatisticas().taxaDeAcerto() * 100);
+    }
+
+    @TearDown(Level.Trial)
+    public void fechar() throws Exception {
+        FabricaDAO.fechar(disco);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Produto pesquisarPorId() {
+        return cache.pesquisarPorId(sequencia[ThreadLocalRandom.current().nextInt(AMOSTRAS)]);
+    }
+
+    // Sorteia AMOSTRAS posições com probabilidade proporcional a 1/posição^s; a posição i vira o ID ids[i].
+    private static int[] zipf(int[] ids, double expoente) {
+        double[] acumulada = new double[ids.length];
+        double soma = 0;
+        for (int i = 0; i < ids.length; i++) {
+            soma += 1 / Math.pow(i + 1, expoente);
+            acumulada[i] = soma;
+        }
+        SplittableRandom random = new SplittableRandom(7);
+        int[] sequencia = new int[AMOSTRAS];
+        for (int i = 0; i < AMOSTRAS; i++) {
+            int posicao = Arrays.binarySearch(acumulada, random.nextDouble() * soma);
+            sequencia[i] = ids[posicao >= 0 ? posicao : Math.min(-posicao - 1, ids.length - 1)];
+        }
+        return sequencia;
+    }
+}
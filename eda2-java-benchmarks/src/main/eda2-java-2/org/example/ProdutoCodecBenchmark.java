@@ -0,0 +1,128 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Um lote de {@code tamanho} produtos gravado e lido em três formatos: o {@link ProdutoCodec}, a serialização do
+ * Java ({@link ObjectOutputStream} de uma lista de records com os mesmos campos, já que o {@link Produto} não é
+ * {@link Serializable}) e o JSON do {@link JsonProdutos}, um objeto por linha em UTF-8. O setup imprime o tamanho
+ * de cada formato. IDs sequenciais, nomes de 10 a 40 caracteres com acentos e preços com 2 casas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ProdutoCodecBenchmark {
+    private static final String[] PALAVRAS = {"Camiseta", "Calça", "Feijão", "Açúcar", "Arroz", "Café", "Integral",
+            "Orgânico", "Azul", "Médio", "Pacote", "Premium", "Básico", "Algodão"};
+
+    record ProdutoSerializavel(Integer id, String nome, BigDecimal preco, long versao) implements Serializable {
+    }
+
+    @Param({"1000"})
+    public int tamanho;
+
+    private List<Produto> produtos;
+    private List<ProdutoSerializavel> serializaveis;
+    private ByteBuffer buffer;
+    private ByteBuffer codificado;
+    private byte[] serializado;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void carregar() throws IOException {
+        Random random = new Random(25);
+        produtos = new ArrayList<>(tamanho);
+        serializaveis = new ArrayList<>(tamanho);
+        for (int id = 1; id <= tamanho; id++) {
+            StringBuilder nome = new StringBuilder(PALAVRAS[random.nextInt(PALAVRAS.length)]);
+            while (nome.length() < 10 + random.nextInt(30)) {
+                nome.append(' ').append(PALAVRAS[random.nextInt(PALAVRAS.length)]);
+            }
+            Produto produto = new Produto(id, nome.toString(), BigDecimal.valueOf(random.nextInt(100_000), 2));
+            produtos.add(produto);
+            serializaveis.add(new ProdutoSerializavel(id, produto.getNome(), produto.getPreco(), produto.getVersao()));
+        }
+        buffer = ByteBuffer.allocate(ProdutoCodec.tamanhoLote(produtos));
+        codificado = codecEscrever().flip();
+        serializado = serializacaoEscrever();
+        json = jsonEscrever();
+        System.out.printf("%nBytes para %d produtos: codec %d, ObjectOutputStream %d, JSON %d%n",
+                tamanho, codificado.limit(), serializado.length, json.length);
+    }
+
+    @Benchmark
+    public ByteBuffer codecEscrever() {
+        buffer.clear();
+        ProdutoCodec.escreverLote(buffer, produtos);
+        return buffer;
+    }
+
+    @Benchmark
+    public List<Produto> codecLer() {
+        return ProdutoCodec.lerLote(codificado.duplicate());
+    }
+
+    @Benchmark
+    public byte[] serializacaoEscrever() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * tamanho);
+        try (ObjectOutputStream saida = new ObjectOutputStream(bytes)) {
+            saida.writeObject(serializaveis);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object serializacaoLer() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream entrada = new ObjectInputStream(new ByteArrayInputStream(serializado))) {
+            return entrada.readObject();
+        }
+    }
+
+    @Benchmark
+    public byte[] jsonEscrever() {
+        StringBuilder texto = new StringBuilder(64 * tamanho);
+        for (Produto produto : produtos) {
+            JsonProdutos.escrever(texto, produto).append('\n');
+        }
+        return texto.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<Produto> jsonLer() {
+        String texto = new String(json, StandardCharsets.UTF_8);
+        List<Produto> lidos = new ArrayList<>(tamanho);
+        int inicio = 0;
+        for (int fim; (fim = texto.indexOf('\n', inicio)) >= 0; inicio = fim + 1) {
+            lidos.add(JsonProdutos.ler(texto.substring(inicio, fim)));
+        }
+        return lidos;
+    }
+}
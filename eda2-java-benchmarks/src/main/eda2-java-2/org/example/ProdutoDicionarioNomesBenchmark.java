@@ -0,0 +1,84 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catálogo gerado com nomes repetidos, como numa loja real: {@code modelos} produtos-base, cada um em 8 cores e 5
+ * tamanhos ("Camiseta 0042 Azul M"), e cada produto com o seu próprio String, como se viesse de uma importação. O
+ * setup carrega o catálogo no {@link ProdutoMemoryDAO} puro ou envolvido pelo {@link ProdutoDicionarioNomesDAO}
+ * e imprime o heap ocupado (medido depois de um GC) e, com o dicionário, a estimativa dele. A medida é o
+ * {@code alterar} de um produto com um nome novo, que no dicionário paga a busca e a contagem de referências.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ProdutoDicionarioNomesBenchmark {
+    private static final String[] CORES = {"Azul", "Preto", "Branco", "Vermelho", "Verde", "Cinza", "Rosa", "Amarelo"};
+    private static final String[] TAMANHOS = {"PP", "P", "M", "G", "GG"};
+
+    @Param({"1000000"})
+    public int tamanho;
+
+    @Param({"5000"})
+    public int modelos;
+
+    @Param({"false", "true"})
+    public boolean dicionario;
+
+    private ProdutoDAO dao;
+
+    @Setup(Level.Trial)
+    public void carregar() {
+        long antes = heapUsado();
+        ProdutoDAO memoria = new ProdutoMemoryDAO();
+        dao = dicionario ? new ProdutoDicionarioNomesDAO(memoria) : memoria;
+        for (int id = 0; id < tamanho; id++) {
+            dao.insere(new Produto(id, nome(ThreadLocalRandom.current()), BigDecimal.valueOf(id % 10_000, 2)));
+        }
+        long depois = heapUsado();
+        System.out.printf("%nHeap do catálogo (%s): %d MB para %d produtos (%d bytes por produto)%n",
+                dicionario ? "com dicionário" : "sem dicionário", (depois - antes) >> 20, tamanho,
+                (depois - antes) / tamanho);
+        if (dao instanceof ProdutoDicionarioNomesDAO comDicionario) {
+            System.out.println(comDicionario.estatisticas());
+        }
+    }
+
+    // Sempre um String novo, mesmo quando o nome já existe.
+    private String nome(ThreadLocalRandom random) {
+        return String.format("Camiseta %04d %s %s", random.nextInt(modelos),
+                CORES[random.nextInt(CORES.length)], TAMANHOS[random.nextInt(TAMANHOS.length)]);
+    }
+
+    private static long heapUsado() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @Benchmark
+    public boolean alterarNome() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return dao.alterar(new Produto(random.nextInt(tamanho), nome(random), BigDecimal.ONE));
+    }
+}
@@ -0,0 +1,76 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rajadas de escrita com 4 threads: cada operação medida são {@value #RAJADA} alterações seguidas. No
+ * {@link ProdutoEventLoopDAO} a rajada é enfileirada com {@code alterarAsync} e só a última é esperada, então a
+ * thread escritora drena os comandos em lotes; nos outros DAOs são {@value #RAJADA} {@code alterar} síncronos.
+ * Para a carga mista com escritas síncronas uma a uma, veja o {@code ProdutoDAOConcorrenteBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(4)
+public class ProdutoEventLoopBenchmark {
+    private static final int RAJADA = 64;
+
+    @Param({"ProdutoConcurrentDAO", "ProdutoSnapshotDAO", "ProdutoEventLoopDAO"})
+    public String implementacao;
+
+    @Param({"100000"})
+    public int tamanho;
+
+    private ProdutoDAO dao;
+
+    @Setup(Level.Trial)
+    public void carregar() throws Exception {
+        dao = FabricaDAO.criar(implementacao);
+        FabricaDAO.preencher(dao, tamanho);
+    }
+
+    @TearDown(Level.Trial)
+    public void fechar() throws Exception {
+        FabricaDAO.fechar(dao);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RAJADA)
+    public boolean rajadaDeAlteracoes() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (dao instanceof ProdutoEventLoopDAO eventLoop) {
+            CompletableFuture<Boolean> ultima = null;
+            for (int i = 0; i < RAJADA; i++) {
+                ultima = eventLoop.alterarAsync(FabricaDAO.produto(random.nextInt(tamanho)));
+            }
+            // Comandos de uma thread são aplicados em ordem: quando a última termina, a rajada inteira terminou.
+            return ultima.join();
+        }
+        boolean alterou = false;
+        for (int i = 0; i < RAJADA; i++) {
+            alterou = dao.alterar(FabricaDAO.produto(random.nextInt(tamanho)));
+        }
+        return alterou;
+    }
+}
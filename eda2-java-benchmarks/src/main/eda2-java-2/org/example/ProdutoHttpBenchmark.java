@@ -0,0 +1,149 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gerador de carga local para o {@link ServidorProdutos}: cada thread do JMH é um cliente com uma conexão
+ * keep-alive própria, falando HTTP/1.1 direto no socket (sem o overhead de um cliente HTTP completo, para que o
+ * gargalo medido seja o servidor). O resultado é em requisições por segundo.
+ * <pre>
+ * java -jar target/benchmarks.jar ProdutoHttpBenchmark -t 16
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(8)
+public class ProdutoHttpBenchmark {
+
+    @Param({"100000"})
+    public int tamanho;
+
+    private ServidorProdutos servidor;
+
+    @Setup(Level.Trial)
+    public void subirServidor() {
+        ProdutoDAO dao = new ProdutoConcurrentDAO();
+        FabricaDAO.preencher(dao, tamanho);
+        servidor = new ServidorProdutos(dao, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void pararServidor() {
+        servidor.close();
+    }
+
+    /** Uma conexão keep-alive por thread cliente. */
+    @State(Scope.Thread)
+    public static class Conexao {
+        private Socket socket;
+        private OutputStream saida;
+        private InputStream entrada;
+        private final byte[] corpo = new byte[64 * 1024];
+
+        @Setup(Level.Trial)
+        public void conectar(ProdutoHttpBenchmark benchmark) throws IOException {
+            socket = new Socket("localhost", benchmark.servidor.porta());
+            socket.setTcpNoDelay(true);
+            saida = new BufferedOutputStream(socket.getOutputStream(), 8 * 1024);
+            entrada = new BufferedInputStream(socket.getInputStream(), 64 * 1024);
+        }
+
+        @TearDown(Level.Trial)
+        public void desconectar() throws IOException {
+            socket.close();
+        }
+
+        /** Envia a requisição e lê a resposta inteira; devolve o status. */
+        int requisitar(String metodo, String caminho, String json) throws IOException {
+            StringBuilder requisicao = new StringBuilder(128).append(metodo).append(' ').append(caminho)
+                    .append(" HTTP/1.1\r\nHost: localhost\r\n");
+            byte[] bytes = json == null ? null : json.getBytes(StandardCharsets.UTF_8);
+            if (bytes != null) {
+                requisicao.append("Content-Type: application/json\r\nContent-Length: ").append(bytes.length).append("\r\n");
+            }
+            saida.write(requisicao.append("\r\n").toString().getBytes(StandardCharsets.US_ASCII));
+            if (bytes != null) {
+                saida.write(bytes);
+            }
+            saida.flush();
+            return lerResposta();
+        }
+
+        private int lerResposta() throws IOException {
+            String statusLinha = linha();
+            int status = Integer.parseInt(statusLinha.substring(9, 12));
+            int tamanho = 0;
+            String cabecalho;
+            while (!(cabecalho = linha()).isEmpty()) {
+                if (cabecalho.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                    tamanho = Integer.parseInt(cabecalho.substring(15).strip());
+                }
+            }
+            int lidos = 0;
+            while (lidos < tamanho) {
+                int n = entrada.read(corpo, 0, Math.min(corpo.length, tamanho - lidos));
+                if (n < 0) throw new EOFException("Conexão fechada no meio da resposta.");
+                lidos += n;
+            }
+            return status;
+        }
+
+        private String linha() throws IOException {
+            StringBuilder linha = new StringBuilder(64);
+            int c;
+            while ((c = entrada.read()) != '\n') {
+                if (c < 0) throw new EOFException("Conexão fechada pelo servidor.");
+                if (c != '\r') linha.append((char) c);
+            }
+            return linha.toString();
+        }
+    }
+
+    private int idAleatorio() {
+        return ThreadLocalRandom.current().nextInt(tamanho);
+    }
+
+    @Benchmark
+    public int pesquisar(Conexao conexao) throws IOException {
+        return conexao.requisitar("GET", "/produtos/" + idAleatorio(), null);
+    }
+
+    @Benchmark
+    public int paginar(Conexao conexao) throws IOException {
+        return conexao.requisitar("GET", "/produtos?apos=" + idAleatorio() + "&limite=20", null);
+    }
+
+    @Benchmark
+    public int alterar(Conexao conexao) throws IOException {
+        int id = idAleatorio();
+        return conexao.requisitar("PUT", "/produtos/" + id, "{\"nome\":\"Produto " + id + "\",\"preco\":9.99}");
+    }
+}
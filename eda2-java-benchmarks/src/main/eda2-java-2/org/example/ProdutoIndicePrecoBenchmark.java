@@ -0,0 +1,75 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas por preço com o {@link ProdutoIndicePrecoDAO} sobre um {@link ProdutoMemoryDAO}. Os preços do
+ * {@link FabricaDAO} vão de R$ 0,00 a R$ 999,99, então uma faixa de R$ 0,10 devolve ~{@code tamanho / 10_000}
+ * produtos.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ProdutoIndicePrecoBenchmark {
+
+    @Param({"100000", "1000000", "5000000"})
+    public int tamanho;
+
+    private ProdutoIndicePrecoDAO dao;
+    private int[] ids;
+    private int proximo;
+
+    @Setup(Level.Trial)
+    public void carregar() {
+        dao = new ProdutoIndicePrecoDAO(new ProdutoMemoryDAO());
+        ids = FabricaDAO.preencher(dao, tamanho);
+    }
+
+    private int proximoId() {
+        int id = ids[proximo];
+        proximo = proximo + 1 == ids.length ? 0 : proximo + 1;
+        return id;
+    }
+
+    @Benchmark
+    public List<Produto> faixaDeDezCentavos() {
+        BigDecimal minimo = BigDecimal.valueOf(proximoId() % 99_990, 2);
+        return dao.listarPorFaixaDePreco(minimo, minimo.add(new BigDecimal("0.10")));
+    }
+
+    @Benchmark
+    public List<Produto> cemMaisBaratos() {
+        return dao.maisBaratos(100);
+    }
+
+    @Benchmark
+    public List<Produto> cemMaisCaros() {
+        return dao.maisCaros(100);
+    }
+
+    /** Muda o preço (move a entrada no índice) e o devolve ao original, mantendo o catálogo estável. */
+    @Benchmark
+    public boolean alterarPreco() {
+        int id = proximoId();
+        dao.alterar(new Produto(id, "Produto " + id, BigDecimal.valueOf(id % 1_000, 0)));
+        return dao.alterar(FabricaDAO.produto(id));
+    }
+}
@@ -0,0 +1,88 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do {@link ProdutoMetricasDAO} por chamada: o mesmo {@code pesquisarPorId} no DAO puro e envolvido pelo
+ * decorator, com uma thread e com 4. A diferença entre os pares é o overhead da medição: os contadores em toda
+ * chamada e, nas cronometradas (1 a cada {@code amostragem}), dois {@code System.nanoTime()} e o registro no
+ * histograma. O catálogo é pequeno para que a busca em si seja barata e o overhead apareça. O relatório das
+ * métricas acumuladas é impresso no fim.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ProdutoMetricasBenchmark {
+
+    @Param({"ProdutoConcurrentDAO"})
+    public String implementacao;
+
+    @Param({"10000"})
+    public int tamanho;
+
+    /** 1 cronometra toda chamada; o padrão do decorator é {@value ProdutoMetricasDAO#AMOSTRAGEM_PADRAO}. */
+    @Param({"1", "8"})
+    public int amostragem;
+
+    private ProdutoDAO puro;
+    private ProdutoMetricasDAO medido;
+
+    @Setup(Level.Trial)
+    public void carregar() throws Exception {
+        puro = FabricaDAO.criar(implementacao);
+        FabricaDAO.preencher(puro, tamanho);
+        medido = new ProdutoMetricasDAO(puro, amostragem);
+    }
+
+    @TearDown(Level.Trial)
+    public void fechar() throws Exception {
+        System.out.printf("%n%s", medido.relatorio());
+        medido.close();
+        FabricaDAO.fechar(puro);
+    }
+
+    private int idAleatorio() {
+        return ThreadLocalRandom.current().nextInt(tamanho);
+    }
+
+    @Benchmark
+    public Produto pesquisarSemMetricas() {
+        return puro.pesquisarPorId(idAleatorio());
+    }
+
+    @Benchmark
+    public Produto pesquisarComMetricas() {
+        return medido.pesquisarPorId(idAleatorio());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Produto pesquisarSemMetricas4Threads() {
+        return puro.pesquisarPorId(idAleatorio());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Produto pesquisarComMetricas4Threads() {
+        return medido.pesquisarPorId(idAleatorio());
+    }
+}
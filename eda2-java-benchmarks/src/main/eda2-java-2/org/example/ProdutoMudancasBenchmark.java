@@ -0,0 +1,116 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Custo do {@link ProdutoMudancasDAO} por escrita: o mesmo {@code alterar} no DAO puro e envolvido pelo feed de
+ * mudanças, com 0 ou 1 assinante que pede tudo ({@code request(Long.MAX_VALUE)}) e só conta o que recebe. A
+ * diferença entre os pares é o lock das escritas, a leitura do valor anterior e a gravação no buffer; com
+ * assinante, soma-se o agendamento das entregas na virtual thread. O total entregue e os erros (assinante que
+ * ficou mais atrás do que o buffer) são impressos no fim.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ProdutoMudancasBenchmark {
+
+    @Param({"ProdutoConcurrentDAO"})
+    public String implementacao;
+
+    @Param({"10000"})
+    public int tamanho;
+
+    @Param({"0", "1"})
+    public int assinantes;
+
+    private ProdutoDAO puro;
+    private ProdutoMudancasDAO feed;
+    private final LongAdder entregues = new LongAdder();
+    private final LongAdder erros = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void carregar() throws Exception {
+        puro = FabricaDAO.criar(implementacao);
+        FabricaDAO.preencher(puro, tamanho);
+        feed = new ProdutoMudancasDAO(puro);
+        for (int i = 0; i < assinantes; i++) {
+            feed.subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription assinatura) {
+                    assinatura.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(ProdutoMudancasDAO.Mudanca mudanca) {
+                    entregues.increment();
+                }
+
+                @Override
+                public void onError(Throwable erro) {
+                    erros.increment();
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void fechar() throws Exception {
+        feed.close();
+        System.out.printf("%nMudanças publicadas: %d, entregues: %d, assinantes com erro: %d%n",
+                feed.ultimaSequencia(), entregues.sum(), erros.sum());
+        FabricaDAO.fechar(puro);
+    }
+
+    private Produto alteracaoAleatoria() {
+        int id = ThreadLocalRandom.current().nextInt(tamanho);
+        return new Produto(id, "Produto " + id, BigDecimal.TEN);
+    }
+
+    @Benchmark
+    public boolean alterarSemFeed() {
+        return puro.alterar(alteracaoAleatoria());
+    }
+
+    @Benchmark
+    public boolean alterarComFeed() {
+        return feed.alterar(alteracaoAleatoria());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean alterarSemFeed4Threads() {
+        return puro.alterar(alteracaoAleatoria());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean alterarComFeed4Threads() {
+        return feed.alterar(alteracaoAleatoria());
+    }
+}
@@ -0,0 +1,83 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Vazão de escrita do {@link ProdutoShardedDAO} com 4 threads escrevendo ao mesmo tempo, variando o número de
+ * partições ({@link ProdutoMemoryDAO} cada). Com {@code particoes=1} é um único TreeMap atrás de um lock, a
+ * referência para ver a escala. {@code insereExclui} insere e exclui IDs novos (o tamanho do catálogo não muda);
+ * {@code alterar} troca produtos existentes. Rode com {@code -t N} para outras quantidades de threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(4)
+public class ProdutoShardedBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int particoes;
+
+    @Param({"1000000"})
+    public int tamanho;
+
+    private ProdutoShardedDAO dao;
+    private final AtomicInteger proximaFaixa = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void carregar() {
+        dao = new ProdutoShardedDAO(particoes, ProdutoMemoryDAO::new);
+        FabricaDAO.preencher(dao, tamanho);
+    }
+
+    /** Cada thread insere e exclui IDs de uma faixa só dela, acima dos IDs carregados. */
+    @State(Scope.Thread)
+    public static class Faixa {
+        private int proximo;
+        private int inicio;
+
+        @Setup(Level.Trial)
+        public void reservar(ProdutoShardedBenchmark benchmark) {
+            inicio = benchmark.tamanho + benchmark.proximaFaixa.getAndIncrement() * 1_000_000;
+            proximo = inicio;
+        }
+
+        int proximoId() {
+            int id = proximo++;
+            if (proximo == inicio + 1_000_000) {
+                proximo = inicio;
+            }
+            return id;
+        }
+    }
+
+    @Benchmark
+    public boolean insereExclui(Faixa faixa) {
+        int id = faixa.proximoId();
+        dao.insere(FabricaDAO.produto(id));
+        return dao.excluir(id);
+    }
+
+    @Benchmark
+    public boolean alterar() {
+        return dao.alterar(FabricaDAO.produto(ThreadLocalRandom.current().nextInt(tamanho)));
+    }
+}
@@ -0,0 +1,79 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Leitura-alteração-gravação disputada por 4 threads em um {@link ProdutoConcurrentDAO}: cada operação soma 1 ao
+ * preço de um produto sorteado entre os {@code disputados} primeiros IDs. {@code otimista} relê e tenta de novo
+ * com {@code alterarSeVersao} quando outra thread passa na frente; {@code pessimista} faz a leitura e o
+ * {@code alterar} sob um lock único, o jeito de não perder atualizações sem versão. Com poucos IDs disputados o
+ * otimista refaz mais tentativas; com muitos, quase nunca.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Threads(4)
+public class ProdutoVersaoBenchmark {
+
+    @Param({"1", "16", "100000"})
+    public int disputados;
+
+    private ProdutoDAO dao;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Setup(Level.Trial)
+    public void carregar() {
+        dao = new ProdutoConcurrentDAO();
+        FabricaDAO.preencher(dao, Math.max(disputados, 1_000));
+    }
+
+    private int idDisputado() {
+        return ThreadLocalRandom.current().nextInt(disputados);
+    }
+
+    @Benchmark
+    public Produto otimista() {
+        int id = idDisputado();
+        while (true) {
+            Produto lido = dao.pesquisarPorId(id);
+            Produto alterado = lido.withPreco(lido.getPreco().add(BigDecimal.ONE));
+            if (dao.alterarSeVersao(alterado, lido.getVersao())) {
+                return alterado;
+            }
+        }
+    }
+
+    @Benchmark
+    public Produto pessimista() {
+        int id = idDisputado();
+        lock.lock();
+        try {
+            Produto lido = dao.pesquisarPorId(id);
+            Produto alterado = lido.withPreco(lido.getPreco().add(BigDecimal.ONE));
+            dao.alterar(alterado);
+            return alterado;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.example;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Cria e preenche os DAOs medidos pelos benchmarks a partir do nome simples da classe.
+ * <p>
+ * A criação é por reflexão porque o mesmo código de benchmark é compilado contra os dois módulos
+ * (ver o perfil {@code colecao-1} no pom), e cada um tem um conjunto diferente de implementações.
+ */
+final class FabricaDAO {
+    private static final String PACOTE = "org.example.";
+    private static final int LOTE_CARGA = 100_000;
+    // Diretório temporário de cada DAO persistente criado, apagado no fechar.
+    private static final Map<ProdutoDAO, Path> DIRETORIOS = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private FabricaDAO() {
+    }
+
+    static ProdutoDAO criar(String implementacao) throws Exception {
+        Class<?> classe;
+        try {
+            classe = Class.forName(PACOTE + implementacao);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException(implementacao + " não existe no módulo medido; use -p implementacao=...", e);
+        }
+        Constructor<?> comDiretorio;
+        try {
+            comDiretorio = classe.getConstructor(Path.class);
+        } catch (NoSuchMethodException e) {
+            return (ProdutoDAO) classe.getConstructor().newInstance();
+        }
+        // DAOs persistentes recebem um diretório temporário, criado só para eles.
+        Path diretorio = Files.createTempDirectory("benchmark-" + implementacao);
+        try {
+            ProdutoDAO dao = (ProdutoDAO) comDiretorio.newInstance(diretorio);
+            DIRETORIOS.put(dao, diretorio);
+            return dao;
+        } catch (Exception e) {
+            apagar(diretorio);
+            throw e;
+        }
+    }
+
+    static void fechar(ProdutoDAO dao) throws Exception {
+        try {
+            if (dao instanceof AutoCloseable fechavel) {
+                fechavel.close();
+            }
+        } finally {
+            Path diretorio = DIRETORIOS.remove(dao);
+            if (diretorio != null) {
+                apagar(diretorio);
+            }
+        }
+    }
+
+    private static void apagar(Path diretorio) throws IOException {
+        // Arquivos antes do diretório que os contém.
+        try (Stream<Path> caminhos = Files.walk(diretorio)) {
+            for (Path caminho : caminhos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(caminho);
+            }
+        }
+    }
+
+    static Produto produto(int id) {
+        return new Produto(id, "Produto " + id, BigDecimal.valueOf(id % 100_000, 2));
+    }
+
+    /** Insere os IDs 0..tamanho-1 em ordem aleatória, em lotes, e devolve os IDs embaralhados. */
+    static int[] preencher(ProdutoDAO dao, int tamanho) {
+        int[] ids = embaralhados(tamanho, 42);
+        for (int inicio = 0; inicio < tamanho; inicio += LOTE_CARGA) {
+            int fim = Math.min(tamanho, inicio + LOTE_CARGA);
+            List<Produto> lote = new ArrayList<>(fim - inicio);
+            for (int i = inicio; i < fim; i++) {
+                lote.add(produto(ids[i]));
+            }
+            dao.insereTodos(lote);
+        }
+        return ids;
+    }
+
+    static int[] embaralhados(int tamanho, long semente) {
+        int[] ids = new int[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            ids[i] = i;
+        }
+        SplittableRandom random = new SplittableRandom(semente);
+        for (int i = tamanho - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int troca = ids[i];
+            ids[i] = ids[j];
+            ids[j] = troca;
+        }
+        return ids;
+    }
+}
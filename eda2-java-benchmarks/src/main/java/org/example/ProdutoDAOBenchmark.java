@@ -0,0 +1,122 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operações unitárias de cada {@link ProdutoDAO} em uma única thread, para catálogos de 1 mil a 10 milhões
+ * de produtos. O catálogo é carregado uma vez por fork e as operações de escrita devolvem o DAO ao tamanho
+ * original, para que todas as iterações meçam o mesmo tamanho.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ProdutoDAOBenchmark {
+    private static final BigDecimal LIMITE_PRECO = new BigDecimal("500.00");
+
+    @Param({"ProdutoMemoryDAO", "ProdutoConcurrentDAO", "ProdutoSnapshotDAO", "ProdutoIntMapDAO", "ProdutoColunarDAO",
+            "ProdutoMappedFileDAO"})
+    public String implementacao;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int tamanho;
+
+    private ProdutoDAO dao;
+    private int[] ids;
+    private int proximo;
+    private int proximoNovo;
+
+    @Setup(Level.Trial)
+    public void carregar() throws Exception {
+        dao = FabricaDAO.criar(implementacao);
+        ids = FabricaDAO.preencher(dao, tamanho);
+        proximoNovo = tamanho;
+    }
+
+    @TearDown(Level.Trial)
+    public void fechar() throws Exception {
+        FabricaDAO.fechar(dao);
+    }
+
+    private int proximoId() {
+        int id = ids[proximo];
+        proximo = proximo + 1 == ids.length ? 0 : proximo + 1;
+        return id;
+    }
+
+    @Benchmark
+    public Produto pesquisarPorId() {
+        return dao.pesquisarPorId(proximoId());
+    }
+
+    @Benchmark
+    public Produto pesquisarInexistente() {
+        return dao.pesquisarPorId(-1 - proximoId());
+    }
+
+    @Benchmark
+    public boolean alterar() {
+        int id = proximoId();
+        return dao.alterar(FabricaDAO.produto(id));
+    }
+
+    /** Insere um ID novo e exclui um existente; a diferença com {@link #excluirEReinserir()} isola cada custo. */
+    @Benchmark
+    public boolean insereNovoEExcluir() {
+        int id = proximoNovo++;
+        dao.insere(FabricaDAO.produto(id));
+        return dao.excluir(id);
+    }
+
+    @Benchmark
+    public void excluirEReinserir() {
+        int id = proximoId();
+        dao.excluir(id);
+        dao.insere(FabricaDAO.produto(id));
+    }
+
+    @Benchmark
+    public void listarTodos(Blackhole bh) {
+        // Percorre o resultado: no collection-1 o listarTodos devolve a coleção interna sem copiar.
+        for (Produto produto : dao.listarTodos()) {
+            bh.consume(produto);
+        }
+    }
+
+    /** O mesmo percurso do {@link #listarTodos}, mas pelo forEach, sem montar a lista completa. */
+    @Benchmark
+    public void forEach(Blackhole bh) {
+        dao.forEach(bh::consume);
+    }
+
+    /** Agregação pelo stream preguiçoso: conta os produtos com preço acima de R$ 500. */
+    @Benchmark
+    public long streamContarComFiltro() {
+        return dao.stream().filter(produto -> produto.getPreco().compareTo(LIMITE_PRECO) > 0).count();
+    }
+
+    /** Uma página de 20 produtos a partir de um ID aleatório, como a listagem paginada do cadastro. */
+    @Benchmark
+    public List<Produto> pagina() {
+        return dao.pagina(proximoId(), 20);
+    }
+}
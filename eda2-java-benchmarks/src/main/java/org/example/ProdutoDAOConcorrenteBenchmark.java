@@ -0,0 +1,77 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cargas com várias threads sobre o mesmo DAO. Só faz sentido para implementações thread-safe:
+ * leituras puras com 4 threads e uma carga mista com 3 leitores e 1 escritor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ProdutoDAOConcorrenteBenchmark {
+
+    @Param({"ProdutoConcurrentDAO", "ProdutoSnapshotDAO", "ProdutoEventLoopDAO"})
+    public String implementacao;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int tamanho;
+
+    private ProdutoDAO dao;
+
+    @Setup(Level.Trial)
+    public void carregar() throws Exception {
+        dao = FabricaDAO.criar(implementacao);
+        FabricaDAO.preencher(dao, tamanho);
+    }
+
+    @TearDown(Level.Trial)
+    public void fechar() throws Exception {
+        FabricaDAO.fechar(dao);
+    }
+
+    private int idAleatorio() {
+        return ThreadLocalRandom.current().nextInt(tamanho);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Produto leituras() {
+        return dao.pesquisarPorId(idAleatorio());
+    }
+
+    @Benchmark
+    @Group("misto")
+    @GroupThreads(3)
+    public Produto mistoLeitura() {
+        return dao.pesquisarPorId(idAleatorio());
+    }
+
+    @Benchmark
+    @Group("misto")
+    @GroupThreads(1)
+    public boolean mistoEscrita() {
+        return dao.alterar(FabricaDAO.produto(idAleatorio()));
+    }
+}
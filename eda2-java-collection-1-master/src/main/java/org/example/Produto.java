@@ -1,26 +1,27 @@
 package org.example;
 
-import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
-import lombok.Getter;
-import lombok.Setter;
+import lombok.Value;
+import lombok.With;
 import lombok.ToString; // Adicione esta importação
 
 import java.math.BigDecimal;
 
-@Getter
-@Setter
-@AllArgsConstructor
+// Imutável: @Value deixa os campos final, sem setters, e gera construtor e getters.
+// Para "alterar" um produto, crie outro com withNome/withPreco e passe para o alterar do DAO.
+@Value
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @ToString // Adicione esta anotação para gerar o toString automaticamente
 public class Produto implements Comparable<Produto> { // Boa prática especificar o tipo genérico
 
     @EqualsAndHashCode.Include
-    private Integer id;
+    Integer id;
 
-    private String nome; // Renomeei de 'produto' para 'nome' para clareza
+    @With
+    String nome; // Renomeei de 'produto' para 'nome' para clareza
 
-    private BigDecimal preco;
+    @With
+    BigDecimal preco;
 
     @Override
     public int compareTo(Produto outroProduto) { // Especificando o tipo
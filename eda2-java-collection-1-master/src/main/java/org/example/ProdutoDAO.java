@@ -1,6 +1,10 @@
 package org.example;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface ProdutoDAO {
     void insere(Produto produto);
@@ -8,4 +12,21 @@ public interface ProdutoDAO {
     Produto pesquisarPorId(Integer id);
     boolean alterar(Produto produto);
     boolean excluir(Integer id); // Novo método
-}
\ No newline at end of file
+
+    // Operações em lote
+    void insereTodos(Collection<Produto> produtos); // Tudo ou nada
+    List<Produto> pesquisarPorIds(int[] ids); // Mesma ordem dos IDs, null para os inexistentes
+    int excluirTodos(int[] ids); // Retorna quantos foram excluídos
+
+    // Consultas pela ordem de ID
+    List<Produto> listarPorFaixaDeId(int de, int ate); // IDs de "de" até "ate", inclusive
+    Produto primeiro(); // Menor ID, ou null se vazio
+    Produto ultimo(); // Maior ID, ou null se vazio
+    Produto proximoApos(int id); // Menor ID maior que "id", ou null
+    List<Produto> pagina(Integer aposId, int limite); // Até "limite" produtos depois de "aposId" (null = do início)
+
+    // Percurso preguiçoso em ordem de ID, sem copiar o catálogo
+    Spliterator<Produto> spliterator(); // Divisível, para streams paralelos
+    Stream<Produto> stream();
+    void forEach(Consumer<? super Produto> acao);
+}
@@ -1,11 +1,19 @@
 package org.example;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
 import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class ProdutoMemoryDAO implements ProdutoDAO {
-    private Collection<Produto> produtos = new TreeSet<>();
+    private TreeSet<Produto> produtos = new TreeSet<>();
 
     @Override
     public void insere(Produto produto) {
@@ -18,7 +26,8 @@ public class ProdutoMemoryDAO implements ProdutoDAO {
 
     @Override
     public Collection<Produto> listarTodos() {
-        return produtos;
+        // Visão somente leitura: sem cópia, mas quem chama não consegue mexer no conjunto interno.
+        return Collections.unmodifiableCollection(produtos);
     }
 
     @Override
@@ -33,10 +42,9 @@ public class ProdutoMemoryDAO implements ProdutoDAO {
 
     @Override
     public boolean alterar(Produto produtoAtualizado) {
-        Produto produtoExistente = pesquisarPorId(produtoAtualizado.getId());
-        if (produtoExistente != null) {
-            produtoExistente.setNome(produtoAtualizado.getNome());
-            produtoExistente.setPreco(produtoAtualizado.getPreco());
+        // Produto é imutável: em vez de mudar o objeto guardado, troca pelo novo (o TreeSet compara só pelo ID).
+        if (produtos.remove(produtoAtualizado)) {
+            produtos.add(produtoAtualizado);
             return true;
         }
         return false;
@@ -46,4 +54,106 @@ public class ProdutoMemoryDAO implements ProdutoDAO {
     public boolean excluir(Integer id) {
         return produtos.remove(new Produto(id, null, null));
     }
-}
\ No newline at end of file
+
+    @Override
+    public void insereTodos(Collection<Produto> lote) {
+        Produto[] ordenados = lote.toArray(new Produto[0]);
+        for (Produto produto : ordenados) {
+            if (produto == null || produto.getId() == null) {
+                throw new IllegalArgumentException("Produto ou ID do produto não pode ser nulo.");
+            }
+        }
+        Arrays.sort(ordenados);
+        // Valida o lote inteiro antes de inserir: repetição dentro do lote ou ID já cadastrado.
+        // O contains do TreeSet usa o compareTo (por ID), então não precisa da varredura do pesquisarPorId.
+        for (int i = 0; i < ordenados.length; i++) {
+            if ((i > 0 && ordenados[i].compareTo(ordenados[i - 1]) == 0) || produtos.contains(ordenados[i])) {
+                throw new IllegalArgumentException("Erro: Já existe um produto com o ID " + ordenados[i].getId() + ".");
+            }
+        }
+        produtos.addAll(Arrays.asList(ordenados));
+    }
+
+    @Override
+    public List<Produto> pesquisarPorIds(int[] ids) {
+        List<Produto> encontrados = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            // Busca na árvore com um produto "sonda" (o TreeSet compara só pelo ID), em O(log n)
+            // em vez da varredura linear do pesquisarPorId.
+            Produto p = produtos.floor(new Produto(id, null, null));
+            encontrados.add(p != null && p.getId() == id ? p : null);
+        }
+        return encontrados;
+    }
+
+    @Override
+    public int excluirTodos(int[] ids) {
+        int excluidos = 0;
+        for (int id : ids) {
+            if (produtos.remove(new Produto(id, null, null))) {
+                excluidos++;
+            }
+        }
+        return excluidos;
+    }
+
+    // O TreeSet já é ordenado pelo compareTo (ID): as consultas abaixo descem na árvore com um produto "sonda"
+    // em O(log n) e percorrem só os elementos pedidos, em vez de copiar ou varrer o conjunto inteiro.
+
+    @Override
+    public List<Produto> listarPorFaixaDeId(int de, int ate) {
+        if (de > ate) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(produtos.subSet(sonda(de), true, sonda(ate), true));
+    }
+
+    @Override
+    public Produto primeiro() {
+        return produtos.isEmpty() ? null : produtos.first();
+    }
+
+    @Override
+    public Produto ultimo() {
+        return produtos.isEmpty() ? null : produtos.last();
+    }
+
+    @Override
+    public Produto proximoApos(int id) {
+        return produtos.higher(sonda(id));
+    }
+
+    @Override
+    public List<Produto> pagina(Integer aposId, int limite) {
+        if (limite < 0) {
+            throw new IllegalArgumentException("O limite da página não pode ser negativo.");
+        }
+        List<Produto> pagina = new ArrayList<>(Math.min(limite, 1024));
+        Iterator<Produto> restantes = (aposId == null ? produtos : produtos.tailSet(sonda(aposId), false)).iterator();
+        while (pagina.size() < limite && restantes.hasNext()) {
+            pagina.add(restantes.next());
+        }
+        return pagina;
+    }
+
+    // Direto no TreeSet, sem cópia. Falham com ConcurrentModificationException se o DAO mudar no meio do percurso.
+
+    @Override
+    public Spliterator<Produto> spliterator() {
+        return produtos.spliterator();
+    }
+
+    @Override
+    public Stream<Produto> stream() {
+        return produtos.stream();
+    }
+
+    @Override
+    public void forEach(Consumer<? super Produto> acao) {
+        produtos.forEach(acao);
+    }
+
+    private static Produto sonda(int id) {
+        return new Produto(id, null, null);
+    }
+}
@@ -5,6 +5,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Collection;
 
 import static org.junit.jupiter.api.Assertions.*; // Importações estáticas para assertions
@@ -128,4 +131,101 @@ class ProdutoMemoryDAOTest {
         boolean resultado = dao.excluir(888);
         assertFalse(resultado);
     }
+
+    @Test
+    @DisplayName("Deve inserir um lote de produtos de uma vez")
+    void insereTodos_QuandoLoteValido_DeveInserirTodos() {
+        dao.insere(new Produto(2, "Existente", new BigDecimal("2.00")));
+        dao.insereTodos(List.of(
+                new Produto(3, "C", new BigDecimal("3.00")),
+                new Produto(1, "A", new BigDecimal("1.00"))));
+
+        assertEquals(3, dao.listarTodos().size());
+        assertNotNull(dao.pesquisarPorId(1));
+        assertNotNull(dao.pesquisarPorId(3));
+    }
+
+    @Test
+    @DisplayName("Não deve inserir nada do lote se algum ID já existir ou se repetir")
+    void insereTodos_QuandoHaIdDuplicado_NaoDeveInserirNenhum() {
+        dao.insere(new Produto(2, "Existente", new BigDecimal("2.00")));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> dao.insereTodos(List.of(
+                new Produto(1, "A", new BigDecimal("1.00")),
+                new Produto(2, "Duplicado", new BigDecimal("2.00")))));
+        assertEquals("Erro: Já existe um produto com o ID 2.", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> dao.insereTodos(List.of(
+                new Produto(5, "A", new BigDecimal("1.00")),
+                new Produto(5, "Repetido no lote", new BigDecimal("2.00")))));
+
+        assertEquals(1, dao.listarTodos().size());
+        assertNull(dao.pesquisarPorId(1));
+        assertNull(dao.pesquisarPorId(5));
+    }
+
+    @Test
+    @DisplayName("Deve pesquisar e excluir vários IDs de uma vez")
+    void pesquisarEExcluirPorIds_DevemRespeitarOrdemEExistencia() {
+        Produto produto1 = new Produto(1, "A", new BigDecimal("1.00"));
+        Produto produto3 = new Produto(3, "C", new BigDecimal("3.00"));
+        dao.insereTodos(List.of(produto1, produto3));
+
+        assertEquals(Arrays.asList(produto3, null, produto1), dao.pesquisarPorIds(new int[]{3, 2, 1}));
+        assertEquals(1, dao.excluirTodos(new int[]{3, 4}));
+        assertEquals(1, dao.listarTodos().size());
+        assertNull(dao.pesquisarPorId(3));
+    }
+
+    @Test
+    @DisplayName("Deve consultar faixa, extremos, próximo ID e páginas pela ordem do TreeSet")
+    void consultasPorOrdem_DevemRespeitarOrdemPorId() {
+        assertNull(dao.primeiro());
+        assertNull(dao.ultimo());
+        for (int id : new int[]{40, 10, 30, 20, 50}) {
+            dao.insere(new Produto(id, "P" + id, BigDecimal.ONE));
+        }
+
+        assertEquals(List.of(20, 30), dao.listarPorFaixaDeId(15, 30).stream().map(Produto::getId).toList());
+        assertTrue(dao.listarPorFaixaDeId(30, 15).isEmpty());
+        assertEquals(10, dao.primeiro().getId());
+        assertEquals(50, dao.ultimo().getId());
+        assertEquals(30, dao.proximoApos(20).getId());
+        assertNull(dao.proximoApos(50));
+
+        assertEquals(List.of(10, 20), dao.pagina(null, 2).stream().map(Produto::getId).toList());
+        assertEquals(List.of(30, 40), dao.pagina(20, 2).stream().map(Produto::getId).toList());
+        assertEquals(List.of(50), dao.pagina(40, 2).stream().map(Produto::getId).toList());
+        assertThrows(IllegalArgumentException.class, () -> dao.pagina(null, -1));
+    }
+
+    @Test
+    @DisplayName("Alterar deve trocar o produto guardado sem modificar a instância antiga")
+    void alterar_DeveSubstituirInstanciaSemModificarAntiga() {
+        Produto original = new Produto(1, "Original", new BigDecimal("10.00"));
+        dao.insere(original);
+
+        assertTrue(dao.alterar(original.withNome("Alterado")));
+
+        assertEquals("Original", original.getNome());
+        assertEquals("Alterado", dao.pesquisarPorId(1).getNome());
+        assertEquals(0, new BigDecimal("10.00").compareTo(dao.pesquisarPorId(1).getPreco()));
+        assertThrows(UnsupportedOperationException.class, () -> dao.listarTodos().clear());
+        assertEquals(1, dao.listarTodos().size());
+    }
+
+    @Test
+    @DisplayName("Stream e forEach devem percorrer em ordem de ID, inclusive em paralelo")
+    void stream_DevePercorrerEmOrdemDeId() {
+        for (int id = 100; id >= 1; id--) {
+            dao.insere(new Produto(id, "P" + id, BigDecimal.valueOf(id)));
+        }
+
+        assertEquals(50, dao.stream().filter(p -> p.getId() % 2 == 0).count());
+        assertEquals(BigDecimal.valueOf(5050), dao.stream().parallel().map(Produto::getPreco).reduce(BigDecimal.ZERO, BigDecimal::add));
+        assertEquals(dao.stream().map(Produto::getId).toList(), dao.stream().parallel().map(Produto::getId).toList());
+        List<Integer> visitados = new ArrayList<>();
+        dao.forEach(p -> visitados.add(p.getId()));
+        assertEquals(1, visitados.get(0));
+        assertEquals(100, visitados.size());
+    }
 }
\ No newline at end of file